@@ -0,0 +1,60 @@
+// Build aset statis ke output Maven (default target/classes/static/assets) supaya
+// ikut masuk jar: halaman tidak lagi bergantung pada CDN dan bisa dipakai offline.
+//
+//   npm run build                       -> target/classes/static/assets
+//   npm run build -- <folder-assets>    -> folder lain
+//
+// Varian .gz/.br dibuat terpisah (npm run precompress) setelah Maven menyalin
+// src/main/resources, supaya vendor bootstrap ikut dikompres.
+import { execFileSync } from 'node:child_process';
+import { cpSync, mkdirSync, readFileSync, writeFileSync } from 'node:fs';
+import { createRequire } from 'node:module';
+import { dirname, extname, join, resolve } from 'node:path';
+import { fileURLToPath } from 'node:url';
+
+const require = createRequire(import.meta.url);
+const frontend = resolve(dirname(fileURLToPath(import.meta.url)), '..');
+const project = resolve(frontend, '..');
+const outAssets = resolve(process.argv[2] ?? join(project, 'target/classes/static/assets'));
+const dist = join(outAssets, 'dist');
+
+const FONT_WEIGHTS = [300, 400, 500, 600, 700];
+
+function packageDir(name) {
+  return dirname(require.resolve(`${name}/package.json`));
+}
+
+// 1. Tailwind: hanya class yang benar-benar dipakai template
+function buildCss() {
+  execFileSync(process.execPath, [
+    require.resolve('tailwindcss/lib/cli.js'),
+    '-c', 'tailwind.config.js',
+    '-i', 'src/app.css',
+    '-o', join(dist, 'app.css'),
+    '--minify',
+  ], { cwd: frontend, stdio: 'inherit' });
+}
+
+// 2. Ikon & font yang sebelumnya diambil dari unpkg, cdnjs, dan Google Fonts
+function copyVendor() {
+  cpSync(join(packageDir('lucide'), 'dist/umd/lucide.min.js'), join(dist, 'lucide.min.js'));
+
+  const fontAwesome = packageDir('@fortawesome/fontawesome-free');
+  cpSync(join(fontAwesome, 'css/all.min.css'), join(dist, 'fontawesome/css/all.min.css'));
+  cpSync(join(fontAwesome, 'webfonts'), join(dist, 'fontawesome/webfonts'), { recursive: true });
+
+  const jakarta = packageDir('@fontsource/plus-jakarta-sans');
+  const css = FONT_WEIGHTS
+    .map((weight) => readFileSync(join(jakarta, `${weight}.css`), 'utf8').replaceAll('url(./files/', 'url(files/'))
+    .join('\n');
+  mkdirSync(join(dist, 'fonts'), { recursive: true });
+  writeFileSync(join(dist, 'fonts/plus-jakarta-sans.css'), css);
+  cpSync(join(jakarta, 'files'), join(dist, 'fonts/files'), {
+    recursive: true,
+    filter: (src) => extname(src) === '' || src.endsWith('.woff2'),
+  });
+}
+
+mkdirSync(dist, { recursive: true });
+buildCss();
+copyVendor();
@@ -0,0 +1,58 @@
+// Membuat varian .gz dan .br untuk aset teks, dilayani langsung oleh
+// EncodedResourceResolver (lihat WebMvcConfig) tanpa kompresi saat request.
+import { readdirSync, readFileSync, statSync, writeFileSync } from 'node:fs';
+import { extname, join, resolve } from 'node:path';
+import { constants, brotliCompressSync, gzipSync } from 'node:zlib';
+import { fileURLToPath } from 'node:url';
+
+const COMPRESSIBLE = new Set(['.css', '.js', '.svg', '.json', '.txt', '.ttf', '.eot']);
+const MIN_SIZE = 1024;
+// Varian hanya disimpan jika menghemat minimal 10%
+const MAX_RATIO = 0.9;
+
+function* walk(dir) {
+  for (const entry of readdirSync(dir, { withFileTypes: true })) {
+    const path = join(dir, entry.name);
+    if (entry.isDirectory()) {
+      yield* walk(path);
+    } else {
+      yield path;
+    }
+  }
+}
+
+function writeIfSmaller(target, data, original) {
+  if (data.length < original.length * MAX_RATIO) {
+    writeFileSync(target, data);
+    return true;
+  }
+  return false;
+}
+
+export function precompress(root) {
+  let count = 0;
+  for (const file of walk(root)) {
+    if (!COMPRESSIBLE.has(extname(file)) || statSync(file).size < MIN_SIZE) {
+      continue;
+    }
+    const original = readFileSync(file);
+    const gzip = gzipSync(original, { level: 9 });
+    const brotli = brotliCompressSync(original, {
+      params: {
+        [constants.BROTLI_PARAM_QUALITY]: constants.BROTLI_MAX_QUALITY,
+        [constants.BROTLI_PARAM_SIZE_HINT]: original.length,
+      },
+    });
+    const wroteGzip = writeIfSmaller(`${file}.gz`, gzip, original);
+    const wroteBrotli = writeIfSmaller(`${file}.br`, brotli, original);
+    if (wroteGzip || wroteBrotli) {
+      count++;
+    }
+  }
+  return count;
+}
+
+if (process.argv[1] === fileURLToPath(import.meta.url)) {
+  const root = resolve(process.argv[2] ?? '../target/classes/static/assets');
+  console.log(`precompress: ${precompress(root)} file di ${root}`);
+}
@@ -0,0 +1,9 @@
+/** @type {import('tailwindcss').Config} */
+export default {
+  // Semua class yang dipakai template Thymeleaf (termasuk yang ditulis lewat th:classappend)
+  content: ['../src/main/resources/templates/**/*.html'],
+  theme: {
+    extend: {},
+  },
+  plugins: [],
+};
@@ -0,0 +1,101 @@
+// Perbandingan ukuran dan waktu encode/decode JSON vs CBOR vs Smile untuk envelope
+// ApiResponse daftar produk (bentuk yang sama dengan GET /api/food-products).
+//
+//   ./mvnw -q compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+//   java -cp "target/classes:$(cat target/classpath.txt)" scripts/PayloadFormatBench.java
+//
+// Satu baris JSON per (format, jumlah produk): ukuran mentah, ukuran setelah gzip,
+// dan median waktu encode/decode dalam mikrodetik.
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import org.delcom.app.configs.ApiResponse;
+import org.delcom.app.entities.FoodProduct;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+public class PayloadFormatBench {
+
+    private static final int[] SIZES = { 1, 100, 1_000, 10_000 };
+    private static final String[] STATUSES = { "PASSED", "REJECTED", "PENDING" };
+    private static final String[] CATEGORIES = { "Makanan Ringan", "Minuman", "Bahan Baku" };
+
+    public static void main(String[] args) throws Exception {
+        Map<String, ObjectMapper> formats = Map.of(
+                "json", JsonMapper.builder().build(),
+                "cbor", CBORMapper.builder().build(),
+                "smile", SmileMapper.builder().build());
+
+        for (int size : SIZES) {
+            ApiResponse<Map<String, List<FoodProduct>>> body = new ApiResponse<>(
+                    "success", "Berhasil mengambil data produk", Map.of("food_products", products(size)));
+            int iterations = Math.max(20, 200_000 / size);
+
+            for (String format : List.of("json", "cbor", "smile")) {
+                ObjectMapper mapper = formats.get(format);
+                byte[] encoded = mapper.writeValueAsBytes(body);
+
+                long[] encode = new long[iterations];
+                long[] decode = new long[iterations];
+                for (int i = 0; i < iterations * 2; i++) {
+                    long start = System.nanoTime();
+                    mapper.writeValueAsBytes(body);
+                    long middle = System.nanoTime();
+                    mapper.readValue(encoded, Map.class);
+                    long end = System.nanoTime();
+                    // Separuh pertama dianggap pemanasan JIT
+                    if (i >= iterations) {
+                        encode[i - iterations] = middle - start;
+                        decode[i - iterations] = end - middle;
+                    }
+                }
+
+                System.out.printf("{\"format\":\"%s\",\"products\":%d,\"bytes\":%d,\"gzip_bytes\":%d,"
+                        + "\"encode_us\":%.1f,\"decode_us\":%.1f}%n",
+                        format, size, encoded.length, gzip(encoded).length, median(encode), median(decode));
+            }
+        }
+    }
+
+    // Data mirip produksi: nama/kategori berulang, catatan pendek, tanggal terisi
+    private static List<FoodProduct> products(int size) {
+        List<FoodProduct> products = new ArrayList<>(size);
+        UUID userId = UUID.randomUUID();
+        for (int i = 0; i < size; i++) {
+            FoodProduct product = new FoodProduct(userId, "BATCH-2025-" + i, "Keripik Tempe Pedas " + (i % 50),
+                    CATEGORIES[i % CATEGORIES.length], STATUSES[i % STATUSES.length],
+                    i % 4 == 0 ? "Kemasan sedikit penyok, isi aman" : null);
+            product.setId(UUID.randomUUID());
+            product.setProductImage("ab/cd/" + UUID.randomUUID() + ".jpg");
+            product.setImageSize(180_000L + i);
+            product.setProductionDate(LocalDate.of(2025, 1, 1).plusDays(i % 200));
+            product.setExpiryDate(LocalDate.of(2025, 7, 1).plusDays(i % 200));
+            products.add(product);
+        }
+        return products;
+    }
+
+    private static byte[] gzip(byte[] data) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static double median(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2] / 1000.0;
+    }
+}
@@ -0,0 +1,123 @@
+// Beban sederhana untuk membandingkan mode platform thread vs virtual thread.
+// Dijalankan sebagai single-file program (tanpa dependency):
+//
+//   java scripts/ThreadModeBench.java <base-url> <concurrency> <duration-seconds>
+//
+// Setiap worker bergantian memanggil list produk, statistik, dan profil user dengan
+// token milik user bench, lalu hasilnya dicetak sebagai satu objek JSON di stdout.
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class ThreadModeBench {
+
+    private static final String[] PATHS = { "/api/food-products", "/api/food-products/stats", "/api/users/me" };
+    private static final String EMAIL = "bench@delcom.org";
+    private static final String PASSWORD = "bench-password";
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 400;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        String token = login(client, baseUrl);
+
+        LongAdder errors = new LongAdder();
+        Queue<long[]> results = new ConcurrentLinkedQueue<>();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+
+        try (var workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < concurrency; w++) {
+                int offset = w;
+                workers.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    for (int i = offset; System.nanoTime() < deadline; i++) {
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + PATHS[i % PATHS.length]))
+                                .header("Authorization", "Bearer " + token)
+                                .timeout(Duration.ofSeconds(60))
+                                .build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.increment();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors.increment();
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = (System.nanoTime() - start) / 1_000;
+                    }
+                    results.add(Arrays.copyOf(latencies, count));
+                });
+            }
+        }
+
+        long[] all = results.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        String admin = get(client, baseUrl + "/api/admin/virtual-threads", token);
+
+        System.out.printf("{\"concurrency\":%d,\"duration_seconds\":%d,\"requests\":%d,\"errors\":%d,"
+                + "\"throughput_rps\":%.1f,\"latency_ms\":{\"p50\":%.2f,\"p95\":%.2f,\"p99\":%.2f,\"max\":%.2f},"
+                + "\"admin_virtual_threads\":%s}%n",
+                concurrency, seconds, all.length, errors.sum(), all.length / (double) seconds,
+                percentile(all, 0.50), percentile(all, 0.95), percentile(all, 0.99), percentile(all, 1.0), admin);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1000.0;
+    }
+
+    // Daftarkan user bench (abaikan jika sudah ada), lalu login untuk mendapat token
+    private static String login(HttpClient client, String baseUrl) throws Exception {
+        String body = "{\"name\":\"Bench\",\"email\":\"" + EMAIL + "\",\"password\":\"" + PASSWORD + "\"}";
+        client.send(post(baseUrl + "/api/auth/register", body), HttpResponse.BodyHandlers.discarding());
+        HttpResponse<String> response = client.send(post(baseUrl + "/api/auth/login", body),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = Pattern.compile("\"authToken\"\\s*:\\s*\"([^\"]+)\"").matcher(response.body());
+        if (!matcher.find()) {
+            throw new IllegalStateException("Login bench gagal: " + response.statusCode() + " " + response.body());
+        }
+        return matcher.group(1);
+    }
+
+    private static HttpRequest post(String url, String json) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    // Response admin disisipkan utuh (JSON) supaya jumlah pinning ikut tercatat
+    private static String get(HttpClient client, String url, String token) {
+        try {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(url))
+                    .header("Authorization", "Bearer " + token).build(), HttpResponse.BodyHandlers.ofString());
+            return response.statusCode() == 200 ? response.body() : "null";
+        } catch (Exception e) {
+            return "null";
+        }
+    }
+}
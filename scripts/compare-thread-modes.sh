@@ -0,0 +1,49 @@
+#!/usr/bin/env bash
+# Bandingkan throughput & latency mode platform thread vs virtual thread pada
+# satu mesin, dengan database dan data yang sama.
+#
+#   ./mvnw -B package -DskipTests -Dfrontend.skip=true
+#   scripts/compare-thread-modes.sh [concurrency] [duration-seconds]
+#
+# Hasil per mode (JSON + rekaman JFR) ditulis ke target/thread-mode-bench/.
+# Statistik pinning di JSON butuh ID user bench di ADMIN_USER_IDS (app.admin.user-ids).
+# Pinning bisa dilihat dengan: jfr print --events jdk.VirtualThreadPinned <file>.jfr
+set -euo pipefail
+
+CONCURRENCY="${1:-400}"
+DURATION="${2:-30}"
+PORT="${PORT:-18080}"
+MGMT_PORT="${MGMT_PORT:-18090}"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+OUT="$ROOT/target/thread-mode-bench"
+JAR="$(ls "$ROOT"/target/*.jar | grep -v '\.original$' | head -n 1)"
+
+mkdir -p "$OUT"
+
+run_mode() {
+  local mode="$1" virtual="$2"
+  echo ">> mode=$mode (spring.threads.virtual.enabled=$virtual)"
+
+  java -XX:StartFlightRecording=filename="$OUT/$mode.jfr",settings=profile \
+    -jar "$JAR" --server.port="$PORT" --management.server.port="$MGMT_PORT" \
+    --spring.threads.virtual.enabled="$virtual" \
+    --spring.devtools.restart.enabled=false --app.admin.user-ids="${ADMIN_USER_IDS:-}" >"$OUT/$mode.log" 2>&1 &
+  local pid=$!
+  trap 'kill $pid 2>/dev/null || true' EXIT
+
+  for _ in $(seq 1 120); do
+    curl -s -o /dev/null "http://localhost:$PORT/auth/login" && break
+    sleep 1
+  done
+
+  # Pemanasan JIT & pool koneksi, hasilnya dibuang
+  java "$ROOT/scripts/ThreadModeBench.java" "http://localhost:$PORT" "$CONCURRENCY" 10 >/dev/null
+  java "$ROOT/scripts/ThreadModeBench.java" "http://localhost:$PORT" "$CONCURRENCY" "$DURATION" | tee "$OUT/$mode.json"
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  trap - EXIT
+}
+
+run_mode platform false
+run_mode virtual true
@@ -0,0 +1,30 @@
+-- Perubahan skema untuk profile prod (ddl-auto=validate: Hibernate hanya mengecek,
+-- tidak membuat kolom/tabel/indeks). Jalankan sekali sebelum deploy versi ini:
+--
+--   psql "$DATABASE_URL" -v ON_ERROR_STOP=1 -f scripts/db/V1__food_products_image_version_indexes.sql
+--
+-- Aman dijalankan ulang (IF NOT EXISTS). Jangan pakai psql -1 / --single-transaction:
+-- CREATE INDEX CONCURRENTLY tidak boleh berada di dalam transaksi, dan dipakai agar
+-- tulis ke food_products tidak terkunci selama indeks dibangun.
+
+-- Foto sampel dinormalisasi: ukuran (byte) dan status pemrosesan async.
+-- NULL pada baris lama = foto lama yang sudah siap (READY).
+ALTER TABLE food_products ADD COLUMN IF NOT EXISTS image_size bigint;
+ALTER TABLE food_products ADD COLUMN IF NOT EXISTS image_status varchar(16);
+
+-- Optimistic locking (@Version); baris lama mulai dari versi 0
+ALTER TABLE food_products ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+
+-- Versi koleksi per user untuk ETag daftar produk, dibagi semua instance
+CREATE TABLE IF NOT EXISTS collection_versions (
+    user_id uuid PRIMARY KEY,
+    version bigint NOT NULL
+);
+
+-- Indeks per user untuk filter dan urutan daftar produk
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_food_products_user_created ON food_products (user_id, created_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_food_products_user_expiry ON food_products (user_id, expiry_date);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_food_products_user_production ON food_products (user_id, production_date);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_food_products_user_status ON food_products (user_id, inspection_status);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_food_products_user_category ON food_products (user_id, category);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_food_products_user_name ON food_products (user_id, product_name);
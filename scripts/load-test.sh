@@ -0,0 +1,78 @@
+#!/usr/bin/env bash
+# Load test berulang dengan campuran trafik realistis (scripts/loadtest/LoadTest.java).
+#
+#   ./mvnw -B package -DskipTests -Dfrontend.skip=true
+#   scripts/load-test.sh [label] [opsi LoadTest ...]
+#
+#   scripts/load-test.sh v1.4.0 --users=20 --products-per-user=5000 --concurrency=100
+#
+# Database:
+#   - LOADTEST_DB_URL tidak di-set: PostgreSQL sekali pakai di container (docker/podman,
+#     data di tmpfs), dihapus setelah selesai. Setiap run mulai dari database kosong.
+#   - LOADTEST_DB_URL di-set (misalnya jdbc:postgresql://localhost:5432/db_loadtest):
+#     PostgreSQL lokal, dengan LOADTEST_DB_USER / LOADTEST_DB_PASSWORD. Jangan arahkan
+#     ke database development; produk milik user loadtest-* dihapus saat seeding.
+#
+# Hasil JSON ditulis ke target/load-test/<label>.json (label default: git describe),
+# log aplikasi ke target/load-test/<label>.log.
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+LABEL="${1:-$(git -C "$ROOT" describe --always --dirty 2>/dev/null || echo dev)}"
+shift || true
+PORT="${PORT:-18080}"
+MGMT_PORT="${MGMT_PORT:-18090}"
+OUT="$ROOT/target/load-test"
+JAR="$(ls "$ROOT"/target/*.jar | grep -v '\.original$' | head -n 1)"
+CONTAINER=""
+APP_PID=""
+
+mkdir -p "$OUT"
+
+cleanup() {
+  [[ -n "$APP_PID" ]] && kill "$APP_PID" 2>/dev/null && wait "$APP_PID" 2>/dev/null || true
+  [[ -n "$CONTAINER" ]] && "$ENGINE" rm -f "$CONTAINER" >/dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+# Classpath untuk LoadTest.java (driver JDBC untuk seeding)
+if [[ ! -f "$ROOT/target/classpath.txt" ]]; then
+  (cd "$ROOT" && ./mvnw -q dependency:build-classpath -Dmdep.outputFile=target/classpath.txt)
+fi
+
+if [[ -z "${LOADTEST_DB_URL:-}" ]]; then
+  ENGINE="$(command -v docker || command -v podman)"
+  DB_PORT="${LOADTEST_DB_PORT:-55432}"
+  CONTAINER="food-products-loadtest-$$"
+  "$ENGINE" run -d --name "$CONTAINER" -p "$DB_PORT:5432" --tmpfs /var/lib/postgresql/data \
+    -e POSTGRES_PASSWORD=loadtest -e POSTGRES_DB=db_loadtest postgres:17-alpine >/dev/null
+  for _ in $(seq 1 60); do
+    "$ENGINE" exec "$CONTAINER" pg_isready -U postgres -d db_loadtest >/dev/null 2>&1 && break
+    sleep 1
+  done
+  LOADTEST_DB_URL="jdbc:postgresql://localhost:$DB_PORT/db_loadtest"
+  LOADTEST_DB_USER=postgres
+  LOADTEST_DB_PASSWORD=loadtest
+fi
+DB_USER="${LOADTEST_DB_USER:-postgres}"
+DB_PASSWORD="${LOADTEST_DB_PASSWORD:-postgres}"
+
+echo ">> label=$LABEL db=$LOADTEST_DB_URL"
+java -jar "$JAR" --server.port="$PORT" --management.server.port="$MGMT_PORT" \
+  --spring.datasource.url="$LOADTEST_DB_URL" \
+  --spring.datasource.username="$DB_USER" \
+  --spring.datasource.password="$DB_PASSWORD" \
+  --spring.devtools.restart.enabled=false \
+  --spring.thymeleaf.cache=true \
+  --app.access-log.file="$OUT/$LABEL-access.log" >"$OUT/$LABEL.log" 2>&1 &
+APP_PID=$!
+
+for _ in $(seq 1 120); do
+  curl -s -o /dev/null "http://localhost:$PORT/auth/login" && break
+  sleep 1
+done
+
+java -cp "$(cat "$ROOT/target/classpath.txt")" "$ROOT/scripts/loadtest/LoadTest.java" \
+  --base-url="http://localhost:$PORT" \
+  --db-url="$LOADTEST_DB_URL" --db-user="$DB_USER" --db-password="$DB_PASSWORD" \
+  --label="$LABEL" --out="$OUT/$LABEL.json" "$@"
@@ -0,0 +1,575 @@
+// Load test dengan campuran trafik berbobot, untuk membandingkan rilis pada satu mesin.
+// Dijalankan sebagai single-file program dengan classpath proyek (driver PostgreSQL
+// untuk seeding):
+//
+//   ./mvnw -q compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+//   java -cp "$(cat target/classpath.txt)" scripts/loadtest/LoadTest.java --base-url=http://localhost:18080
+//
+// Biasanya dipanggil lewat scripts/load-test.sh, yang juga menyiapkan database dan
+// menjalankan aplikasi. Opsi (--nama=nilai) dan default-nya ada di DEFAULTS.
+//
+// Tahapan:
+//   1. Setiap user load test didaftarkan, login web (session + token CSRF) dan login API.
+//   2. Produk milik user tersebut dihapus lalu di-seed ulang lewat JDBC (products-per-user),
+//      ditambah images-per-user produk berfoto lewat API supaya ada file untuk diambil.
+//   3. Worker (virtual thread, closed loop) memilih operasi sesuai bobot --mix dengan
+//      Random ber-seed tetap, sehingga urutan operasi sama di setiap run. Hasil selama
+//      warmup dibuang.
+//   4. Satu objek JSON: throughput dan persentil latensi per operasi.
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.imageio.ImageIO;
+
+public class LoadTest {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("base-url", "http://localhost:8080");
+        DEFAULTS.put("db-url", "jdbc:postgresql://localhost:5432/db_pbo_app");
+        DEFAULTS.put("db-user", "postgres");
+        DEFAULTS.put("db-password", "postgres");
+        DEFAULTS.put("users", "10");
+        DEFAULTS.put("products-per-user", "1000");
+        DEFAULTS.put("images-per-user", "5");
+        DEFAULTS.put("concurrency", "50");
+        DEFAULTS.put("warmup-seconds", "15");
+        DEFAULTS.put("duration-seconds", "60");
+        DEFAULTS.put("mix", "login=2,dashboard=20,search=30,create=8,status=25,image=15");
+        DEFAULTS.put("seed", "42");
+        DEFAULTS.put("label", "");
+        DEFAULTS.put("out", "");
+    }
+
+    enum Op {
+        LOGIN, DASHBOARD, SEARCH, CREATE, STATUS, IMAGE;
+
+        String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final String PASSWORD = "loadtest-password";
+    private static final String[] CATEGORIES = { "Snack", "Minuman", "Bumbu", "Frozen", "Roti" };
+    private static final String[] NAMES = { "Keripik Singkong", "Sambal Bawang", "Teh Melati", "Nugget Ayam",
+            "Roti Gandum", "Kopi Susu", "Rendang Kemasan", "Kerupuk Udang" };
+    private static final String[] SEARCHES = { "keripik", "sambal", "teh", "nugget", "roti", "kopi", "xyz" };
+    private static final String[] STATUSES = { "PENDING", "PASSED", "REJECTED" };
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+    private static final Pattern AUTH_TOKEN = Pattern.compile("\"authToken\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern VERSION = Pattern.compile("\"version\"\\s*:\\s*(\\d+)");
+
+    private static Map<String, String> config;
+    private static String baseUrl;
+    private static byte[] image;
+
+    public static void main(String[] args) throws Exception {
+        config = parse(args);
+        baseUrl = config.get("base-url");
+        System.setProperty("java.awt.headless", "true");
+        image = jpeg();
+
+        int userCount = intOption("users");
+        int concurrency = intOption("concurrency");
+        int warmup = intOption("warmup-seconds");
+        int duration = intOption("duration-seconds");
+        long seed = Long.parseLong(config.get("seed"));
+        EnumMap<Op, Integer> mix = mix(config.get("mix"));
+
+        long seedStart = System.nanoTime();
+        List<VirtualUser> users = new ArrayList<>();
+        for (int u = 0; u < userCount; u++) {
+            users.add(VirtualUser.signIn(u));
+        }
+        seedProducts(users);
+        double seedSeconds = (System.nanoTime() - seedStart) / 1e9;
+
+        // Worker w memakai user w % users; produk user dibagi rata ke worker-nya, jadi
+        // transisi status tidak pernah bentrok versi antar worker
+        List<Worker> workers = new ArrayList<>();
+        for (int w = 0; w < concurrency; w++) {
+            VirtualUser user = users.get(w % userCount);
+            int slots = concurrency / userCount + (w % userCount < concurrency % userCount ? 1 : 0);
+            workers.add(new Worker(w, user, w / userCount, slots, new SplittableRandom(seed + w), mix));
+        }
+
+        long measureStart = System.nanoTime() + Duration.ofSeconds(warmup).toNanos();
+        long deadline = measureStart + Duration.ofSeconds(duration).toNanos();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Worker worker : workers) {
+                executor.submit(() -> worker.run(measureStart, deadline));
+            }
+        }
+
+        String json = report(workers, duration, seedSeconds);
+        System.out.println(json);
+        if (!config.get("out").isEmpty()) {
+            Path out = Path.of(config.get("out"));
+            if (out.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(out.toAbsolutePath().getParent());
+            }
+            Files.writeString(out, json + "\n");
+        }
+    }
+
+    // ==================================================================================
+    // Seeding
+    // ==================================================================================
+
+    private static void seedProducts(List<VirtualUser> users) throws Exception {
+        int perUser = intOption("products-per-user");
+        try (Connection db = DriverManager.getConnection(config.get("db-url"), config.get("db-user"),
+                config.get("db-password"))) {
+            db.setAutoCommit(false);
+            for (VirtualUser user : users) {
+                try (PreparedStatement select = db.prepareStatement("select id from users where email = ?")) {
+                    select.setString(1, user.email);
+                    try (ResultSet rs = select.executeQuery()) {
+                        if (!rs.next()) {
+                            throw new IllegalStateException("User load test tidak ditemukan: " + user.email);
+                        }
+                        user.id = rs.getObject(1, UUID.class);
+                    }
+                }
+                try (PreparedStatement delete = db.prepareStatement("delete from food_products where user_id = ?")) {
+                    delete.setObject(1, user.id);
+                    delete.executeUpdate();
+                }
+                insertProducts(db, user, perUser);
+                db.commit();
+            }
+        }
+
+        // Produk berfoto lewat API (jalur upload yang sebenarnya), lalu tunggu jika mode async
+        int imagesPerUser = intOption("images-per-user");
+        for (VirtualUser user : users) {
+            for (int i = 0; i < imagesPerUser; i++) {
+                HttpResponse<String> response = user.createProduct("LT-IMG-" + user.index + "-" + i, "Foto " + i);
+                if (response.statusCode() >= 400) {
+                    throw new IllegalStateException("Gagal membuat produk berfoto: " + response.body());
+                }
+            }
+        }
+        long waitUntil = System.nanoTime() + Duration.ofSeconds(60).toNanos();
+        try (Connection db = DriverManager.getConnection(config.get("db-url"), config.get("db-user"),
+                config.get("db-password"))) {
+            for (VirtualUser user : users) {
+                do {
+                    user.loadProducts(db);
+                } while (user.images.size() < imagesPerUser && System.nanoTime() < waitUntil && pause());
+            }
+        }
+    }
+
+    private static void insertProducts(Connection db, VirtualUser user, int count) throws Exception {
+        String sql = "insert into food_products (id, user_id, batch_code, product_name, category, inspection_status,"
+                + " notes, production_date, expiry_date, created_at, updated_at, version)"
+                + " values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+        SplittableRandom random = new SplittableRandom(user.index);
+        LocalDate today = LocalDate.now();
+        try (PreparedStatement insert = db.prepareStatement(sql)) {
+            for (int i = 0; i < count; i++) {
+                LocalDate produced = today.minusDays(random.nextInt(365));
+                Timestamp created = Timestamp.valueOf(LocalDateTime.now().minusMinutes(random.nextInt(500_000)));
+                insert.setObject(1, UUID.randomUUID());
+                insert.setObject(2, user.id);
+                insert.setString(3, "LT-" + user.index + "-" + i);
+                insert.setString(4, NAMES[random.nextInt(NAMES.length)] + " " + i);
+                insert.setString(5, CATEGORIES[random.nextInt(CATEGORIES.length)]);
+                insert.setString(6, STATUSES[random.nextInt(STATUSES.length)]);
+                insert.setString(7, "Data load test");
+                insert.setObject(8, produced);
+                insert.setObject(9, produced.plusDays(30 + random.nextInt(700)));
+                insert.setTimestamp(10, created);
+                insert.setTimestamp(11, created);
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static boolean pause() {
+        try {
+            Thread.sleep(500);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // ==================================================================================
+    // User load test: satu session (cookie + CSRF) dan satu token API
+    // ==================================================================================
+
+    static final class VirtualUser {
+
+        final int index;
+        final String email;
+        final HttpClient client;
+        UUID id;
+        String csrf;
+        String token;
+        List<UUID> products = List.of();
+        List<Long> versions = List.of();
+        List<String> images = List.of();
+
+        private VirtualUser(int index) {
+            this.index = index;
+            this.email = "loadtest-" + index + "@delcom.org";
+            this.client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .cookieHandler(new CookieManager())
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+        }
+
+        static VirtualUser signIn(int index) throws Exception {
+            VirtualUser user = new VirtualUser(index);
+            // Token CSRF tersimpan di session; POST/PUT/PATCH (termasuk /api) wajib membawanya
+            HttpResponse<String> page = user.send(user.request("/auth/login").GET());
+            Matcher csrf = CSRF.matcher(page.body());
+            if (!csrf.find()) {
+                throw new IllegalStateException("Token CSRF tidak ditemukan di /auth/login (" + page.statusCode() + ")");
+            }
+            user.csrf = csrf.group(1);
+
+            String credentials = "{\"name\":\"Load Test " + index + "\",\"email\":\"" + user.email
+                    + "\",\"password\":\"" + PASSWORD + "\"}";
+            user.send(user.json("/api/auth/register", credentials)); // abaikan jika sudah terdaftar
+
+            HttpResponse<String> web = user.send(user.request("/auth/login/post")
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString("email=" + encode(user.email) + "&password="
+                            + encode(PASSWORD) + "&_csrf=" + encode(user.csrf))));
+            if (web.statusCode() != 302) {
+                throw new IllegalStateException("Login web gagal untuk " + user.email + ": " + web.statusCode());
+            }
+            HttpResponse<String> api = user.login();
+            Matcher token = AUTH_TOKEN.matcher(api.body());
+            if (!token.find()) {
+                throw new IllegalStateException("Login API gagal: " + api.statusCode() + " " + api.body());
+            }
+            user.token = token.group(1);
+            return user;
+        }
+
+        // Operasi "login" di mix memakai ini juga; token hasilnya tidak dipakai worker lain
+        HttpResponse<String> login() throws Exception {
+            return send(json("/api/auth/login", "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}"));
+        }
+
+        HttpResponse<String> createProduct(String batchCode, String name) throws Exception {
+            String boundary = "----loadtest" + UUID.randomUUID();
+            ByteArrayOutputStream body = new ByteArrayOutputStream(image.length + 1024);
+            Map<String, String> fields = Map.of("batchCode", batchCode, "productName", name,
+                    "category", "Snack", "inspectionStatus", "PENDING");
+            for (Map.Entry<String, String> field : fields.entrySet()) {
+                body.writeBytes(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + field.getKey()
+                        + "\"\r\n\r\n" + field.getValue() + "\r\n").getBytes(StandardCharsets.UTF_8));
+            }
+            body.writeBytes(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"imageFile\";"
+                    + " filename=\"sample.jpg\"\r\nContent-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+            body.writeBytes(image);
+            body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+            return send(api("/api/food-products")
+                    .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray())));
+        }
+
+        void loadProducts(Connection db) throws Exception {
+            List<UUID> ids = new ArrayList<>();
+            List<Long> currentVersions = new ArrayList<>();
+            List<String> files = new ArrayList<>();
+            try (PreparedStatement select = db.prepareStatement(
+                    "select id, version, product_image from food_products where user_id = ? order by batch_code")) {
+                select.setObject(1, id);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(rs.getObject(1, UUID.class));
+                        currentVersions.add(rs.getLong(2));
+                        if (rs.getString(3) != null) {
+                            files.add(rs.getString(3));
+                        }
+                    }
+                }
+            }
+            products = ids;
+            versions = currentVersions;
+            images = files;
+        }
+
+        HttpRequest.Builder request(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(60));
+        }
+
+        HttpRequest.Builder api(String path) {
+            return request(path).header("Authorization", "Bearer " + token).header("X-CSRF-TOKEN", csrf);
+        }
+
+        HttpRequest.Builder json(String path, String body) {
+            return request(path)
+                    .header("Content-Type", "application/json")
+                    .header("X-CSRF-TOKEN", csrf)
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+
+        HttpResponse<String> send(HttpRequest.Builder builder) throws Exception {
+            return client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        }
+    }
+
+    // ==================================================================================
+    // Worker: closed loop, satu operasi per iterasi
+    // ==================================================================================
+
+    static final class Worker {
+
+        final int index;
+        final VirtualUser user;
+        final SplittableRandom random;
+        final Op[] table;
+        final List<Integer> own = new ArrayList<>();
+        final long[] versions;
+        final EnumMap<Op, long[]> latencies = new EnumMap<>(Op.class);
+        final EnumMap<Op, Integer> counts = new EnumMap<>(Op.class);
+        final EnumMap<Op, Integer> errors = new EnumMap<>(Op.class);
+        int created;
+
+        Worker(int index, VirtualUser user, int slot, int slots, SplittableRandom random, EnumMap<Op, Integer> mix) {
+            this.index = index;
+            this.user = user;
+            this.random = random;
+            List<Op> weighted = new ArrayList<>();
+            mix.forEach((op, weight) -> {
+                for (int i = 0; i < weight; i++) {
+                    weighted.add(op);
+                }
+            });
+            this.table = weighted.toArray(Op[]::new);
+            for (int i = slot; i < user.products.size(); i += slots) {
+                own.add(i);
+            }
+            this.versions = new long[user.products.size()];
+            for (int i = 0; i < versions.length; i++) {
+                versions[i] = user.versions.get(i);
+            }
+            for (Op op : Op.values()) {
+                latencies.put(op, new long[256]);
+                counts.put(op, 0);
+                errors.put(op, 0);
+            }
+        }
+
+        void run(long measureStart, long deadline) {
+            while (true) {
+                long start = System.nanoTime();
+                if (start >= deadline) {
+                    return;
+                }
+                Op op = table[random.nextInt(table.length)];
+                boolean ok;
+                try {
+                    ok = execute(op) < 400;
+                } catch (Exception e) {
+                    ok = false;
+                }
+                long end = System.nanoTime();
+                if (start < measureStart || end > deadline) {
+                    continue;
+                }
+                if (!ok) {
+                    errors.merge(op, 1, Integer::sum);
+                    continue;
+                }
+                long[] values = latencies.get(op);
+                int count = counts.get(op);
+                if (count == values.length) {
+                    values = Arrays.copyOf(values, count * 2);
+                    latencies.put(op, values);
+                }
+                values[count] = (end - start) / 1_000;
+                counts.put(op, count + 1);
+            }
+        }
+
+        private int execute(Op op) throws Exception {
+            return switch (op) {
+                case LOGIN -> user.login().statusCode();
+                case DASHBOARD -> user.send(user.request("/food-products")).statusCode();
+                case SEARCH -> user.send(user.api("/api/food-products?search="
+                        + SEARCHES[random.nextInt(SEARCHES.length)])).statusCode();
+                case CREATE -> user.createProduct("LT-RUN-" + index + "-" + UUID.randomUUID(),
+                        NAMES[random.nextInt(NAMES.length)] + " baru " + created++).statusCode();
+                case STATUS -> transition();
+                case IMAGE -> user.images.isEmpty() ? 404 : user.send(user.request("/food-products/image/"
+                        + user.images.get(random.nextInt(user.images.size())))).statusCode();
+            };
+        }
+
+        private int transition() throws Exception {
+            if (own.isEmpty()) {
+                return 404;
+            }
+            int product = own.get(random.nextInt(own.size()));
+            String body = "{\"inspectionStatus\":\"" + STATUSES[random.nextInt(STATUSES.length)]
+                    + "\",\"notes\":\"load test\",\"version\":" + versions[product] + "}";
+            HttpResponse<String> response = user.send(user.api("/api/food-products/" + user.products.get(product)
+                    + "/status")
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString(body)));
+            Matcher matcher = VERSION.matcher(response.body());
+            if (response.statusCode() == 200 && matcher.find()) {
+                versions[product] = Long.parseLong(matcher.group(1));
+            }
+            return response.statusCode();
+        }
+    }
+
+    // ==================================================================================
+    // Laporan
+    // ==================================================================================
+
+    private static String report(List<Worker> workers, int duration, double seedSeconds) {
+        StringBuilder json = new StringBuilder(2048);
+        long totalRequests = 0;
+        long totalErrors = 0;
+        StringBuilder operations = new StringBuilder();
+        for (Op op : Op.values()) {
+            List<long[]> parts = new ArrayList<>();
+            long errors = 0;
+            for (Worker worker : workers) {
+                parts.add(Arrays.copyOf(worker.latencies.get(op), worker.counts.get(op)));
+                errors += worker.errors.get(op);
+            }
+            long[] sorted = parts.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            totalRequests += sorted.length;
+            totalErrors += errors;
+            if (operations.length() > 0) {
+                operations.append(',');
+            }
+            operations.append(String.format(Locale.ROOT,
+                    "\"%s\":{\"requests\":%d,\"errors\":%d,\"throughput_rps\":%.1f,"
+                            + "\"latency_ms\":{\"p50\":%.2f,\"p90\":%.2f,\"p95\":%.2f,\"p99\":%.2f,\"max\":%.2f}}",
+                    op.key(), sorted.length, errors, sorted.length / (double) duration,
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.95),
+                    percentile(sorted, 0.99), percentile(sorted, 1.0)));
+        }
+
+        json.append("{\"label\":\"").append(config.get("label")).append('"');
+        json.append(",\"java\":\"").append(System.getProperty("java.version")).append('"');
+        json.append(",\"cpus\":").append(Runtime.getRuntime().availableProcessors());
+        json.append(",\"config\":{");
+        String separator = "";
+        for (String key : List.of("users", "products-per-user", "images-per-user", "concurrency", "warmup-seconds",
+                "duration-seconds", "mix", "seed")) {
+            String value = config.get(key);
+            json.append(separator).append('"').append(key.replace('-', '_')).append("\":");
+            json.append(value.matches("\\d+") ? value : "\"" + value + "\"");
+            separator = ",";
+        }
+        json.append('}');
+        json.append(String.format(Locale.ROOT, ",\"seed_seconds\":%.1f,\"requests\":%d,\"errors\":%d,"
+                + "\"throughput_rps\":%.1f", seedSeconds, totalRequests, totalErrors, totalRequests / (double) duration));
+        json.append(",\"operations\":{").append(operations).append("}}");
+        return json.toString();
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1000.0;
+    }
+
+    // ==================================================================================
+    // Opsi
+    // ==================================================================================
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Opsi harus berbentuk --nama=nilai: " + arg);
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            if (!DEFAULTS.containsKey(key)) {
+                throw new IllegalArgumentException("Opsi tidak dikenal: " + key + " (tersedia: " + DEFAULTS.keySet() + ")");
+            }
+            options.put(key, arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+
+    private static int intOption(String key) {
+        return Integer.parseInt(config.get(key));
+    }
+
+    // "login=2,dashboard=20,..." -> bobot per operasi; operasi yang tidak disebut berbobot 0
+    private static EnumMap<Op, Integer> mix(String value) {
+        EnumMap<Op, Integer> mix = new EnumMap<>(Op.class);
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split("=");
+            mix.put(Op.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(pair[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("Mix tidak boleh kosong: " + value);
+        }
+        return mix;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    // Foto sampel 1600x1200 (cukup besar untuk jalur resize ImageIngestService)
+    private static byte[] jpeg() throws Exception {
+        BufferedImage picture = new BufferedImage(1600, 1200, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = picture.createGraphics();
+        graphics.setPaint(new GradientPaint(0, 0, new Color(200, 120, 40), 1600, 1200, new Color(30, 90, 160)));
+        graphics.fillRect(0, 0, 1600, 1200);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(picture, "jpg", out);
+        return out.toByteArray();
+    }
+}
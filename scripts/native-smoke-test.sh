@@ -0,0 +1,81 @@
+#!/usr/bin/env bash
+# Smoke test binary native image (scripts/native/SmokeTest.java) terhadap PostgreSQL
+# sekali pakai, plus waktu startup dan memori (RSS) binary.
+#
+#   ./mvnw -B -Pnative native:compile -DskipTests
+#   scripts/native-smoke-test.sh [argumen tambahan untuk aplikasi...]
+#
+# Database: sama seperti scripts/load-test.sh (container docker/podman, atau
+# SMOKE_DB_URL / SMOKE_DB_USER / SMOKE_DB_PASSWORD untuk PostgreSQL lokal). Binary
+# dijalankan dengan profile prod; karena database kosong, skema dibuat dengan
+# ddl-auto=update. Log aplikasi: target/native-smoke/app.log.
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+BINARY="${BINARY:-$ROOT/target/Food-Products}"
+PORT="${PORT:-18081}"
+MGMT_PORT="${MGMT_PORT:-18091}"
+OUT="$ROOT/target/native-smoke"
+CONTAINER=""
+APP_PID=""
+
+if [[ ! -x "$BINARY" ]]; then
+  echo "Binary $BINARY tidak ada. Build dulu: ./mvnw -B -Pnative native:compile -DskipTests" >&2
+  exit 1
+fi
+rm -rf "$OUT"
+mkdir -p "$OUT"
+
+cleanup() {
+  [[ -n "$APP_PID" ]] && kill "$APP_PID" 2>/dev/null && wait "$APP_PID" 2>/dev/null || true
+  [[ -n "$CONTAINER" ]] && "$ENGINE" rm -f "$CONTAINER" >/dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+if [[ -z "${SMOKE_DB_URL:-}" ]]; then
+  ENGINE="$(command -v docker || command -v podman)"
+  DB_PORT="${SMOKE_DB_PORT:-55433}"
+  CONTAINER="food-products-smoke-$$"
+  "$ENGINE" run -d --name "$CONTAINER" -p "$DB_PORT:5432" --tmpfs /var/lib/postgresql/data \
+    -e POSTGRES_PASSWORD=smoke -e POSTGRES_DB=db_smoke postgres:17-alpine >/dev/null
+  for _ in $(seq 1 60); do
+    "$ENGINE" exec "$CONTAINER" pg_isready -U postgres -d db_smoke >/dev/null 2>&1 && break
+    sleep 1
+  done
+  SMOKE_DB_URL="jdbc:postgresql://localhost:$DB_PORT/db_smoke"
+  SMOKE_DB_USER=postgres
+  SMOKE_DB_PASSWORD=smoke
+fi
+
+START_MS=$(date +%s%3N)
+"$BINARY" --server.port="$PORT" --management.server.port="$MGMT_PORT" \
+  --spring.profiles.active=prod \
+  --spring.jpa.hibernate.ddl-auto=update \
+  --spring.datasource.url="$SMOKE_DB_URL" \
+  --spring.datasource.username="${SMOKE_DB_USER:-postgres}" \
+  --spring.datasource.password="${SMOKE_DB_PASSWORD:-postgres}" \
+  --app.upload.dir="$OUT/uploads" \
+  --app.access-log.file="$OUT/access.log" "$@" >"$OUT/app.log" 2>&1 &
+APP_PID=$!
+
+READY=""
+for _ in $(seq 1 600); do
+  if curl -s -o /dev/null -f "http://localhost:$PORT/auth/login"; then
+    READY=1
+    break
+  fi
+  kill -0 "$APP_PID" 2>/dev/null || break
+  sleep 0.1
+done
+if [[ -z "$READY" ]]; then
+  echo "Binary tidak siap; log:" >&2
+  tail -n 50 "$OUT/app.log" >&2
+  exit 1
+fi
+echo ">> siap melayani request dalam $(( $(date +%s%3N) - START_MS )) ms"
+grep -o "Started Application in [0-9.]* seconds[^)]*)" "$OUT/app.log" || true
+echo ">> RSS setelah startup: $(awk '/VmRSS/ {print $2 " " $3}' "/proc/$APP_PID/status")"
+
+java "$ROOT/scripts/native/SmokeTest.java" --base-url="http://localhost:$PORT" \
+  --management-url="http://localhost:$MGMT_PORT"
+echo ">> RSS setelah smoke test: $(awk '/VmRSS/ {print $2 " " $3}' "/proc/$APP_PID/status")"
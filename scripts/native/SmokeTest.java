@@ -0,0 +1,288 @@
+// Smoke test untuk aplikasi yang sedang berjalan, terutama binary native image: setiap
+// langkah menyentuh bagian yang butuh hint (template Thymeleaf, JSON entity, jjwt, proxy
+// AuthContext, proxy JDBC, ImageIO, resource statis). Tanpa dependency di luar JDK:
+//
+//   java scripts/native/SmokeTest.java --base-url=http://localhost:18081
+//
+// Biasanya dipanggil lewat scripts/native-smoke-test.sh, yang juga menyiapkan database
+// dan menjalankan binary. Keluar dengan kode 1 jika ada langkah yang gagal.
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.imageio.ImageIO;
+
+public class SmokeTest {
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+    private static final Pattern AUTH_TOKEN = Pattern.compile("\"authToken\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*\"([0-9a-f-]{36})\"");
+    private static final Pattern VERSION = Pattern.compile("\"version\"\\s*:\\s*(\\d+)");
+    private static final Pattern IMAGE = Pattern.compile("\"productImage\"\\s*:\\s*\"([^\"]+)\"");
+
+    private static final String PASSWORD = "smoke-test-password";
+
+    private final String baseUrl;
+    private final String managementUrl;
+    private final HttpClient client = HttpClient.newBuilder()
+            .cookieHandler(new CookieManager())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String email = "smoke-" + UUID.randomUUID() + "@delcom.org";
+    private final String productName = "Keripik Smoke " + UUID.randomUUID().toString().substring(0, 8);
+    private String csrf;
+    private String token;
+    private String productId;
+    private long version;
+    private String imageFile;
+
+    SmokeTest(String baseUrl, String managementUrl) {
+        this.baseUrl = baseUrl;
+        this.managementUrl = managementUrl;
+    }
+
+    interface Step {
+        void run() throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = "http://localhost:8080";
+        String managementUrl = "http://localhost:9090";
+        for (String arg : args) {
+            if (arg.startsWith("--base-url=")) {
+                baseUrl = arg.substring("--base-url=".length());
+            } else if (arg.startsWith("--management-url=")) {
+                managementUrl = arg.substring("--management-url=".length());
+            } else {
+                throw new IllegalArgumentException("Opsi tidak dikenal: " + arg);
+            }
+        }
+        SmokeTest test = new SmokeTest(baseUrl, managementUrl);
+        Map<String, Step> steps = new LinkedHashMap<>();
+        steps.put("halaman login (Thymeleaf, CSRF, header)", test::loginPage);
+        steps.put("aset statis", test::staticAsset);
+        steps.put("actuator health dan prometheus", test::actuator);
+        steps.put("register dan login API (jjwt)", test::apiLogin);
+        steps.put("token tidak valid ditolak", test::invalidToken);
+        steps.put("info user (AuthContext, JSON entity)", test::currentUser);
+        steps.put("buat produk berfoto (multipart, ImageIO, JPA)", test::createProduct);
+        steps.put("detail produk API", test::getProduct);
+        steps.put("transisi status (optimistic locking)", test::transitionStatus);
+        steps.put("login web dan dashboard", test::dashboard);
+        steps.put("halaman detail produk", test::detailPage);
+        steps.put("foto produk", test::productImage);
+
+        List<String> failed = new ArrayList<>();
+        for (Map.Entry<String, Step> step : steps.entrySet()) {
+            long start = System.nanoTime();
+            try {
+                step.getValue().run();
+                System.out.printf("PASS  %5d ms  %s%n", (System.nanoTime() - start) / 1_000_000, step.getKey());
+            } catch (Exception | AssertionError e) {
+                failed.add(step.getKey());
+                System.out.printf("FAIL  %5d ms  %s: %s%n", (System.nanoTime() - start) / 1_000_000, step.getKey(),
+                        e.getMessage());
+            }
+        }
+        System.out.printf("%n%d/%d langkah lulus%n", steps.size() - failed.size(), steps.size());
+        if (!failed.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    // ==================================================================================
+    // Langkah
+    // ==================================================================================
+
+    void loginPage() throws Exception {
+        HttpResponse<String> page = expect(200, request("/auth/login").GET());
+        Matcher matcher = CSRF.matcher(page.body());
+        check(matcher.find(), "token CSRF tidak ada di form login");
+        csrf = matcher.group(1);
+        check(page.headers().firstValue("X-Request-Id").isPresent(), "header X-Request-Id tidak ada");
+        check(page.headers().firstValue("Server-Timing").isPresent(), "header Server-Timing tidak ada");
+    }
+
+    void staticAsset() throws Exception {
+        HttpResponse<byte[]> logo = client.send(request("/assets/images/logo.png").GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        check(logo.statusCode() == 200 && logo.body().length > 0, "logo.png: " + logo.statusCode());
+    }
+
+    // Actuator di port management; port aplikasi tidak melayani metrics tanpa login
+    void actuator() throws Exception {
+        check(expect(200, management("/actuator/health").GET()).body().contains("UP"), "health bukan UP");
+        check(expect(200, management("/actuator/prometheus").GET()).body().contains("http_server_requests"),
+                "metrics http_server_requests tidak ada");
+        expect(302, request("/actuator/prometheus").GET());
+    }
+
+    void apiLogin() throws Exception {
+        expect(200, json("/api/auth/register",
+                "{\"name\":\"Smoke Test\",\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}"));
+        HttpResponse<String> login = expect(200, json("/api/auth/login",
+                "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}"));
+        token = find(AUTH_TOKEN, login.body(), "authToken");
+    }
+
+    void invalidToken() throws Exception {
+        expect(401, request("/api/users/me").header("Authorization", "Bearer bukan.token.valid").GET());
+    }
+
+    void currentUser() throws Exception {
+        HttpResponse<String> me = expect(200, api("/api/users/me").GET());
+        check(me.body().contains(email), "email user tidak ada di response");
+        check(!me.body().contains(PASSWORD), "password ikut terkirim");
+    }
+
+    void createProduct() throws Exception {
+        String boundary = "----smoke" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        Map<String, String> fields = Map.of("batchCode", "SMOKE-" + UUID.randomUUID(), "productName", productName,
+                "category", "Snack", "inspectionStatus", "PENDING");
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            body.writeBytes(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + field.getKey()
+                    + "\"\r\n\r\n" + field.getValue() + "\r\n").getBytes(StandardCharsets.UTF_8));
+        }
+        body.writeBytes(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"imageFile\";"
+                + " filename=\"sample.png\"\r\nContent-Type: image/png\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(samplePng());
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        HttpResponse<String> created = send(api("/api/food-products")
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray())));
+        check(created.statusCode() == 200 || created.statusCode() == 201 || created.statusCode() == 202,
+                "status " + created.statusCode() + ": " + created.body());
+        productId = find(ID, created.body(), "id");
+    }
+
+    void getProduct() throws Exception {
+        // Foto async (202) bisa belum selesai diproses; tunggu sebentar sampai nama file ada
+        for (int attempt = 0; attempt < 50 && imageFile == null; attempt++) {
+            HttpResponse<String> product = expect(200, api("/api/food-products/" + productId).GET());
+            check(product.body().contains(productName), "nama produk tidak ada di response");
+            version = Long.parseLong(find(VERSION, product.body(), "version"));
+            Matcher image = IMAGE.matcher(product.body());
+            if (image.find()) {
+                imageFile = image.group(1);
+            } else {
+                Thread.sleep(100);
+            }
+        }
+        check(imageFile != null, "productImage kosong");
+    }
+
+    void transitionStatus() throws Exception {
+        HttpResponse<String> updated = expect(200, api("/api/food-products/" + productId + "/status")
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(
+                        "{\"inspectionStatus\":\"PASSED\",\"notes\":\"smoke test\",\"version\":" + version + "}")));
+        check(Long.parseLong(find(VERSION, updated.body(), "version")) > version, "versi tidak naik");
+    }
+
+    void dashboard() throws Exception {
+        expect(302, request("/auth/login/post")
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("email=" + encode(email) + "&password=" + encode(PASSWORD)
+                        + "&_csrf=" + encode(csrf))));
+        check(expect(200, request("/food-products").GET()).body().contains(productName),
+                "produk tidak tampil di dashboard");
+    }
+
+    void detailPage() throws Exception {
+        check(expect(200, request("/food-products/" + productId).GET()).body().contains(productName),
+                "nama produk tidak tampil di halaman detail");
+    }
+
+    void productImage() throws Exception {
+        HttpResponse<byte[]> image = client.send(request("/food-products/image/" + imageFile).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        check(image.statusCode() == 200, "status " + image.statusCode());
+        check(image.headers().firstValue("Content-Type").orElse("").startsWith("image/"), "bukan image");
+        check(ImageIO.read(new ByteArrayInputStream(image.body())) != null, "foto tidak bisa dibaca");
+    }
+
+    // ==================================================================================
+    // HTTP
+    // ==================================================================================
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+    }
+
+    private HttpRequest.Builder management(String path) {
+        return HttpRequest.newBuilder(URI.create(managementUrl + path)).timeout(Duration.ofSeconds(30));
+    }
+
+    private HttpRequest.Builder api(String path) {
+        return request(path).header("Authorization", "Bearer " + token).header("X-CSRF-TOKEN", csrf);
+    }
+
+    private HttpRequest.Builder json(String path, String body) {
+        return request(path)
+                .header("Content-Type", "application/json")
+                .header("X-CSRF-TOKEN", csrf)
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder builder) throws Exception {
+        return client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> expect(int status, HttpRequest.Builder builder) throws Exception {
+        HttpResponse<String> response = send(builder);
+        check(response.statusCode() == status, "status " + response.statusCode() + " (harus " + status + "): "
+                + abbreviate(response.body()));
+        return response;
+    }
+
+    private static String find(Pattern pattern, String body, String name) {
+        Matcher matcher = pattern.matcher(body);
+        check(matcher.find(), name + " tidak ada di response: " + abbreviate(body));
+        return matcher.group(1);
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    private static String abbreviate(String body) {
+        return body.length() > 200 ? body.substring(0, 200) + "..." : body;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] samplePng() throws Exception {
+        BufferedImage image = new BufferedImage(320, 240, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(new Color(0xE0A030));
+        graphics.fillRect(0, 0, 320, 240);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
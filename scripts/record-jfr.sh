@@ -0,0 +1,22 @@
+#!/usr/bin/env bash
+# Jalankan aplikasi dengan rekaman JFR: profile bawaan JDK + event bisnis
+# (scripts/jfr/food-products.jfc).
+#
+#   ./mvnw -B package -DskipTests -Dfrontend.skip=true
+#   scripts/record-jfr.sh [argumen tambahan untuk aplikasi...]
+#
+# Rekaman ditulis ke target/jfr/food-products.jfr saat aplikasi berhenti (Ctrl+C).
+# Contoh analisis:
+#   jfr print --events org.delcom.ProductOperation target/jfr/food-products.jfr
+#   jfr summary target/jfr/food-products.jfr
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+OUT="$ROOT/target/jfr"
+JAR="$(ls "$ROOT"/target/*.jar | grep -v '\.original$' | head -n 1)"
+
+mkdir -p "$OUT"
+jfr configure --input profile,"$ROOT/scripts/jfr/food-products.jfc" --output "$OUT/food-products-profile.jfc"
+
+exec java -XX:StartFlightRecording=filename="$OUT/food-products.jfr",settings="$OUT/food-products-profile.jfc",dumponexit=true \
+  -jar "$JAR" --spring.devtools.restart.enabled=false "$@"
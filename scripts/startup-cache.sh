@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+# Startup produksi cepat: jar AOT Spring + cache AOT JDK (AppCDS: kelas yang sudah
+# di-load dan di-link) dari satu training run.
+#
+#   ./mvnw -B -Paot package -DskipTests
+#   scripts/startup-cache.sh train [argumen aplikasi...]   # sekali per build/deploy
+#   scripts/startup-cache.sh run   [argumen aplikasi...]
+#
+# Training run menjalankan aplikasi sampai context selesai refresh lalu berhenti
+# (spring.context.exit=onRefresh), jadi butuh database yang sama seperti run biasa
+# (skema divalidasi). Cache hanya berlaku untuk jar dan versi JDK yang sama; buat
+# ulang setiap kali jar berubah. Tanpa cache, "run" tetap jalan (lebih lambat).
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+OUT="$ROOT/target/startup"
+JAR="$(ls "$ROOT"/target/*.jar | grep -v '\.original$' | head -n 1)"
+APP_JAR="$OUT/$(basename "$JAR")"
+CACHE="$OUT/app.aot"
+MODE="${1:-run}"
+shift || true
+
+JAVA_OPTS=(-Dspring.aot.enabled=true)
+APP_ARGS=(--spring.profiles.active=prod "$@")
+
+case "$MODE" in
+  train)
+    # Layout hasil extract (bukan fat jar) agar classpath bisa di-cache
+    rm -rf "$OUT"
+    java -Djarmode=tools -jar "$JAR" extract --destination "$OUT"
+    java -XX:AOTCacheOutput="$CACHE" "${JAVA_OPTS[@]}" -Dspring.context.exit=onRefresh \
+      -jar "$APP_JAR" "${APP_ARGS[@]}"
+    echo ">> cache: $CACHE"
+    ;;
+  run)
+    if [[ -f "$CACHE" ]]; then
+      JAVA_OPTS+=(-XX:AOTCache="$CACHE")
+    else
+      echo ">> $CACHE belum ada, jalankan '$0 train' dulu; start tanpa cache" >&2
+      APP_JAR="$JAR"
+    fi
+    exec java "${JAVA_OPTS[@]}" -jar "$APP_JAR" "${APP_ARGS[@]}"
+    ;;
+  *)
+    echo "Penggunaan: $0 {train|run} [argumen aplikasi...]" >&2
+    exit 1
+    ;;
+esac
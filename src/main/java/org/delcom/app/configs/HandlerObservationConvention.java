@@ -0,0 +1,43 @@
+package org.delcom.app.configs;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.delcom.app.services.AccessLogService;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+
+/**
+ * Menambahkan tag {@code handler} ("FoodProductController.getAllProducts") ke
+ * metrics {@code http.server.requests}, sehingga histogram latensi bisa dibaca
+ * per method controller/view. Nama dihitung sekali per method lalu di-cache.
+ */
+@Component
+public class HandlerObservationConvention extends DefaultServerRequestObservationConvention {
+
+    static final String NONE = "none";
+
+    private final Map<Method, KeyValue> handlerTags = new ConcurrentHashMap<>();
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context).and(handler(context));
+    }
+
+    private KeyValue handler(ServerRequestObservationContext context) {
+        Object handler = context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod method) {
+            return handlerTags.computeIfAbsent(method.getMethod(),
+                    key -> KeyValue.of("handler", AccessLogService.handlerName(method)));
+        }
+        // Aset statis, 404 tanpa handler, dsb.
+        return KeyValue.of("handler", handler != null ? handler.getClass().getSimpleName() : NONE);
+    }
+}
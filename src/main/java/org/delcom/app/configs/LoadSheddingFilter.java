@@ -0,0 +1,138 @@
+package org.delcom.app.configs;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.delcom.app.services.LoadSheddingService;
+import org.delcom.app.services.LoadSheddingService.Permit;
+import org.delcom.app.services.LoadSheddingService.Priority;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Menolak request dengan 503 + {@code Retry-After} saat {@link LoadSheddingService}
+ * tidak memberi tempat, sebelum Spring Security (session, CSRF) dan database
+ * tersentuh. Berjalan setelah {@link ServerTimingFilter}, jadi response yang ditolak
+ * tetap membawa {@code X-Request-Id}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    static final String REJECTED_MESSAGE = "Server sedang sibuk, coba lagi sebentar lagi";
+    // Bentuk sama dengan ApiResponse gagal, ditulis langsung tanpa Jackson
+    static final String REJECTED_JSON = "{\"status\":\"fail\",\"message\":\"" + REJECTED_MESSAGE + "\"}";
+
+    private final LoadSheddingService loadSheddingService;
+
+    public LoadSheddingFilter(LoadSheddingService loadSheddingService) {
+        this.loadSheddingService = loadSheddingService;
+    }
+
+    // Aset statis dan actuator tidak memakai database; endpoint admin tetap bisa dipakai saat
+    // overload; stream SSE terbuka sampai 30 menit dan tidak dihitung sebagai request berjalan
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !loadSheddingService.isEnabled()
+                || uri.startsWith("/assets/")
+                || uri.startsWith("/actuator/")
+                || uri.startsWith("/.well-known")
+                || uri.startsWith("/api/admin/")
+                || uri.equals("/api/food-products/events");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Permit permit = loadSheddingService.tryAcquire(priority(request));
+        if (permit == null) {
+            reject(request, response);
+            return;
+        }
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            // Export streaming (StreamingResponseBody) masih menulis dari thread lain
+            async = request.isAsyncStarted();
+            if (async) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(permit));
+            }
+        } finally {
+            if (!async) {
+                permit.close();
+            }
+        }
+    }
+
+    // ==================================================================================
+    // Prioritas: tulis dan auth paling akhir ditolak, daftar/dashboard paling awal
+    // ==================================================================================
+    static Priority priority(HttpServletRequest request) {
+        String method = request.getMethod();
+        String uri = request.getRequestURI();
+        if (!method.equals("GET") && !method.equals("HEAD")) {
+            return Priority.CRITICAL;
+        }
+        if (uri.startsWith("/auth/") || uri.startsWith("/api/auth/")) {
+            return Priority.CRITICAL;
+        }
+        if (uri.equals("/") || uri.equals("/food-products") || uri.equals("/food-products/list")
+                || uri.equals("/api/food-products") || uri.equals("/api/food-products/stats")
+                || uri.equals("/api/food-products/batches")) {
+            return Priority.LOW;
+        }
+        return Priority.NORMAL;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, Integer.toString(loadSheddingService.getRetryAfterSeconds()));
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        if (request.getRequestURI().startsWith("/api/")) {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write(REJECTED_JSON);
+        } else {
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write(REJECTED_MESSAGE);
+        }
+    }
+
+    private record ReleaseOnComplete(Permit permit) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permit.close();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            permit.close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            permit.close();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // startAsync ulang menghapus listener; daftar lagi agar permit tetap dilepas
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
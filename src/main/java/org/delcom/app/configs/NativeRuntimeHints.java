@@ -0,0 +1,98 @@
+package org.delcom.app.configs;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import org.delcom.app.dto.BatchOperationForm;
+import org.delcom.app.dto.BatchRequestForm;
+import org.delcom.app.dto.FoodProductForm;
+import org.delcom.app.dto.LoginForm;
+import org.delcom.app.dto.ProductFilter;
+import org.delcom.app.dto.ProductImageForm;
+import org.delcom.app.dto.RegisterForm;
+import org.delcom.app.dto.StatusTransitionForm;
+import org.delcom.app.dto.UploadSessionForm;
+import org.delcom.app.entities.AuthToken;
+import org.delcom.app.entities.FoodProduct;
+import org.delcom.app.entities.User;
+import org.delcom.app.services.AccessLogService;
+import org.delcom.app.services.BatchOperationResult;
+import org.delcom.app.services.ImageCacheService;
+import org.delcom.app.services.InspectionEvent;
+import org.delcom.app.services.LoadSheddingService;
+import org.delcom.app.services.SlowQueryLogService;
+import org.delcom.app.services.UploadAdmissionService;
+import org.delcom.app.services.VirtualThreadMonitorService;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * Hint untuk build native image (profile Maven {@code native}). Bean, repository,
+ * mapping entity Hibernate, dan proxy {@code @RequestScope} {@link AuthContext} sudah
+ * dihasilkan Spring AOT; di sini hanya akses reflection, proxy, dan resource yang
+ * tidak terlihat dari definisi bean.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    // Dibaca/ditulis lewat getter-setter: JSON (Jackson), data binding form, dan ekspresi Thymeleaf
+    static final List<Class<?>> BINDING_TYPES = List.of(
+            User.class, FoodProduct.class, AuthToken.class, ApiResponse.class,
+            BatchOperationForm.class, BatchRequestForm.class, FoodProductForm.class, LoginForm.class,
+            ProductFilter.class, ProductImageForm.class, RegisterForm.class, StatusTransitionForm.class,
+            UploadSessionForm.class,
+            BatchOperationResult.class, InspectionEvent.class, AccessLogService.AccessLogStats.class,
+            ImageCacheService.ImageCacheStats.class, UploadAdmissionService.AdmissionStats.class,
+            VirtualThreadMonitorService.PinningStats.class, SlowQueryLogService.SlowQuery.class,
+            LoadSheddingService.LoadSheddingStats.class);
+
+    // jjwt-api memuat implementasinya lewat nama kelas (Classes.newInstance / invokeStatic),
+    // serializer JSON lewat ServiceLoader dari jjwt-jackson
+    static final List<String> JJWT_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardCurves",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    // Interface yang dibungkus SlowQueryDataSource: JDK proxy, lalu diteruskan lewat Method.invoke
+    static final List<Class<?>> JDBC_PROXY_TYPES = List.of(
+            Connection.class, Statement.class, PreparedStatement.class, CallableStatement.class, ResultSet.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                BINDING_TYPES.toArray(Class<?>[]::new));
+        // Proxy request scope meneruskan panggilan ke instance AuthContext milik request
+        hints.reflection().registerType(AuthContext.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        for (String type : JJWT_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.io.*");
+
+        for (Class<?> type : JDBC_PROXY_TYPES) {
+            hints.proxies().registerJdkProxy(type);
+            hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+
+        // Template dan layout Thymeleaf (termasuk yang hanya dirujuk dari template lain)
+        hints.resources().registerPattern("templates/**");
+    }
+}
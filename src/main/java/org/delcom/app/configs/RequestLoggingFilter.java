@@ -4,27 +4,36 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.beans.factory.annotation.Value;
+
+import org.delcom.app.services.AccessLogService;
+import org.delcom.app.services.RequestTiming;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.io.IOException;
-import java.util.Arrays;
 
+/**
+ * Mencatat setiap request ke access log, beserta correlation ID dan rincian
+ * {@link RequestTiming} dari {@link ServerTimingFilter}. Di thread request hanya
+ * ada dua {@code nanoTime}, satu objek entri, dan satu CAS ke ring buffer; format
+ * dan I/O dikerjakan writer {@link AccessLogService} di background.
+ */
 @Component
 public class RequestLoggingFilter extends OncePerRequestFilter {
 
-    private static final String RESET = "\u001B[0m";
-    private static final String GREEN = "\u001B[32m";
-    private static final String YELLOW = "\u001B[33m";
-    private static final String RED = "\u001B[31m";
-    private static final String CYAN = "\u001B[36m";
+    private final AccessLogService accessLogService;
 
-    @Value("${server.port:8080}")
-    private int port;
+    public RequestLoggingFilter(AccessLogService accessLogService) {
+        this.accessLogService = accessLogService;
+    }
 
-    @Value("${spring.devtools.livereload.enabled:false}")
-    private boolean livereload;
+    // Aset statis tidak dicatat (banyak, dan sudah di-cache permanen oleh browser), begitu juga /.well-known
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return uri.startsWith("/assets/") || uri.startsWith("/.well-known");
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -32,45 +41,27 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
             FilterChain filterChain)
             throws ServletException, IOException {
 
-        long start = System.currentTimeMillis();
-        filterChain.doFilter(request, response);
-        long duration = System.currentTimeMillis() - start;
-
-        int status = response.getStatus();
-        String color;
-        if (status >= 500) {
-            color = RED;
-        } else if (status >= 400) {
-            color = YELLOW;
-        } else if (status >= 200) {
-            color = GREEN;
-        } else {
-            color = CYAN;
-        }
-
-        // Ambil asal kode dari stacktrace
-        StackTraceElement[] stack = Thread.currentThread().getStackTrace();
-        StackTraceElement origin = Arrays.stream(stack)
-                .filter(s -> s.getClassName().startsWith("org.delcom"))
-                .findFirst()
-                .orElse(stack[stack.length - 1]);
-        String originInfo = origin.getClassName() + "." + origin.getMethodName() + ":" + origin.getLineNumber();
-
-        String remoteAddr = request.getRemoteAddr();
-
-        String log = String.format(
-                "%s%-6s %s %d %dms%s [%s] from %s",
-                color,
-                request.getMethod(),
-                request.getRequestURI(),
-                status,
-                duration,
-                RESET,
-                originInfo,
-                remoteAddr);
-
-        if (!request.getRequestURI().startsWith("/.well-known")) {
-            System.out.println(log);
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long duration = System.nanoTime() - start;
+            // Rincian fase dibekukan di sini, sebelum entri diserahkan ke thread writer
+            RequestTiming timing = RequestTiming.current();
+            if (timing != null) {
+                timing.finish();
+            }
+            // Handler yang benar-benar menangani request (HandlerMethod controller), diisi DispatcherServlet
+            accessLogService.log(new AccessLogService.Entry(
+                    System.currentTimeMillis(),
+                    request.getMethod(),
+                    request.getRequestURI(),
+                    response.getStatus(),
+                    duration,
+                    request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE),
+                    request.getRemoteAddr(),
+                    (String) request.getAttribute(ServerTimingFilter.REQUEST_ID_ATTRIBUTE),
+                    timing));
         }
     }
 }
@@ -1,9 +1,11 @@
 package org.delcom.app.configs;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
@@ -11,6 +13,10 @@ import org.springframework.security.web.SecurityFilterChain;
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
+        // Port actuator terpisah (management.server.port); -1 = actuator ikut port aplikasi
+        @Value("${management.server.port:-1}")
+        private int managementPort = -1;
+
         @Bean
         SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
                 http
@@ -19,9 +25,15 @@ public class SecurityConfig {
                                                         res.sendRedirect("/auth/login");
                                                 }))
                                 .authorizeHttpRequests(auth -> auth
-                                                .requestMatchers("/auth/**", "/assets/**", "/api/**",
+                                                .requestMatchers("/auth/**", "/api/**",
                                                                 "/css/**", "/js/**")
                                                 .permitAll()
+                                                .requestMatchers("/actuator/health")
+                                                .permitAll()
+                                                // Scrape Prometheus hanya lewat port management, yang tidak dibuka
+                                                // ke publik; di port aplikasi /actuator/prometheus butuh login
+                                                .requestMatchers(request -> request.getLocalPort() == managementPort)
+                                                .permitAll()
                                                 .anyRequest().authenticated())
 
                                 .formLogin(form -> form.disable())
@@ -36,6 +48,12 @@ public class SecurityConfig {
                 return http.build();
         }
 
+        // Aset statis ber-hash tidak perlu melewati filter chain security sama sekali
+        @Bean
+        WebSecurityCustomizer staticAssetsCustomizer() {
+                return web -> web.ignoring().requestMatchers("/assets/**");
+        }
+
         @Bean
         public PasswordEncoder passwordEncoder() {
                 return new BCryptPasswordEncoder();
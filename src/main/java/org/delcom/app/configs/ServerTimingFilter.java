@@ -0,0 +1,148 @@
+package org.delcom.app.configs;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import org.delcom.app.services.RequestTiming;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Filter terluar: memberi setiap request correlation ID ({@code X-Request-Id},
+ * juga di MDC sebagai {@code requestId}) dan membuka {@link RequestTiming}.
+ * <p>
+ * Header {@code Server-Timing} harus terkirim sebelum body, jadi response
+ * dibungkus dan header ditulis tepat saat body pertama kali diminta
+ * ({@code getWriter}/{@code getOutputStream}), saat {@code sendError}/redirect,
+ * atau di akhir request untuk response tanpa body. Karena Thymeleaf diatur
+ * merender ke buffer dulu ({@code produce-partial-output-while-processing=false}),
+ * fase render sudah lengkap saat body halaman mulai ditulis.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+    public static final String REQUEST_ID_ATTRIBUTE = ServerTimingFilter.class.getName() + ".requestId";
+    public static final String MDC_KEY = "requestId";
+
+    // ID dari client/proxy dipakai ulang hanya jika aman ditulis ke log dan header
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._:-]{1,64}");
+
+    private final boolean serverTimingEnabled;
+
+    public ServerTimingFilter(@Value("${app.server-timing.enabled:true}") boolean serverTimingEnabled) {
+        this.serverTimingEnabled = serverTimingEnabled;
+    }
+
+    // Aset statis tidak diberi request ID maupun Server-Timing: tidak dicatat di access log
+    // dan tidak menyentuh database, jadi hanya menambah byte di setiap response
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return uri.startsWith("/assets/") || uri.startsWith("/.well-known");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String requestId = requestId(request.getHeader(REQUEST_ID_HEADER));
+        request.setAttribute(REQUEST_ID_ATTRIBUTE, requestId);
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        MDC.put(MDC_KEY, requestId);
+
+        RequestTiming timing = RequestTiming.start();
+        TimingResponse timingResponse = serverTimingEnabled ? new TimingResponse(response, timing) : null;
+        try {
+            filterChain.doFilter(request, timingResponse != null ? timingResponse : response);
+        } finally {
+            if (timingResponse != null) {
+                // Response tanpa body (204, 304, ...) belum sempat menulis header
+                timingResponse.writeServerTiming();
+            }
+            RequestTiming.clear();
+            MDC.remove(MDC_KEY);
+        }
+    }
+
+    static String requestId(String incoming) {
+        if (incoming != null && VALID_REQUEST_ID.matcher(incoming).matches()) {
+            return incoming;
+        }
+        return UUID.randomUUID().toString();
+    }
+
+    private static final class TimingResponse extends HttpServletResponseWrapper {
+
+        private final RequestTiming timing;
+        private boolean written;
+
+        TimingResponse(HttpServletResponse response, RequestTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        void writeServerTiming() {
+            if (written) {
+                return;
+            }
+            written = true;
+            if (!isCommitted()) {
+                setHeader(SERVER_TIMING_HEADER, timing.toServerTiming());
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeServerTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeServerTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeServerTiming();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeServerTiming();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeServerTiming();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeServerTiming();
+            super.sendRedirect(location);
+        }
+    }
+}
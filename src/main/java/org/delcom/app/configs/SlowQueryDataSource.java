@@ -0,0 +1,213 @@
+package org.delcom.app.configs;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.TreeMap;
+
+import javax.sql.DataSource;
+
+import org.delcom.app.services.RequestTiming;
+import org.delcom.app.services.SlowQueryLogService;
+import org.delcom.app.services.SlowQueryLogService.ParameterBinding;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Proxy datasource yang mengukur waktu setiap {@code execute*} statement JDBC.
+ * Durasinya selalu ditambahkan ke fase {@code db} {@link RequestTiming}.
+ * Statement di bawah threshold langsung dikembalikan apa adanya; hanya query
+ * lambat yang {@link ResultSet}-nya dibungkus untuk menghitung baris, lalu
+ * dicatat ke {@link SlowQueryLogService} saat ResultSet ditutup.
+ * <p>
+ * {@code unwrap}/{@code isWrapperFor} diteruskan ke datasource asli, sehingga
+ * metrics dan metadata HikariCP tetap terbaca.
+ */
+public class SlowQueryDataSource extends DelegatingDataSource {
+
+    static final String BATCH = "(batch)";
+
+    private final SlowQueryLogService slowQueryLogService;
+
+    public SlowQueryDataSource(DataSource targetDataSource, SlowQueryLogService slowQueryLogService) {
+        super(targetDataSource);
+        this.slowQueryLogService = slowQueryLogService;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(SlowQueryDataSource.class.getClassLoader(),
+                new Class<?>[] { type }, handler));
+    }
+
+    // equals/hashCode berdasarkan identitas proxy, sisanya diteruskan ke objek JDBC asli
+    private abstract static class ForwardingHandler implements InvocationHandler {
+
+        protected final Object target;
+
+        ForwardingHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("equals")) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            return handle(method, args);
+        }
+
+        abstract Object handle(Method method, Object[] args) throws Throwable;
+
+        protected Object forward(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+
+    private final class ConnectionHandler extends ForwardingHandler {
+
+        ConnectionHandler(Connection target) {
+            super(target);
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = forward(method, args);
+            if (Statement.class.isAssignableFrom(method.getReturnType())) {
+                // prepareStatement/prepareCall membawa SQL; createStatement menerima SQL saat execute
+                String sql = result instanceof PreparedStatement ? (String) args[0] : null;
+                return proxy(method.getReturnType(), new StatementHandler((Statement) result, sql));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler extends ForwardingHandler {
+
+        private final String sql;
+        // Hanya penanda tipe per index (bukan nilai); lihat SlowQueryLogService.parameterType
+        private final TreeMap<Integer, Object> parameterTypes = new TreeMap<>();
+        // Nilai parameter hanya disimpan jika EXPLAIN ANALYZE aktif
+        private final TreeMap<Integer, ParameterBinding> bindings = new TreeMap<>();
+
+        StatementHandler(Statement target, String sql) {
+            super(target);
+            this.sql = sql;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if (name.startsWith("set") && args.length >= 2 && args[0] instanceof Integer index) {
+                parameterTypes.put(index, SlowQueryLogService.parameterType(method, args[1]));
+                if (slowQueryLogService.isExplainAnalyze()) {
+                    bindings.put(index, new ParameterBinding(method, args.clone()));
+                }
+            } else if (name.equals("clearParameters")) {
+                parameterTypes.clear();
+                bindings.clear();
+            }
+            return forward(method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            long start = System.nanoTime();
+            Object result = forward(method, args);
+            long duration = System.nanoTime() - start;
+            RequestTiming.recordQuery(duration);
+            if (!slowQueryLogService.isSlow(duration)) {
+                return result;
+            }
+
+            // Statement biasa: SQL ada di argumen execute, kecuali executeBatch()
+            String executed = sql != null ? sql : args != null ? (String) args[0] : BATCH;
+            List<Object> snapshot = List.copyOf(parameterTypes.values());
+            List<ParameterBinding> values = List.copyOf(bindings.values());
+            if (result instanceof ResultSet rs) {
+                return proxy(ResultSet.class, new ResultSetHandler(rs, executed, snapshot, values, duration));
+            }
+            slowQueryLogService.record(obtainTargetDataSource(), executed, snapshot, values, rows(result), duration);
+            return result;
+        }
+    }
+
+    // Menghitung baris query lambat; dicatat sekali saat ResultSet ditutup
+    private final class ResultSetHandler extends ForwardingHandler {
+
+        private final String sql;
+        private final List<Object> parameterTypes;
+        private final List<ParameterBinding> bindings;
+        private final long duration;
+        private long rows;
+        private boolean recorded;
+
+        ResultSetHandler(ResultSet target, String sql, List<Object> parameterTypes, List<ParameterBinding> bindings,
+                long duration) {
+            super(target);
+            this.sql = sql;
+            this.parameterTypes = parameterTypes;
+            this.bindings = bindings;
+            this.duration = duration;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = forward(method, args);
+            String name = method.getName();
+            if (name.equals("next") && Boolean.TRUE.equals(result)) {
+                rows++;
+            } else if (name.equals("close") && !recorded) {
+                recorded = true;
+                slowQueryLogService.record(obtainTargetDataSource(), sql, parameterTypes, bindings, rows, duration);
+            }
+            return result;
+        }
+    }
+
+    // executeUpdate/executeLargeUpdate/executeBatch -> baris terdampak; execute() -> tidak diketahui
+    static long rows(Object result) {
+        if (result instanceof Number number) {
+            return number.longValue();
+        }
+        if (result instanceof int[] counts) {
+            long total = 0;
+            for (int count : counts) {
+                total += count;
+            }
+            return total;
+        }
+        if (result instanceof long[] counts) {
+            long total = 0;
+            for (long count : counts) {
+                total += count;
+            }
+            return total;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,34 @@
+package org.delcom.app.configs;
+
+import javax.sql.DataSource;
+
+import org.delcom.app.services.SlowQueryLogService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Membungkus bean {@link DataSource} (HikariCP) dengan {@link SlowQueryDataSource}
+ * jika {@code app.slow-query.enabled}. Service diambil lewat {@link ObjectProvider}
+ * supaya tidak dibuat terlalu awal oleh post-processor.
+ */
+@Component
+public class SlowQueryDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<SlowQueryLogService> slowQueryLogService;
+
+    public SlowQueryDataSourcePostProcessor(ObjectProvider<SlowQueryLogService> slowQueryLogService) {
+        this.slowQueryLogService = slowQueryLogService;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof SlowQueryDataSource)) {
+            SlowQueryLogService service = slowQueryLogService.getObject();
+            if (service.isEnabled()) {
+                return new SlowQueryDataSource(dataSource, service);
+            }
+        }
+        return bean;
+    }
+}
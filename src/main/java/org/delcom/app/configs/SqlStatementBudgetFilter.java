@@ -0,0 +1,47 @@
+package org.delcom.app.configs;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.delcom.app.services.SqlStatementMonitor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Membuka recording {@link SqlStatementMonitor} selama request berjalan
+ * (termasuk render Thymeleaf) dan melaporkan request yang melebihi budget
+ * statement SQL.
+ */
+@Component
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+
+    private final SqlStatementMonitor sqlStatementMonitor;
+
+    public SqlStatementBudgetFilter(SqlStatementMonitor sqlStatementMonitor) {
+        this.sqlStatementMonitor = sqlStatementMonitor;
+    }
+
+    // Aset statis tidak pernah menyentuh database
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !sqlStatementMonitor.isEnabled() || request.getRequestURI().startsWith("/assets/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain)
+            throws ServletException, IOException {
+
+        SqlStatementMonitor.Recording recording = SqlStatementMonitor.startRecording();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            sqlStatementMonitor.finishRequest(recording, request.getMethod() + " " + request.getRequestURI());
+        }
+    }
+}
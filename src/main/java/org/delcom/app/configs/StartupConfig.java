@@ -0,0 +1,26 @@
+package org.delcom.app.configs;
+
+import org.delcom.app.services.AccessLogService;
+import org.delcom.app.services.VirtualThreadMonitorService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Bean yang tetap dibuat saat startup walaupun {@code spring.main.lazy-initialization=true}
+ * (profile {@code prod}): Hibernate, supaya validasi skema gagal saat deploy dan bukan di
+ * request pertama, serta service yang menjalankan thread background sejak awal.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerStartupBeans() {
+        // FactoryBean JPA ikut didaftarkan jika tipe produknya belum bisa ditentukan
+        return LazyInitializationExcludeFilter.forBeanTypes(EntityManagerFactory.class,
+                AbstractEntityManagerFactoryBean.class, AccessLogService.class, VirtualThreadMonitorService.class);
+    }
+}
@@ -1,13 +1,28 @@
 package org.delcom.app.configs;
 
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.core.env.Environment;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.stereotype.Component;
 
 @Component
 public class StartupInfoLogger implements ApplicationListener<ApplicationReadyEvent> {
 
+    static final String REFRESH_STEP = "spring.context.refresh";
+    static final String BEAN_STEP = "spring.beans.instantiate";
+    static final int SLOWEST_BEANS = 10;
+
     @Override
     public void onApplicationEvent(ApplicationReadyEvent event) {
         Environment env = event.getApplicationContext().getEnvironment();
@@ -41,5 +56,70 @@ public class StartupInfoLogger implements ApplicationListener<ApplicationReadyEv
                         ? (YELLOW + "> LiveReload: ENABLED (port " + liveReloadPort + ")" + RESET)
                         : (YELLOW + "> LiveReload: DISABLED" + RESET));
         System.out.println();
+
+        // Timeline startup per fase (diisi BufferingApplicationStartup dari Application.main)
+        if (event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup) {
+            System.out.print(timeline(startup.getBufferedTimeline(), event.getTimeTaken(),
+                    ManagementFactory.getRuntimeMXBean().getStartTime()));
+            System.out.println();
+        }
+    }
+
+    // ==================================================================================
+    // Laporan timeline: fase utama (dan sub-fase refresh context), lalu bean paling lambat
+    // ==================================================================================
+    static String timeline(StartupTimeline timeline, Duration timeTaken, long jvmStartMillis) {
+        List<TimelineEvent> events = timeline.getEvents().stream()
+                .sorted(Comparator.comparing(TimelineEvent::getStartTime))
+                .toList();
+        Map<Long, String> names = new HashMap<>();
+        for (TimelineEvent event : events) {
+            names.put(event.getStartupStep().getId(), event.getStartupStep().getName());
+        }
+
+        StringBuilder report = new StringBuilder("> Startup timeline");
+        if (timeTaken != null) {
+            report.append(" (siap dalam ").append(timeTaken.toMillis()).append(" ms");
+            report.append(", JVM sebelum main ")
+                    .append(timeline.getStartTime().toEpochMilli() - jvmStartMillis).append(" ms)");
+        }
+        report.append(":\n");
+
+        long origin = timeline.getStartTime().toEpochMilli();
+        for (TimelineEvent event : events) {
+            StartupStep step = event.getStartupStep();
+            String parent = names.get(step.getParentId());
+            boolean phase = parent == null;
+            boolean refreshPhase = REFRESH_STEP.equals(parent) && !BEAN_STEP.equals(step.getName());
+            if (phase || refreshPhase) {
+                report.append(String.format("  +%6d ms %6d ms  %s%s%n",
+                        event.getStartTime().toEpochMilli() - origin, event.getDuration().toMillis(),
+                        refreshPhase ? "  " : "", step.getName()));
+            }
+        }
+
+        // Bean tingkat atas saja: waktu dependency sudah termasuk di bean yang memintanya
+        List<TimelineEvent> beans = events.stream()
+                .filter(event -> BEAN_STEP.equals(event.getStartupStep().getName()))
+                .filter(event -> !BEAN_STEP.equals(names.get(event.getStartupStep().getParentId())))
+                .sorted(Comparator.comparing(TimelineEvent::getDuration).reversed())
+                .limit(SLOWEST_BEANS)
+                .toList();
+        if (!beans.isEmpty()) {
+            report.append("> Bean paling lambat:\n");
+            for (TimelineEvent bean : beans) {
+                report.append(String.format("  %6d ms  %s%n", bean.getDuration().toMillis(), beanName(bean)));
+            }
+        }
+        return report.toString();
+    }
+
+    private static String beanName(TimelineEvent event) {
+        for (StartupStep.Tag tag : event.getStartupStep().getTags()) {
+            if (tag.getKey().equals("beanName")) {
+                return tag.getValue();
+            }
+        }
+        return "?";
     }
 }
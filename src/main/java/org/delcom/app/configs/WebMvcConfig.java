@@ -1,22 +1,104 @@
 package org.delcom.app.configs;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
 import org.delcom.app.interceptors.AuthInterceptor;
+import org.delcom.app.interceptors.ServerTimingInterceptor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.CssLinkResourceTransformer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
 
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
 
+    // Media type Smile (Spring tidak punya konstanta untuk ini)
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    // URL aset berisi hash konten, jadi isinya tidak pernah berubah untuk URL yang sama
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
     @Autowired
     private AuthInterceptor authInterceptor;
 
+    @Autowired
+    private ServerTimingInterceptor serverTimingInterceptor;
+
+    // Batas request async (StreamingResponseBody export produk); SseEmitter memakai timeout sendiri
+    @Value("${app.products.stream.max-duration-seconds:120}")
+    protected long streamMaxDurationSeconds = 120;
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(authInterceptor)
                 .addPathPatterns("/api/**") // Terapkan ke semua endpoint /api
                 .excludePathPatterns("/api/auth/**") // Kecuali endpoint auth
                 .excludePathPatterns("/api/public/**"); // Dan endpoint public
+
+        // Fase render untuk header Server-Timing (semua halaman)
+        registry.addInterceptor(serverTimingInterceptor);
+    }
+
+    // Tanpa ini berlaku default container (30 detik di Tomcat) dan export terputus jauh
+    // sebelum batasnya. Saat timeout, Spring membatalkan task async dengan interrupt:
+    // export berhenti membaca cursor dan transaksinya (beserta koneksi pool) dilepas.
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(TimeUnit.SECONDS.toMillis(streamMaxDurationSeconds));
+    }
+
+    // ==================================================================================
+    // Encoding biner: Accept: application/cbor atau application/x-jackson-smile
+    // menghasilkan envelope ApiResponse yang sama dengan JSON, hanya lebih ringkas.
+    // JSON tetap default karena converter-nya terdaftar lebih dulu. Spring sudah
+    // mendaftarkan converter ini sendiri jika library-nya ada di classpath, jadi hanya
+    // ditambahkan kalau belum ada (tidak terdaftar dua kali).
+    // ==================================================================================
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        addIfAbsent(converters, JacksonCborHttpMessageConverter.class, JacksonCborHttpMessageConverter::new);
+        addIfAbsent(converters, JacksonSmileHttpMessageConverter.class, JacksonSmileHttpMessageConverter::new);
+    }
+
+    private static void addIfAbsent(List<HttpMessageConverter<?>> converters,
+            Class<? extends HttpMessageConverter<?>> type, Supplier<HttpMessageConverter<?>> converter) {
+        if (converters.stream().noneMatch(type::isInstance)) {
+            converters.add(converter.get());
+        }
+    }
+
+    // ==================================================================================
+    // Aset statis: /assets/app-<hash>.css, varian .br/.gz hasil build (frontend/)
+    // ==================================================================================
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler("/assets/**")
+                .addResourceLocations("classpath:/static/assets/")
+                .setCacheControl(IMMUTABLE)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"))
+                .addTransformer(new CssLinkResourceTransformer());
+    }
+
+    // Menulis ulang @{/assets/...} di template Thymeleaf menjadi URL ber-hash
+    @Bean
+    public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+        return new ResourceUrlEncodingFilter();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,165 @@
+package org.delcom.app.controllers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.delcom.app.configs.ApiResponse;
+import org.delcom.app.configs.AuthContext;
+import org.delcom.app.services.AccessLogService;
+import org.delcom.app.services.ImageCacheService;
+import org.delcom.app.services.LoadSheddingService;
+import org.delcom.app.services.SlowQueryLogService;
+import org.delcom.app.services.UploadAdmissionService;
+import org.delcom.app.services.VirtualThreadMonitorService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private final ImageCacheService imageCacheService;
+    private final UploadAdmissionService uploadAdmissionService;
+    private final VirtualThreadMonitorService virtualThreadMonitorService;
+    private final AccessLogService accessLogService;
+    private final SlowQueryLogService slowQueryLogService;
+    private final LoadSheddingService loadSheddingService;
+    private final Set<UUID> adminUserIds;
+
+    @Autowired
+    protected AuthContext authContext;
+
+    public AdminController(ImageCacheService imageCacheService, UploadAdmissionService uploadAdmissionService,
+            VirtualThreadMonitorService virtualThreadMonitorService, AccessLogService accessLogService,
+            SlowQueryLogService slowQueryLogService, LoadSheddingService loadSheddingService,
+            @Value("${app.admin.user-ids:}") List<UUID> adminUserIds) {
+        this.imageCacheService = imageCacheService;
+        this.uploadAdmissionService = uploadAdmissionService;
+        this.virtualThreadMonitorService = virtualThreadMonitorService;
+        this.accessLogService = accessLogService;
+        this.slowQueryLogService = slowQueryLogService;
+        this.loadSheddingService = loadSheddingService;
+        this.adminUserIds = Set.copyOf(adminUserIds);
+    }
+
+    // Data di sini lintas user (query, path file, statistik server), jadi tidak cukup sekadar
+    // login. Dicocokkan dengan ID, bukan email, karena email bisa diganti lewat PUT /users/me.
+    private boolean isAdmin() {
+        return adminUserIds.contains(authContext.getAuthUser().getId());
+    }
+
+    // ==================================================================================
+    // 1. IMAGE CACHE - Statistik cache gambar (hit ratio & byte resident)
+    // ==================================================================================
+    @GetMapping("/image-cache")
+    public ResponseEntity<ApiResponse<Map<String, ImageCacheService.ImageCacheStats>>> getImageCacheStats() {
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        if (!isAdmin()) {
+            return ResponseEntity.status(403).body(new ApiResponse<>("fail", "Akses hanya untuk admin", null));
+        }
+
+        return ResponseEntity.ok(new ApiResponse<>(
+                "success",
+                "Berhasil mengambil statistik cache gambar",
+                Map.of("image_cache", imageCacheService.getStats())));
+    }
+
+    // ==================================================================================
+    // 2. UPLOAD ADMISSION - Slot pemrosesan upload yang terpakai, antrean, dan penolakan
+    // ==================================================================================
+    @GetMapping("/upload-admission")
+    public ResponseEntity<ApiResponse<Map<String, UploadAdmissionService.AdmissionStats>>> getUploadAdmissionStats() {
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        if (!isAdmin()) {
+            return ResponseEntity.status(403).body(new ApiResponse<>("fail", "Akses hanya untuk admin", null));
+        }
+
+        return ResponseEntity.ok(new ApiResponse<>(
+                "success",
+                "Berhasil mengambil statistik upload",
+                Map.of("upload_admission", uploadAdmissionService.getStats())));
+    }
+
+    // ==================================================================================
+    // 3. VIRTUAL THREADS - Mode eksekusi request dan pinning yang tercatat JFR
+    // ==================================================================================
+    @GetMapping("/virtual-threads")
+    public ResponseEntity<ApiResponse<Map<String, VirtualThreadMonitorService.PinningStats>>> getVirtualThreadStats() {
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        if (!isAdmin()) {
+            return ResponseEntity.status(403).body(new ApiResponse<>("fail", "Akses hanya untuk admin", null));
+        }
+
+        return ResponseEntity.ok(new ApiResponse<>(
+                "success",
+                "Berhasil mengambil statistik virtual thread",
+                Map.of("virtual_threads", virtualThreadMonitorService.getStats())));
+    }
+
+    // ==================================================================================
+    // 4. ACCESS LOG - Entri tertulis, entri dibuang karena buffer penuh, dan target log
+    // ==================================================================================
+    @GetMapping("/access-log")
+    public ResponseEntity<ApiResponse<Map<String, AccessLogService.AccessLogStats>>> getAccessLogStats() {
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        if (!isAdmin()) {
+            return ResponseEntity.status(403).body(new ApiResponse<>("fail", "Akses hanya untuk admin", null));
+        }
+
+        return ResponseEntity.ok(new ApiResponse<>(
+                "success",
+                "Berhasil mengambil statistik access log",
+                Map.of("access_log", accessLogService.getStats())));
+    }
+
+    // ==================================================================================
+    // 5. SLOW QUERIES - Statement di atas threshold (terbaru lebih dulu), plus EXPLAIN jika aktif
+    // ==================================================================================
+    @GetMapping("/slow-queries")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getSlowQueries() {
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        if (!isAdmin()) {
+            return ResponseEntity.status(403).body(new ApiResponse<>("fail", "Akses hanya untuk admin", null));
+        }
+
+        return ResponseEntity.ok(new ApiResponse<>(
+                "success",
+                "Berhasil mengambil daftar query lambat",
+                Map.of("threshold_ms", slowQueryLogService.getThresholdMs(),
+                        "slow_queries", slowQueryLogService.getRecent())));
+    }
+
+    // ==================================================================================
+    // 6. LOAD SHEDDING - Batas adaptif, request berjalan, tekanan pool, dan penolakan
+    // ==================================================================================
+    @GetMapping("/load-shedding")
+    public ResponseEntity<ApiResponse<Map<String, LoadSheddingService.LoadSheddingStats>>> getLoadSheddingStats() {
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        if (!isAdmin()) {
+            return ResponseEntity.status(403).body(new ApiResponse<>("fail", "Akses hanya untuk admin", null));
+        }
+
+        return ResponseEntity.ok(new ApiResponse<>(
+                "success",
+                "Berhasil mengambil statistik load shedding",
+                Map.of("load_shedding", loadSheddingService.getStats())));
+    }
+}
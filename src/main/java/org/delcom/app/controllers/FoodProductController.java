@@ -1,39 +1,89 @@
 package org.delcom.app.controllers;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import org.delcom.app.configs.ApiResponse;
 import org.delcom.app.configs.AuthContext;
+import org.delcom.app.configs.WebMvcConfig;
+import org.delcom.app.dto.BatchOperationForm;
+import org.delcom.app.dto.BatchRequestForm;
 import org.delcom.app.dto.FoodProductForm;
+import org.delcom.app.dto.ProductFilter;
 import org.delcom.app.dto.ProductImageForm;
+import org.delcom.app.dto.StatusTransitionForm;
 import org.delcom.app.entities.FoodProduct;
 import org.delcom.app.entities.User;
+import org.delcom.app.services.BatchOperationResult;
 import org.delcom.app.services.FoodQualityService;
+import org.delcom.app.services.InspectionEventService;
+import org.delcom.app.services.UploadRejectedException;
+import org.delcom.app.services.UploadSessionService;
+import org.delcom.app.services.UploadSessionService.UploadSession;
+import org.delcom.app.utils.ETagUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.json.JsonMapper;
 
 @RestController
 @RequestMapping("/api/food-products")
 public class FoodProductController {
 
+    // Klien boleh menyimpan response, tapi wajib validasi ulang dengan If-None-Match
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final FoodQualityService foodQualityService;
+    private final UploadSessionService uploadSessionService;
+    private final InspectionEventService inspectionEventService;
+    private final JsonMapper jsonMapper;
 
     @Autowired
     protected AuthContext authContext;
 
-    public FoodProductController(FoodQualityService foodQualityService) {
+    @Value("${app.batch.max-operations:100}")
+    protected int maxBatchOperations = 100;
+
+    // Batas lama export streaming: transaksi read-only (dan koneksi pool) ikut terbuka selama itu
+    @Value("${app.products.stream.max-duration-seconds:120}")
+    protected long streamMaxDurationSeconds = 120;
+
+    public FoodProductController(FoodQualityService foodQualityService, UploadSessionService uploadSessionService,
+            InspectionEventService inspectionEventService, JsonMapper jsonMapper) {
         this.foodQualityService = foodQualityService;
+        this.uploadSessionService = uploadSessionService;
+        this.inspectionEventService = inspectionEventService;
+        this.jsonMapper = jsonMapper;
     }
 
     // ==================================================================================
     // 1. CREATE - Mendaftarkan Produk Pangan Baru untuk Inspeksi
     // ==================================================================================
     @PostMapping(consumes = { MediaType.MULTIPART_FORM_DATA_VALUE })
-    public ResponseEntity<ApiResponse<Map<String, UUID>>> createProduct(@ModelAttribute FoodProductForm form) {
+    public ResponseEntity<ApiResponse<Map<String, UUID>>> createProduct(@ModelAttribute FoodProductForm form)
+            throws IOException {
 
         // Validasi Manual Field Wajib
         if (form.getProductName() == null || form.getProductName().isEmpty()) {
@@ -42,8 +92,8 @@ public class FoodProductController {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Kode batch tidak valid", null));
         } else if (form.getInspectionStatus() == null || form.getInspectionStatus().isEmpty()) {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Status inspeksi tidak valid", null));
-        } else if (form.getImageFile() == null || form.getImageFile().isEmpty()) {
-            // Wajib ada foto sampel produk saat create
+        } else if ((form.getImageFile() == null || form.getImageFile().isEmpty()) && form.getUploadId() == null) {
+            // Wajib ada foto sampel produk saat create (multipart atau sesi upload bertahap)
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Foto sampel produk wajib diupload", null));
         }
 
@@ -53,8 +103,30 @@ public class FoodProductController {
         }
         User authUser = authContext.getAuthUser();
 
+        // Foto dari sesi upload bertahap yang sudah lengkap
+        UploadSession uploadSession = null;
+        if (form.getImageFile() == null || form.getImageFile().isEmpty()) {
+            uploadSession = uploadSessionService.getSession(authUser.getId(), form.getUploadId());
+            MultipartFile uploaded = uploadSession != null ? uploadSessionService.toMultipartFile(uploadSession) : null;
+            if (uploaded == null) {
+                return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Sesi upload tidak ditemukan atau belum lengkap", null));
+            }
+            form.setImageFile(uploaded);
+        }
+
         // Panggil Service
         FoodProduct newProduct = foodQualityService.createProduct(authUser.getId(), form);
+        if (uploadSession != null) {
+            uploadSessionService.discard(uploadSession);
+        }
+
+        // Mode async: foto masih diproses, klien polling /{id}/image-status
+        if (FoodProduct.IMAGE_STATUS_PROCESSING.equals(newProduct.getImageStatus())) {
+            return ResponseEntity.accepted().body(new ApiResponse<>(
+                    "success",
+                    "Produk terdaftar, foto sampel sedang diproses",
+                    Map.of("id", newProduct.getId())));
+        }
 
         return ResponseEntity.ok(new ApiResponse<>(
                 "success",
@@ -63,62 +135,237 @@ public class FoodProductController {
     }
 
     // ==================================================================================
-    // 2. READ - Mendapatkan Daftar Produk (Support Search by Name/Batch)
+    // 2. READ - Mendapatkan Daftar Produk (search, filter status/kategori/tanggal, sort)
     // ==================================================================================
     @GetMapping
-    public ResponseEntity<ApiResponse<Map<String, List<FoodProduct>>>> getAllProducts(
-            @RequestParam(required = false) String search) {
+    public ResponseEntity<ApiResponse<Map<String, List<?>>>> getAllProducts(
+            @ModelAttribute ProductFilter filter,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         
         if (!authContext.isAuthenticated()) {
             return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
         }
         User authUser = authContext.getAuthUser();
 
-        List<FoodProduct> products = foodQualityService.getAllProducts(authUser.getId(), search);
+        // ?fields=productName,batchCode -> hanya kolom tersebut (+ id) yang di-SELECT
+        List<String> selectedFields = null;
+        if (fields != null) {
+            try {
+                selectedFields = FoodQualityService.parseFields(fields);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(new ApiResponse<>("fail", e.getMessage(), null));
+            }
+        }
+
+        // Data user belum berubah sejak response terakhir: 304 tanpa query produk
+        String etag = productsETag(authUser.getId(), filter, ETagUtil.variant(accept));
+        if (ETagUtil.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+
+        List<?> products;
+        try {
+            products = selectedFields != null
+                    ? foodQualityService.findProductFields(authUser.getId(), filter, selectedFields)
+                    : foodQualityService.findProducts(authUser.getId(), filter);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", e.getMessage(), null));
+        }
         
-        return ResponseEntity.ok(new ApiResponse<>(
-                "success",
-                "Berhasil mengambil data produk",
-                Map.of("food_products", products)));
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .cacheControl(REVALIDATE)
+                .body(new ApiResponse<>(
+                        "success",
+                        "Berhasil mengambil data produk",
+                        Map.of("food_products", products)));
+    }
+
+    // ==================================================================================
+    // 2b. READ STREAMING - ?stream=true: envelope ApiResponse ditulis lebih dulu, lalu
+    //     produk satu per satu dari cursor database. Time-to-first-byte dan heap tidak
+    //     bergantung pada jumlah produk. Hanya JSON: klien CBOR/Smile mendapat list biasa.
+    // ==================================================================================
+    @GetMapping(params = "stream=true", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllProducts(
+            @ModelAttribute ProductFilter filter,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403).contentType(MediaType.APPLICATION_JSON)
+                    .body(json(new ApiResponse<>("fail", "User tidak terautentikasi", null)));
+        }
+        User authUser = authContext.getAuthUser();
+
+        // Setelah byte pertama terkirim status tidak bisa diubah lagi, jadi filter divalidasi di sini
+        try {
+            FoodQualityService.validateFilter(filter);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON)
+                    .body(json(new ApiResponse<>("fail", e.getMessage(), null)));
+        }
+
+        String etag = productsETag(authUser.getId(), filter, "");
+        if (ETagUtil.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+
+        UUID userId = authUser.getId();
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .cacheControl(REVALIDATE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> writeProducts(StreamUtils.nonClosing(out), userId, filter));
+    }
+
+    // { "status": "success", "message": ..., "data": { "food_products": [ ...streaming... ] } }
+    // Kalau gagal di tengah jalan, penutup "]}}" sengaja tidak ditulis (AUTO_CLOSE_CONTENT
+    // dimatikan): klien mendapat JSON terpotong yang gagal di-parse, bukan list tidak
+    // lengkap berstatus success. Exception diteruskan sehingga koneksi diputus tanpa
+    // chunk penutup.
+    private void writeProducts(OutputStream out, UUID userId, ProductFilter filter) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(streamMaxDurationSeconds);
+        try (JsonGenerator json = jsonMapper.writer()
+                .without(StreamWriteFeature.AUTO_CLOSE_CONTENT)
+                .createGenerator(out)) {
+            json.writeStartObject();
+            json.writeStringProperty("status", "success");
+            json.writeStringProperty("message", "Berhasil mengambil data produk");
+            json.writeName("data");
+            json.writeStartObject();
+            json.writeName("food_products");
+            json.writeStartArray();
+            json.flush();
+
+            foodQualityService.streamProducts(userId, filter, product -> {
+                // Klien yang membaca sangat lambat tidak boleh menahan transaksi tanpa batas.
+                // Interrupt: timeout async (WebMvcConfig) membatalkan task ini.
+                if (Thread.currentThread().isInterrupted() || System.nanoTime() - deadline >= 0) {
+                    throw new TransactionTimedOutException(
+                            "Export melebihi " + streamMaxDurationSeconds + " detik");
+                }
+                json.writePOJO(product);
+            });
+
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndObject();
+        }
+    }
+
+    private StreamingResponseBody json(ApiResponse<?> body) {
+        return out -> jsonMapper.writeValue(StreamUtils.nonClosing(out), body);
+    }
+
+    // Filter "kedaluwarsa dalam N hari" bergantung tanggal, jadi tanggal ikut di ETag
+    private String productsETag(UUID userId, ProductFilter filter, String variant) {
+        String version = foodQualityService.getCollectionVersion(userId);
+        if (filter.getExpiringWithinDays() != null) {
+            version += "-" + LocalDate.now();
+        }
+        return ETagUtil.weak("products-" + version + variant);
     }
 
     // ==================================================================================
     // 3. READ DETAIL - Mendapatkan 1 Produk berdasarkan ID
     // ==================================================================================
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<Map<String, FoodProduct>>> getProductById(@PathVariable UUID id) {
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getProductById(
+            @PathVariable UUID id,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         
         if (!authContext.isAuthenticated()) {
             return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
         }
         User authUser = authContext.getAuthUser();
 
+        List<String> selectedFields = null;
+        if (fields != null) {
+            try {
+                selectedFields = FoodQualityService.parseFields(fields);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(new ApiResponse<>("fail", e.getMessage(), null));
+            }
+        }
+
+        // Validasi ETag cukup dengan kolom updatedAt, entity tidak dimuat
+        String variant = ETagUtil.variant(accept);
+        if (ifNoneMatch != null) {
+            LocalDateTime updatedAt = foodQualityService.getProductUpdatedAt(authUser.getId(), id);
+            if (updatedAt == null) {
+                return ResponseEntity.status(404).body(new ApiResponse<>("fail", "Produk tidak ditemukan", null));
+            }
+            String etag = ETagUtil.fromTimestamp(updatedAt, variant);
+            if (ETagUtil.matches(ifNoneMatch, etag)) {
+                return notModified(etag);
+            }
+        }
+
+        if (selectedFields != null) {
+            Map<String, Object> partial = foodQualityService.getProductFieldsById(authUser.getId(), id, selectedFields);
+            if (partial == null) {
+                return ResponseEntity.status(404).body(new ApiResponse<>("fail", "Produk tidak ditemukan", null));
+            }
+            // ETag hanya bisa dikirim jika updatedAt ikut dipilih
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).cacheControl(REVALIDATE);
+            if (partial.get("updatedAt") instanceof LocalDateTime updatedAt) {
+                response.eTag(ETagUtil.fromTimestamp(updatedAt, variant));
+            }
+            return response
+                    .body(new ApiResponse<>(
+                            "success",
+                            "Berhasil mengambil detail produk",
+                            Map.of("food_product", partial)));
+        }
+
         FoodProduct product = foodQualityService.getProductById(authUser.getId(), id);
         if (product == null) {
             return ResponseEntity.status(404).body(new ApiResponse<>("fail", "Produk tidak ditemukan", null));
         }
 
-        return ResponseEntity.ok(new ApiResponse<>(
-                "success",
-                "Berhasil mengambil detail produk",
-                Map.of("food_product", product)));
+        return ResponseEntity.ok()
+                .eTag(ETagUtil.fromTimestamp(product.getUpdatedAt(), variant))
+                .varyBy(HttpHeaders.ACCEPT)
+                .cacheControl(REVALIDATE)
+                .body(new ApiResponse<>(
+                        "success",
+                        "Berhasil mengambil detail produk",
+                        Map.of("food_product", product)));
     }
 
     // ==================================================================================
     // 4. GET BATCHES - Mendapatkan List Kode Batch (Untuk Dropdown Filter)
     // ==================================================================================
     @GetMapping("/batches")
-    public ResponseEntity<ApiResponse<Map<String, List<String>>>> getBatches() {
+    public ResponseEntity<ApiResponse<Map<String, List<String>>>> getBatches(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         if (!authContext.isAuthenticated()) {
             return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
         }
         User authUser = authContext.getAuthUser();
 
+        String etag = ETagUtil.weak("batches-" + foodQualityService.getCollectionVersion(authUser.getId())
+                + ETagUtil.variant(accept));
+        if (ETagUtil.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+
         List<String> batches = foodQualityService.getAllBatchCodes(authUser.getId());
-        return ResponseEntity.ok(new ApiResponse<>(
-                "success",
-                "Berhasil mengambil data batch",
-                Map.of("batches", batches)));
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .cacheControl(REVALIDATE)
+                .body(new ApiResponse<>(
+                        "success",
+                        "Berhasil mengambil data batch",
+                        Map.of("batches", batches)));
     }
 
     // ==================================================================================
@@ -144,6 +391,9 @@ public class FoodProductController {
         if (updatedProduct == null) {
             return ResponseEntity.status(404).body(new ApiResponse<>("fail", "Produk tidak ditemukan", null));
         }
+        if (FoodProduct.IMAGE_STATUS_PROCESSING.equals(updatedProduct.getImageStatus())) {
+            return ResponseEntity.accepted().body(new ApiResponse<>("success", "Data inspeksi diperbarui, foto sampel sedang diproses", null));
+        }
 
         return ResponseEntity.ok(new ApiResponse<>("success", "Berhasil memperbarui data inspeksi", null));
     }
@@ -180,10 +430,70 @@ public class FoodProductController {
         if (!isUpdated) {
             return ResponseEntity.status(404).body(new ApiResponse<>("fail", "Gagal update gambar. Produk tidak ditemukan.", null));
         }
+        if (foodQualityService.isAsyncImageProcessing()) {
+            return ResponseEntity.accepted().body(new ApiResponse<>("success", "Foto sampel sedang diproses", null));
+        }
 
         return ResponseEntity.ok(new ApiResponse<>("success", "Foto sampel berhasil diperbarui", null));
     }
 
+    // ==================================================================================
+    // 6a. STATUS - Transisi status inspeksi (JSON, tanpa multipart, optimistic locking)
+    // ==================================================================================
+    @PatchMapping(value = "/{id}/status", consumes = { MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, WebMvcConfig.APPLICATION_SMILE_VALUE })
+    public ResponseEntity<ApiResponse<Map<String, Object>>> transitionStatus(@PathVariable UUID id,
+            @RequestBody StatusTransitionForm form) {
+
+        if (form.getInspectionStatus() == null
+                || !FoodQualityService.INSPECTION_STATUSES.contains(form.getInspectionStatus())) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Status inspeksi tidak valid", null));
+        } else if (form.getVersion() == null) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Versi produk wajib dikirim", null));
+        }
+
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        User authUser = authContext.getAuthUser();
+
+        Long version = foodQualityService.transitionStatus(authUser.getId(), id, form);
+        if (version == null) {
+            return ResponseEntity.status(404).body(new ApiResponse<>("fail", "Produk tidak ditemukan", null));
+        }
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("id", id);
+        data.put("inspection_status", form.getInspectionStatus());
+        data.put("version", version);
+        return ResponseEntity.ok(new ApiResponse<>("success", "Status inspeksi berhasil diperbarui", data));
+    }
+
+    // ==================================================================================
+    // 6b. IMAGE STATUS - Polling status pemrosesan foto (mode upload async)
+    // ==================================================================================
+    @GetMapping("/{id}/image-status")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getImageStatus(@PathVariable UUID id) {
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        User authUser = authContext.getAuthUser();
+
+        FoodProduct product = foodQualityService.getProductById(authUser.getId(), id);
+        if (product == null) {
+            return ResponseEntity.status(404).body(new ApiResponse<>("fail", "Produk tidak ditemukan", null));
+        }
+
+        // Data lama (sebelum ada kolom status) dianggap READY
+        Map<String, Object> data = new HashMap<>();
+        data.put("image_status", product.getImageStatus() != null
+                ? product.getImageStatus()
+                : FoodProduct.IMAGE_STATUS_READY);
+        data.put("product_image", product.getProductImage());
+
+        return ResponseEntity.ok(new ApiResponse<>("success", "Berhasil mengambil status foto", data));
+    }
+
     // ==================================================================================
     // 7. DELETE - Menghapus Data Produk
     // ==================================================================================
@@ -210,18 +520,109 @@ public class FoodProductController {
     // 8. STATS - Statistik Inspeksi (PASSED vs REJECTED)
     // ==================================================================================
     @GetMapping("/stats")
-    public ResponseEntity<ApiResponse<Map<String, Long>>> getQualityStats() {
+    public ResponseEntity<ApiResponse<Map<String, Long>>> getQualityStats(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         if (!authContext.isAuthenticated()) {
             return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
         }
         User authUser = authContext.getAuthUser();
 
+        String etag = ETagUtil.weak("stats-" + foodQualityService.getCollectionVersion(authUser.getId())
+                + ETagUtil.variant(accept));
+        if (ETagUtil.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+
         // Contoh return: { "PASSED": 150, "REJECTED": 5, "PENDING": 10 }
         Map<String, Long> stats = foodQualityService.getInspectionStats(authUser.getId());
 
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .cacheControl(REVALIDATE)
+                .body(new ApiResponse<>(
+                        "success",
+                        "Berhasil mengambil statistik kualitas",
+                        stats));
+    }
+
+    // ==================================================================================
+    // 8b. EVENTS - Stream SSE perubahan produk & statistik (pengganti polling)
+    // ==================================================================================
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents() {
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403).build();
+        }
+        User authUser = authContext.getAuthUser();
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .header("X-Accel-Buffering", "no") // Proxy (nginx) tidak boleh mem-buffer stream
+                .body(inspectionEventService.subscribe(authUser.getId()));
+    }
+
+    // ==================================================================================
+    // 9. BATCH - Create/Update/Delete Banyak Produk dalam Satu Transaksi
+    // ==================================================================================
+    @PostMapping(value = "/batch", consumes = { MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, WebMvcConfig.APPLICATION_SMILE_VALUE })
+    public ResponseEntity<ApiResponse<Map<String, List<BatchOperationResult>>>> applyBatch(
+            @RequestBody BatchRequestForm form) {
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        User authUser = authContext.getAuthUser();
+
+        List<BatchOperationForm> operations = form.getOperations();
+        if (operations == null || operations.isEmpty()) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Daftar operasi tidak boleh kosong", null));
+        } else if (operations.size() > maxBatchOperations) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>("fail",
+                    "Maksimal " + maxBatchOperations + " operasi per batch", null));
+        }
+
+        List<BatchOperationResult> results;
+        try {
+            results = foodQualityService.applyBatch(authUser.getId(), operations);
+        } catch (DataIntegrityViolationException e) {
+            // Seluruh batch di-rollback, tidak ada operasi yang tersimpan
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ApiResponse<>("fail",
+                    "Batch dibatalkan: kode batch sudah digunakan atau data tidak valid", null));
+        }
+
         return ResponseEntity.ok(new ApiResponse<>(
                 "success",
-                "Berhasil mengambil statistik kualitas",
-                stats));
+                "Batch operasi selesai diproses",
+                Map.of("results", results)));
+    }
+
+    // 304 Not Modified: tanpa body, ETag dan Vary tetap dikirim ulang
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .cacheControl(REVALIDATE)
+                .build();
+    }
+
+    // ==================================================================================
+    // Produk diubah oleh request lain sejak versi yang dibaca klien -> 409
+    // ==================================================================================
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<String>> handleVersionConflict(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ApiResponse<>("fail", "Produk sudah diubah, muat ulang data terlebih dahulu", null));
+    }
+
+    // ==================================================================================
+    // Upload ditolak karena slot pemrosesan penuh -> 503 + Retry-After
+    // ==================================================================================
+    @ExceptionHandler(UploadRejectedException.class)
+    public ResponseEntity<ApiResponse<String>> handleUploadRejected(UploadRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Integer.toString(e.getRetryAfterSeconds()))
+                .body(new ApiResponse<>("fail", e.getMessage(), null));
     }
-}
\ No newline at end of file
+}
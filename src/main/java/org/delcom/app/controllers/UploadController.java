@@ -0,0 +1,182 @@
+package org.delcom.app.controllers;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+
+import org.delcom.app.configs.ApiResponse;
+import org.delcom.app.configs.AuthContext;
+import org.delcom.app.dto.ProductImageForm;
+import org.delcom.app.dto.UploadSessionForm;
+import org.delcom.app.entities.User;
+import org.delcom.app.services.FoodQualityService;
+import org.delcom.app.services.UploadRejectedException;
+import org.delcom.app.services.UploadSessionService;
+import org.delcom.app.services.UploadSessionService.UploadSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Protokol upload bertahap untuk foto sampel:
+ * 1. POST /api/uploads (metadata) -> id sesi
+ * 2. PUT /api/uploads/{id}?offset=N (byte mentah) -> offset baru
+ * 3. GET /api/uploads/{id} -> offset yang sudah diterima (untuk melanjutkan)
+ * 4. POST /api/uploads/{id}/finalize?productId=... -> pasang ke produk
+ */
+@RestController
+@RequestMapping("/api/uploads")
+public class UploadController {
+
+    static final String UPLOAD_OFFSET_HEADER = "Upload-Offset";
+
+    private final UploadSessionService uploadSessionService;
+    private final FoodQualityService foodQualityService;
+
+    @Autowired
+    protected AuthContext authContext;
+
+    public UploadController(UploadSessionService uploadSessionService, FoodQualityService foodQualityService) {
+        this.uploadSessionService = uploadSessionService;
+        this.foodQualityService = foodQualityService;
+    }
+
+    // ==================================================================================
+    // 1. CREATE SESSION - Mendaftarkan file yang akan diupload bertahap
+    // ==================================================================================
+    @PostMapping
+    public ResponseEntity<ApiResponse<Map<String, Object>>> createSession(@RequestBody UploadSessionForm form)
+            throws IOException {
+        if (!form.isValidImage()) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Format file harus gambar (JPG/PNG)", null));
+        }
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        User authUser = authContext.getAuthUser();
+
+        UploadSession session;
+        try {
+            session = uploadSessionService.createSession(
+                    authUser.getId(), form.getFilename(), form.getContentType(), form.getTotalSize());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", e.getMessage(), null));
+        }
+
+        return ResponseEntity.ok(new ApiResponse<>(
+                "success",
+                "Sesi upload berhasil dibuat",
+                Map.of("id", session.getId(), "offset", 0L)));
+    }
+
+    // ==================================================================================
+    // 2. UPLOAD CHUNK - Menulis potongan file mulai dari offset tertentu
+    // ==================================================================================
+    @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<ApiResponse<Map<String, Long>>> uploadChunk(
+            @PathVariable UUID id,
+            @RequestParam long offset,
+            HttpServletRequest request) throws IOException {
+
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        User authUser = authContext.getAuthUser();
+
+        UploadSession session = uploadSessionService.getSession(authUser.getId(), id);
+        if (session == null) {
+            return ResponseEntity.status(404).body(new ApiResponse<>("fail", "Sesi upload tidak ditemukan", null));
+        }
+
+        try {
+            // Body dibaca langsung dari stream request, tidak pernah di-buffer utuh
+            long newOffset = uploadSessionService.appendChunk(session, offset, request.getInputStream());
+            return ResponseEntity.ok()
+                    .header(UPLOAD_OFFSET_HEADER, Long.toString(newOffset))
+                    .body(new ApiResponse<>("success", "Chunk berhasil diterima", Map.of("offset", newOffset)));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409)
+                    .header(UPLOAD_OFFSET_HEADER, Long.toString(session.getOffset()))
+                    .body(new ApiResponse<>("fail", e.getMessage(), Map.of("offset", session.getOffset())));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>("fail", e.getMessage(), Map.of("offset", session.getOffset())));
+        }
+    }
+
+    // ==================================================================================
+    // 3. GET OFFSET - Mengecek berapa byte yang sudah diterima server
+    // ==================================================================================
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> getOffset(@PathVariable UUID id) throws IOException {
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        User authUser = authContext.getAuthUser();
+
+        UploadSession session = uploadSessionService.getSession(authUser.getId(), id);
+        if (session == null) {
+            return ResponseEntity.status(404).body(new ApiResponse<>("fail", "Sesi upload tidak ditemukan", null));
+        }
+
+        return ResponseEntity.ok()
+                .header(UPLOAD_OFFSET_HEADER, Long.toString(session.getOffset()))
+                .body(new ApiResponse<>(
+                        "success",
+                        "Berhasil mengambil status upload",
+                        Map.of("offset", session.getOffset(), "totalSize", session.getTotalSize())));
+    }
+
+    // ==================================================================================
+    // 4. FINALIZE - Memasang file yang sudah lengkap sebagai foto sampel produk
+    // ==================================================================================
+    @PostMapping("/{id}/finalize")
+    public ResponseEntity<ApiResponse<String>> finalizeUpload(
+            @PathVariable UUID id,
+            @RequestParam UUID productId) throws IOException {
+
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        User authUser = authContext.getAuthUser();
+
+        UploadSession session = uploadSessionService.getSession(authUser.getId(), id);
+        if (session == null) {
+            return ResponseEntity.status(404).body(new ApiResponse<>("fail", "Sesi upload tidak ditemukan", null));
+        }
+
+        MultipartFile file = uploadSessionService.toMultipartFile(session);
+        if (file == null) {
+            return ResponseEntity.status(409).body(new ApiResponse<>("fail", "Upload belum lengkap", null));
+        }
+
+        ProductImageForm form = new ProductImageForm();
+        form.setId(productId);
+        form.setImageFile(file);
+        if (!foodQualityService.updateProductImage(authUser.getId(), form)) {
+            return ResponseEntity.status(404).body(new ApiResponse<>("fail", "Gagal update gambar. Produk tidak ditemukan.", null));
+        }
+
+        uploadSessionService.discard(session);
+        if (foodQualityService.isAsyncImageProcessing()) {
+            return ResponseEntity.accepted().body(new ApiResponse<>("success", "Foto sampel sedang diproses", null));
+        }
+        return ResponseEntity.ok(new ApiResponse<>("success", "Foto sampel berhasil diperbarui", null));
+    }
+
+    // ==================================================================================
+    // Upload ditolak karena slot pemrosesan penuh -> 503 + Retry-After
+    // ==================================================================================
+    @ExceptionHandler(UploadRejectedException.class)
+    public ResponseEntity<ApiResponse<String>> handleUploadRejected(UploadRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Integer.toString(e.getRetryAfterSeconds()))
+                .body(new ApiResponse<>("fail", e.getMessage(), null));
+    }
+}
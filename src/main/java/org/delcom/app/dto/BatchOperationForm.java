@@ -0,0 +1,103 @@
+package org.delcom.app.dto;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Satu operasi di dalam request batch. {@code op}: create, update, atau delete.
+ * Untuk update hanya field yang tidak null yang diubah.
+ */
+public class BatchOperationForm {
+
+    public static final String OP_CREATE = "create";
+    public static final String OP_UPDATE = "update";
+    public static final String OP_DELETE = "delete";
+
+    private String op;
+
+    // Wajib untuk update dan delete
+    private UUID id;
+
+    private String batchCode;
+    private String productName;
+    private String category;
+    private String inspectionStatus;
+    private String notes;
+    private LocalDate productionDate;
+    private LocalDate expiryDate;
+
+    public BatchOperationForm() {
+    }
+
+    public String getOp() {
+        return op;
+    }
+
+    public void setOp(String op) {
+        this.op = op;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getBatchCode() {
+        return batchCode;
+    }
+
+    public void setBatchCode(String batchCode) {
+        this.batchCode = batchCode;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getInspectionStatus() {
+        return inspectionStatus;
+    }
+
+    public void setInspectionStatus(String inspectionStatus) {
+        this.inspectionStatus = inspectionStatus;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public LocalDate getProductionDate() {
+        return productionDate;
+    }
+
+    public void setProductionDate(LocalDate productionDate) {
+        this.productionDate = productionDate;
+    }
+
+    public LocalDate getExpiryDate() {
+        return expiryDate;
+    }
+
+    public void setExpiryDate(LocalDate expiryDate) {
+        this.expiryDate = expiryDate;
+    }
+}
@@ -0,0 +1,20 @@
+package org.delcom.app.dto;
+
+import java.util.List;
+
+public class BatchRequestForm {
+
+    // Diproses berurutan di dalam satu transaksi
+    private List<BatchOperationForm> operations;
+
+    public BatchRequestForm() {
+    }
+
+    public List<BatchOperationForm> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<BatchOperationForm> operations) {
+        this.operations = operations;
+    }
+}
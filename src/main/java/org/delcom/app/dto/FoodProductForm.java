@@ -27,6 +27,9 @@ public class FoodProductForm {
     // Field untuk menyimpan nama file gambar lama (saat edit)
     private String productImage;
 
+    // ID sesi upload bertahap (alternatif imageFile untuk koneksi yang tidak stabil)
+    private UUID uploadId;
+
     // === [BARU] Tambahkan Field Tanggal ===
     @DateTimeFormat(pattern = "yyyy-MM-dd")
     private LocalDate productionDate;
@@ -62,6 +65,9 @@ public class FoodProductForm {
     public String getProductImage() { return productImage; }
     public void setProductImage(String productImage) { this.productImage = productImage; }
 
+    public UUID getUploadId() { return uploadId; }
+    public void setUploadId(UUID uploadId) { this.uploadId = uploadId; }
+
     // [BARU] Getter Setter Tanggal
     public LocalDate getProductionDate() { return productionDate; }
     public void setProductionDate(LocalDate productionDate) { this.productionDate = productionDate; }
@@ -0,0 +1,133 @@
+package org.delcom.app.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+/**
+ * Filter daftar produk dari query string, dipakai REST list dan halaman list.
+ * Semua field opsional dan digabung dengan AND; {@code status} boleh berulang
+ * ({@code ?status=PASSED&status=PENDING}). {@code sort}: nama field, awalan
+ * {@code -} untuk descending (default {@code -createdAt}).
+ */
+public class ProductFilter {
+
+    private String search;
+    private List<String> status;
+    private String category;
+
+    @DateTimeFormat(pattern = "yyyy-MM-dd")
+    private LocalDate productionFrom;
+
+    @DateTimeFormat(pattern = "yyyy-MM-dd")
+    private LocalDate productionTo;
+
+    @DateTimeFormat(pattern = "yyyy-MM-dd")
+    private LocalDate expiryFrom;
+
+    @DateTimeFormat(pattern = "yyyy-MM-dd")
+    private LocalDate expiryTo;
+
+    // Kedaluwarsa antara hari ini dan N hari ke depan
+    private Integer expiringWithinDays;
+
+    @DateTimeFormat(pattern = "yyyy-MM-dd")
+    private LocalDate createdFrom;
+
+    @DateTimeFormat(pattern = "yyyy-MM-dd")
+    private LocalDate createdTo;
+
+    private String sort;
+
+    public ProductFilter() {
+    }
+
+    public String getSearch() {
+        return search;
+    }
+
+    public void setSearch(String search) {
+        this.search = search;
+    }
+
+    public List<String> getStatus() {
+        return status;
+    }
+
+    public void setStatus(List<String> status) {
+        this.status = status;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public LocalDate getProductionFrom() {
+        return productionFrom;
+    }
+
+    public void setProductionFrom(LocalDate productionFrom) {
+        this.productionFrom = productionFrom;
+    }
+
+    public LocalDate getProductionTo() {
+        return productionTo;
+    }
+
+    public void setProductionTo(LocalDate productionTo) {
+        this.productionTo = productionTo;
+    }
+
+    public LocalDate getExpiryFrom() {
+        return expiryFrom;
+    }
+
+    public void setExpiryFrom(LocalDate expiryFrom) {
+        this.expiryFrom = expiryFrom;
+    }
+
+    public LocalDate getExpiryTo() {
+        return expiryTo;
+    }
+
+    public void setExpiryTo(LocalDate expiryTo) {
+        this.expiryTo = expiryTo;
+    }
+
+    public Integer getExpiringWithinDays() {
+        return expiringWithinDays;
+    }
+
+    public void setExpiringWithinDays(Integer expiringWithinDays) {
+        this.expiringWithinDays = expiringWithinDays;
+    }
+
+    public LocalDate getCreatedFrom() {
+        return createdFrom;
+    }
+
+    public void setCreatedFrom(LocalDate createdFrom) {
+        this.createdFrom = createdFrom;
+    }
+
+    public LocalDate getCreatedTo() {
+        return createdTo;
+    }
+
+    public void setCreatedTo(LocalDate createdTo) {
+        this.createdTo = createdTo;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+}
@@ -0,0 +1,39 @@
+package org.delcom.app.dto;
+
+/**
+ * Body JSON untuk PATCH /api/food-products/{id}/status. {@code version} adalah
+ * versi produk yang terakhir dibaca klien; notes boleh null (tidak diubah).
+ */
+public class StatusTransitionForm {
+
+    private String inspectionStatus;
+    private String notes;
+    private Long version;
+
+    public StatusTransitionForm() {
+    }
+
+    public String getInspectionStatus() {
+        return inspectionStatus;
+    }
+
+    public void setInspectionStatus(String inspectionStatus) {
+        this.inspectionStatus = inspectionStatus;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
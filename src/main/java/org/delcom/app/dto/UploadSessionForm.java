@@ -0,0 +1,50 @@
+package org.delcom.app.dto;
+
+public class UploadSessionForm {
+
+    // Nama file asli dari perangkat (mis. IMG_0012.jpg)
+    private String filename;
+
+    // Tipe file gambar (image/jpeg, image/png, ...)
+    private String contentType;
+
+    // Ukuran total file dalam byte
+    private long totalSize;
+
+    public UploadSessionForm() {
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public void setFilename(String filename) {
+        this.filename = filename;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+    public void setTotalSize(long totalSize) {
+        this.totalSize = totalSize;
+    }
+
+    // Validasi tipe file sama dengan ProductImageForm
+    public boolean isValidImage() {
+        return contentType != null &&
+                (contentType.equals("image/jpeg") ||
+                 contentType.equals("image/png") ||
+                 contentType.equals("image/jpg") ||
+                 contentType.equals("image/gif") ||
+                 contentType.equals("image/webp"));
+    }
+}
@@ -0,0 +1,44 @@
+package org.delcom.app.entities;
+
+import java.util.UUID;
+
+import jakarta.persistence.*;
+
+/**
+ * Penghitung versi koleksi produk per user. Dinaikkan di transaksi yang sama dengan
+ * penulisan produk, sehingga semua instance aplikasi membaca versi yang sama.
+ */
+@Entity
+@Table(name = "collection_versions")
+public class CollectionVersion {
+    @Id
+    @Column(name = "user_id", updatable = false, nullable = false, columnDefinition = "uuid")
+    private UUID userId;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    public CollectionVersion() {
+    }
+
+    public CollectionVersion(UUID userId, long version) {
+        this.userId = userId;
+        this.version = version;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
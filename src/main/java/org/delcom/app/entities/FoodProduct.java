@@ -4,18 +4,35 @@ import java.time.LocalDate;
 import java.time.LocalDateTime; // [BARU] Import LocalDate
 import java.util.UUID;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
-@Table(name = "food_products")
+// Index (user_id, kolom) untuk filter & sort daftar produk (lihat FoodProductSpecifications)
+@Table(name = "food_products", indexes = {
+        @Index(name = "idx_food_products_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_food_products_user_expiry", columnList = "user_id, expiry_date"),
+        @Index(name = "idx_food_products_user_production", columnList = "user_id, production_date"),
+        @Index(name = "idx_food_products_user_status", columnList = "user_id, inspection_status"),
+        @Index(name = "idx_food_products_user_category", columnList = "user_id, category"),
+        @Index(name = "idx_food_products_user_name", columnList = "user_id, product_name")
+})
 public class FoodProduct {
 
+    // Status pemrosesan foto sampel (mode upload async)
+    public static final String IMAGE_STATUS_PROCESSING = "PROCESSING";
+    public static final String IMAGE_STATUS_READY = "READY";
+    public static final String IMAGE_STATUS_FAILED = "FAILED";
+
     // --- 1. ID (Wajib) ---
     @Id
     @GeneratedValue(generator = "UUID")
@@ -46,6 +63,14 @@ public class FoodProduct {
     @Column(name = "product_image", nullable = true)
     private String productImage;
 
+    // --- 7b. Ukuran Foto Sampel (byte, setelah normalisasi) ---
+    @Column(name = "image_size", nullable = true)
+    private Long imageSize;
+
+    // --- 7c. Status Pemrosesan Foto (PROCESSING / READY / FAILED) ---
+    @Column(name = "image_status", nullable = true, length = 16)
+    private String imageStatus;
+
     // --- 8. Catatan ---
     @Column(name = "notes", nullable = true, length = 1000) // length opsional, untuk teks panjang
     private String notes;
@@ -66,6 +91,12 @@ public class FoodProduct {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    // --- 13. Versi (optimistic locking, naik di setiap UPDATE) ---
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private long version;
+
     // ======= Constructor =======
     public FoodProduct() {
     }
@@ -137,6 +168,22 @@ public class FoodProduct {
         this.productImage = productImage;
     }
 
+    public Long getImageSize() {
+        return imageSize;
+    }
+
+    public void setImageSize(Long imageSize) {
+        this.imageSize = imageSize;
+    }
+
+    public String getImageStatus() {
+        return imageStatus;
+    }
+
+    public void setImageStatus(String imageStatus) {
+        this.imageStatus = imageStatus;
+    }
+
     public String getNotes() {
         return notes;
     }
@@ -171,6 +218,14 @@ public class FoodProduct {
         return updatedAt;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     // ======= @PrePersist & @PreUpdate =======
     @PrePersist
     protected void onCreate() {
@@ -4,6 +4,10 @@ import org.delcom.app.configs.AuthContext;
 import org.delcom.app.entities.AuthToken;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.services.JfrEvents;
+import org.delcom.app.services.MetricsService;
+import org.delcom.app.services.MetricsService.AuthOutcome;
+import org.delcom.app.services.RequestTiming;
 import org.delcom.app.services.UserService;
 import org.delcom.app.utils.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,6 +31,9 @@ public class AuthInterceptor implements HandlerInterceptor {
     @Autowired
     protected UserService userService;
 
+    @Autowired
+    protected MetricsService metricsService;
+
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
             throws Exception {
@@ -35,48 +42,68 @@ public class AuthInterceptor implements HandlerInterceptor {
             return true;
         }
 
+        long start = System.nanoTime();
+        JfrEvents.AuthCheck event = new JfrEvents.AuthCheck();
+        event.begin();
+        event.uri = request.getRequestURI();
+
         // Ambil bearer token dari header
         String rawAuthToken = request.getHeader("Authorization");
         String token = extractToken(rawAuthToken);
 
         // Validasi token
         if (token == null || token.isEmpty()) {
-            sendErrorResponse(response, 401, "Token autentikasi tidak ditemukan");
-            return false;
+            return reject(response, start, event, AuthOutcome.MISSING_TOKEN, 401, "Token autentikasi tidak ditemukan");
         }
 
         // Validasi format token JWT
         if (!JwtUtil.validateToken(token, true)) {
-            sendErrorResponse(response, 401, "Token autentikasi tidak valid");
-            return false;
+            return reject(response, start, event, AuthOutcome.INVALID_TOKEN, 401, "Token autentikasi tidak valid");
         }
 
         // Ekstrak userId dari token
         UUID userId = JwtUtil.extractUserId(token);
         if (userId == null) {
-            sendErrorResponse(response, 401, "Format token autentikasi tidak valid");
-            return false;
+            return reject(response, start, event, AuthOutcome.INVALID_TOKEN, 401, "Format token autentikasi tidak valid");
         }
 
         // Cari token di database
+        long dbStart = System.nanoTime();
         AuthToken authToken = authTokenService.findUserToken(userId, token);
+        event.dbTime = System.nanoTime() - dbStart;
         if (authToken == null) {
-            sendErrorResponse(response, 401, "Token autentikasi sudah expired");
-            return false;
+            return reject(response, start, event, AuthOutcome.EXPIRED_TOKEN, 401, "Token autentikasi sudah expired");
         }
 
         // Ambil data user
+        dbStart = System.nanoTime();
         User authUser = userService.getUserById(authToken.getUserId());
+        event.dbTime += System.nanoTime() - dbStart;
         if (authUser == null) {
-            sendErrorResponse(response, 404, "User tidak ditemukan");
-            return false;
+            return reject(response, start, event, AuthOutcome.USER_NOT_FOUND, 404, "User tidak ditemukan");
         }
 
         // Set user ke auth context
         authContext.setAuthUser(authUser);
+        record(start, event, AuthOutcome.SUCCESS);
         return true;
     }
 
+    private boolean reject(HttpServletResponse response, long start, JfrEvents.AuthCheck event,
+            AuthOutcome outcome, int status, String message) throws Exception {
+        record(start, event, outcome);
+        sendErrorResponse(response, status, message);
+        return false;
+    }
+
+    // Hasil pemeriksaan ke metrics, Server-Timing, dan event JFR
+    private void record(long start, JfrEvents.AuthCheck event, AuthOutcome outcome) {
+        metricsService.recordAuth(outcome);
+        RequestTiming.record(RequestTiming.Phase.AUTH, System.nanoTime() - start);
+        event.outcome = outcome.name();
+        event.commit();
+    }
+
     private String extractToken(String rawAuthToken) {
         if (rawAuthToken != null && rawAuthToken.startsWith("Bearer ")) {
             return rawAuthToken.substring(7); // hapus "Bearer "
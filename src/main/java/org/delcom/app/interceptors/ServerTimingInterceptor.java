@@ -0,0 +1,26 @@
+package org.delcom.app.interceptors;
+
+import org.delcom.app.services.RequestTiming;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Menandai awal render view untuk {@link RequestTiming}. Endpoint REST
+ * ({@code @ResponseBody}) tidak punya {@link ModelAndView}, jadi tidak
+ * mendapat fase render.
+ */
+@Component
+public class ServerTimingInterceptor implements HandlerInterceptor {
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+            ModelAndView modelAndView) {
+        if (modelAndView != null && modelAndView.hasView()) {
+            RequestTiming.markRenderStart();
+        }
+    }
+}
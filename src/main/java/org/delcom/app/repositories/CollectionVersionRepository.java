@@ -0,0 +1,27 @@
+package org.delcom.app.repositories;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.delcom.app.entities.CollectionVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface CollectionVersionRepository extends JpaRepository<CollectionVersion, UUID> {
+    @Query("SELECT v.version FROM CollectionVersion v WHERE v.userId = :userId")
+    Optional<Long> findVersionByUserId(@Param("userId") UUID userId);
+
+    // Upsert atomik: baris dibuat saat penulisan pertama, selanjutnya version + 1.
+    // Ikut transaksi pemanggil jika ada, sehingga rollback juga membatalkan kenaikan versi.
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO collection_versions (user_id, version) VALUES (:userId, 1) " +
+           "ON CONFLICT (user_id) DO UPDATE SET version = collection_versions.version + 1",
+           nativeQuery = true)
+    int increment(@Param("userId") UUID userId);
+}
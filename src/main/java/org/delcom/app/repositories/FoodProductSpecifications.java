@@ -0,0 +1,117 @@
+package org.delcom.app.repositories;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.dto.ProductFilter;
+import org.delcom.app.entities.FoodProduct;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Menerjemahkan {@link ProductFilter} menjadi satu klausa WHERE dan ORDER BY,
+ * sehingga filter dan urutan dikerjakan database (bukan stream di Java).
+ * Kolom filter dan sort di-index bersama {@code user_id} (lihat {@link FoodProduct}).
+ */
+public final class FoodProductSpecifications {
+
+    // Sort yang diizinkan: masing-masing punya index (user_id, kolom)
+    public static final List<String> SORT_KEYS = List.of(
+            "createdAt", "expiryDate", "productionDate", "productName", "inspectionStatus", "category");
+
+    private static final Sort DEFAULT_SORT = Sort.by(Sort.Direction.DESC, "createdAt");
+
+    private FoodProductSpecifications() {
+    }
+
+    public static Specification<FoodProduct> matching(UUID userId, ProductFilter filter, LocalDate today) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("userId"), userId));
+
+            if (hasText(filter.getSearch())) {
+                String pattern = "%" + filter.getSearch().trim().toLowerCase() + "%";
+                predicates.add(cb.or(
+                        cb.like(cb.lower(root.get("productName")), pattern),
+                        cb.like(cb.lower(root.get("batchCode")), pattern),
+                        cb.like(cb.lower(root.get("category")), pattern)));
+            }
+
+            List<String> statuses = statuses(filter.getStatus());
+            if (!statuses.isEmpty()) {
+                predicates.add(root.get("inspectionStatus").in(statuses));
+            }
+            if (hasText(filter.getCategory())) {
+                predicates.add(cb.equal(root.get("category"), filter.getCategory().trim()));
+            }
+
+            range(predicates, cb, root.get("productionDate"), filter.getProductionFrom(), filter.getProductionTo());
+            range(predicates, cb, root.get("expiryDate"), filter.getExpiryFrom(), filter.getExpiryTo());
+            if (filter.getExpiringWithinDays() != null) {
+                predicates.add(cb.between(root.get("expiryDate"), today, today.plusDays(filter.getExpiringWithinDays())));
+            }
+
+            // createdAt berupa timestamp: rentang tanggal inklusif [from 00:00, to+1 00:00)
+            if (filter.getCreatedFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), filter.getCreatedFrom().atStartOfDay()));
+            }
+            if (filter.getCreatedTo() != null) {
+                predicates.add(cb.lessThan(root.get("createdAt"), filter.getCreatedTo().plusDays(1).atStartOfDay()));
+            }
+
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Parse parameter {@code ?sort=expiryDate} / {@code ?sort=-expiryDate}. Id selalu
+     * ditambahkan sebagai tie-breaker supaya urutan stabil.
+     *
+     * @throws IllegalArgumentException jika field sort tidak dikenal
+     */
+    public static Sort sort(String sort) {
+        if (!hasText(sort)) {
+            return DEFAULT_SORT.and(Sort.by("id"));
+        }
+        String key = sort.trim();
+        boolean descending = key.startsWith("-");
+        String property = descending ? key.substring(1) : key;
+        if (!SORT_KEYS.contains(property)) {
+            throw new IllegalArgumentException("Sort tidak dikenal: " + property);
+        }
+        return Sort.by(descending ? Sort.Direction.DESC : Sort.Direction.ASC, property).and(Sort.by("id"));
+    }
+
+    // Status dinormalisasi ke huruf besar; kosong atau "ALL" berarti semua status
+    private static List<String> statuses(List<String> status) {
+        List<String> result = new ArrayList<>();
+        if (status != null) {
+            for (String value : status) {
+                if (hasText(value) && !value.equalsIgnoreCase("ALL")) {
+                    result.add(value.trim().toUpperCase());
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void range(List<Predicate> predicates, CriteriaBuilder cb, Path<LocalDate> path,
+            LocalDate from, LocalDate to) {
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(path, from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThanOrEqualTo(path, to));
+        }
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
@@ -2,16 +2,21 @@ package org.delcom.app.repositories;
 
 import org.delcom.app.entities.FoodProduct;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface FoodQualityRepository extends JpaRepository<FoodProduct, UUID> {
+public interface FoodQualityRepository extends JpaRepository<FoodProduct, UUID>, JpaSpecificationExecutor<FoodProduct>,
+        FoodQualityRepositoryCustom {
 
     // 1. Cari berdasarkan User ID (Standard)
     List<FoodProduct> findByUserId(UUID userId);
@@ -38,4 +43,23 @@ public interface FoodQualityRepository extends JpaRepository<FoodProduct, UUID>
     // Digunakan di Controller endpoint /batches
     @Query("SELECT DISTINCT f.batchCode FROM FoodProduct f WHERE f.userId = :userId ORDER BY f.batchCode")
     List<String> findDistinctBatchCodesByUserId(@Param("userId") UUID userId);
-}
\ No newline at end of file
+
+    // 7. Ambil updatedAt saja untuk validasi ETag (tanpa memuat seluruh entity)
+    @Query("SELECT f.updatedAt FROM FoodProduct f WHERE f.id = :id AND f.userId = :userId")
+    Optional<LocalDateTime> findUpdatedAtByIdAndUserId(@Param("id") UUID id, @Param("userId") UUID userId);
+
+    // 8. Ambil banyak produk milik user sekaligus (untuk operasi batch)
+    List<FoodProduct> findByUserIdAndIdIn(UUID userId, Collection<UUID> ids);
+
+    // 9. Ubah status inspeksi (dan catatan jika dikirim) hanya jika versi belum berubah.
+    // Satu UPDATE tanpa memuat entity; hasil 0 berarti konflik versi atau produk tidak ada.
+    @Modifying
+    @Query("UPDATE FoodProduct f SET f.inspectionStatus = :status, f.notes = COALESCE(:notes, f.notes), " +
+           "f.version = f.version + 1, f.updatedAt = :updatedAt " +
+           "WHERE f.id = :id AND f.userId = :userId AND f.version = :version")
+    int updateStatusIfVersion(@Param("id") UUID id, @Param("userId") UUID userId, @Param("version") long version,
+            @Param("status") String status, @Param("notes") String notes, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // 10. Cek keberadaan produk tanpa memuat entity
+    boolean existsByIdAndUserId(UUID id, UUID userId);
+}
@@ -0,0 +1,31 @@
+package org.delcom.app.repositories;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.delcom.app.entities.FoodProduct;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Query produk dengan kolom terpilih (sparse fieldset). Hanya kolom yang diminta
+ * yang masuk ke klausa SELECT; hasil berupa map nama field -> nilai, urut sesuai
+ * permintaan. Juga cursor untuk menulis daftar produk besar secara streaming.
+ */
+public interface FoodQualityRepositoryCustom {
+
+    // Filter dari FoodProductSpecifications, diurutkan sesuai sort
+    List<Map<String, Object>> findFields(Specification<FoodProduct> spec, Sort sort, List<String> fields);
+
+    Optional<Map<String, Object>> findFieldsByIdAndUserId(UUID id, UUID userId, List<String> fields);
+
+    /**
+     * Baca produk satu per satu lewat cursor database (fetch size terbatas) dan
+     * lepaskan dari persistence context setelah diproses, sehingga memori tidak
+     * bertambah mengikuti jumlah baris. Harus dipanggil di dalam transaksi.
+     */
+    void forEachMatching(Specification<FoodProduct> spec, Sort sort, Consumer<FoodProduct> action);
+}
@@ -0,0 +1,112 @@
+package org.delcom.app.repositories;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.delcom.app.entities.FoodProduct;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+// Implementasi fragment FoodQualityRepositoryCustom (dideteksi Spring Data dari suffix "Impl")
+public class FoodQualityRepositoryImpl implements FoodQualityRepositoryCustom {
+
+    // Jumlah baris per round-trip saat membaca lewat cursor
+    static final int STREAM_FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFields(Specification<FoodProduct> spec, Sort sort, List<String> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<FoodProduct> root = query.from(FoodProduct.class);
+        query.multiselect(selections(root, fields));
+        query.where(spec.toPredicate(root, query, cb));
+        query.orderBy(orders(cb, root, sort));
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            rows.add(toMap(tuple, fields));
+        }
+        return rows;
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findFieldsByIdAndUserId(UUID id, UUID userId, List<String> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<FoodProduct> root = query.from(FoodProduct.class);
+        query.multiselect(selections(root, fields));
+        query.where(cb.equal(root.get("id"), id), cb.equal(root.get("userId"), userId));
+
+        return entityManager.createQuery(query).getResultStream()
+                .findFirst()
+                .map(tuple -> toMap(tuple, fields));
+    }
+
+    @Override
+    public void forEachMatching(Specification<FoodProduct> spec, Sort sort, Consumer<FoodProduct> action) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<FoodProduct> query = cb.createQuery(FoodProduct.class);
+        Root<FoodProduct> root = query.from(FoodProduct.class);
+        query.where(spec.toPredicate(root, query, cb));
+        query.orderBy(orders(cb, root, sort));
+
+        // PostgreSQL hanya memakai cursor jika fetch size diset dan autocommit mati (di dalam transaksi)
+        TypedQuery<FoodProduct> typed = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        try (Stream<FoodProduct> products = typed.getResultStream()) {
+            products.forEach(product -> {
+                action.accept(product);
+                entityManager.detach(product);
+            });
+        }
+    }
+
+    private static List<Order> orders(CriteriaBuilder cb, Root<FoodProduct> root, Sort sort) {
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Expression<Object> path = root.get(order.getProperty());
+            orders.add(order.isAscending() ? cb.asc(path) : cb.desc(path));
+        }
+        return orders;
+    }
+
+    private static List<Selection<?>> selections(Root<FoodProduct> root, List<String> fields) {
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            Expression<Object> path = root.get(field);
+            selections.add(path.alias(field));
+        }
+        return selections;
+    }
+
+    // LinkedHashMap: urutan field di JSON mengikuti parameter ?fields=
+    private static Map<String, Object> toMap(Tuple tuple, List<String> fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (String field : fields) {
+            row.put(field, tuple.get(field));
+        }
+        return row;
+    }
+}
@@ -0,0 +1,65 @@
+package org.delcom.app.services;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ring buffer terbatas tanpa lock untuk banyak producer (thread request) dan satu
+ * consumer (writer access log). Setiap slot punya nomor urut sendiri, sehingga
+ * producer cukup satu CAS pada {@code tail} dan tidak pernah menunggu: jika buffer
+ * penuh, {@link #offer(Object)} langsung mengembalikan false.
+ */
+class AccessLogBuffer<T> {
+
+    private final int mask;
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+
+    // Hanya dibaca/ditulis oleh satu thread consumer
+    private long head;
+
+    // Kapasitas dibulatkan ke atas menjadi pangkat dua
+    AccessLogBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    boolean offer(T item) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long available = sequences.get(index) - position;
+            if (available < 0) {
+                return false;
+            }
+            if (available == 0 && tail.compareAndSet(position, position + 1)) {
+                slots.lazySet(index, item);
+                sequences.lazySet(index, position + 1);
+                return true;
+            }
+        }
+    }
+
+    T poll() {
+        int index = (int) head & mask;
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        T item = slots.get(index);
+        slots.lazySet(index, null);
+        sequences.lazySet(index, head + capacity());
+        head++;
+        return item;
+    }
+}
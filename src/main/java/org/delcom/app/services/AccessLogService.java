@@ -0,0 +1,298 @@
+package org.delcom.app.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.method.HandlerMethod;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Access log terstruktur (satu baris JSON per request). Thread request hanya
+ * memasukkan satu {@link Entry} ke {@link AccessLogBuffer} tanpa lock dan tanpa
+ * I/O; format, penulisan ke file, dan rotasi dikerjakan satu thread writer di
+ * background. Jika buffer penuh, entri dibuang dan dihitung (request tidak pernah
+ * menunggu logging). Kegagalan I/O (disk penuh, izin, rotasi gagal) tidak
+ * menghentikan writer: entri sementara ditulis ke stdout dan file dibuka ulang
+ * dengan backoff.
+ */
+@Service
+public class AccessLogService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessLogService.class);
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long RETRY_MIN_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long RETRY_MAX_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final AccessLogBuffer<Entry> buffer;
+    private final Path file;
+    private final long maxFileBytes;
+    private final int maxFiles;
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private long reportedDropped;
+
+    private volatile boolean running;
+    private Thread writerThread;
+    private final Writer stdout = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+    private Writer writer = stdout;
+    private long fileBytes;
+
+    // Sedang menulis ke stdout karena file gagal dibuka/ditulis/dirotasi
+    private volatile boolean degraded;
+    // Jeda percobaan pertama membuka ulang file (diperkecil di test)
+    long retryMinNanos = RETRY_MIN_NANOS;
+    private long retryDelayNanos;
+    private long retryAtNanos;
+
+    public AccessLogService(
+            @Value("${app.access-log.file:./logs/access.log}") String file,
+            @Value("${app.access-log.max-file-bytes:10485760}") long maxFileBytes,
+            @Value("${app.access-log.max-files:5}") int maxFiles,
+            @Value("${app.access-log.buffer-capacity:8192}") int bufferCapacity) {
+        this.buffer = new AccessLogBuffer<>(bufferCapacity);
+        this.file = file == null || file.isBlank() ? null : Paths.get(file);
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+    }
+
+    /**
+     * Satu request yang selesai. {@code handler} disimpan apa adanya dan baru
+     * diubah menjadi nama "Controller.method" di thread writer; begitu juga
+     * {@code timing} (sudah di-{@code finish()}, null jika tidak diukur).
+     */
+    public record Entry(
+            long timestampMillis,
+            String method,
+            String uri,
+            int status,
+            long durationNanos,
+            Object handler,
+            String remoteAddr,
+            String requestId,
+            RequestTiming timing) {
+    }
+
+    // Dipanggil di thread request: tanpa lock, tanpa alokasi selain entri itu sendiri
+    public void log(Entry entry) {
+        if (!buffer.offer(entry)) {
+            dropped.increment();
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writerThread = Thread.ofPlatform().daemon().name("access-log-writer").start(this::drainLoop);
+    }
+
+    // Tulis sisa entri di buffer sebelum aplikasi berhenti
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    public AccessLogStats getStats() {
+        return new AccessLogStats(written.sum(), dropped.sum(), buffer.capacity(),
+                file != null && !degraded ? file.toString() : "stdout");
+    }
+
+    private void drainLoop() {
+        open();
+        while (true) {
+            // Dibaca sebelum poll: entri yang masuk sebelum stop() pasti ikut terkuras
+            boolean stopping = !running;
+            Entry entry = buffer.poll();
+            if (entry != null) {
+                write(format(entry));
+                continue;
+            }
+            io(writer::flush);
+            reportDropped();
+            if (stopping) {
+                break;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        io(writer == stdout ? stdout::flush : writer::close);
+    }
+
+    // Ukuran dihitung dari jumlah karakter (log hampir selalu ASCII). Jika file gagal
+    // ditulis atau dirotasi, baris yang sama ditulis ke stdout.
+    private void write(String line) {
+        if (degraded && System.nanoTime() - retryAtNanos >= 0) {
+            open();
+        }
+        boolean ok = io(() -> {
+            if (writer != stdout && fileBytes + line.length() > maxFileBytes && fileBytes > 0) {
+                rotate();
+            }
+            writer.write(line);
+            fileBytes += line.length();
+        });
+        if (!ok) {
+            io(() -> writer.write(line));
+        }
+        written.increment();
+    }
+
+    // access.log -> access.log.1 -> ... -> access.log.<max-files> (yang tertua dihapus)
+    private void rotate() throws IOException {
+        writer.close();
+        Files.deleteIfExists(rotated(maxFiles));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            if (Files.exists(rotated(i))) {
+                Files.move(rotated(i), rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        open();
+    }
+
+    private Path rotated(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    // Buka file log (stdout jika tidak dikonfigurasi). Gagal membuka tidak menghentikan
+    // writer: entri ditulis ke stdout dulu, file dicoba lagi setelah backoff.
+    private void open() {
+        if (file == null) {
+            writer = stdout;
+            return;
+        }
+        try {
+            writer = openWriter();
+            fileBytes = Files.exists(file) ? Files.size(file) : 0;
+            if (degraded) {
+                degraded = false;
+                log.info("Access log kembali ditulis ke {}", file);
+            }
+        } catch (IOException e) {
+            degrade(e);
+        }
+    }
+
+    Writer openWriter() throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        return new BufferedWriter(new OutputStreamWriter(
+                Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND),
+                StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    // Pindah ke stdout; percobaan membuka ulang file berikutnya ditunda 1 detik,
+    // lalu dua kali lipat setiap gagal lagi (maksimal 1 menit)
+    private void degrade(IOException e) {
+        if (!degraded) {
+            log.error("Gagal menulis access log {}, sementara ditulis ke stdout", file, e);
+            retryDelayNanos = retryMinNanos;
+        } else {
+            retryDelayNanos = Math.min(retryDelayNanos * 2, RETRY_MAX_NANOS);
+        }
+        degraded = true;
+        retryAtNanos = System.nanoTime() + retryDelayNanos;
+        if (writer != stdout) {
+            try {
+                writer.close();
+            } catch (IOException ignored) {
+                // File memang sedang bermasalah; isi buffer yang belum tertulis hilang
+            }
+            writer = stdout;
+        }
+    }
+
+    private boolean io(IoAction action) {
+        try {
+            action.run();
+            return true;
+        } catch (IOException e) {
+            degrade(e);
+            return false;
+        }
+    }
+
+    private interface IoAction {
+        void run() throws IOException;
+    }
+
+    private void reportDropped() {
+        long total = dropped.sum();
+        if (total > reportedDropped) {
+            log.warn("Access log penuh, {} entri dibuang", total - reportedDropped);
+            reportedDropped = total;
+        }
+    }
+
+    static String format(Entry entry) {
+        StringBuilder line = new StringBuilder(320);
+        line.append("{\"ts\":\"").append(Instant.ofEpochMilli(entry.timestampMillis())).append('"');
+        line.append(",\"method\":\"").append(entry.method()).append('"');
+        line.append(",\"uri\":");
+        appendString(line, entry.uri());
+        line.append(",\"status\":").append(entry.status());
+        line.append(",\"duration_us\":").append(entry.durationNanos() / 1_000);
+        line.append(",\"handler\":");
+        appendString(line, handlerName(entry.handler()));
+        line.append(",\"remote\":");
+        appendString(line, entry.remoteAddr());
+        line.append(",\"request_id\":");
+        appendString(line, entry.requestId());
+        line.append(",\"timing\":");
+        if (entry.timing() != null) {
+            entry.timing().appendJson(line);
+        } else {
+            line.append("null");
+        }
+        return line.append("}\n").toString();
+    }
+
+    // "FoodProductController.getAllProducts" untuk controller, nama kelas untuk handler lain
+    public static String handlerName(Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        }
+        return handler != null ? handler.getClass().getSimpleName() : null;
+    }
+
+    private static void appendString(StringBuilder line, String value) {
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append(String.format("\\u%04x", (int) c));
+            } else {
+                line.append(c);
+            }
+        }
+        line.append('"');
+    }
+
+    public record AccessLogStats(long written, long dropped, int bufferCapacity, String target) {
+    }
+}
@@ -0,0 +1,18 @@
+package org.delcom.app.services;
+
+import java.util.UUID;
+
+/**
+ * Hasil satu operasi batch. {@code index} sesuai posisi operasi di request,
+ * {@code status} "success" atau "fail" (dengan alasan di {@code message}).
+ */
+public record BatchOperationResult(int index, String op, String status, UUID id, String message) {
+
+    static BatchOperationResult success(int index, String op, UUID id) {
+        return new BatchOperationResult(index, op, "success", id, null);
+    }
+
+    static BatchOperationResult fail(int index, String op, UUID id, String message) {
+        return new BatchOperationResult(index, op, "fail", id, message);
+    }
+}
@@ -1,5 +1,6 @@
 package org.delcom.app.services;
 
+import org.delcom.app.utils.ShardedPathUtil;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -32,16 +33,21 @@ public class FileStorageService {
 
         String filename = "cover_" + todoId.toString() + fileExtension;
 
-        // Simpan file
-        Path filePath = uploadPath.resolve(filename);
+        // Simpan file ke direktori shard
+        Path shardPath = ShardedPathUtil.shardDirectory(uploadPath, filename);
+        Files.createDirectories(shardPath);
+        Path filePath = shardPath.resolve(filename);
         Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
 
+        // Hapus salinan lama di layout flat agar tidak tertinggal
+        Files.deleteIfExists(uploadPath.resolve(filename));
+
         return filename;
     }
 
     public boolean deleteFile(String filename) {
         try {
-            Path filePath = Paths.get(uploadDir).resolve(filename);
+            Path filePath = loadFile(filename);
             return Files.deleteIfExists(filePath);
         } catch (IOException e) {
             return false;
@@ -49,7 +55,7 @@ public class FileStorageService {
     }
 
     public Path loadFile(String filename) {
-        return Paths.get(uploadDir).resolve(filename);
+        return ShardedPathUtil.resolveExisting(Paths.get(uploadDir), filename);
     }
 
     public boolean fileExists(String filename) {
@@ -4,41 +4,91 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
+import org.delcom.app.dto.BatchOperationForm;
 import org.delcom.app.dto.FoodProductForm;
+import org.delcom.app.dto.ProductFilter;
 import org.delcom.app.dto.ProductImageForm;
+import org.delcom.app.dto.StatusTransitionForm;
 import org.delcom.app.entities.FoodProduct;
+import org.delcom.app.repositories.FoodProductSpecifications;
 import org.delcom.app.repositories.FoodQualityRepository;
+import org.delcom.app.utils.ShardedPathUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 @Service
 @Transactional
 public class FoodQualityService {
 
+    private static final Logger log = LoggerFactory.getLogger(FoodQualityService.class);
+
+    // Field yang boleh dipilih lewat ?fields= (nama sama dengan properti JSON FoodProduct)
+    public static final List<String> SELECTABLE_FIELDS = List.of(
+            "id", "userId", "batchCode", "productName", "category", "inspectionStatus",
+            "productImage", "imageSize", "imageStatus", "notes", "productionDate", "expiryDate",
+            "createdAt", "updatedAt", "version");
+
+    // Status inspeksi yang dikenal (juga kunci statistik)
+    public static final List<String> INSPECTION_STATUSES = List.of("PENDING", "PASSED", "REJECTED");
+
     private final FoodQualityRepository productRepository;
+    private final ImageIngestService imageIngestService;
+    private final UploadAdmissionService uploadAdmissionService;
+    private final ResourceVersionService resourceVersionService;
+    private final InspectionEventService inspectionEventService;
+    private final MetricsService metricsService;
+    private final ImageCacheService imageCacheService;
+    private final TransactionTemplate transactionTemplate;
     
     // Default path. Test akan mengubah field ini via Reflection,
     // jadi kita membacanya secara dinamis di method storeFile.
     private String UPLOAD_DIR = "uploads"; 
 
-    public FoodQualityService(FoodQualityRepository productRepository) {
-        this.productRepository = productRepository;
-        init();
-    }
+    // Mode async: foto diproses di background, response langsung kembali dengan status PROCESSING
+    @Value("${app.upload.async.enabled:false}")
+    private boolean asyncImageProcessing;
 
-    private void init() {
-        try {
-            Files.createDirectories(Paths.get(UPLOAD_DIR));
-        } catch (IOException e) {
-            throw new RuntimeException("Could not initialize storage", e);
-        }
+    public FoodQualityService(FoodQualityRepository productRepository, ImageIngestService imageIngestService,
+            UploadAdmissionService uploadAdmissionService, ResourceVersionService resourceVersionService,
+            InspectionEventService inspectionEventService, MetricsService metricsService,
+            ImageCacheService imageCacheService, PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.imageIngestService = imageIngestService;
+        this.uploadAdmissionService = uploadAdmissionService;
+        this.resourceVersionService = resourceVersionService;
+        this.inspectionEventService = inspectionEventService;
+        this.metricsService = metricsService;
+        this.imageCacheService = imageCacheService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Direktori upload dibuat saat foto pertama disimpan (writeImage/spool), bukan saat startup
     }
 
     public List<FoodProduct> getAllProducts(UUID userId, String keyword) {
@@ -52,6 +102,79 @@ public class FoodQualityService {
         return getAllProducts(userId, null);
     }
 
+    /**
+     * Daftar produk dengan filter dan sort yang dikerjakan database dalam satu query.
+     *
+     * @throws IllegalArgumentException jika sort tidak dikenal atau expiringWithinDays negatif
+     */
+    public List<FoodProduct> findProducts(UUID userId, ProductFilter filter) {
+        return productRepository.findAll(specification(userId, filter), FoodProductSpecifications.sort(filter.getSort()));
+    }
+
+    // Sparse fieldset + filter: hanya kolom yang diminta yang di-SELECT dari database
+    public List<Map<String, Object>> findProductFields(UUID userId, ProductFilter filter, List<String> fields) {
+        return productRepository.findFields(specification(userId, filter),
+                FoodProductSpecifications.sort(filter.getSort()), fields);
+    }
+
+    /**
+     * Streaming: setiap produk yang cocok diberikan ke {@code action} langsung dari
+     * cursor database, tanpa menampung seluruh hasil di memori. Transaksi read-only
+     * tetap terbuka sampai produk terakhir ditulis.
+     *
+     * @throws IllegalArgumentException jika sort tidak dikenal atau expiringWithinDays negatif
+     */
+    @Transactional(readOnly = true)
+    public void streamProducts(UUID userId, ProductFilter filter, Consumer<FoodProduct> action) {
+        productRepository.forEachMatching(specification(userId, filter),
+                FoodProductSpecifications.sort(filter.getSort()), action);
+    }
+
+    /**
+     * Validasi filter sebelum response mulai ditulis (dipakai mode streaming, yang
+     * tidak bisa lagi mengganti status HTTP setelah byte pertama terkirim).
+     *
+     * @throws IllegalArgumentException jika sort tidak dikenal atau expiringWithinDays negatif
+     */
+    public static void validateFilter(ProductFilter filter) {
+        Integer days = filter.getExpiringWithinDays();
+        if (days != null && days < 0) {
+            throw new IllegalArgumentException("expiringWithinDays tidak boleh negatif");
+        }
+        FoodProductSpecifications.sort(filter.getSort());
+    }
+
+    private static Specification<FoodProduct> specification(UUID userId, ProductFilter filter) {
+        validateFilter(filter);
+        return FoodProductSpecifications.matching(userId, filter, LocalDate.now());
+    }
+
+    public Map<String, Object> getProductFieldsById(UUID userId, UUID productId, List<String> fields) {
+        return productRepository.findFieldsByIdAndUserId(productId, userId, fields).orElse(null);
+    }
+
+    /**
+     * Parse parameter {@code ?fields=productName,batchCode}. Field {@code id} selalu
+     * disertakan di urutan pertama, duplikat diabaikan.
+     *
+     * @throws IllegalArgumentException jika ada field yang tidak dikenal
+     */
+    public static List<String> parseFields(String fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!SELECTABLE_FIELDS.contains(name)) {
+                throw new IllegalArgumentException("Field tidak dikenal: " + name);
+            }
+            selected.add(name);
+        }
+        return List.copyOf(selected);
+    }
+
     public List<String> getAllBatchCodes(UUID userId) {
         return productRepository.findDistinctBatchCodesByUserId(userId);
     }
@@ -75,30 +198,50 @@ public class FoodQualityService {
         return stats;
     }
 
+    // Create/update yang membawa foto tidak dijalankan dalam satu transaksi: foto diproses
+    // dulu (menunggu slot upload, decode, resize), baru transaksi dimulai. Kalau tidak,
+    // koneksi pool ikut tertahan selama upload antre dan diproses.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public FoodProduct createProduct(UUID userId, FoodProductForm form) {
-        FoodProduct product = new FoodProduct();
-        product.setUserId(userId);
-        product.setBatchCode(form.getBatchCode());
-        product.setProductName(form.getProductName());
-        product.setCategory(form.getCategory());
-        product.setInspectionStatus(form.getInspectionStatus());
-        product.setNotes(form.getNotes());
-        
-        product.setProductionDate(form.getProductionDate());
-        product.setExpiryDate(form.getExpiryDate());
-
+        JfrEvents.ProductOperation event = productEvent("create");
         // Jika upload gagal, Exception akan dilempar dan ditangkap oleh Test
-        if (form.getImageFile() != null && !form.getImageFile().isEmpty()) {
-            String filename = storeFile(form.getImageFile());
-            product.setProductImage(filename);
-        }
+        PreparedImage image = prepareImage(hasImage(form) ? form.getImageFile() : null);
+
+        FoodProduct saved = inTransaction(image, () -> {
+            FoodProduct product = new FoodProduct();
+            product.setUserId(userId);
+            product.setBatchCode(form.getBatchCode());
+            product.setProductName(form.getProductName());
+            product.setCategory(form.getCategory());
+            product.setInspectionStatus(form.getInspectionStatus());
+            product.setNotes(form.getNotes());
+
+            product.setProductionDate(form.getProductionDate());
+            product.setExpiryDate(form.getExpiryDate());
 
-        return productRepository.save(product);
+            if (image != null) {
+                image.attachTo(product);
+            }
+
+            FoodProduct result = productRepository.save(product);
+            afterChange(userId, new InspectionEvent(InspectionEvent.CREATED, result.getId(), result.getInspectionStatus(), null));
+            return result;
+        });
+        return commit(event, saved.getId(), saved);
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public FoodProduct updateProduct(UUID userId, UUID productId, FoodProductForm form) {
+        JfrEvents.ProductOperation event = productEvent("update");
+        PreparedImage image = prepareImage(hasImage(form) ? form.getImageFile() : null);
+        return commit(event, productId, inTransaction(image, () -> updateProduct(userId, productId, form, image)));
+    }
+
+    private FoodProduct updateProduct(UUID userId, UUID productId, FoodProductForm form, PreparedImage image) {
         FoodProduct product = productRepository.findByIdAndUserId(productId, userId).orElse(null);
         if (product != null) {
+            String previousStatus = product.getInspectionStatus();
+            String previousImage = product.getProductImage();
             product.setProductName(form.getProductName());
             product.setBatchCode(form.getBatchCode());
             product.setCategory(form.getCategory());
@@ -108,40 +251,431 @@ public class FoodQualityService {
             product.setProductionDate(form.getProductionDate());
             product.setExpiryDate(form.getExpiryDate());
 
-            if (form.getImageFile() != null && !form.getImageFile().isEmpty()) {
-                String filename = storeFile(form.getImageFile());
-                product.setProductImage(filename);
+            if (image != null) {
+                image.attachTo(product);
             }
 
-            return productRepository.save(product);
+            FoodProduct saved = productRepository.save(product);
+            discardReplacedImage(previousImage, saved.getProductImage());
+            String type = Objects.equals(previousStatus, saved.getInspectionStatus())
+                    ? InspectionEvent.UPDATED
+                    : InspectionEvent.STATUS_CHANGED;
+            afterChange(userId, new InspectionEvent(type, productId, saved.getInspectionStatus(), previousStatus));
+            return saved;
         }
         return null;
     }
 
+    private static boolean hasImage(FoodProductForm form) {
+        return form.getImageFile() != null && !form.getImageFile().isEmpty();
+    }
+
+    /**
+     * Ubah status inspeksi (dan catatan, jika dikirim) dengan satu UPDATE bersyarat
+     * pada kolom version, tanpa memuat entity terlebih dahulu.
+     *
+     * @return versi baru, atau null jika produk tidak ditemukan
+     * @throws OptimisticLockingFailureException jika produk sudah diubah sejak versi yang dikirim
+     */
+    public Long transitionStatus(UUID userId, UUID productId, StatusTransitionForm form) {
+        int updated = productRepository.updateStatusIfVersion(productId, userId, form.getVersion(),
+                form.getInspectionStatus(), form.getNotes(), LocalDateTime.now());
+        if (updated == 0) {
+            // Hanya di jalur gagal: bedakan produk tidak ada (404) dengan konflik versi (409)
+            if (!productRepository.existsByIdAndUserId(productId, userId)) {
+                return null;
+            }
+            throw new OptimisticLockingFailureException("Produk sudah diubah, muat ulang data terlebih dahulu");
+        }
+        // Status lama tidak diketahui tanpa pre-read
+        afterChange(userId, new InspectionEvent(InspectionEvent.STATUS_CHANGED, productId, form.getInspectionStatus(), null));
+        return form.getVersion() + 1;
+    }
+
     public FoodProduct getProductById(UUID userId, UUID productId) {
-        return productRepository.findByIdAndUserId(productId, userId).orElse(null);
+        JfrEvents.ProductOperation event = productEvent("read");
+        return commit(event, productId, productRepository.findByIdAndUserId(productId, userId).orElse(null));
+    }
+
+    // Hanya kolom updatedAt, untuk ETag produk. Null jika produk tidak ada.
+    public LocalDateTime getProductUpdatedAt(UUID userId, UUID productId) {
+        return productRepository.findUpdatedAtByIdAndUserId(productId, userId).orElse(null);
+    }
+
+    // Versi koleksi produk milik user, untuk ETag list/batch/statistik
+    public String getCollectionVersion(UUID userId) {
+        return resourceVersionService.collectionTag(userId);
     }
 
     public boolean deleteProduct(UUID userId, UUID productId) {
-        if (productRepository.findByIdAndUserId(productId, userId).isPresent()) {
+        JfrEvents.ProductOperation event = productEvent("delete");
+        FoodProduct product = productRepository.findByIdAndUserId(productId, userId).orElse(null);
+        if (product != null) {
             productRepository.deleteByIdAndUserId(productId, userId);
-            return true;
+            discardImage(product.getProductImage());
+            afterChange(userId, new InspectionEvent(InspectionEvent.DELETED, productId, product.getInspectionStatus(), null));
+            return commit(event, productId, true);
         }
-        return false;
+        return commit(event, productId, false);
     }
 
+    /**
+     * Jalankan operasi create/update/delete dalam satu transaksi. Produk yang
+     * di-update/delete dimuat dengan satu query, insert dan update dikirim sebagai
+     * JDBC batch saat flush, dan delete dijalankan sebagai satu statement.
+     * <p>
+     * Operasi yang tidak valid (field wajib kosong, produk tidak ditemukan) dilewati
+     * dan dilaporkan sebagai "fail"; operasi lain tetap dijalankan. Pelanggaran
+     * constraint database (mis. kode batch duplikat) me-rollback seluruh batch.
+     */
+    public List<BatchOperationResult> applyBatch(UUID userId, List<BatchOperationForm> operations) {
+        Set<UUID> ids = new HashSet<>();
+        for (BatchOperationForm operation : operations) {
+            if (operation.getId() != null) {
+                ids.add(operation.getId());
+            }
+        }
+        Map<UUID, FoodProduct> owned = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (FoodProduct product : productRepository.findByUserIdAndIdIn(userId, ids)) {
+                owned.put(product.getId(), product);
+            }
+        }
+
+        BatchOperationResult[] results = new BatchOperationResult[operations.size()];
+        Map<Integer, FoodProduct> created = new LinkedHashMap<>();
+        List<UUID> deleted = new ArrayList<>();
+        boolean updated = false;
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperationForm operation = operations.get(i);
+            String op = operation.getOp();
+            UUID id = operation.getId();
+
+            if (BatchOperationForm.OP_CREATE.equals(op)) {
+                if (isBlank(operation.getProductName()) || isBlank(operation.getBatchCode())
+                        || isBlank(operation.getCategory()) || isBlank(operation.getInspectionStatus())) {
+                    results[i] = BatchOperationResult.fail(i, op, null,
+                            "Nama produk, kode batch, kategori, dan status inspeksi wajib diisi");
+                    continue;
+                }
+                FoodProduct product = new FoodProduct();
+                product.setUserId(userId);
+                applyChanges(product, operation);
+                created.put(i, product);
+            } else if (BatchOperationForm.OP_UPDATE.equals(op) || BatchOperationForm.OP_DELETE.equals(op)) {
+                // Produk yang sudah dihapus di operasi sebelumnya dianggap tidak ada
+                FoodProduct product = BatchOperationForm.OP_DELETE.equals(op) ? owned.remove(id) : owned.get(id);
+                if (product == null) {
+                    results[i] = BatchOperationResult.fail(i, op, id, "Produk tidak ditemukan");
+                } else if (BatchOperationForm.OP_DELETE.equals(op)) {
+                    deleted.add(id);
+                    discardImage(product.getProductImage());
+                    results[i] = BatchOperationResult.success(i, op, id);
+                } else {
+                    applyChanges(product, operation);
+                    updated = true;
+                    results[i] = BatchOperationResult.success(i, op, id);
+                }
+            } else {
+                results[i] = BatchOperationResult.fail(i, op, id, "Operasi tidak dikenal");
+            }
+        }
+
+        productRepository.saveAll(created.values());
+        // Flush insert & update (JDBC batch) sebelum delete, supaya produk yang
+        // di-update lalu dihapus di batch yang sama tidak di-UPDATE setelah hilang
+        productRepository.flush();
+        if (!deleted.isEmpty()) {
+            productRepository.deleteAllByIdInBatch(deleted);
+        }
+        for (Map.Entry<Integer, FoodProduct> entry : created.entrySet()) {
+            int index = entry.getKey();
+            results[index] = BatchOperationResult.success(index, BatchOperationForm.OP_CREATE, entry.getValue().getId());
+        }
+
+        if (updated || !created.isEmpty() || !deleted.isEmpty()) {
+            afterChange(userId, new InspectionEvent(InspectionEvent.BATCH, null, null, null));
+        }
+        return List.of(results);
+    }
+
+    // Update parsial: hanya field yang dikirim (tidak null) yang diubah
+    private static void applyChanges(FoodProduct product, BatchOperationForm operation) {
+        if (operation.getProductName() != null) {
+            product.setProductName(operation.getProductName());
+        }
+        if (operation.getBatchCode() != null) {
+            product.setBatchCode(operation.getBatchCode());
+        }
+        if (operation.getCategory() != null) {
+            product.setCategory(operation.getCategory());
+        }
+        if (operation.getInspectionStatus() != null) {
+            product.setInspectionStatus(operation.getInspectionStatus());
+        }
+        if (operation.getNotes() != null) {
+            product.setNotes(operation.getNotes());
+        }
+        if (operation.getProductionDate() != null) {
+            product.setProductionDate(operation.getProductionDate());
+        }
+        if (operation.getExpiryDate() != null) {
+            product.setExpiryDate(operation.getExpiryDate());
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public boolean updateProductImage(UUID userId, ProductImageForm form) {
-         FoodProduct product = productRepository.findByIdAndUserId(form.getId(), userId).orElse(null);
-         if (product != null && form.getImageFile() != null) {
-             String filename = storeFile(form.getImageFile());
-             product.setProductImage(filename);
+         JfrEvents.ProductOperation event = productEvent("update-image");
+         if (form.getImageFile() == null) {
+             return commit(event, form.getId(), false);
+         }
+         PreparedImage image = prepareImage(form.getImageFile());
+         return commit(event, form.getId(), inTransaction(image, () -> {
+             FoodProduct product = productRepository.findByIdAndUserId(form.getId(), userId).orElse(null);
+             if (product == null) {
+                 return false;
+             }
+             String previousImage = product.getProductImage();
+             image.attachTo(product);
              productRepository.save(product);
+             discardReplacedImage(previousImage, product.getProductImage());
+             afterChange(userId, new InspectionEvent(InspectionEvent.UPDATED, product.getId(), product.getInspectionStatus(), null));
              return true;
-         }
-         return false;
+         }));
+    }
+
+    public boolean isAsyncImageProcessing() {
+        return asyncImageProcessing;
+    }
+
+    // Dipanggil sebelum transaksi dimulai. Sinkron: foto diproses sekarang. Async: foto
+    // di-spool ke disk, lalu diproses di worker setelah transaksi commit.
+    private PreparedImage prepareImage(MultipartFile file) {
+        if (file == null) {
+            return null;
+        }
+        if (!asyncImageProcessing) {
+            return new PreparedImage(storeFile(file), null, null, null);
+        }
+
+        // Pesan antrean dulu, supaya upload yang akan ditolak tidak sempat di-spool
+        UploadAdmissionService.Ticket ticket = uploadAdmissionService.reserve();
+        String originalFilename = file.getOriginalFilename();
+        Path spool;
+        try {
+            Path incoming = Paths.get(UPLOAD_DIR).resolve(".incoming");
+            Files.createDirectories(incoming);
+            spool = incoming.resolve("spool-" + UUID.randomUUID() + ".tmp");
+            file.transferTo(spool);
+        } catch (IOException e) {
+            ticket.cancel();
+            throw new RuntimeException("Failed to store file " + originalFilename, e);
+        }
+        return new PreparedImage(null, spool, originalFilename, ticket);
     }
 
-    private String storeFile(MultipartFile file) {
+    // Foto yang sudah disiapkan tapi tidak jadi dipakai (produk tidak ditemukan, exception
+    // sebelum attach) dibuang; foto yang sudah terpasang dibuang oleh callback rollback.
+    private <T> T inTransaction(PreparedImage image, Supplier<T> work) {
+        try {
+            return transactionTemplate.execute(status -> work.get());
+        } finally {
+            if (image != null && !image.attached) {
+                image.discard();
+            }
+        }
+    }
+
+    private final class PreparedImage {
+        private final StoredImage stored;
+        private final Path spool;
+        private final String originalFilename;
+        private final UploadAdmissionService.Ticket ticket;
+        private boolean attached;
+
+        private PreparedImage(StoredImage stored, Path spool, String originalFilename,
+                UploadAdmissionService.Ticket ticket) {
+            this.stored = stored;
+            this.spool = spool;
+            this.originalFilename = originalFilename;
+            this.ticket = ticket;
+        }
+
+        // Di dalam transaksi. Async: produk ditandai PROCESSING, worker dijadwalkan setelah commit
+        void attachTo(FoodProduct product) {
+            attached = true;
+            if (stored != null) {
+                applyImage(product, stored);
+                afterCommit(() -> { }, this::discard);
+                return;
+            }
+            product.setImageStatus(FoodProduct.IMAGE_STATUS_PROCESSING);
+            afterCommit(
+                    () -> ticket.start(() -> processSpooledImage(product.getId(), spool, originalFilename)),
+                    this::discard);
+        }
+
+        void discard() {
+            if (stored != null) {
+                deleteImage(stored.filename());
+            } else {
+                ticket.cancel();
+                deleteQuietly(spool);
+            }
+        }
+    }
+
+    // Dijalankan di worker upload (sudah memegang slot pemrosesan)
+    void processSpooledImage(UUID productId, Path spool, String originalFilename) {
+        try {
+            StoredImage image;
+            try {
+                image = writeImage(new FileSystemResource(spool), originalFilename);
+            } catch (RuntimeException e) {
+                log.warn("Gagal memproses foto produk {}: {}", productId, e.getMessage());
+                markImageFailed(productId);
+                return;
+            }
+            boolean attached = false;
+            try {
+                attached = attachProcessedImage(productId, image);
+            } finally {
+                // Produk sudah dihapus atau foto gagal dipasang: foto baru tidak dirujuk siapa pun
+                if (!attached) {
+                    deleteImage(image.filename());
+                }
+            }
+        } finally {
+            deleteQuietly(spool);
+        }
+    }
+
+    // Selama foto diproses, produk bisa diubah (mis. PATCH status) atau dihapus. Baca, pasang
+    // foto, dan naikkan versi koleksi di satu transaksi; bentrok versi dicoba ulang sekali.
+    private boolean attachProcessedImage(UUID productId, StoredImage image) {
+        try {
+            try {
+                return Boolean.TRUE.equals(transactionTemplate.execute(status -> attachImage(productId, image)));
+            } catch (OptimisticLockingFailureException e) {
+                return Boolean.TRUE.equals(transactionTemplate.execute(status -> attachImage(productId, image)));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Gagal memasang foto produk {}: {}", productId, e.getMessage());
+            markImageFailed(productId);
+            return false;
+        }
+    }
+
+    private boolean attachImage(UUID productId, StoredImage image) {
+        return productRepository.findById(productId).map(product -> {
+            String previousImage = product.getProductImage();
+            applyImage(product, image);
+            productRepository.saveAndFlush(product);
+            discardImage(previousImage);
+            afterChange(product.getUserId(), new InspectionEvent(InspectionEvent.IMAGE_READY, productId, product.getInspectionStatus(), null));
+            return true;
+        }).orElse(false);
+    }
+
+    private void markImageFailed(UUID productId) {
+        transactionTemplate.executeWithoutResult(status -> productRepository.findById(productId).ifPresent(product -> {
+            product.setImageStatus(FoodProduct.IMAGE_STATUS_FAILED);
+            productRepository.save(product);
+            afterChange(product.getUserId(), new InspectionEvent(InspectionEvent.IMAGE_FAILED, productId, product.getInspectionStatus(), null));
+        }));
+    }
+
+    // Versi koleksi dinaikkan di transaksi penulisan (ikut commit/rollback, terlihat oleh
+    // semua instance). Dipanggil di akhir penulisan supaya lock baris versi ditahan sesingkat
+    // mungkin. Setelah commit, subscriber SSE menerima event beserta statistik terbaru.
+    private void afterChange(UUID userId, InspectionEvent event) {
+        resourceVersionService.bump(userId);
+        afterCommit(() -> inspectionEventService.publish(userId, event, () -> getInspectionStats(userId)), () -> { });
+    }
+
+    private static void afterCommit(Runnable onCommit, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    onCommit.run();
+                } else {
+                    onRollback.run();
+                }
+            }
+        });
+    }
+
+    // Foto lama tidak dirujuk produk mana pun lagi (nama file selalu unik per upload).
+    // Setelah commit dihapus dari disk lalu dari cache, supaya /food-products/image/{filename}
+    // tidak terus melayaninya; disk lebih dulu agar cache miss berikutnya tidak memuatnya lagi.
+    private void discardImage(String filename) {
+        if (filename == null) {
+            return;
+        }
+        afterCommit(() -> deleteImage(filename), () -> { });
+    }
+
+    private void deleteImage(String filename) {
+        deleteQuietly(ShardedPathUtil.resolveExisting(Paths.get(UPLOAD_DIR), filename));
+        imageCacheService.evict(filename);
+    }
+
+    // Mode async belum mengganti foto saat request selesai; foto lama dibuang nanti oleh worker
+    private void discardReplacedImage(String previous, String current) {
+        if (!Objects.equals(previous, current)) {
+            discardImage(previous);
+        }
+    }
+
+    // File spool tidak penting lagi setelah diproses; gagal hapus cukup diabaikan
+    private static void deleteQuietly(Path file) {
+        file.toFile().delete();
+    }
+
+    // Event JFR per operasi CRUD; operasi yang gagal dengan exception tidak di-commit
+    private static JfrEvents.ProductOperation productEvent(String operation) {
+        JfrEvents.ProductOperation event = new JfrEvents.ProductOperation();
+        event.operation = operation;
+        event.begin();
+        return event;
+    }
+
+    private static <T> T commit(JfrEvents.ProductOperation event, UUID productId, T result) {
+        event.productId = String.valueOf(productId);
+        event.found = result != null && !Boolean.FALSE.equals(result);
+        event.commit();
+        return result;
+    }
+
+    private void applyImage(FoodProduct product, StoredImage image) {
+        product.setProductImage(image.filename());
+        product.setImageSize(image.size());
+        product.setImageStatus(FoodProduct.IMAGE_STATUS_READY);
+    }
+
+    // Upload sinkron: tunggu slot pemrosesan (atau 503 jika antrean penuh)
+    private StoredImage storeFile(MultipartFile file) {
+        try (UploadAdmissionService.Permit permit = uploadAdmissionService.acquire()) {
+            long start = System.nanoTime();
+            try {
+                return writeImage(file, file.getOriginalFilename());
+            } finally {
+                RequestTiming.record(RequestTiming.Phase.FILE, System.nanoTime() - start);
+            }
+        }
+    }
+
+    private StoredImage writeImage(InputStreamSource file, String originalFilename) {
         try {
             // Mengambil path secara dinamis untuk mendukung Test Environment
             Path root = Paths.get(UPLOAD_DIR);
@@ -150,17 +684,27 @@ public class FoodQualityService {
                 Files.createDirectories(root);
             }
 
-            String filename = UUID.randomUUID() + "_" + file.getOriginalFilename();
-            Path targetLocation = root.resolve(filename);
-            
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-            
-            return filename;
+            String filename = UUID.randomUUID() + "_" + originalFilename;
+
+            // File baru selalu ditulis ke layout shard (uploads/ab/cd/...)
+            Path shard = ShardedPathUtil.shardDirectory(root, filename);
+            Files.createDirectories(shard);
+
+            // Ingest: perkecil, encode ulang, dan buang metadata sebelum disimpan
+            JfrEvents.FileStore event = new JfrEvents.FileStore();
+            event.begin();
+            long start = System.nanoTime();
+            StoredImage image = imageIngestService.ingest(file, shard, filename);
+            metricsService.recordUpload(image.size(), System.nanoTime() - start);
+            event.filename = image.filename();
+            event.bytes = image.size();
+            event.commit();
+            return image;
         } catch (IOException e) {
             // PERBAIKAN UTAMA:
             // 1. Menggunakan pesan bahasa Inggris "Failed to store file" agar sesuai ekspektasi Test.
             // 2. Menyertakan 'e' sebagai cause agar pengecekan (e.getCause() instanceof IOException) berhasil.
-            throw new RuntimeException("Failed to store file " + file.getOriginalFilename(), e);
+            throw new RuntimeException("Failed to store file " + originalFilename, e);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,300 @@
+package org.delcom.app.services;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cache LRU untuk byte foto sampel yang sering dilihat. Isi cache disimpan di
+ * memori off-heap (segmen {@link Arena}), sehingga tidak menambah beban GC dan
+ * bisa ditulis langsung ke response tanpa disalin ke array di heap.
+ * <p>
+ * Setiap entri memakai reference count: entri yang di-evict baru dibebaskan
+ * setelah semua request yang sedang mengirimnya selesai. Load yang sudah membaca
+ * file sebelum {@link #evict} tidak dimasukkan ke cache (generasi per key).
+ */
+@Service
+public class ImageCacheService {
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // accessOrder = true: iterasi dimulai dari entri yang paling lama tidak diakses
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long residentBytes;
+    // Key yang sedang dimuat dari disk; hanya berisi load yang berjalan, jadi ukurannya terbatas
+    private final HashMap<String, Loading> loading = new HashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ImageCacheService(
+            @Value("${app.image-cache.max-bytes:67108864}") long maxBytes,
+            @Value("${app.image-cache.max-entry-bytes:2097152}") long maxEntryBytes) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+    }
+
+    /**
+     * Ambil isi file gambar. Hasil harus ditutup setelah selesai dikirim.
+     * File yang lebih besar dari batas entri di-map langsung tanpa masuk cache.
+     *
+     * @param file lokasi file, hanya di-resolve saat cache miss (cache hit tidak
+     *             menyentuh disk sama sekali)
+     * @return null jika file tidak ada
+     */
+    public Lease get(String key, Supplier<Path> file) throws IOException {
+        Entry cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return new Lease(cached);
+        }
+        misses.increment();
+
+        long generation = beginLoad(key);
+        try {
+            Entry loaded;
+            try (FileChannel channel = FileChannel.open(file.get(), StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size > maxEntryBytes || size > maxBytes) {
+                    // Terlalu besar untuk cache: map read-only, dibebaskan saat Lease ditutup
+                    Arena arena = Arena.ofShared();
+                    MemorySegment mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size, arena);
+                    return new Lease(new Entry(arena, mapped));
+                }
+                loaded = load(channel, size);
+            } catch (NoSuchFileException e) {
+                return null;
+            }
+
+            loaded.retain();
+            insert(key, loaded, generation);
+            return new Lease(loaded);
+        } finally {
+            endLoad(key);
+        }
+    }
+
+    /**
+     * Buang entri (mis. foto produk yang dihapus atau diganti). Request yang sedang
+     * mengirimnya tetap selesai; entri dibebaskan setelah lease terakhir ditutup.
+     */
+    public void evict(String key) {
+        lock.lock();
+        try {
+            Entry removed = entries.remove(key);
+            if (removed != null) {
+                residentBytes -= removed.size();
+                removed.release();
+            }
+            // Load yang sedang berjalan membaca isi lama: hasilnya tidak boleh masuk cache
+            Loading inFlight = loading.get(key);
+            if (inFlight != null) {
+                inFlight.generation++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean contains(String key) {
+        lock.lock();
+        try {
+            return entries.containsKey(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public ImageCacheStats getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        lock.lock();
+        try {
+            return new ImageCacheStats(
+                    hitCount,
+                    missCount,
+                    total == 0 ? 0.0 : (double) hitCount / total,
+                    evictions.sum(),
+                    entries.size(),
+                    residentBytes,
+                    maxBytes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Entry lookup(String key) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            return entry != null && entry.retain() ? entry : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long beginLoad(String key) {
+        lock.lock();
+        try {
+            Loading inFlight = loading.computeIfAbsent(key, k -> new Loading());
+            inFlight.loaders++;
+            return inFlight.generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void endLoad(String key) {
+        lock.lock();
+        try {
+            Loading inFlight = loading.get(key);
+            if (--inFlight.loaders == 0) {
+                loading.remove(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Entry load(FileChannel channel, long size) throws IOException {
+        Arena arena = Arena.ofShared();
+        try {
+            MemorySegment segment = arena.allocate(Math.max(size, 1));
+            ByteBuffer target = segment.asByteBuffer();
+            target.limit((int) size);
+            while (target.hasRemaining() && channel.read(target) >= 0) {
+                // baca sampai penuh atau EOF
+            }
+            return new Entry(arena, segment.asSlice(0, target.position()));
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    private void insert(String key, Entry entry, long generation) {
+        lock.lock();
+        try {
+            if (loading.get(key).generation != generation) {
+                // Di-evict selama load: lepas referensi cache, Lease pemanggil tetap valid
+                entry.release();
+                return;
+            }
+            Entry previous = entries.put(key, entry);
+            residentBytes += entry.size();
+            if (previous != null) {
+                // Dua request memuat file yang sama bersamaan; simpan yang terbaru
+                residentBytes -= previous.size();
+                previous.release();
+            }
+
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while (residentBytes > maxBytes && eldest.hasNext()) {
+                Entry victim = eldest.next().getValue();
+                eldest.remove();
+                residentBytes -= victim.size();
+                victim.release();
+                evictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public record ImageCacheStats(
+            long hits,
+            long misses,
+            double hitRatio,
+            long evictions,
+            int entries,
+            long residentBytes,
+            long capacityBytes) {
+    }
+
+    private static final class Loading {
+        private long generation;
+        private int loaders;
+    }
+
+    private static final class Entry {
+        private final Arena arena;
+        private final MemorySegment segment;
+        // 1 = dipegang cache (atau oleh Lease tunggal untuk file yang tidak di-cache)
+        private final AtomicInteger refs = new AtomicInteger(1);
+
+        private Entry(Arena arena, MemorySegment segment) {
+            this.arena = arena;
+            this.segment = segment;
+        }
+
+        long size() {
+            return segment.byteSize();
+        }
+
+        boolean retain() {
+            int current;
+            do {
+                current = refs.get();
+                if (current == 0) {
+                    return false;
+                }
+            } while (!refs.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        void release() {
+            if (refs.decrementAndGet() == 0) {
+                arena.close();
+            }
+        }
+    }
+
+    /**
+     * Akses sementara ke isi gambar. Buffer hanya valid sampai {@link #close()}.
+     */
+    public static final class Lease implements AutoCloseable {
+        private final Entry entry;
+        private boolean closed;
+
+        private Lease(Entry entry) {
+            this.entry = entry;
+        }
+
+        public long size() {
+            return entry.size();
+        }
+
+        // Buffer read-only baru per pemanggilan, posisi independen antar request
+        public ByteBuffer buffer() {
+            return entry.segment.asByteBuffer().asReadOnlyBuffer();
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                entry.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,414 @@
+package org.delcom.app.services;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Set;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+
+/**
+ * Tahap ingest foto sampel: membatasi dimensi, meng-encode ulang ke JPEG/PNG
+ * dengan kualitas terukur, dan membuang metadata (EXIF, GPS, thumbnail). JPEG/PNG
+ * yang tidak bisa di-decode ImageIO (JPEG CMYK/YCCK dari scanner, file terpotong)
+ * disalin tanpa encode ulang, tapi segmen/chunk metadatanya tetap dibuang.
+ */
+@Service
+public class ImageIngestService {
+
+    // Cukup untuk menjangkau segmen APP1 (EXIF) di awal file JPEG
+    private static final int EXIF_SCAN_LIMIT = 64 * 1024;
+
+    private static final byte[] PNG_SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+    private static final byte[] ICC_PROFILE = "ICC_PROFILE\0".getBytes(StandardCharsets.ISO_8859_1);
+
+    // Chunk PNG berisi teks bebas (termasuk XMP), EXIF, dan waktu pembuatan
+    private static final Set<String> PNG_METADATA_CHUNKS = Set.of("tEXt", "zTXt", "iTXt", "eXIf", "tIME");
+
+    private final int maxDimension;
+    private final float jpegQuality;
+
+    public ImageIngestService(
+            @Value("${app.upload.image.max-dimension:1920}") int maxDimension,
+            @Value("${app.upload.image.jpeg-quality:0.82}") float jpegQuality) {
+        this.maxDimension = maxDimension;
+        this.jpegQuality = jpegQuality;
+    }
+
+    /**
+     * Simpan file upload (multipart atau file spool) ke {@code directory}. JPEG/PNG dinormalisasi, atau
+     * disalin tanpa metadata jika tidak bisa di-decode; format lain (GIF animasi, WEBP, file yang bukan
+     * gambar) disimpan apa adanya.
+     *
+     * @param storedName nama file tujuan; ekstensinya bisa berubah mengikuti format hasil
+     */
+    public StoredImage ingest(InputStreamSource file, Path directory, String storedName) throws IOException {
+        BufferedImage image = decode(file);
+        if (image == null) {
+            Path target = directory.resolve(storedName);
+            try (InputStream in = new BufferedInputStream(file.getInputStream());
+                    OutputStream out = new BufferedOutputStream(Files.newOutputStream(target))) {
+                copyWithoutMetadata(in, out);
+            }
+            return new StoredImage(storedName, Files.size(target));
+        }
+
+        image = downscale(image);
+        boolean alpha = image.getColorModel().hasAlpha();
+        String filename = stripExtension(storedName) + (alpha ? ".png" : ".jpg");
+        Path target = directory.resolve(filename);
+
+        // Tulis ke file sementara lalu pindahkan, agar pembaca tidak melihat file setengah jadi
+        Path tmp = Files.createTempFile(directory, ".ingest-", ".tmp");
+        try {
+            if (alpha) {
+                ImageIO.write(image, "png", tmp.toFile());
+            } else {
+                writeJpeg(toRgb(image), tmp);
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return new StoredImage(filename, Files.size(target));
+    }
+
+    // Decode JPEG/PNG dan terapkan orientasi EXIF. Null berarti file tidak di-encode ulang.
+    private BufferedImage decode(InputStreamSource file) throws IOException {
+        try (InputStream raw = file.getInputStream();
+                BufferedInputStream in = new BufferedInputStream(raw, EXIF_SCAN_LIMIT)) {
+            in.mark(EXIF_SCAN_LIMIT);
+            byte[] head = in.readNBytes(EXIF_SCAN_LIMIT);
+            in.reset();
+
+            try (ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+                if (iis == null) {
+                    return null;
+                }
+                Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+                if (!readers.hasNext()) {
+                    return null;
+                }
+                ImageReader reader = readers.next();
+                try {
+                    String format = reader.getFormatName().toLowerCase(Locale.ROOT);
+                    if (!format.equals("jpeg") && !format.equals("png")) {
+                        return null;
+                    }
+                    // ignoreMetadata = true: EXIF tidak pernah di-parse oleh ImageIO
+                    reader.setInput(iis, true, true);
+
+                    // Foto yang jauh lebih besar dari batas dibaca dengan subsampling
+                    // supaya tidak perlu men-decode seluruh piksel ke heap
+                    int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                    ImageReadParam param = reader.getDefaultReadParam();
+                    int subsampling = longest / (maxDimension * 2);
+                    if (subsampling > 1) {
+                        param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                    }
+                    return orient(reader.read(0, param), readExifOrientation(head));
+                } catch (IOException | RuntimeException e) {
+                    // File rusak/terpotong atau JPEG CMYK: disalin tanpa metadata
+                    return null;
+                } finally {
+                    reader.dispose();
+                }
+            }
+        }
+    }
+
+    // Perkecil bertahap (maksimal setengah per langkah) agar hasil tetap tajam
+    private BufferedImage downscale(BufferedImage src) {
+        int width = src.getWidth();
+        int height = src.getHeight();
+        int longest = Math.max(width, height);
+        if (longest <= maxDimension) {
+            return src;
+        }
+
+        double scale = (double) maxDimension / longest;
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage current = src;
+        while (width != targetWidth || height != targetHeight) {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+
+            BufferedImage step = new BufferedImage(width, height, imageType(current));
+            Graphics2D g = step.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, width, height, null);
+            g.dispose();
+            current = step;
+        }
+        return current;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(jpegQuality);
+
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static BufferedImage toRgb(BufferedImage src) {
+        if (src.getType() == BufferedImage.TYPE_INT_RGB) {
+            return src;
+        }
+        BufferedImage rgb = new BufferedImage(src.getWidth(), src.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        g.drawImage(src, 0, 0, null);
+        g.dispose();
+        return rgb;
+    }
+
+    private static int imageType(BufferedImage image) {
+        return image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+    }
+
+    private static String stripExtension(String filename) {
+        int dot = filename.lastIndexOf('.');
+        return dot > 0 ? filename.substring(0, dot) : filename;
+    }
+
+    // ==================================================================================
+    // Salinan tanpa metadata untuk JPEG/PNG yang tidak bisa di-decode: data gambar
+    // tidak disentuh, hanya segmen/chunk metadata yang dilewati. Data setelah EOI/IEND
+    // (mis. gambar kedua MPO beserta EXIF-nya) ikut dibuang.
+    // ==================================================================================
+
+    static void copyWithoutMetadata(InputStream in, OutputStream out) throws IOException {
+        in.mark(PNG_SIGNATURE.length);
+        byte[] head = in.readNBytes(PNG_SIGNATURE.length);
+        in.reset();
+        if (head.length >= 2 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8) {
+            copyJpeg(in, out);
+        } else if (Arrays.equals(head, PNG_SIGNATURE)) {
+            copyPng(in, out);
+        } else {
+            in.transferTo(out);
+        }
+    }
+
+    private static void copyJpeg(InputStream in, OutputStream out) throws IOException {
+        out.write(in.readNBytes(2)); // SOI
+        int marker = in.read() == 0xFF ? readMarker(in) : -1;
+        while (marker >= 0) {
+            if (marker == 0xD9) {
+                out.write(0xFF);
+                out.write(marker);
+                return;
+            }
+            int hi = in.read();
+            int lo = in.read();
+            if (lo < 0) {
+                return;
+            }
+            byte[] payload = in.readNBytes(Math.max(0, ((hi << 8) | lo) - 2));
+            if (keepSegment(marker, payload)) {
+                out.write(0xFF);
+                out.write(marker);
+                out.write(hi);
+                out.write(lo);
+                out.write(payload);
+            }
+            if (marker == 0xDA) {
+                marker = copyScan(in, out);
+            } else {
+                marker = in.read() == 0xFF ? readMarker(in) : -1;
+            }
+        }
+    }
+
+    // APP0 (JFIF), APP2 ICC, dan APP14 (Adobe: transformasi warna CMYK/YCCK) dibutuhkan untuk
+    // menampilkan gambar; APPn lain (EXIF/GPS, XMP, IPTC, MPF) dan komentar dibuang
+    private static boolean keepSegment(int marker, byte[] payload) {
+        if (marker == 0xE2) {
+            return payload.length >= ICC_PROFILE.length
+                    && Arrays.equals(payload, 0, ICC_PROFILE.length, ICC_PROFILE, 0, ICC_PROFILE.length);
+        }
+        if (marker >= 0xE0 && marker <= 0xEF) {
+            return marker == 0xE0 || marker == 0xEE;
+        }
+        return marker != 0xFE;
+    }
+
+    // Data entropy setelah SOS disalin sampai marker berikutnya (bukan 0xFF00 atau RSTn)
+    private static int copyScan(InputStream in, OutputStream out) throws IOException {
+        int b;
+        while ((b = in.read()) >= 0) {
+            if (b != 0xFF) {
+                out.write(b);
+                continue;
+            }
+            int next = readMarker(in);
+            if (next != 0 && (next < 0xD0 || next > 0xD7)) {
+                return next;
+            }
+            out.write(0xFF);
+            out.write(next);
+        }
+        return -1;
+    }
+
+    // Byte setelah 0xFF, melewati byte pengisi 0xFF; -1 jika file habis
+    private static int readMarker(InputStream in) throws IOException {
+        int marker = in.read();
+        while (marker == 0xFF) {
+            marker = in.read();
+        }
+        return marker;
+    }
+
+    private static void copyPng(InputStream in, OutputStream out) throws IOException {
+        out.write(in.readNBytes(PNG_SIGNATURE.length));
+        byte[] header;
+        while ((header = in.readNBytes(8)).length == 8) {
+            long length = readInt(header, 0, false) & 0xFFFFFFFFL;
+            String type = new String(header, 4, 4, StandardCharsets.ISO_8859_1);
+            OutputStream target = PNG_METADATA_CHUNKS.contains(type) ? OutputStream.nullOutputStream() : out;
+            target.write(header);
+            copy(in, target, length + 4); // data + CRC
+            if (type.equals("IEND")) {
+                return;
+            }
+        }
+    }
+
+    private static void copy(InputStream in, OutputStream out, long count) throws IOException {
+        byte[] buffer = new byte[8192];
+        while (count > 0) {
+            int read = in.read(buffer, 0, (int) Math.min(buffer.length, count));
+            if (read < 0) {
+                return;
+            }
+            out.write(buffer, 0, read);
+            count -= read;
+        }
+    }
+
+    // ==================================================================================
+    // Orientasi EXIF: metadata dibuang, jadi rotasi harus diterapkan ke piksel
+    // ==================================================================================
+
+    static BufferedImage orient(BufferedImage src, int orientation) {
+        if (orientation < 2 || orientation > 8) {
+            return src;
+        }
+        int w = src.getWidth();
+        int h = src.getHeight();
+        AffineTransform t = new AffineTransform();
+        switch (orientation) {
+            case 2 -> { t.translate(w, 0); t.scale(-1, 1); }
+            case 3 -> { t.translate(w, h); t.rotate(Math.PI); }
+            case 4 -> { t.translate(0, h); t.scale(1, -1); }
+            case 5 -> { t.scale(-1, 1); t.rotate(Math.PI / 2); }
+            case 6 -> { t.translate(h, 0); t.rotate(Math.PI / 2); }
+            case 7 -> { t.translate(h, w); t.scale(1, -1); t.rotate(Math.PI / 2); }
+            default -> { t.translate(0, w); t.rotate(3 * Math.PI / 2); }
+        }
+
+        boolean swap = orientation >= 5;
+        BufferedImage out = new BufferedImage(swap ? h : w, swap ? w : h, imageType(src));
+        Graphics2D g = out.createGraphics();
+        g.drawImage(src, t, null);
+        g.dispose();
+        return out;
+    }
+
+    static int readExifOrientation(byte[] b) {
+        if (b.length < 4 || (b[0] & 0xFF) != 0xFF || (b[1] & 0xFF) != 0xD8) {
+            return 1;
+        }
+        int pos = 2;
+        while (pos + 4 <= b.length) {
+            if ((b[pos] & 0xFF) != 0xFF) {
+                return 1;
+            }
+            int marker = b[pos + 1] & 0xFF;
+            int length = readShort(b, pos + 2, false);
+            if (marker == 0xDA) {
+                // Start of Scan: tidak ada segmen APP1 sebelum data gambar
+                return 1;
+            }
+            if (marker == 0xE1 && isExifHeader(b, pos + 4)) {
+                return readTiffOrientation(b, pos + 10, Math.min(b.length, pos + 2 + length));
+            }
+            pos += 2 + length;
+        }
+        return 1;
+    }
+
+    private static boolean isExifHeader(byte[] b, int pos) {
+        return pos + 6 <= b.length
+                && b[pos] == 'E' && b[pos + 1] == 'x' && b[pos + 2] == 'i' && b[pos + 3] == 'f'
+                && b[pos + 4] == 0 && b[pos + 5] == 0;
+    }
+
+    private static int readTiffOrientation(byte[] b, int tiff, int end) {
+        if (tiff + 8 > end) {
+            return 1;
+        }
+        boolean little = b[tiff] == 'I' && b[tiff + 1] == 'I';
+        int ifd = tiff + readInt(b, tiff + 4, little);
+        if (ifd < tiff || ifd + 2 > end) {
+            return 1;
+        }
+        int entries = readShort(b, ifd, little);
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > end) {
+                return 1;
+            }
+            if (readShort(b, entry, little) == 0x0112) {
+                return readShort(b, entry + 8, little);
+            }
+        }
+        return 1;
+    }
+
+    private static int readShort(byte[] b, int pos, boolean little) {
+        int b0 = b[pos] & 0xFF;
+        int b1 = b[pos + 1] & 0xFF;
+        return little ? (b1 << 8) | b0 : (b0 << 8) | b1;
+    }
+
+    private static int readInt(byte[] b, int pos, boolean little) {
+        int hi = readShort(b, little ? pos + 2 : pos, little);
+        int lo = readShort(b, little ? pos : pos + 2, little);
+        return (hi << 16) | lo;
+    }
+}
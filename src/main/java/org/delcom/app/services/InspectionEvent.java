@@ -0,0 +1,18 @@
+package org.delcom.app.services;
+
+import java.util.UUID;
+
+/**
+ * Perubahan data inspeksi yang dikirim ke subscriber SSE setelah transaksi commit.
+ * {@code productId} null untuk event {@link #BATCH}.
+ */
+public record InspectionEvent(String type, UUID productId, String inspectionStatus, String previousStatus) {
+
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String STATUS_CHANGED = "status_changed";
+    public static final String DELETED = "deleted";
+    public static final String IMAGE_READY = "image_ready";
+    public static final String IMAGE_FAILED = "image_failed";
+    public static final String BATCH = "batch";
+}
@@ -0,0 +1,165 @@
+package org.delcom.app.services;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Stream Server-Sent Events per user untuk perubahan data inspeksi, pengganti
+ * polling list dan statistik.
+ * <p>
+ * Koneksi memakai async servlet ({@link SseEmitter}): subscriber yang diam tidak
+ * memegang thread sama sekali. Event dikirim dari virtual thread, jadi klien yang
+ * lambat tidak menahan thread request yang baru commit. Pengiriman per user dirantai
+ * (satu tugas selesai baru tugas berikutnya jalan), sehingga urutan event sama dengan
+ * urutan publish dan satu emitter tidak pernah ditulis dari dua thread sekaligus.
+ * Komentar heartbeat dikirim berkala supaya proxy tidak memutus koneksi diam dan
+ * klien yang putus terdeteksi.
+ */
+@Service
+public class InspectionEventService {
+
+    private static final Logger log = LoggerFactory.getLogger(InspectionEventService.class);
+
+    // Jeda reconnect otomatis EventSource setelah koneksi putus
+    private static final long RECONNECT_MS = 3000;
+
+    private final long timeoutMs;
+    private final Map<UUID, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    // Tugas kirim terakhir per user; tugas baru dirantai setelahnya
+    private final Map<UUID, CompletableFuture<Void>> deliveries = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ExecutorService dispatcher = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeat =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("sse-heartbeat").factory());
+
+    public InspectionEventService(
+            @Value("${app.events.timeout-ms:1800000}") long timeoutMs,
+            @Value("${app.events.heartbeat-seconds:25}") long heartbeatSeconds) {
+        this.timeoutMs = timeoutMs;
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    public SseEmitter subscribe(UUID userId) {
+        SseEmitter emitter = createEmitter();
+        subscribers.compute(userId, (id, emitters) -> {
+            Set<SseEmitter> set = emitters != null ? emitters : ConcurrentHashMap.newKeySet();
+            set.add(emitter);
+            return set;
+        });
+        Runnable remove = () -> unsubscribe(userId, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+
+        // Dikirim segera agar header response ter-flush dan klien tahu stream sudah aktif
+        send(userId, emitter, SseEmitter.event().reconnectTime(RECONNECT_MS).comment("connected"));
+        return emitter;
+    }
+
+    /**
+     * Kirim event ke semua koneksi milik user. Statistik hanya dihitung jika ada
+     * subscriber, dan dihitung sekali untuk semua koneksi.
+     */
+    public void publish(UUID userId, InspectionEvent event, Supplier<Map<String, Long>> stats) {
+        Set<SseEmitter> emitters = subscribers.get(userId);
+        if (emitters == null) {
+            return;
+        }
+        String id = Long.toString(sequence.incrementAndGet());
+        dispatch(userId, () -> {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("type", event.type());
+            data.put("product_id", event.productId());
+            data.put("inspection_status", event.inspectionStatus());
+            data.put("previous_status", event.previousStatus());
+            data.put("stats", loadStats(stats));
+            for (SseEmitter emitter : emitters) {
+                send(userId, emitter, SseEmitter.event().id(id).name(event.type()).data(data, MediaType.APPLICATION_JSON));
+            }
+        });
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    void sendHeartbeat() {
+        subscribers.forEach((userId, emitters) -> dispatch(userId, () -> {
+            for (SseEmitter emitter : emitters) {
+                send(userId, emitter, SseEmitter.event().comment("ping"));
+            }
+        }));
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeat.shutdownNow();
+        dispatcher.shutdown();
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+        subscribers.clear();
+    }
+
+    // Jalankan tugas setelah tugas sebelumnya milik user yang sama selesai (berhasil
+    // maupun gagal). Entri dibuang saat rantai kosong supaya map tidak tumbuh.
+    private void dispatch(UUID userId, Runnable task) {
+        CompletableFuture<Void> next = deliveries.compute(userId, (id, tail) ->
+                (tail != null ? tail : CompletableFuture.<Void>completedFuture(null))
+                        .handleAsync((ignored, error) -> {
+                            task.run();
+                            return null;
+                        }, dispatcher));
+        next.whenComplete((ignored, error) -> deliveries.remove(userId, next));
+    }
+
+    private Map<String, Long> loadStats(Supplier<Map<String, Long>> stats) {
+        try {
+            return stats.get();
+        } catch (RuntimeException e) {
+            // Event tetap dikirim; klien bisa mengambil statistik lewat /stats
+            log.warn("Gagal menghitung statistik untuk event SSE: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void send(UUID userId, SseEmitter emitter, SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // Klien sudah putus atau emitter sudah selesai
+            unsubscribe(userId, emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void unsubscribe(UUID userId, SseEmitter emitter) {
+        subscribers.computeIfPresent(userId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
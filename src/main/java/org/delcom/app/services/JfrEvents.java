@@ -0,0 +1,112 @@
+package org.delcom.app.services;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Event JFR untuk jalur bisnis utama, supaya rekaman JFR menunjukkan bagian
+ * domain mana yang memakan waktu di samping frame Tomcat/Hibernate. Aktifkan
+ * dengan {@code scripts/jfr/food-products.jfc}.
+ * <p>
+ * Pola pemakaian: {@code begin()} di awal, isi field, lalu {@code commit()}. Saat
+ * event tidak direkam, {@code commit()} hampir tanpa biaya dan objek event
+ * biasanya dihilangkan JIT (escape analysis).
+ */
+public final class JfrEvents {
+
+    private static final String CATEGORY = "Food Products";
+
+    private JfrEvents() {
+    }
+
+    @Name("org.delcom.AuthCheck")
+    @Label("Auth Check")
+    @Description("Pemeriksaan bearer token oleh AuthInterceptor")
+    @Category({ CATEGORY, "Auth" })
+    @StackTrace(false)
+    public static class AuthCheck extends Event {
+
+        @Label("URI")
+        public String uri;
+
+        @Label("Outcome")
+        public String outcome;
+
+        @Label("Database Time")
+        @Description("Waktu lookup token dan user di database")
+        @Timespan(Timespan.NANOSECONDS)
+        public long dbTime;
+    }
+
+    @Name("org.delcom.ProductOperation")
+    @Label("Product Operation")
+    @Description("Create, baca, update, atau delete produk di FoodQualityService")
+    @Category({ CATEGORY, "Product" })
+    public static class ProductOperation extends Event {
+
+        @Label("Operation")
+        public String operation;
+
+        @Label("Product Id")
+        public String productId;
+
+        @Label("Found")
+        public boolean found;
+    }
+
+    @Name("org.delcom.FileStore")
+    @Label("File Store")
+    @Description("Ingest dan penyimpanan foto produk ke disk")
+    @Category({ CATEGORY, "File" })
+    @StackTrace(false)
+    public static class FileStore extends Event {
+
+        @Label("Filename")
+        public String filename;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+    }
+
+    @Name("org.delcom.FileServe")
+    @Label("File Serve")
+    @Description("Pengiriman foto produk ke browser")
+    @Category({ CATEGORY, "File" })
+    @StackTrace(false)
+    public static class FileServe extends Event {
+
+        @Label("Filename")
+        public String filename;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+
+        @Label("Found")
+        public boolean found;
+    }
+
+    @Name("org.delcom.Dashboard")
+    @Label("Dashboard")
+    @Description("Penyusunan halaman dashboard (FoodQualityView.index)")
+    @Category({ CATEGORY, "View" })
+    @StackTrace(false)
+    public static class Dashboard extends Event {
+
+        @Label("Products")
+        public int products;
+
+        @Label("Displayed")
+        public int displayed;
+
+        @Label("Search")
+        public boolean search;
+    }
+}
@@ -0,0 +1,230 @@
+package org.delcom.app.services;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Batas request bersamaan yang adaptif (AIMD), berdasarkan tekanan pool koneksi
+ * HikariCP. Setiap {@code sample-interval-ms}, thread request yang kebetulan lewat
+ * membaca meter Hikari ({@code hikaricp.connections.pending} dan rata-rata waktu
+ * tunggu {@code hikaricp.connections.acquire} sejak sampel sebelumnya):
+ * <ul>
+ * <li>pool tertekan (antrean di atas {@code max-pending} atau waktu tunggu di atas
+ * {@code target-wait-ms}): batas dikali {@value #BACKOFF_RATIO}, minimal
+ * {@code min-limit};</li>
+ * <li>pool lega dan batas benar-benar terpakai (puncak in-flight minimal separuh
+ * batas): batas naik 1, maksimal {@code max-limit}.</li>
+ * </ul>
+ * Prioritas rendah hanya boleh memakai {@code low-share} dari batas dan langsung
+ * ditolak selama pool tertekan, prioritas normal {@code normal-share}, sedangkan
+ * tulis dan auth memakai seluruh batas. Jadi saat beban naik, dashboard dan daftar
+ * produk ditolak lebih dulu dengan 503 cepat, bukan menunggu koneksi sampai
+ * {@code connection-timeout}.
+ */
+@Service
+public class LoadSheddingService {
+
+    public enum Priority {
+        // Tulis (POST/PUT/PATCH/DELETE) dan login
+        CRITICAL,
+        // Baca satu data: detail produk, foto, info user
+        NORMAL,
+        // Dashboard, halaman daftar, pencarian, export streaming, statistik
+        LOW
+    }
+
+    static final double BACKOFF_RATIO = 0.9;
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double targetWaitMs;
+    private final int maxPending;
+    private final Map<Priority, Double> shares = new EnumMap<>(Priority.class);
+    private final long sampleIntervalNanos;
+    private final int retryAfterSeconds;
+    private final MeterRegistry registry;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final Map<Priority, Counter> rejected = new EnumMap<>(Priority.class);
+
+    // Ditulis hanya di dalam sample() (synchronized)
+    private volatile long nextSample = System.nanoTime();
+    private volatile double limit;
+    private volatile boolean congested;
+    private volatile double poolPending;
+    private volatile double poolWaitMs;
+    private double lastAcquireNanos;
+    private long lastAcquireCount;
+
+    public LoadSheddingService(
+            @Value("${app.load-shedding.enabled:true}") boolean enabled,
+            @Value("${app.load-shedding.min-limit:4}") int minLimit,
+            @Value("${app.load-shedding.max-limit:100}") int maxLimit,
+            @Value("${app.load-shedding.target-wait-ms:50}") double targetWaitMs,
+            @Value("${app.load-shedding.max-pending:5}") int maxPending,
+            @Value("${app.load-shedding.low-share:0.5}") double lowShare,
+            @Value("${app.load-shedding.normal-share:0.8}") double normalShare,
+            @Value("${app.load-shedding.sample-interval-ms:100}") long sampleIntervalMs,
+            @Value("${app.load-shedding.retry-after-seconds:2}") int retryAfterSeconds,
+            MeterRegistry registry) {
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetWaitMs = targetWaitMs;
+        this.maxPending = maxPending;
+        this.shares.put(Priority.CRITICAL, 1.0);
+        this.shares.put(Priority.NORMAL, normalShare);
+        this.shares.put(Priority.LOW, lowShare);
+        this.sampleIntervalNanos = TimeUnit.MILLISECONDS.toNanos(sampleIntervalMs);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.registry = registry;
+        // Mulai dari batas atas; sampel pertama yang melihat pool tertekan langsung menurunkannya
+        this.limit = maxLimit;
+
+        for (Priority priority : Priority.values()) {
+            rejected.put(priority, Counter.builder("app.load-shedding.rejected")
+                    .description("Request yang ditolak 503 oleh load shedding")
+                    .tag("priority", priority.name().toLowerCase(Locale.ROOT))
+                    .register(registry));
+        }
+        Gauge.builder("app.load-shedding.limit", this, service -> service.limit)
+                .description("Batas request bersamaan saat ini (AIMD)")
+                .register(registry);
+        Gauge.builder("app.load-shedding.in-flight", inFlight, AtomicInteger::get)
+                .description("Request yang sedang berjalan di bawah load shedding")
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * Minta tempat untuk request dengan prioritas tertentu. Tidak pernah menunggu.
+     *
+     * @return permit yang harus ditutup setelah request selesai, atau {@code null}
+     *         jika request harus ditolak
+     */
+    public Permit tryAcquire(Priority priority) {
+        if (System.nanoTime() - nextSample >= 0) {
+            sample();
+        }
+        if (priority == Priority.LOW && congested) {
+            return reject(priority);
+        }
+        int budget = Math.max(1, (int) (limit * shares.get(priority)));
+        // Naik dulu lalu dikembalikan jika lewat batas: tanpa loop CAS di jalur request
+        int current = inFlight.incrementAndGet();
+        if (current > budget) {
+            inFlight.decrementAndGet();
+            return reject(priority);
+        }
+        peakInFlight.accumulateAndGet(current, Math::max);
+        return new Permit();
+    }
+
+    public LoadSheddingStats getStats() {
+        return new LoadSheddingStats(
+                enabled,
+                (int) limit,
+                inFlight.get(),
+                congested,
+                poolPending,
+                poolWaitMs,
+                (long) rejected.get(Priority.CRITICAL).count(),
+                (long) rejected.get(Priority.NORMAL).count(),
+                (long) rejected.get(Priority.LOW).count());
+    }
+
+    private Permit reject(Priority priority) {
+        rejected.get(priority).increment();
+        return null;
+    }
+
+    // ==================================================================================
+    // Sampel tekanan pool dan penyesuaian batas (AIMD)
+    // ==================================================================================
+    // Dipanggil thread request yang pertama melihat sampel sudah jatuh tempo; thread lain
+    // yang sempat lolos pengecekan yang sama keluar lewat pengecekan ulang di sini
+    synchronized void sample() {
+        long now = System.nanoTime();
+        if (now - nextSample < 0) {
+            return;
+        }
+        nextSample = now + sampleIntervalNanos;
+
+        double pending = 0;
+        for (Gauge gauge : registry.find("hikaricp.connections.pending").gauges()) {
+            pending += gauge.value();
+        }
+        double acquireNanos = 0;
+        long acquireCount = 0;
+        for (Timer timer : registry.find("hikaricp.connections.acquire").timers()) {
+            acquireNanos += timer.totalTime(TimeUnit.NANOSECONDS);
+            acquireCount += timer.count();
+        }
+        long acquired = acquireCount - lastAcquireCount;
+        double waitMs = acquired > 0 ? (acquireNanos - lastAcquireNanos) / acquired / 1_000_000.0 : 0;
+        lastAcquireNanos = acquireNanos;
+        lastAcquireCount = acquireCount;
+
+        poolPending = pending;
+        poolWaitMs = waitMs;
+        congested = pending > maxPending || waitMs > targetWaitMs;
+
+        int peak = peakInFlight.getAndSet(inFlight.get());
+        if (congested) {
+            limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+        } else if (peak * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    public record LoadSheddingStats(
+            boolean enabled,
+            int limit,
+            int inFlight,
+            boolean congested,
+            double poolPending,
+            double poolWaitMs,
+            long rejectedCritical,
+            long rejectedNormal,
+            long rejectedLow) {
+    }
+
+    /**
+     * Tempat request yang sedang berjalan; dilepas saat {@link #close()}.
+     */
+    public final class Permit implements AutoCloseable {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit() {
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.delcom.app.services;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Metrics aplikasi yang tidak tercakup auto-config actuator (request HTTP,
+ * HikariCP, dan Hibernate sudah otomatis). Semua meter didaftarkan sekali di
+ * constructor, sehingga pencatatan di jalur request hanya increment counter
+ * tanpa lookup registry.
+ */
+@Service
+public class MetricsService {
+
+    public enum AuthOutcome {
+        SUCCESS,
+        MISSING_TOKEN,
+        INVALID_TOKEN,
+        EXPIRED_TOKEN,
+        USER_NOT_FOUND
+    }
+
+    private final Map<AuthOutcome, Counter> authCounters = new EnumMap<>(AuthOutcome.class);
+    private final DistributionSummary uploadBytes;
+    private final Timer uploadDuration;
+
+    public MetricsService(MeterRegistry registry) {
+        for (AuthOutcome outcome : AuthOutcome.values()) {
+            authCounters.put(outcome, Counter.builder("app.auth.requests")
+                    .description("Hasil pemeriksaan token oleh AuthInterceptor")
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .register(registry));
+        }
+        this.uploadBytes = DistributionSummary.builder("app.upload.bytes")
+                .description("Ukuran foto produk setelah ingest")
+                .baseUnit("bytes")
+                .register(registry);
+        this.uploadDuration = Timer.builder("app.upload.duration")
+                .description("Waktu ingest foto produk (decode, resize, tulis ke disk)")
+                .register(registry);
+    }
+
+    public void recordAuth(AuthOutcome outcome) {
+        authCounters.get(outcome).increment();
+    }
+
+    public void recordUpload(long bytes, long durationNanos) {
+        uploadBytes.record(bytes);
+        uploadDuration.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+}
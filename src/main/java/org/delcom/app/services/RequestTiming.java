@@ -0,0 +1,186 @@
+package org.delcom.app.services;
+
+/**
+ * Rincian waktu satu request HTTP per fase (auth, SQL, render view, file I/O).
+ * Dibuka {@code ServerTimingFilter} di thread request; komponen lain cukup
+ * memanggil {@link #record(Phase, long)} tanpa perlu tahu apakah ada request
+ * yang sedang diukur (di thread background pemanggilan itu diabaikan).
+ * <p>
+ * Hasilnya dikirim sebagai header {@code Server-Timing} dan ditulis ke access
+ * log. Objek ini hanya diubah oleh thread request; setelah {@link #finish()}
+ * nilainya tetap, sehingga aman dibaca writer access log.
+ */
+public final class RequestTiming {
+
+    public enum Phase {
+        AUTH("auth"),
+        DB("db"),
+        RENDER("render"),
+        FILE("file");
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String metricName() {
+            return metricName;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos;
+    private final long[] phaseNanos = new long[PHASES.length];
+    private int queries;
+    private boolean rendering;
+    private long renderStartNanos;
+    private long totalNanos;
+    private boolean finished;
+
+    private RequestTiming(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    // ==================================================================================
+    // Siklus hidup per thread request
+    // ==================================================================================
+
+    public static RequestTiming start() {
+        RequestTiming timing = new RequestTiming(System.nanoTime());
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    // ==================================================================================
+    // Pencatatan dari AuthInterceptor, proxy datasource, interceptor view, dan upload
+    // ==================================================================================
+
+    public static void record(Phase phase, long nanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null && !timing.finished) {
+            timing.phaseNanos[phase.ordinal()] += nanos;
+        }
+    }
+
+    // Satu eksekusi statement JDBC
+    public static void recordQuery(long nanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null && !timing.finished) {
+            timing.phaseNanos[Phase.DB.ordinal()] += nanos;
+            timing.queries++;
+        }
+    }
+
+    // Handler selesai dan view akan dirender; render dihitung sampai header/akhir request
+    public static void markRenderStart() {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null && !timing.finished) {
+            timing.rendering = true;
+            timing.renderStartNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Tutup pengukuran. Render yang masih berjalan dihitung sampai titik ini dan
+     * pencatatan berikutnya diabaikan. Pemanggilan kedua tidak berpengaruh.
+     */
+    public void finish() {
+        if (finished) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (rendering) {
+            phaseNanos[Phase.RENDER.ordinal()] += now - renderStartNanos;
+            rendering = false;
+        }
+        totalNanos = now - startNanos;
+        finished = true;
+    }
+
+    public long nanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    public int queries() {
+        return queries;
+    }
+
+    // Nol sebelum finish()
+    public long totalNanos() {
+        return totalNanos;
+    }
+
+    // ==================================================================================
+    // Format keluaran
+    // ==================================================================================
+
+    /**
+     * Nilai header {@code Server-Timing} per saat ini, tanpa menutup pengukuran:
+     * {@code auth;dur=1.204, db;dur=5.310;desc="3 queries", total;dur=12.000}.
+     * Fase yang tidak terjadi dilewati.
+     */
+    public String toServerTiming() {
+        long now = System.nanoTime();
+        StringBuilder header = new StringBuilder(96);
+        for (Phase phase : PHASES) {
+            long nanos = phaseNanos[phase.ordinal()];
+            if (phase == Phase.RENDER && rendering) {
+                nanos += now - renderStartNanos;
+            }
+            if (nanos == 0) {
+                continue;
+            }
+            header.append(phase.metricName()).append(";dur=");
+            appendMillis(header, nanos);
+            if (phase == Phase.DB) {
+                header.append(";desc=\"").append(queries).append(" queries\"");
+            }
+            header.append(", ");
+        }
+        header.append("total;dur=");
+        appendMillis(header, finished ? totalNanos : now - startNanos);
+        return header.toString();
+    }
+
+    // {"auth_ms":1.204,"db_ms":5.310,"db_queries":3,"render_ms":0.000,"file_ms":0.000,"total_ms":12.000}
+    public void appendJson(StringBuilder line) {
+        line.append('{');
+        for (Phase phase : PHASES) {
+            line.append('"').append(phase.metricName()).append("_ms\":");
+            appendMillis(line, phaseNanos[phase.ordinal()]);
+            if (phase == Phase.DB) {
+                line.append(",\"db_queries\":").append(queries);
+            }
+            line.append(',');
+        }
+        line.append("\"total_ms\":");
+        appendMillis(line, totalNanos);
+        line.append('}');
+    }
+
+    // Milidetik dengan tiga desimal, tanpa String.format di jalur request
+    static void appendMillis(StringBuilder out, long nanos) {
+        long micros = nanos / 1_000;
+        out.append(micros / 1_000).append('.');
+        long fraction = micros % 1_000;
+        if (fraction < 100) {
+            out.append('0');
+        }
+        if (fraction < 10) {
+            out.append('0');
+        }
+        out.append(fraction);
+    }
+}
@@ -0,0 +1,38 @@
+package org.delcom.app.services;
+
+import java.util.UUID;
+
+import org.delcom.app.repositories.CollectionVersionRepository;
+import org.springframework.stereotype.Service;
+
+/**
+ * Versi koleksi data produk per user, untuk ETag list, batch, dan statistik.
+ * <p>
+ * Versi disimpan di tabel {@code collection_versions} dan dinaikkan di transaksi yang
+ * sama dengan penulisan di {@link FoodQualityService}: request yang membaca data lama
+ * tidak akan melihat versi baru, rollback ikut membatalkan kenaikan, dan semua instance
+ * di belakang load balancer memakai versi yang sama. Validasi ETag cukup satu lookup
+ * primary key, tanpa memuat data produk.
+ */
+@Service
+public class ResourceVersionService {
+
+    private final CollectionVersionRepository collectionVersionRepository;
+
+    public ResourceVersionService(CollectionVersionRepository collectionVersionRepository) {
+        this.collectionVersionRepository = collectionVersionRepository;
+    }
+
+    public long current(UUID userId) {
+        return collectionVersionRepository.findVersionByUserId(userId).orElse(0L);
+    }
+
+    public void bump(UUID userId) {
+        collectionVersionRepository.increment(userId);
+    }
+
+    // Nilai opaque untuk ETag koleksi, mis. "v12"
+    public String collectionTag(UUID userId) {
+        return "v" + current(userId);
+    }
+}
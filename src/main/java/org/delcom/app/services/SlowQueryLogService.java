@@ -0,0 +1,307 @@
+package org.delcom.app.services;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Log query lambat dari proxy datasource ({@code SlowQueryDataSource}). Statement
+ * yang eksekusinya melebihi {@code threshold-ms} disimpan di ring terbatas: SQL
+ * yang sudah dinormalisasi, tipe parameter (nilainya tidak pernah disimpan), jumlah
+ * baris, dan durasi. Jika {@code explain.enabled}, SQL asli Hibernate dari SELECT
+ * yang lambat di-EXPLAIN di satu thread background dengan koneksi terpisah, lalu
+ * plan-nya ditempel ke entri yang sama. Defaultnya {@code EXPLAIN (GENERIC_PLAN)}
+ * (PostgreSQL 16+): query tidak dijalankan dan nilai parameter tidak dikirim. Dengan
+ * {@code explain.analyze}, query dijalankan ulang dengan {@code EXPLAIN (ANALYZE, BUFFERS)}
+ * memakai nilai parameter aslinya di transaksi read-only yang selalu di-rollback;
+ * nilai tersebut hanya hidup sampai EXPLAIN selesai. Literal di plan disamarkan,
+ * angka pengukuran (cost, rows, waktu, buffers) dibiarkan. EXPLAIN dilewati selama
+ * ada request yang menunggu koneksi pool.
+ */
+@Service
+public class SlowQueryLogService {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLogService.class);
+
+    static final String GENERIC_PLAN_PREFIX = "EXPLAIN (GENERIC_PLAN) ";
+    static final String ANALYZE_PREFIX = "EXPLAIN (ANALYZE, BUFFERS) ";
+
+    // Literal string ('it''s') di mana pun di plan
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    // Baris kondisi: "Index Cond: (...)", "Filter: (...)", "Hash Cond: (...)"; bukan "Rows Removed by Filter: 12"
+    private static final Pattern CONDITION_LINE =
+            Pattern.compile("^(\\s*(?!Rows Removed)[A-Z][A-Za-z -]*(?:Cond|Filter): )(.*)$");
+    // Angka di kondisi, kecuali modifier tipe (::numeric(38,2)) dan placeholder ($1)
+    private static final Pattern NUMBER_LITERAL =
+            Pattern.compile("(::[\\w ]+\\(\\d+(?:,\\d+)?\\))|(?<![\\w$.])\\d+(?:\\.\\d+)?(?![\\w.])");
+
+    private static final String NULL_TYPE = "null";
+
+    private final boolean enabled;
+    private final long thresholdNanos;
+    private final int capacity;
+    private final boolean explainEnabled;
+    private final boolean explainAnalyze;
+    private final int explainTimeoutSeconds;
+
+    private final Deque<SlowQuery> recent = new ArrayDeque<>();
+
+    // Satu thread, antrean kecil: jika EXPLAIN menumpuk, sisanya dibuang
+    private final ThreadPoolExecutor explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(16), Thread.ofPlatform().daemon().name("slow-query-explain").factory(),
+            new ThreadPoolExecutor.DiscardPolicy());
+
+    public SlowQueryLogService(
+            @Value("${app.slow-query.enabled:true}") boolean enabled,
+            @Value("${app.slow-query.threshold-ms:200}") long thresholdMs,
+            @Value("${app.slow-query.capacity:100}") int capacity,
+            @Value("${app.slow-query.explain.enabled:false}") boolean explainEnabled,
+            @Value("${app.slow-query.explain.analyze:false}") boolean explainAnalyze,
+            @Value("${app.slow-query.explain.timeout-seconds:10}") int explainTimeoutSeconds) {
+        this.enabled = enabled;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.capacity = capacity;
+        this.explainEnabled = explainEnabled;
+        this.explainAnalyze = explainAnalyze;
+        this.explainTimeoutSeconds = explainTimeoutSeconds;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isSlow(long durationNanos) {
+        return durationNanos >= thresholdNanos;
+    }
+
+    // Proxy statement hanya menyimpan nilai parameter (ParameterBinding) jika true
+    public boolean isExplainAnalyze() {
+        return explainEnabled && explainAnalyze;
+    }
+
+    /**
+     * Catat satu statement lambat.
+     *
+     * @param target         datasource asli (tanpa proxy), dipakai untuk EXPLAIN
+     * @param parameterTypes hasil {@link #parameterType(Method, Object)} per parameter, urut berdasarkan index
+     * @param bindings       setter beserta nilainya untuk EXPLAIN ANALYZE; kosong jika analyze nonaktif
+     * @param rows           baris yang dibaca/diubah, -1 jika tidak diketahui
+     */
+    public SlowQuery record(DataSource target, String sql, List<?> parameterTypes, List<ParameterBinding> bindings,
+            long rows, long durationNanos) {
+        List<String> typeNames = new ArrayList<>(parameterTypes.size());
+        for (Object parameterType : parameterTypes) {
+            typeNames.add(typeName(parameterType));
+        }
+        SlowQuery entry = new SlowQuery(Instant.now(), SqlStatementMonitor.fingerprint(sql), typeNames, rows,
+                durationNanos / 1_000_000.0);
+        synchronized (recent) {
+            if (recent.size() == capacity) {
+                recent.removeLast();
+            }
+            recent.addFirst(entry);
+        }
+        log.warn("Query lambat {} ms ({} baris): {}", entry.getDurationMs(), rows, entry.getSql());
+
+        if (explainEnabled && isExplainable(sql)) {
+            explainExecutor.execute(() -> explain(target, sql, bindings, entry));
+        }
+        return entry;
+    }
+
+    // Terbaru lebih dulu
+    public List<SlowQuery> getRecent() {
+        synchronized (recent) {
+            return List.copyOf(recent);
+        }
+    }
+
+    public long getThresholdMs() {
+        return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        explainExecutor.shutdownNow();
+    }
+
+    static boolean isExplainable(String sql) {
+        return sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select");
+    }
+
+    // SQL asli (bukan fingerprint) agar IN-list dan tipe seperti numeric(38,2) tetap utuh.
+    // Generik: placeholder diisi NULL dan plan hanya menampilkan $1, $2, ...; ANALYZE
+    // memutar ulang setter aslinya. Keduanya read-only dan selalu di-rollback.
+    void explain(DataSource target, String sql, List<ParameterBinding> bindings, SlowQuery entry) {
+        try {
+            if (poolBusy(target)) {
+                entry.setPlan("EXPLAIN dilewati: ada request yang sedang menunggu koneksi");
+                return;
+            }
+            try (Connection connection = target.getConnection()) {
+                connection.setReadOnly(true);
+                connection.setAutoCommit(false);
+                String prefix = explainAnalyze ? ANALYZE_PREFIX : GENERIC_PLAN_PREFIX;
+                try (PreparedStatement statement = connection.prepareStatement(prefix + sql)) {
+                    statement.setQueryTimeout(explainTimeoutSeconds);
+                    if (explainAnalyze) {
+                        for (ParameterBinding binding : bindings) {
+                            binding.apply(statement);
+                        }
+                    } else {
+                        int parameters = placeholders(sql);
+                        for (int i = 1; i <= parameters; i++) {
+                            statement.setNull(i, Types.OTHER);
+                        }
+                    }
+                    StringBuilder plan = new StringBuilder();
+                    try (ResultSet rs = statement.executeQuery()) {
+                        while (rs.next()) {
+                            plan.append(redact(rs.getString(1))).append('\n');
+                        }
+                    }
+                    entry.setPlan(plan.toString());
+                } finally {
+                    connection.rollback();
+                }
+            }
+        } catch (Exception e) {
+            entry.setPlan("EXPLAIN gagal: " + e.getMessage());
+        }
+    }
+
+    // EXPLAIN memakai pool yang sama dengan request: jangan ikut antre saat pool penuh
+    static boolean poolBusy(DataSource target) throws SQLException {
+        if (!target.isWrapperFor(HikariDataSource.class)) {
+            return false;
+        }
+        HikariPoolMXBean pool = target.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+        return pool != null && pool.getThreadsAwaitingConnection() > 0;
+    }
+
+    // Satu baris plan tanpa literal: string menjadi '?', angka di baris kondisi menjadi ?
+    static String redact(String line) {
+        String redacted = STRING_LITERAL.matcher(line).replaceAll("'?'");
+        Matcher condition = CONDITION_LINE.matcher(redacted);
+        if (!condition.matches()) {
+            return redacted;
+        }
+        String expression = NUMBER_LITERAL.matcher(condition.group(2))
+                .replaceAll(number -> number.group(1) != null ? Matcher.quoteReplacement(number.group(1)) : "?");
+        return condition.group(1) + expression;
+    }
+
+    static int placeholders(String sql) {
+        int count = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            if (sql.charAt(i) == '?') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Penanda tipe satu parameter yang disimpan proxy statement di setiap {@code setX},
+     * tanpa nilainya dan tanpa alokasi: {@code Class} nilai untuk {@code setObject},
+     * selain itu setter-nya. Nama tipe baru dibentuk saat query lambat dicatat.
+     */
+    public static Object parameterType(Method setter, Object value) {
+        if (setter.getName().equals("setObject")) {
+            return value != null ? value.getClass() : NULL_TYPE;
+        }
+        return setter;
+    }
+
+    // "String", "Long", "UUID", "null"
+    static String typeName(Object parameterType) {
+        if (parameterType instanceof Method setter) {
+            return setter.getName().equals("setNull") ? NULL_TYPE : setter.getName().substring(3);
+        }
+        return parameterType instanceof Class<?> type ? type.getSimpleName() : NULL_TYPE;
+    }
+
+    /**
+     * Satu pemanggilan {@code setX(index, nilai, ...)} yang diputar ulang untuk
+     * EXPLAIN ANALYZE. Tidak pernah disimpan di {@link SlowQuery} maupun ditulis ke log.
+     */
+    public record ParameterBinding(Method setter, Object[] args) {
+
+        void apply(PreparedStatement statement) throws ReflectiveOperationException {
+            setter.invoke(statement, args);
+        }
+    }
+
+    public static final class SlowQuery {
+
+        private final Instant timestamp;
+        private final String sql;
+        private final List<String> parameterTypes;
+        private final long rows;
+        private final double durationMs;
+        private volatile String plan;
+
+        SlowQuery(Instant timestamp, String sql, List<String> parameterTypes, long rows, double durationMs) {
+            this.timestamp = timestamp;
+            this.sql = sql;
+            this.parameterTypes = List.copyOf(parameterTypes);
+            this.rows = rows;
+            this.durationMs = durationMs;
+        }
+
+        public Instant getTimestamp() {
+            return timestamp;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public List<String> getParameterTypes() {
+            return parameterTypes;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public double getDurationMs() {
+            return durationMs;
+        }
+
+        // Null selama EXPLAIN belum selesai (atau tidak dijalankan)
+        public String getPlan() {
+            return plan;
+        }
+
+        void setPlan(String plan) {
+            this.plan = plan;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package org.delcom.app.services;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Menghitung statement SQL yang disiapkan Hibernate per request HTTP dan per
+ * transaksi. Request/transaksi yang melebihi budget, atau yang menjalankan SQL
+ * yang sama berulang kali (pola N+1), dicatat sebagai warning beserta
+ * fingerprint SQL-nya.
+ * <p>
+ * Di jalur query hanya ada satu lookup thread-local dan satu {@code merge} ke
+ * map. Pengulangan dihitung dari teks SQL mentah (Hibernate selalu memakai
+ * parameter {@code ?}, jadi N+1 menghasilkan teks yang sama); fingerprint baru
+ * dihitung saat warning benar-benar ditulis.
+ */
+@Service
+public class SqlStatementMonitor implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementMonitor.class);
+
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final boolean enabled;
+    private final int requestBudget;
+    private final int transactionBudget;
+    private final int repeatThreshold;
+
+    public SqlStatementMonitor(
+            @Value("${app.sql-budget.enabled:true}") boolean enabled,
+            @Value("${app.sql-budget.max-per-request:10}") int requestBudget,
+            @Value("${app.sql-budget.max-per-transaction:6}") int transactionBudget,
+            @Value("${app.sql-budget.repeat-threshold:3}") int repeatThreshold) {
+        this.enabled = enabled;
+        this.requestBudget = requestBudget;
+        this.transactionBudget = transactionBudget;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    // Daftarkan instance bean ini sebagai StatementInspector Hibernate
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        if (enabled) {
+            hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Recording recording = CURRENT.get();
+        if (recording != null) {
+            recording.add(sql);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionRecording().add(sql);
+        }
+        return sql;
+    }
+
+    // ==================================================================================
+    // Recording per thread (request HTTP, atau satu panggilan di test)
+    // ==================================================================================
+
+    /**
+     * Mulai menghitung statement di thread saat ini. Recording boleh bertingkat:
+     * statement juga dihitung di recording luar.
+     */
+    public static Recording startRecording() {
+        Recording recording = new Recording(CURRENT.get());
+        CURRENT.set(recording);
+        return recording;
+    }
+
+    public static void stopRecording(Recording recording) {
+        if (recording.parent != null) {
+            CURRENT.set(recording.parent);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    // Dipanggil filter setelah request selesai
+    public void finishRequest(Recording recording, String label) {
+        stopRecording(recording);
+        report("Request " + label, recording, requestBudget);
+    }
+
+    // ==================================================================================
+    // Recording per transaksi (terikat ke TransactionSynchronizationManager)
+    // ==================================================================================
+    private Recording transactionRecording() {
+        Recording recording = (Recording) TransactionSynchronizationManager.getResource(this);
+        if (recording != null) {
+            return recording;
+        }
+        Recording created = new Recording(null);
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(SqlStatementMonitor.this);
+                report("Transaksi " + name, created, transactionBudget);
+            }
+        });
+        return created;
+    }
+
+    // true jika melebihi budget atau ada SQL yang berulang >= repeat-threshold
+    boolean report(String label, Recording recording, int budget) {
+        int count = recording.count();
+        if (count <= budget && count < repeatThreshold) {
+            return false;
+        }
+        boolean repeated = recording.maxRepeats() >= repeatThreshold;
+        if (count <= budget && !repeated) {
+            return false;
+        }
+
+        Map<String, Integer> fingerprints = recording.fingerprints();
+        StringBuilder detail = new StringBuilder();
+        fingerprints.forEach((sql, times) -> detail.append("\n  ").append(times).append("x ").append(sql));
+        log.warn("{}: {} statement SQL (budget {}){}{}", label, count, budget,
+                repeated ? ", kemungkinan N+1" : "", detail);
+        return true;
+    }
+
+    /**
+     * SQL tanpa literal dan dengan daftar IN diringkas, sehingga query yang sama
+     * dengan parameter berbeda menghasilkan fingerprint yang sama.
+     */
+    public static String fingerprint(String sql) {
+        String result = STRING_LITERAL.matcher(sql).replaceAll("?");
+        result = NUMBER_LITERAL.matcher(result).replaceAll("?");
+        result = IN_LIST.matcher(result).replaceAll("(?)");
+        return WHITESPACE.matcher(result).replaceAll(" ").trim();
+    }
+
+    public static final class Recording {
+
+        private final Recording parent;
+        private final Map<String, Integer> statements = new HashMap<>();
+        private int count;
+        private int maxRepeats;
+
+        private Recording(Recording parent) {
+            this.parent = parent;
+        }
+
+        private void add(String sql) {
+            count++;
+            int times = statements.merge(sql, 1, Integer::sum);
+            if (times > maxRepeats) {
+                maxRepeats = times;
+            }
+            if (parent != null) {
+                parent.add(sql);
+            }
+        }
+
+        public int count() {
+            return count;
+        }
+
+        // Jumlah eksekusi teks SQL yang paling sering muncul
+        public int maxRepeats() {
+            return maxRepeats;
+        }
+
+        // Fingerprint -> jumlah eksekusi, urut dari yang paling sering
+        public Map<String, Integer> fingerprints() {
+            Map<String, Integer> merged = new HashMap<>();
+            statements.forEach((sql, times) -> merged.merge(fingerprint(sql), times, Integer::sum));
+            Map<String, Integer> sorted = new LinkedHashMap<>();
+            merged.entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package org.delcom.app.services;
+
+/**
+ * Hasil penyimpanan satu file gambar: nama file yang disimpan di database
+ * dan ukuran akhir (byte) setelah proses normalisasi.
+ */
+public record StoredImage(String filename, long size) {
+}
@@ -0,0 +1,178 @@
+package org.delcom.app.services;
+
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Membatasi berapa banyak foto yang diproses (decode, resize, tulis ke disk)
+ * secara bersamaan, supaya lonjakan upload tidak menghabiskan thread Tomcat dan
+ * bandwidth disk yang juga dipakai request baca.
+ * <p>
+ * Maksimal {@code max-concurrent} upload berjalan, {@code queue-capacity} lainnya
+ * boleh menunggu. Di luar itu upload langsung ditolak dengan
+ * {@link UploadRejectedException} (HTTP 503 + {@code Retry-After}).
+ */
+@Service
+public class UploadAdmissionService {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadAdmissionService.class);
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final int queueCapacity;
+    private final long queueTimeoutMs;
+    private final int retryAfterSeconds;
+
+    // Jumlah upload yang sedang antre (sinkron maupun async)
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    public UploadAdmissionService(
+            @Value("${app.upload.admission.max-concurrent:4}") int maxConcurrent,
+            @Value("${app.upload.admission.queue-capacity:16}") int queueCapacity,
+            @Value("${app.upload.admission.queue-timeout-ms:10000}") long queueTimeoutMs,
+            @Value("${app.upload.admission.retry-after-seconds:5}") int retryAfterSeconds) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.queueCapacity = queueCapacity;
+        this.queueTimeoutMs = queueTimeoutMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Minta slot untuk memproses upload di thread saat ini. Menunggu di antrean
+     * paling lama {@code queue-timeout-ms}. Tidak boleh dipanggil di dalam transaksi:
+     * koneksi pool akan ikut tertahan selama upload antre dan diproses.
+     *
+     * @throws UploadRejectedException jika antrean penuh atau waktu tunggu habis
+     * @throws IllegalStateException jika dipanggil saat transaksi aktif
+     */
+    public Permit acquire() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Slot upload tidak boleh ditunggu di dalam transaksi");
+        }
+        if (permits.tryAcquire()) {
+            return new Permit();
+        }
+        enqueue();
+        try {
+            if (!permits.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw reject();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw reject();
+        } finally {
+            waiting.decrementAndGet();
+        }
+        return new Permit();
+    }
+
+    /**
+     * Pesan tempat di antrean untuk pemrosesan async. Tempat dipesan sebelum
+     * transaksi commit, lalu {@link Ticket#start(Runnable)} dipanggil setelah commit
+     * (atau {@link Ticket#cancel()} jika rollback).
+     *
+     * @throws UploadRejectedException jika antrean penuh
+     */
+    public Ticket reserve() {
+        enqueue();
+        return new Ticket();
+    }
+
+    public AdmissionStats getStats() {
+        return new AdmissionStats(
+                maxConcurrent - permits.availablePermits(),
+                maxConcurrent,
+                waiting.get(),
+                queueCapacity,
+                rejected.sum());
+    }
+
+    private void enqueue() {
+        if (waiting.incrementAndGet() > queueCapacity) {
+            waiting.decrementAndGet();
+            throw reject();
+        }
+    }
+
+    private UploadRejectedException reject() {
+        rejected.increment();
+        return new UploadRejectedException(retryAfterSeconds);
+    }
+
+    public record AdmissionStats(
+            int active,
+            int maxConcurrent,
+            int waiting,
+            int queueCapacity,
+            long rejected) {
+    }
+
+    /**
+     * Slot pemrosesan yang sedang dipegang; dilepas saat {@link #close()}.
+     */
+    public final class Permit implements AutoCloseable {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit() {
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Tempat di antrean untuk satu upload async.
+     */
+    public final class Ticket {
+        private final AtomicBoolean used = new AtomicBoolean();
+
+        private Ticket() {
+        }
+
+        // Jalankan task di virtual thread setelah mendapat slot pemrosesan
+        public void start(Runnable task) {
+            if (!used.compareAndSet(false, true)) {
+                return;
+            }
+            // Correlation ID request asal ikut ke log worker
+            Map<String, String> mdc = MDC.getCopyOfContextMap();
+            Thread.ofVirtual().name("upload-worker").start(() -> {
+                if (mdc != null) {
+                    MDC.setContextMap(mdc);
+                }
+                permits.acquireUninterruptibly();
+                waiting.decrementAndGet();
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    log.error("Pemrosesan upload async gagal", e);
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+
+        public void cancel() {
+            if (used.compareAndSet(false, true)) {
+                waiting.decrementAndGet();
+            }
+        }
+    }
+}
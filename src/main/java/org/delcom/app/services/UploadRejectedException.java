@@ -0,0 +1,19 @@
+package org.delcom.app.services;
+
+/**
+ * Dilempar saat slot pemrosesan upload dan antreannya penuh. Controller
+ * menerjemahkannya menjadi HTTP 503 dengan header {@code Retry-After}.
+ */
+public class UploadRejectedException extends RuntimeException {
+
+    private final int retryAfterSeconds;
+
+    public UploadRejectedException(int retryAfterSeconds) {
+        super("Server sedang sibuk memproses upload, coba lagi dalam " + retryAfterSeconds + " detik");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
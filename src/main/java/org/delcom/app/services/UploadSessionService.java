@@ -0,0 +1,350 @@
+package org.delcom.app.services;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Upload bertahap (chunked) yang bisa dilanjutkan. Setiap sesi punya file
+ * {@code .part} di {@code <upload-dir>/.incoming} yang ditulis dengan write posisional
+ * {@link FileChannel}, ditambah file metadata kecil sehingga sesi tetap bisa
+ * dilanjutkan setelah aplikasi restart. Offset yang sudah diterima selalu sama
+ * dengan ukuran file {@code .part}.
+ */
+@Service
+public class UploadSessionService {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadSessionService.class);
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    @Value("${app.upload.dir:./uploads}")
+    protected String uploadDir;
+
+    @Value("${app.upload.chunked.max-size:52428800}")
+    protected long maxSize = 50L * 1024 * 1024;
+
+    @Value("${app.upload.chunked.session-ttl-hours:24}")
+    protected long sessionTtlHours = 24;
+
+    private final Map<UUID, UploadSession> sessions = new ConcurrentHashMap<>();
+    private volatile Instant lastPurge = Instant.EPOCH;
+
+    public UploadSession createSession(UUID userId, String filename, String contentType, long totalSize)
+            throws IOException {
+        if (filename == null || filename.isBlank() || contentType == null) {
+            throw new IllegalArgumentException("Nama file dan tipe file wajib diisi");
+        }
+        if (totalSize <= 0 || totalSize > maxSize) {
+            throw new IllegalArgumentException("Ukuran file harus antara 1 byte dan " + maxSize + " byte");
+        }
+        purgeExpired();
+
+        UploadSession session = new UploadSession(UUID.randomUUID(), userId, filename, contentType, totalSize,
+                Instant.now(), incomingDir());
+        Files.createDirectories(session.partFile.getParent());
+        Files.createFile(session.partFile);
+        writeMetadata(session);
+        sessions.put(session.id, session);
+        return session;
+    }
+
+    /**
+     * Cari sesi milik user. Sesi yang tidak ada di memori (mis. setelah restart)
+     * dimuat ulang dari file metadata-nya.
+     *
+     * @return null jika sesi tidak ada, sudah kedaluwarsa, atau milik user lain
+     */
+    public UploadSession getSession(UUID userId, UUID sessionId) throws IOException {
+        UploadSession session = sessions.get(sessionId);
+        if (session == null) {
+            session = readMetadata(sessionId);
+            if (session == null) {
+                return null;
+            }
+            UploadSession existing = sessions.putIfAbsent(sessionId, session);
+            if (existing != null) {
+                session = existing;
+            }
+        }
+        if (!session.userId.equals(userId) || isExpired(session)) {
+            return null;
+        }
+        return session;
+    }
+
+    /**
+     * Tulis satu chunk mulai dari {@code offset}. Byte yang sudah tertulis tetap
+     * tersimpan walaupun koneksi putus di tengah chunk.
+     *
+     * @return offset baru (jumlah byte yang sudah diterima)
+     * @throws IllegalStateException    jika offset tidak sama dengan offset sesi atau
+     *                                  chunk lain sedang ditulis
+     * @throws IllegalArgumentException jika chunk melebihi ukuran total
+     */
+    public long appendChunk(UploadSession session, long offset, InputStream in) throws IOException {
+        if (!session.lock.tryLock()) {
+            throw new IllegalStateException("Chunk lain untuk sesi ini sedang diproses");
+        }
+        try {
+            if (offset != session.offset) {
+                throw new IllegalStateException("Offset tidak sesuai, server sudah menerima " + session.offset + " byte");
+            }
+
+            long position = offset;
+            try (FileChannel channel = FileChannel.open(session.partFile, StandardOpenOption.WRITE)) {
+                byte[] chunk = new byte[COPY_BUFFER_SIZE];
+                int read;
+                while ((read = in.read(chunk)) != -1) {
+                    if (position + read > session.totalSize) {
+                        throw new IllegalArgumentException("Chunk melebihi ukuran file yang didaftarkan");
+                    }
+                    ByteBuffer buffer = ByteBuffer.wrap(chunk, 0, read);
+                    while (buffer.hasRemaining()) {
+                        position += channel.write(buffer, position);
+                    }
+                }
+                channel.force(false);
+            } finally {
+                session.offset = position;
+                session.lastActivity = Instant.now();
+            }
+            return position;
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    /**
+     * File yang sudah lengkap sebagai {@link MultipartFile}, sehingga bisa diproses
+     * oleh alur upload yang sama dengan multipart biasa.
+     *
+     * @return null jika upload belum lengkap
+     */
+    public MultipartFile toMultipartFile(UploadSession session) {
+        if (session.offset != session.totalSize) {
+            return null;
+        }
+        return new PartFile(session);
+    }
+
+    public void discard(UploadSession session) throws IOException {
+        sessions.remove(session.id);
+        Files.deleteIfExists(session.partFile);
+        Files.deleteIfExists(metadataFile(session.id));
+    }
+
+    // Bersihkan sesi yang ditinggalkan, paling sering sekali per menit
+    void purgeExpired() throws IOException {
+        Instant now = Instant.now();
+        if (Duration.between(lastPurge, now).toMinutes() < 1) {
+            return;
+        }
+        lastPurge = now;
+
+        Path dir = incomingDir();
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.properties")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                UUID id = parseSessionId(name.substring(0, name.length() - ".properties".length()));
+                if (id == null) {
+                    // Bukan metadata sesi (file lain yang kebetulan ada di .incoming)
+                    continue;
+                }
+                // Satu metadata rusak atau tidak terbaca tidak boleh menggagalkan createSession
+                try {
+                    UploadSession session = readMetadata(id);
+                    if (session != null && isExpired(session)) {
+                        discard(session);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Gagal membersihkan sesi upload {}", name, e);
+                }
+            }
+        }
+    }
+
+    private static UUID parseSessionId(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private boolean isExpired(UploadSession session) {
+        return session.lastActivity.plus(Duration.ofHours(sessionTtlHours)).isBefore(Instant.now());
+    }
+
+    private Path incomingDir() {
+        return Paths.get(uploadDir).resolve(".incoming");
+    }
+
+    private Path metadataFile(UUID sessionId) {
+        return incomingDir().resolve(sessionId + ".properties");
+    }
+
+    private void writeMetadata(UploadSession session) throws IOException {
+        Properties props = new Properties();
+        props.setProperty("userId", session.userId.toString());
+        props.setProperty("filename", session.filename);
+        props.setProperty("contentType", session.contentType);
+        props.setProperty("totalSize", Long.toString(session.totalSize));
+        props.setProperty("createdAt", session.createdAt.toString());
+
+        Path target = metadataFile(session.id);
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            props.store(out, null);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private UploadSession readMetadata(UUID sessionId) throws IOException {
+        Path file = metadataFile(sessionId);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            props.load(in);
+        }
+
+        UploadSession session = new UploadSession(
+                sessionId,
+                UUID.fromString(props.getProperty("userId")),
+                props.getProperty("filename"),
+                props.getProperty("contentType"),
+                Long.parseLong(props.getProperty("totalSize")),
+                Instant.parse(props.getProperty("createdAt")),
+                incomingDir());
+        if (Files.exists(session.partFile)) {
+            session.offset = Files.size(session.partFile);
+            session.lastActivity = Files.getLastModifiedTime(session.partFile).toInstant();
+        }
+        return session;
+    }
+
+    public static class UploadSession {
+        private final UUID id;
+        private final UUID userId;
+        private final String filename;
+        private final String contentType;
+        private final long totalSize;
+        private final Instant createdAt;
+        private final Path partFile;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private volatile long offset;
+        private volatile Instant lastActivity;
+
+        UploadSession(UUID id, UUID userId, String filename, String contentType, long totalSize,
+                Instant createdAt, Path incomingDir) {
+            this.id = id;
+            this.userId = userId;
+            this.filename = filename;
+            this.contentType = contentType;
+            this.totalSize = totalSize;
+            this.createdAt = createdAt;
+            this.lastActivity = createdAt;
+            this.partFile = incomingDir.resolve(id + ".part");
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public String getFilename() {
+            return filename;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public long getTotalSize() {
+            return totalSize;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public boolean isComplete() {
+            return offset == totalSize;
+        }
+    }
+
+    private static class PartFile implements MultipartFile {
+        private final UploadSession session;
+
+        PartFile(UploadSession session) {
+            this.session = session;
+        }
+
+        @Override
+        public String getName() {
+            return "imageFile";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return session.filename;
+        }
+
+        @Override
+        public String getContentType() {
+            return session.contentType;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return session.totalSize == 0;
+        }
+
+        @Override
+        public long getSize() {
+            return session.totalSize;
+        }
+
+        @Override
+        public byte[] getBytes() throws IOException {
+            return Files.readAllBytes(session.partFile);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(session.partFile);
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            Files.copy(session.partFile, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package org.delcom.app.services;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.delcom.app.utils.ShardedPathUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Memindahkan file upload lama dari layout flat ({@code uploads/<file>}) ke layout
+ * shard di background. Aplikasi tetap melayani request selama migrasi karena
+ * pembacaan memakai {@link ShardedPathUtil#resolveExisting} dan setiap file
+ * dipindahkan dengan hard link ke shard lalu menghapus nama flat-nya, sehingga file
+ * shard yang ditulis upload baru tidak pernah tertimpa. Di filesystem tanpa hard link
+ * migrasi memakai move tanpa {@code REPLACE_EXISTING}. File yang gagal dipindahkan
+ * dicatat lalu dilewati; sisanya tetap dimigrasikan dan file tersebut dicoba lagi saat
+ * start berikutnya.
+ */
+@Service
+public class UploadShardMigrationService {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadShardMigrationService.class);
+
+    @Value("${app.upload.dir:./uploads}")
+    protected String uploadDir;
+
+    @Value("${app.upload.shard-migration.enabled:true}")
+    protected boolean enabled;
+
+    // Jeda singkat setiap batch agar migrasi tidak menghabiskan I/O disk
+    @Value("${app.upload.shard-migration.batch-size:500}")
+    protected int batchSize = 500;
+
+    @Value("${app.upload.shard-migration.pause-ms:20}")
+    protected long pauseMs = 20;
+
+    // Dimatikan sekali per pass begitu filesystem menolak hard link
+    private boolean hardLinks = true;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startMigration() {
+        if (!enabled) {
+            return;
+        }
+        Thread.ofVirtual().name("upload-shard-migration").start(() -> {
+            try {
+                int moved = migrate(Paths.get(uploadDir));
+                if (moved > 0) {
+                    log.info("Upload shard migration selesai: {} file dipindahkan", moved);
+                }
+            } catch (IOException | RuntimeException e) {
+                // DirectoryIteratorException (runtime) membungkus error I/O saat iterasi
+                log.warn("Upload shard migration gagal", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    /**
+     * Pindahkan semua file di root direktori upload ke direktori shard-nya.
+     *
+     * @return jumlah file yang dipindahkan
+     */
+    public int migrate(Path root) throws IOException, InterruptedException {
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+
+        hardLinks = true;
+        int moved = 0;
+        int failed = 0;
+        // DirectoryStream membaca entri secara bertahap, tidak memuat seluruh listing ke memori
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root, Files::isRegularFile)) {
+            for (Path file : files) {
+                String filename = file.getFileName().toString();
+                if (filename.startsWith(".")) {
+                    // File sementara (mis. .ingest-*.tmp) milik proses upload yang sedang berjalan
+                    continue;
+                }
+                boolean migrated;
+                try {
+                    migrated = migrateFile(root, file, filename);
+                } catch (IOException | RuntimeException e) {
+                    // Satu file bermasalah (izin, disk, nama aneh) tidak boleh menghentikan seluruh pass
+                    failed++;
+                    log.warn("Upload shard migration: {} dilewati", filename, e);
+                    continue;
+                }
+                if (migrated) {
+                    moved++;
+                    if (moved % batchSize == 0) {
+                        Thread.sleep(pauseMs);
+                    }
+                }
+            }
+        }
+        if (failed > 0) {
+            log.warn("Upload shard migration: {} file gagal dipindahkan, dicoba lagi saat start berikutnya", failed);
+        }
+        return moved;
+    }
+
+    // Hard link lalu hapus nama lama, bukan cek Files.exists lalu rename: FileStorageService
+    // bisa menulis cover_<id> ke shard di antara keduanya, dan rename menimpa target tanpa
+    // error. link() gagal secara atomik jika target sudah ada.
+    private boolean migrateFile(Path root, Path file, String filename) throws IOException {
+        Path target = ShardedPathUtil.shardedPath(root, filename);
+        Files.createDirectories(target.getParent());
+        try {
+            if (!link(target, file)) {
+                // Tanpa REPLACE_EXISTING move melempar FileAlreadyExistsException jika target ada.
+                // Cek dan rename-nya tidak atomik, tetapi hanya dipakai jika hard link tidak tersedia.
+                Files.move(file, target);
+                return true;
+            }
+        } catch (FileAlreadyExistsException e) {
+            // Sudah ada versi yang lebih baru di shard; salinan flat tidak dipakai lagi
+            Files.deleteIfExists(file);
+            return false;
+        }
+        Files.deleteIfExists(file);
+        return true;
+    }
+
+    // false jika filesystem tidak mendukung hard link; sisa pass langsung memakai move
+    private boolean link(Path target, Path file) throws IOException {
+        if (!hardLinks) {
+            return false;
+        }
+        try {
+            createLink(target, file);
+            return true;
+        } catch (UnsupportedOperationException e) {
+            log.info("Filesystem upload tidak mendukung hard link, migrasi memakai move");
+        } catch (FileSystemException e) {
+            // EPERM (mis. FAT/exFAT, sebagian mount FUSE/SMB) muncul sebagai FileSystemException
+            // polos; subclass seperti FileAlreadyExists/AccessDenied/NoSuchFile adalah error biasa
+            if (e.getClass() != FileSystemException.class) {
+                throw e;
+            }
+            log.info("Hard link ditolak filesystem upload ({}), migrasi memakai move", e.getReason());
+        }
+        hardLinks = false;
+        return false;
+    }
+
+    // Package-private agar test bisa mensimulasikan filesystem tanpa dukungan hard link
+    void createLink(Path target, Path file) throws IOException {
+        Files.createLink(target, file);
+    }
+}
@@ -0,0 +1,175 @@
+package org.delcom.app.services;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Memantau event JFR {@code jdk.VirtualThreadPinned} saat request dijalankan di
+ * virtual thread ({@code spring.threads.virtual.enabled=true}).
+ * <p>
+ * Virtual thread yang ter-pin tidak bisa dilepas dari carrier thread selama
+ * blocking (mis. menunggu JDBC di dalam frame native), sehingga carrier pool yang
+ * kecil bisa habis. Setiap pinning di atas {@code threshold-ms} dicatat per lokasi
+ * (frame pertama dari kode aplikasi, atau frame teratas) dan ditampilkan di
+ * {@code GET /api/admin/virtual-threads}.
+ */
+@Service
+public class VirtualThreadMonitorService {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadMonitorService.class);
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    static final String OTHER_SITES = "(lainnya)";
+    private static final String APP_PACKAGE = "org.delcom.";
+
+    private final boolean virtualThreads;
+    private final boolean enabled;
+    private final long thresholdMs;
+    private final int maxSites;
+    private final String eventName;
+
+    private final LongAdder pinnedEvents = new LongAdder();
+    private final LongAdder totalPinnedNanos = new LongAdder();
+    private final AtomicLong maxPinnedNanos = new AtomicLong();
+    private final Map<String, LongAdder> sites = new ConcurrentHashMap<>();
+
+    private RecordingStream stream;
+
+    public VirtualThreadMonitorService(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${app.virtual-threads.pinning-monitor.enabled:true}") boolean enabled,
+            @Value("${app.virtual-threads.pinning-monitor.threshold-ms:20}") long thresholdMs,
+            @Value("${app.virtual-threads.pinning-monitor.max-sites:20}") int maxSites) {
+        this(virtualThreads, enabled, thresholdMs, maxSites, PINNED_EVENT);
+    }
+
+    // Nama event bisa diganti di test (event JDK tidak bisa dipicu secara deterministik)
+    VirtualThreadMonitorService(boolean virtualThreads, boolean enabled, long thresholdMs, int maxSites,
+            String eventName) {
+        this.virtualThreads = virtualThreads;
+        this.enabled = enabled;
+        this.thresholdMs = thresholdMs;
+        this.maxSites = maxSites;
+        this.eventName = eventName;
+    }
+
+    // Recording JFR hanya dijalankan pada mode virtual thread
+    @PostConstruct
+    public void start() {
+        if (!virtualThreads || !enabled) {
+            return;
+        }
+        RecordingStream recording = new RecordingStream();
+        recording.enable(eventName).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        recording.onEvent(eventName, this::onPinned);
+        recording.startAsync();
+        stream = recording;
+        log.info("Virtual thread aktif, memantau pinning di atas {} ms", thresholdMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    public boolean isMonitoring() {
+        return stream != null;
+    }
+
+    void onPinned(RecordedEvent event) {
+        String site = site(frames(event.getStackTrace()));
+        if (record(event.getDuration(), site)) {
+            log.warn("Virtual thread ter-pin {} ms di {}", event.getDuration().toMillis(), site);
+        }
+    }
+
+    /**
+     * Catat satu pinning. Jumlah lokasi dibatasi {@code max-sites}; lokasi baru di
+     * luar batas digabung ke {@value #OTHER_SITES}.
+     *
+     * @return true jika lokasi ini baru pertama kali tercatat
+     */
+    boolean record(Duration duration, String site) {
+        long nanos = duration.toNanos();
+        pinnedEvents.increment();
+        totalPinnedNanos.add(nanos);
+        maxPinnedNanos.accumulateAndGet(nanos, Math::max);
+
+        String key = sites.containsKey(site) || sites.size() < maxSites ? site : OTHER_SITES;
+        boolean[] created = new boolean[1];
+        sites.computeIfAbsent(key, k -> {
+            created[0] = true;
+            return new LongAdder();
+        }).increment();
+        return created[0];
+    }
+
+    // Stack trace JFR sebagai "kelas.method:baris", frame teratas lebih dulu
+    static List<String> frames(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return List.of();
+        }
+        return stackTrace.getFrames().stream()
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .toList();
+    }
+
+    // Frame pertama dari kode aplikasi lebih berguna daripada frame JDK/driver di puncak stack
+    static String site(List<String> frames) {
+        if (frames.isEmpty()) {
+            return "(tanpa stack trace)";
+        }
+        for (String frame : frames) {
+            if (frame.startsWith(APP_PACKAGE)) {
+                return frame;
+            }
+        }
+        return frames.get(0);
+    }
+
+    public PinningStats getStats() {
+        Map<String, Long> topSites = new LinkedHashMap<>();
+        sites.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().sum(), a.getValue().sum()))
+                .forEach(entry -> topSites.put(entry.getKey(), entry.getValue().sum()));
+
+        return new PinningStats(
+                virtualThreads,
+                isMonitoring(),
+                thresholdMs,
+                pinnedEvents.sum(),
+                Duration.ofNanos(totalPinnedNanos.sum()).toMillis(),
+                Duration.ofNanos(maxPinnedNanos.get()).toMillis(),
+                topSites);
+    }
+
+    public record PinningStats(
+            boolean virtualThreads,
+            boolean monitoring,
+            long thresholdMs,
+            long pinnedEvents,
+            long totalPinnedMs,
+            long maxPinnedMs,
+            Map<String, Long> sites) {
+    }
+}
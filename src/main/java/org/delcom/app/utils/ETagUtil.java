@@ -0,0 +1,89 @@
+package org.delcom.app.utils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.delcom.app.configs.WebMvcConfig;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Helper ETag lemah (weak) untuk conditional GET. Perbandingan mengikuti aturan
+ * weak comparison RFC 9110: prefix {@code W/} diabaikan, {@code *} cocok dengan
+ * representasi apa pun, dan header {@code If-None-Match} boleh berisi beberapa tag.
+ * <p>
+ * Endpoint yang sama bisa menghasilkan JSON, CBOR, atau Smile tergantung header
+ * {@code Accept}, jadi ETag diberi akhiran {@link #variant(String)} dan response
+ * dikirim dengan {@code Vary: Accept}.
+ */
+public class ETagUtil {
+
+    private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(WebMvcConfig.APPLICATION_SMILE_VALUE);
+
+    public static String weak(String value) {
+        return "W/\"" + value + "\"";
+    }
+
+    // ETag satu produk dari updatedAt (presisi nano, berubah di setiap update)
+    public static String fromTimestamp(LocalDateTime updatedAt) {
+        return fromTimestamp(updatedAt, "");
+    }
+
+    public static String fromTimestamp(LocalDateTime updatedAt, String variant) {
+        return weak(Long.toHexString(updatedAt.toEpochSecond(ZoneOffset.UTC)) + "." + updatedAt.getNano() + variant);
+    }
+
+    /**
+     * Akhiran ETag untuk format yang akan dipilih negosiasi konten dari header
+     * {@code Accept} (urutan quality lalu spesifisitas, sama seperti Spring MVC):
+     * kosong untuk JSON (default), {@code "-cbor"} atau {@code "-smile"} untuk format biner.
+     */
+    public static String variant(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return "";
+        }
+        List<MediaType> types;
+        try {
+            types = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return "";
+        }
+        MimeTypeUtils.sortBySpecificity(types);
+        for (MediaType type : types) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return "";
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return "-cbor";
+            }
+            if (type.isCompatibleWith(APPLICATION_SMILE)) {
+                return "-smile";
+            }
+        }
+        return "";
+    }
+
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank() || etag == null) {
+            return false;
+        }
+        String target = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || opaque(tag).equals(target)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -0,0 +1,62 @@
+package org.delcom.app.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+/**
+ * Layout direktori upload ber-shard: {@code <root>/ab/cd/<filename>}, dengan
+ * {@code ab} dan {@code cd} diambil dari hash nama file (tanpa ekstensi, supaya
+ * file yang ekstensinya berubah saat ingest tetap berada di shard yang sama).
+ * 256 x 256 direktori menjaga tiap direktori tetap kecil meski ada jutaan file.
+ */
+public class ShardedPathUtil {
+
+    public static Path shardDirectory(Path root, String filename) {
+        CRC32 crc = new CRC32();
+        crc.update(stem(filename).getBytes(StandardCharsets.UTF_8));
+        long hash = crc.getValue();
+        return root.resolve(hex(hash >>> 24)).resolve(hex(hash >>> 16));
+    }
+
+    public static Path shardedPath(Path root, String filename) {
+        return shardDirectory(root, filename).resolve(filename);
+    }
+
+    /**
+     * Lokasi file untuk dibaca. File lama yang belum dimigrasi masih berada di
+     * root (layout flat); jika tidak ada di keduanya, path shard dikembalikan
+     * karena migrator bisa saja baru memindahkannya di antara dua pengecekan.
+     */
+    public static Path resolveExisting(Path root, String filename) {
+        Path sharded = shardedPath(root, filename);
+        if (Files.exists(sharded)) {
+            return sharded;
+        }
+        Path flat = root.resolve(filename);
+        if (Files.exists(flat)) {
+            return flat;
+        }
+        return sharded;
+    }
+
+    // Nama file dari URL tidak boleh keluar dari direktori upload
+    public static boolean isSafeFilename(String filename) {
+        return filename != null
+                && !filename.isBlank()
+                && !filename.contains("/")
+                && !filename.contains("\\")
+                && !filename.contains("..");
+    }
+
+    private static String stem(String filename) {
+        int dot = filename.lastIndexOf('.');
+        return dot > 0 ? filename.substring(0, dot) : filename;
+    }
+
+    private static String hex(long value) {
+        int b = (int) (value & 0xFF);
+        return (b < 0x10 ? "0" : "") + Integer.toHexString(b);
+    }
+}
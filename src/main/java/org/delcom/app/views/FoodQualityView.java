@@ -1,6 +1,6 @@
 package org.delcom.app.views;
 
-import java.net.MalformedURLException;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
@@ -9,13 +9,17 @@ import java.util.stream.Collectors;
 
 import org.delcom.app.dto.ProductImageForm;
 import org.delcom.app.dto.FoodProductForm;
+import org.delcom.app.dto.ProductFilter;
 import org.delcom.app.entities.FoodProduct;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.FoodQualityService;
+import org.delcom.app.services.ImageCacheService;
+import org.delcom.app.services.JfrEvents;
+import org.delcom.app.utils.ShardedPathUtil;
 
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -24,6 +28,7 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @Controller
@@ -31,10 +36,12 @@ import jakarta.validation.Valid;
 public class FoodQualityView {
 
     private final FoodQualityService foodQualityService;
+    private final ImageCacheService imageCacheService;
     private final Path rootLocation = Paths.get("uploads");
 
-    public FoodQualityView(FoodQualityService foodQualityService) {
+    public FoodQualityView(FoodQualityService foodQualityService, ImageCacheService imageCacheService) {
         this.foodQualityService = foodQualityService;
+        this.imageCacheService = imageCacheService;
     }
 
     // ==========================================================
@@ -46,6 +53,8 @@ public class FoodQualityView {
         if (authUser == null) return "redirect:/auth/login";
         model.addAttribute("auth", authUser);
 
+        JfrEvents.Dashboard event = new JfrEvents.Dashboard();
+        event.begin();
         List<FoodProduct> allProducts = foodQualityService.getAllProducts(authUser.getId());
 
         // --- STATISTIK ---
@@ -79,6 +88,11 @@ public class FoodQualityView {
         }
 
         model.addAttribute("foodProducts", displayList);
+
+        event.products = allProducts.size();
+        event.displayed = displayList.size();
+        event.search = displayList != allProducts;
+        event.commit();
         return "pages/food-products/home"; 
     }
 
@@ -281,18 +295,34 @@ public class FoodQualityView {
     // 7. HELPER: SERVE IMAGE
     // ==========================================================
     @GetMapping("/image/{filename:.+}")
-    @ResponseBody
-    public Resource getImageByFilename(@PathVariable String filename) {
-        try {
-            Path file = rootLocation.resolve(filename);
-            Resource resource = new UrlResource(file.toUri());
-            if (resource.exists() || resource.isReadable()) {
-                return resource;
+    public void getImageByFilename(@PathVariable String filename, HttpServletResponse response)
+            throws IOException {
+        if (!ShardedPathUtil.isSafeFilename(filename)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        JfrEvents.FileServe event = new JfrEvents.FileServe();
+        event.begin();
+        event.filename = filename;
+
+        // Gambar populer dilayani dari cache off-heap, langsung ke output stream. Path baru
+        // di-resolve saat miss (file baru di direktori shard, file lama masih di layout flat)
+        try (ImageCacheService.Lease image = imageCacheService.get(filename,
+                () -> ShardedPathUtil.resolveExisting(rootLocation, filename))) {
+            if (image == null) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                event.commit();
+                return;
             }
-        } catch (MalformedURLException e) {
-            // ignore
+            response.setContentType(MediaTypeFactory.getMediaType(filename)
+                    .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+            response.setContentLengthLong(image.size());
+            response.getOutputStream().write(image.buffer());
+            event.found = true;
+            event.bytes = image.size();
+            event.commit();
         }
-        return null;
     }
 
     private User getAuthUser() {
@@ -302,39 +332,24 @@ public class FoodQualityView {
     }
         // [BARU] Menampilkan Halaman List Lengkap (list.html)
     @GetMapping("/list")
-    public String showListPage(Model model, 
-                               @RequestParam(required = false) String search,
-                               @RequestParam(required = false) String status) {
+    public String showListPage(Model model, @ModelAttribute ProductFilter filter) {
         
         User authUser = getAuthUser();
         if (authUser == null) return "redirect:/auth/login";
 
-        // Ambil semua produk
-        List<FoodProduct> allProducts = foodQualityService.getAllProducts(authUser.getId());
-        
-        // Filter Logic (Search & Status)
-        List<FoodProduct> displayList = allProducts.stream()
-            .filter(p -> {
-                // Filter by Search Keyword
-                boolean matchSearch = true;
-                if (search != null && !search.isBlank()) {
-                    String k = search.toLowerCase();
-                    matchSearch = p.getProductName().toLowerCase().contains(k) || 
-                                  p.getBatchCode().toLowerCase().contains(k);
-                }
-                
-                // Filter by Status (PASSED, REJECTED, PENDING)
-                boolean matchStatus = true;
-                if (status != null && !status.isBlank() && !status.equals("ALL")) {
-                    matchStatus = p.getInspectionStatus().equalsIgnoreCase(status);
-                }
-                
-                return matchSearch && matchStatus;
-            })
-            .collect(Collectors.toList());
+        // Filter (search, status, kategori, kedaluwarsa) & sort dikerjakan database
+        List<FoodProduct> displayList;
+        try {
+            displayList = foodQualityService.findProducts(authUser.getId(), filter);
+        } catch (IllegalArgumentException e) {
+            // Sort/filter dari URL tidak valid: tampilkan urutan default
+            filter.setSort(null);
+            filter.setExpiringWithinDays(null);
+            displayList = foodQualityService.findProducts(authUser.getId(), filter);
+        }
 
         model.addAttribute("foodProducts", displayList);
-        model.addAttribute("search", search); // Kirim balik keyword search ke UI
+        model.addAttribute("search", filter.getSearch()); // Kirim balik keyword search ke UI
         
         // Return file template: templates/pages/food-products/list.html
         return "pages/food-products/list"; 
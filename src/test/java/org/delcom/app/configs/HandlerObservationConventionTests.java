@@ -0,0 +1,59 @@
+package org.delcom.app.configs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+
+class HandlerObservationConventionTests {
+
+    private final HandlerObservationConvention convention = new HandlerObservationConvention();
+
+    private KeyValues keyValues(Object handler) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/food-products");
+        if (handler != null) {
+            request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, handler);
+        }
+        return convention.getLowCardinalityKeyValues(
+                new ServerRequestObservationContext(request, new MockHttpServletResponse()));
+    }
+
+    private static String handlerTag(KeyValues keyValues) {
+        return keyValues.stream()
+                .filter(keyValue -> keyValue.getKey().equals("handler"))
+                .map(KeyValue::getValue)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Tag handler berisi Controller.method dan di-cache per method")
+    void handlerMethod_menjadiTagControllerMethod() throws Exception {
+        HandlerMethod handler = new HandlerMethod(this,
+                HandlerObservationConventionTests.class.getDeclaredMethod("handlerMethod_menjadiTagControllerMethod"));
+
+        KeyValues first = keyValues(handler);
+        KeyValues second = keyValues(new HandlerMethod(this, handler.getMethod()));
+
+        assertEquals("HandlerObservationConventionTests.handlerMethod_menjadiTagControllerMethod", handlerTag(first));
+        assertEquals(handlerTag(first), handlerTag(second));
+        // Tag bawaan (method, uri, status, outcome) tetap ada
+        assertTrue(first.stream().anyMatch(keyValue -> keyValue.getKey().equals("method")));
+    }
+
+    @Test
+    @DisplayName("Handler non-controller memakai nama kelas, tanpa handler memakai none")
+    void handlerLain_danTanpaHandler() {
+        assertEquals("String", handlerTag(keyValues("resource-handler")));
+        assertEquals(HandlerObservationConvention.NONE, handlerTag(keyValues(null)));
+    }
+}
@@ -0,0 +1,160 @@
+package org.delcom.app.configs;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletException;
+
+import org.delcom.app.services.LoadSheddingService;
+import org.delcom.app.services.LoadSheddingService.Permit;
+import org.delcom.app.services.LoadSheddingService.Priority;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadSheddingFilterTests {
+
+    private LoadSheddingService loadSheddingService;
+    private LoadSheddingFilter filter;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        // Batas tetap 1 request bersamaan (min = max = 1)
+        loadSheddingService = new LoadSheddingService(true, 1, 1, 50, 5, 0.5, 0.8, 3_600_000, 2,
+                new SimpleMeterRegistry());
+        filter = new LoadSheddingFilter(loadSheddingService);
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    @DisplayName("Tulis dan auth kritis, dashboard/daftar rendah, baca lainnya normal")
+    void priority_perRequest() {
+        assertEquals(Priority.CRITICAL, priority("POST", "/api/food-products"));
+        assertEquals(Priority.CRITICAL, priority("PATCH", "/api/food-products/1/status"));
+        assertEquals(Priority.CRITICAL, priority("GET", "/auth/login"));
+        assertEquals(Priority.CRITICAL, priority("GET", "/api/auth/login"));
+
+        assertEquals(Priority.LOW, priority("GET", "/"));
+        assertEquals(Priority.LOW, priority("HEAD", "/food-products"));
+        assertEquals(Priority.LOW, priority("GET", "/food-products/list"));
+        assertEquals(Priority.LOW, priority("GET", "/api/food-products"));
+        assertEquals(Priority.LOW, priority("GET", "/api/food-products/stats"));
+        assertEquals(Priority.LOW, priority("GET", "/api/food-products/batches"));
+
+        assertEquals(Priority.NORMAL, priority("GET", "/api/food-products/1"));
+        assertEquals(Priority.NORMAL, priority("GET", "/food-products/image/a.jpg"));
+    }
+
+    private static Priority priority(String method, String uri) {
+        return LoadSheddingFilter.priority(new MockHttpServletRequest(method, uri));
+    }
+
+    @Test
+    @DisplayName("Aset statis, actuator, admin, dan stream SSE tidak dibatasi")
+    void shouldNotFilter_pengecualian() {
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/assets/css/app.css")));
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/actuator/health")));
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/.well-known/security.txt")));
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/api/admin/load-shedding")));
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/api/food-products/events")));
+        assertFalse(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/api/food-products")));
+
+        LoadSheddingFilter disabled = new LoadSheddingFilter(new LoadSheddingService(false, 1, 1, 50, 5, 0.5, 0.8,
+                100, 2, new SimpleMeterRegistry()));
+        assertTrue(disabled.shouldNotFilter(new MockHttpServletRequest("GET", "/api/food-products")));
+    }
+
+    @Test
+    @DisplayName("Request berjalan memegang tempat sampai selesai, juga saat exception")
+    void permit_dilepasSetelahRequest() throws ServletException, IOException {
+        AtomicInteger inFlight = new AtomicInteger();
+
+        filter.doFilterInternal(new MockHttpServletRequest("GET", "/api/food-products/1"), response,
+                (req, res) -> inFlight.set(loadSheddingService.getStats().inFlight()));
+
+        assertEquals(1, inFlight.get());
+        assertEquals(0, loadSheddingService.getStats().inFlight());
+
+        assertThrows(ServletException.class, () -> filter.doFilterInternal(
+                new MockHttpServletRequest("POST", "/api/food-products"), new MockHttpServletResponse(),
+                (req, res) -> {
+                    throw new ServletException("gagal");
+                }));
+        assertEquals(0, loadSheddingService.getStats().inFlight());
+    }
+
+    @Test
+    @DisplayName("Request API yang ditolak mendapat 503 JSON + Retry-After tanpa menyentuh handler")
+    void ditolak_api() throws ServletException, IOException {
+        try (Permit held = loadSheddingService.tryAcquire(Priority.CRITICAL)) {
+            filter.doFilterInternal(new MockHttpServletRequest("GET", "/api/food-products"), response,
+                    (req, res) -> {
+                        throw new AssertionError("handler tidak boleh dipanggil");
+                    });
+        }
+
+        assertEquals(503, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+        assertTrue(response.getContentType().startsWith("application/json"));
+        assertEquals(LoadSheddingFilter.REJECTED_JSON, response.getContentAsString());
+        assertEquals(1, loadSheddingService.getStats().rejectedLow());
+    }
+
+    @Test
+    @DisplayName("Halaman yang ditolak mendapat 503 teks")
+    void ditolak_halaman() throws ServletException, IOException {
+        try (Permit held = loadSheddingService.tryAcquire(Priority.CRITICAL)) {
+            filter.doFilterInternal(new MockHttpServletRequest("GET", "/food-products"), response, (req, res) -> {
+            });
+        }
+
+        assertEquals(503, response.getStatus());
+        assertTrue(response.getContentType().startsWith("text/plain"));
+        assertEquals(LoadSheddingFilter.REJECTED_MESSAGE, response.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Export streaming (async) memegang tempat sampai async selesai")
+    void async_dilepasSaatSelesai() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/food-products");
+        request.setAsyncSupported(true);
+
+        filter.doFilterInternal(request, response, (req, res) -> req.startAsync());
+        assertEquals(1, loadSheddingService.getStats().inFlight());
+
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        assertEquals(0, loadSheddingService.getStats().inFlight());
+    }
+
+    @Test
+    @DisplayName("Timeout, error, dan startAsync ulang tetap melepas tempat tepat sekali")
+    void async_timeoutErrorDanStartUlang() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/food-products");
+        request.setAsyncSupported(true);
+        filter.doFilterInternal(request, response, (req, res) -> req.startAsync());
+        MockAsyncContext context = (MockAsyncContext) request.getAsyncContext();
+        AsyncListener listener = context.getListeners().get(0);
+        AsyncEvent event = new AsyncEvent(context);
+
+        listener.onStartAsync(event);
+        assertEquals(2, context.getListeners().size());
+        assertEquals(1, loadSheddingService.getStats().inFlight());
+
+        listener.onTimeout(event);
+        listener.onError(event);
+        assertEquals(0, loadSheddingService.getStats().inFlight());
+    }
+}
@@ -0,0 +1,83 @@
+package org.delcom.app.configs;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import org.delcom.app.Application;
+import org.delcom.app.dto.FoodProductForm;
+import org.delcom.app.entities.FoodProduct;
+import org.delcom.app.entities.User;
+import org.delcom.app.services.BatchOperationResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+class NativeRuntimeHintsTests {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    @DisplayName("Hint didaftarkan lewat kelas aplikasi")
+    void terdaftarDiApplication() {
+        assertArrayEquals(new Class<?>[] { NativeRuntimeHints.class },
+                Application.class.getAnnotation(ImportRuntimeHints.class).value());
+    }
+
+    @Test
+    @DisplayName("Getter/setter entity, form, dan record JSON bisa dipanggil lewat reflection")
+    void bindingEntityDanForm() {
+        assertTrue(RuntimeHintsPredicates.reflection().onMethodInvocation(FoodProduct.class, "getProductName")
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethodInvocation(User.class, "getEmail").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethodInvocation(FoodProductForm.class, "setImageFile")
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethodInvocation(BatchOperationResult.class, "status")
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethodInvocation(AuthContext.class, "getAuthUser")
+                .test(hints));
+    }
+
+    @Test
+    @DisplayName("Implementasi jjwt dan serializer Jackson-nya bisa dibuat lewat nama kelas")
+    void jjwt() {
+        for (String type : NativeRuntimeHints.JJWT_TYPES) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of(type))
+                    .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints), type);
+        }
+        assertTrue(RuntimeHintsPredicates.resource().forResource("META-INF/services/io.jsonwebtoken.io.Serializer")
+                .test(hints));
+    }
+
+    @Test
+    @DisplayName("Proxy JDBC log query lambat dan pemanggilan method-nya terdaftar")
+    void jdbcProxy() {
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(Connection.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(PreparedStatement.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(ResultSet.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethodInvocation(PreparedStatement.class, "setString")
+                .test(hints));
+    }
+
+    @Test
+    @DisplayName("Template Thymeleaf ikut masuk ke image")
+    void template() {
+        assertTrue(RuntimeHintsPredicates.resource().forResource("templates/layouts/base.html").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("templates/pages/food-products/home.html")
+                .test(hints));
+    }
+}
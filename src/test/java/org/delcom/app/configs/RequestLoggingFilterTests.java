@@ -5,125 +5,109 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import org.delcom.app.services.AccessLogService;
+import org.delcom.app.services.RequestTiming;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.springframework.test.util.ReflectionTestUtils;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.io.IOException;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 class RequestLoggingFilterTests {
 
-    @Test
-    @DisplayName("Filter menampilkan log dengan warna cyan untuk status 100")
-    void testLogCyanFor100() throws ServletException, IOException {
-        // Arrange
-        RequestLoggingFilter filter = new RequestLoggingFilter();
-        ReflectionTestUtils.setField(filter, "port", 8080);
-        ReflectionTestUtils.setField(filter, "livereload", false);
-
-        HttpServletRequest request = mock(HttpServletRequest.class);
-        HttpServletResponse response = mock(HttpServletResponse.class);
-        FilterChain chain = mock(FilterChain.class);
-
-        when(request.getMethod()).thenReturn("GET");
-        when(request.getRequestURI()).thenReturn("/api/test");
-        when(request.getRemoteAddr()).thenReturn("127.0.0.1");
-        when(response.getStatus()).thenReturn(100);
-
-        // Act
-        filter.doFilterInternal(request, response, chain);
-
-        // Assert
-        verify(chain, times(1)).doFilter(request, response);
+    private AccessLogService accessLogService;
+    private RequestLoggingFilter filter;
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+    private FilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        accessLogService = mock(AccessLogService.class);
+        filter = new RequestLoggingFilter(accessLogService);
+        request = mock(HttpServletRequest.class);
+        response = mock(HttpServletResponse.class);
+        chain = mock(FilterChain.class);
     }
 
     @Test
-    @DisplayName("Filter menampilkan log dengan warna hijau untuk status 200")
-    void testLogGreenFor200() throws ServletException, IOException {
-        // Arrange
-        RequestLoggingFilter filter = new RequestLoggingFilter();
-        ReflectionTestUtils.setField(filter, "port", 8080);
-        ReflectionTestUtils.setField(filter, "livereload", false);
-
-        HttpServletRequest request = mock(HttpServletRequest.class);
-        HttpServletResponse response = mock(HttpServletResponse.class);
-        FilterChain chain = mock(FilterChain.class);
-
+    @DisplayName("Entri access log berisi handler yang cocok, status, dan durasi")
+    void testLogEntry() throws ServletException, IOException {
+        Object handler = new Object();
         when(request.getMethod()).thenReturn("GET");
-        when(request.getRequestURI()).thenReturn("/api/test");
+        when(request.getRequestURI()).thenReturn("/api/food-products");
         when(request.getRemoteAddr()).thenReturn("127.0.0.1");
+        when(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE)).thenReturn(handler);
         when(response.getStatus()).thenReturn(200);
 
-        // Act
+        long before = System.currentTimeMillis();
         filter.doFilterInternal(request, response, chain);
 
-        // Assert
         verify(chain, times(1)).doFilter(request, response);
+        ArgumentCaptor<AccessLogService.Entry> captor = ArgumentCaptor.forClass(AccessLogService.Entry.class);
+        verify(accessLogService).log(captor.capture());
+        AccessLogService.Entry entry = captor.getValue();
+        assertEquals("GET", entry.method());
+        assertEquals("/api/food-products", entry.uri());
+        assertEquals(200, entry.status());
+        assertEquals("127.0.0.1", entry.remoteAddr());
+        assertSame(handler, entry.handler());
+        assertTrue(entry.durationNanos() >= 0);
+        assertTrue(entry.timestampMillis() >= before);
+        assertNull(entry.requestId());
+        assertNull(entry.timing());
     }
 
     @Test
-    @DisplayName("Filter menampilkan log warna kuning untuk status 404")
-    void testLogYellowFor404() throws ServletException, IOException {
-        RequestLoggingFilter filter = new RequestLoggingFilter();
-        ReflectionTestUtils.setField(filter, "port", 8080);
-        ReflectionTestUtils.setField(filter, "livereload", false);
-
-        HttpServletRequest request = mock(HttpServletRequest.class);
-        HttpServletResponse response = mock(HttpServletResponse.class);
-        FilterChain chain = mock(FilterChain.class);
-
+    @DisplayName("Correlation ID dan RequestTiming ikut dicatat, pengukuran ditutup sebelum log")
+    void testLogRequestIdAndTiming() throws ServletException, IOException {
         when(request.getMethod()).thenReturn("GET");
-        when(request.getRequestURI()).thenReturn("/notfound");
-        when(request.getRemoteAddr()).thenReturn("192.168.0.10");
-        when(response.getStatus()).thenReturn(404);
-
-        filter.doFilterInternal(request, response, chain);
-
-        verify(chain, times(1)).doFilter(request, response);
+        when(request.getRequestURI()).thenReturn("/");
+        when(request.getAttribute(ServerTimingFilter.REQUEST_ID_ATTRIBUTE)).thenReturn("req-1");
+        RequestTiming timing = RequestTiming.start();
+        try {
+            filter.doFilterInternal(request, response, chain);
+        } finally {
+            RequestTiming.clear();
+        }
+
+        ArgumentCaptor<AccessLogService.Entry> captor = ArgumentCaptor.forClass(AccessLogService.Entry.class);
+        verify(accessLogService).log(captor.capture());
+        assertEquals("req-1", captor.getValue().requestId());
+        assertSame(timing, captor.getValue().timing());
+        assertTrue(timing.totalNanos() > 0);
     }
 
     @Test
-    @DisplayName("Filter menampilkan log warna merah untuk status 500")
-    void testLogRedFor500() throws ServletException, IOException {
-        RequestLoggingFilter filter = new RequestLoggingFilter();
-        ReflectionTestUtils.setField(filter, "port", 8080);
-        ReflectionTestUtils.setField(filter, "livereload", false);
-
-        HttpServletRequest request = mock(HttpServletRequest.class);
-        HttpServletResponse response = mock(HttpServletResponse.class);
-        FilterChain chain = mock(FilterChain.class);
-
+    @DisplayName("Request yang gagal dengan exception tetap dicatat")
+    void testLogOnException() throws ServletException, IOException {
         when(request.getMethod()).thenReturn("POST");
         when(request.getRequestURI()).thenReturn("/api/error");
-        when(request.getRemoteAddr()).thenReturn("10.0.0.1");
-        when(response.getStatus()).thenReturn(500);
+        doThrow(new ServletException("gagal")).when(chain).doFilter(request, response);
 
-        filter.doFilterInternal(request, response, chain);
+        assertThrows(ServletException.class, () -> filter.doFilterInternal(request, response, chain));
 
-        verify(chain, times(1)).doFilter(request, response);
+        verify(accessLogService).log(any(AccessLogService.Entry.class));
     }
 
     @Test
-    @DisplayName("Filter tidak menampilkan log untuk URI /.well-known")
-    void testSkipWellKnown() throws ServletException, IOException {
-        RequestLoggingFilter filter = new RequestLoggingFilter();
-        ReflectionTestUtils.setField(filter, "port", 8080);
-        ReflectionTestUtils.setField(filter, "livereload", false);
-
-        HttpServletRequest request = mock(HttpServletRequest.class);
-        HttpServletResponse response = mock(HttpServletResponse.class);
-        FilterChain chain = mock(FilterChain.class);
-
-        when(request.getMethod()).thenReturn("GET");
-        when(request.getRequestURI()).thenReturn("/.well-known/acme-challenge");
-        when(request.getRemoteAddr()).thenReturn("127.0.0.1");
-        when(response.getStatus()).thenReturn(200);
-
-        filter.doFilterInternal(request, response, chain);
-
-        verify(chain, times(1)).doFilter(request, response);
+    @DisplayName("Request aset statis /assets dan /.well-known tidak melewati filter log")
+    void testShouldNotFilter() {
+        when(request.getRequestURI()).thenReturn(
+                "/assets/dist/app-0123abcd.css", "/.well-known/acme-challenge", "/api/food-products");
+
+        assertTrue(filter.shouldNotFilter(request));
+        assertTrue(filter.shouldNotFilter(request));
+        assertFalse(filter.shouldNotFilter(request));
     }
-
 }
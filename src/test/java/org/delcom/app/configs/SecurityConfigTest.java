@@ -7,8 +7,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -22,6 +24,9 @@ public class SecurityConfigTest {
         @Autowired
         private PasswordEncoder passwordEncoder;
 
+        @Autowired
+        private SecurityConfig securityConfig;
+
         @Test
         void permitAll_forAuthUrls() throws Exception {
                 mockMvc.perform(get("/auth/login"))
@@ -34,6 +39,34 @@ public class SecurityConfigTest {
                                 .andExpect(status().is4xxClientError());
         }
 
+        @Test
+        void permitAll_forActuatorHealth() throws Exception {
+                int status = mockMvc.perform(get("/actuator/health")).andReturn().getResponse().getStatus();
+                assertThat(status).isNotEqualTo(302);
+        }
+
+        @Test
+        void prometheus_requiresLogin_onApplicationPort() throws Exception {
+                mockMvc.perform(get("/actuator/prometheus"))
+                                .andExpect(status().is3xxRedirection())
+                                .andExpect(redirectedUrl("/auth/login"));
+        }
+
+        @Test
+        void permitAll_forPrometheus_onManagementPort() throws Exception {
+                ReflectionTestUtils.setField(securityConfig, "managementPort", 9090);
+                try {
+                        // Tanpa redirect ke login (export Prometheus sendiri dimatikan di test context)
+                        int status = mockMvc.perform(get("/actuator/prometheus").with(request -> {
+                                request.setLocalPort(9090);
+                                return request;
+                        })).andReturn().getResponse().getStatus();
+                        assertThat(status).isNotEqualTo(302);
+                } finally {
+                        ReflectionTestUtils.setField(securityConfig, "managementPort", -1);
+                }
+        }
+
         @Test
         void redirect_toLogin_ifNotAuthenticated() throws Exception {
                 mockMvc.perform(get("/dashboard"))
@@ -48,6 +81,14 @@ public class SecurityConfigTest {
                                 .andExpect(status().is4xxClientError());
         }
 
+        @Test
+        void assets_bypassSecurityChain() throws Exception {
+                // Tanpa filter chain security: tidak ada redirect login dan header security
+                mockMvc.perform(get("/assets/images/logo.png"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().doesNotExist("X-Frame-Options"));
+        }
+
         @Test
         void passwordEncoder_shouldBeBCrypt() {
                 assertThat(passwordEncoder).isNotNull();
@@ -0,0 +1,150 @@
+package org.delcom.app.configs;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.delcom.app.services.RequestTiming;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServerTimingFilterTests {
+
+    private ServerTimingFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        filter = new ServerTimingFilter(true);
+        request = new MockHttpServletRequest("GET", "/");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    @DisplayName("X-Request-Id dari client dipakai ulang, ada di MDC selama request lalu dihapus")
+    void requestId_dariClient() throws ServletException, IOException {
+        request.addHeader(ServerTimingFilter.REQUEST_ID_HEADER, "abc-123");
+        AtomicReference<String> mdc = new AtomicReference<>();
+        AtomicReference<RequestTiming> timing = new AtomicReference<>();
+
+        filter.doFilterInternal(request, response, (req, res) -> {
+            mdc.set(MDC.get(ServerTimingFilter.MDC_KEY));
+            timing.set(RequestTiming.current());
+        });
+
+        assertEquals("abc-123", response.getHeader(ServerTimingFilter.REQUEST_ID_HEADER));
+        assertEquals("abc-123", request.getAttribute(ServerTimingFilter.REQUEST_ID_ATTRIBUTE));
+        assertEquals("abc-123", mdc.get());
+        assertNotNull(timing.get());
+        assertNull(MDC.get(ServerTimingFilter.MDC_KEY));
+        assertNull(RequestTiming.current());
+    }
+
+    @Test
+    @DisplayName("ID kosong atau tidak aman diganti UUID baru")
+    void requestId_tidakValid() {
+        assertEquals("req.1:a_b", ServerTimingFilter.requestId("req.1:a_b"));
+        assertEquals(36, ServerTimingFilter.requestId(null).length());
+        assertNotEquals("a b", ServerTimingFilter.requestId("a b"));
+        assertNotEquals("x\r\nSet-Cookie: a", ServerTimingFilter.requestId("x\r\nSet-Cookie: a"));
+        assertEquals(36, ServerTimingFilter.requestId("x".repeat(65)).length());
+    }
+
+    @Test
+    @DisplayName("Server-Timing ditulis saat body pertama kali diminta, dengan fase yang sudah tercatat")
+    void serverTiming_saatBodyDitulis() throws ServletException, IOException {
+        filter.doFilterInternal(request, response, (req, res) -> {
+            RequestTiming.record(RequestTiming.Phase.AUTH, 2_000_000L);
+            assertNotSame(response, res);
+            res.getWriter().write("ok");
+            // Fase setelah body mulai ditulis tidak mengubah header
+            RequestTiming.record(RequestTiming.Phase.FILE, 2_000_000L);
+            res.getWriter().write("!");
+        });
+
+        String header = response.getHeader(ServerTimingFilter.SERVER_TIMING_HEADER);
+        assertTrue(header.startsWith("auth;dur=2.000, total;dur="), header);
+        assertEquals("ok!", response.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Server-Timing juga ditulis sebelum output stream, flush, error, dan redirect")
+    void serverTiming_jalurLain() throws ServletException, IOException {
+        FilterChain[] chains = {
+                (req, res) -> res.getOutputStream().write(1),
+                (req, res) -> res.flushBuffer(),
+                (req, res) -> ((HttpServletResponse) res).sendError(404),
+                (req, res) -> ((HttpServletResponse) res).sendError(500, "gagal"),
+                (req, res) -> ((HttpServletResponse) res).sendRedirect("/login"),
+        };
+        for (FilterChain chain : chains) {
+            MockHttpServletResponse current = new MockHttpServletResponse();
+            filter.doFilterInternal(new MockHttpServletRequest("GET", "/"), current, chain);
+
+            assertTrue(current.getHeader(ServerTimingFilter.SERVER_TIMING_HEADER).startsWith("total;dur="));
+        }
+    }
+
+    @Test
+    @DisplayName("Response tanpa body tetap mendapat header di akhir request, juga saat exception")
+    void serverTiming_tanpaBody() {
+        assertThrows(ServletException.class, () -> filter.doFilterInternal(request, response, (req, res) -> {
+            throw new ServletException("gagal");
+        }));
+
+        assertNotNull(response.getHeader(ServerTimingFilter.SERVER_TIMING_HEADER));
+        assertNull(MDC.get(ServerTimingFilter.MDC_KEY));
+        assertNull(RequestTiming.current());
+    }
+
+    @Test
+    @DisplayName("Response yang sudah committed tidak diubah")
+    void serverTiming_sudahCommitted() throws ServletException, IOException {
+        response.setCommitted(true);
+
+        filter.doFilterInternal(request, response, (req, res) -> {
+        });
+
+        assertNull(response.getHeader(ServerTimingFilter.SERVER_TIMING_HEADER));
+    }
+
+    @Test
+    @DisplayName("Server-Timing nonaktif: response asli diteruskan, X-Request-Id tetap ada")
+    void serverTiming_nonaktif() throws ServletException, IOException {
+        ServerTimingFilter disabled = new ServerTimingFilter(false);
+
+        disabled.doFilterInternal(request, response, (req, res) -> {
+            assertSame(response, res);
+            res.getWriter().write("ok");
+        });
+
+        assertNull(response.getHeader(ServerTimingFilter.SERVER_TIMING_HEADER));
+        assertNotNull(response.getHeader(ServerTimingFilter.REQUEST_ID_HEADER));
+    }
+
+    @Test
+    @DisplayName("Aset statis dan /.well-known tidak difilter")
+    void shouldNotFilter_asetStatis() {
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/assets/css/app.css")));
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/.well-known/security.txt")));
+        assertFalse(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/api/food-products")));
+    }
+}
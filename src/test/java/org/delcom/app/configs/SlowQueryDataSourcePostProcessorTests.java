@@ -0,0 +1,47 @@
+package org.delcom.app.configs;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import javax.sql.DataSource;
+
+import org.delcom.app.services.SlowQueryLogService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+class SlowQueryDataSourcePostProcessorTests {
+
+    @SuppressWarnings("unchecked")
+    private static SlowQueryDataSourcePostProcessor postProcessor(boolean enabled) {
+        ObjectProvider<SlowQueryLogService> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(new SlowQueryLogService(enabled, 200, 10, false, false, 10));
+        return new SlowQueryDataSourcePostProcessor(provider);
+    }
+
+    @Test
+    @DisplayName("DataSource dibungkus proxy slow query jika aktif")
+    void dataSource_dibungkus() {
+        DataSource dataSource = mock(DataSource.class);
+
+        Object result = postProcessor(true).postProcessAfterInitialization(dataSource, "dataSource");
+
+        SlowQueryDataSource wrapped = assertInstanceOf(SlowQueryDataSource.class, result);
+        assertSame(dataSource, wrapped.getTargetDataSource());
+    }
+
+    @Test
+    @DisplayName("DataSource tidak dibungkus jika nonaktif, sudah dibungkus, atau bean lain")
+    void bean_lainTidakDiubah() {
+        DataSource dataSource = mock(DataSource.class);
+        SlowQueryDataSource alreadyWrapped = new SlowQueryDataSource(dataSource,
+                new SlowQueryLogService(true, 200, 10, false, false, 10));
+        Object other = new Object();
+
+        assertSame(dataSource, postProcessor(false).postProcessAfterInitialization(dataSource, "dataSource"));
+        assertSame(alreadyWrapped, postProcessor(true).postProcessAfterInitialization(alreadyWrapped, "dataSource"));
+        assertSame(other, postProcessor(true).postProcessAfterInitialization(other, "bean"));
+    }
+}
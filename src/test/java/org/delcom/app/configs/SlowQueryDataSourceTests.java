@@ -0,0 +1,222 @@
+package org.delcom.app.configs;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.delcom.app.services.RequestTiming;
+import org.delcom.app.services.SlowQueryLogService;
+import org.delcom.app.services.SlowQueryLogService.ParameterBinding;
+import org.delcom.app.services.SlowQueryLogService.SlowQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class SlowQueryDataSourceTests {
+
+    private static final String SELECT = "select * from food_products where id=?";
+    private static final String UPDATE = "update food_products set notes=? where id=?";
+
+    private DataSource target;
+    private Connection connection;
+    private SlowQueryLogService slowQueryLogService;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        target = mock(DataSource.class);
+        connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        // Threshold 0: setiap statement dianggap lambat
+        slowQueryLogService = new SlowQueryLogService(true, 0, 10, false, false, 10);
+    }
+
+    private Connection connection(SlowQueryLogService service) throws SQLException {
+        return new SlowQueryDataSource(target, service).getConnection();
+    }
+
+    @Test
+    @DisplayName("Query cepat tidak dicatat dan ResultSet asli dikembalikan")
+    void fastQuery_tidakDicatat() throws SQLException {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(connection.prepareStatement(SELECT)).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(rs);
+        SlowQueryLogService relaxed = new SlowQueryLogService(true, 60_000, 10, false, false, 10);
+
+        PreparedStatement proxied = connection(relaxed).prepareStatement(SELECT);
+        proxied.setString(1, "id-1");
+
+        // Query cepat tetap masuk fase db Server-Timing
+        RequestTiming timing = RequestTiming.start();
+        try {
+            assertSame(rs, proxied.executeQuery());
+        } finally {
+            RequestTiming.clear();
+        }
+        verify(statement).setString(1, "id-1");
+        assertTrue(relaxed.getRecent().isEmpty());
+        assertEquals(1, timing.queries());
+    }
+
+    @Test
+    @DisplayName("SELECT lambat dicatat saat ResultSet ditutup, dengan jumlah baris dan tipe parameter terakhir")
+    void slowSelect_dicatatSaatClose() throws SQLException {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(connection.prepareStatement(SELECT)).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenReturn(true, true, false);
+        when(rs.getString(1)).thenReturn("Keripik");
+
+        PreparedStatement proxied = connection(slowQueryLogService).prepareStatement(SELECT);
+        proxied.setObject(1, UUID.randomUUID());
+        proxied.setString(2, "x");
+        proxied.clearParameters();
+        proxied.setLong(1, 5L);
+        ResultSet result = proxied.executeQuery();
+        while (result.next()) {
+            assertEquals("Keripik", result.getString(1));
+        }
+        assertTrue(slowQueryLogService.getRecent().isEmpty());
+        result.close();
+        result.close();
+
+        List<SlowQuery> recent = slowQueryLogService.getRecent();
+        assertEquals(1, recent.size());
+        assertEquals(SELECT, recent.get(0).getSql());
+        assertEquals(2, recent.get(0).getRows());
+        assertEquals(List.of("Long"), recent.get(0).getParameterTypes());
+        verify(rs, times(2)).close();
+    }
+
+    @Test
+    @DisplayName("Update dan batch lambat dicatat dengan jumlah baris terdampak")
+    void slowUpdate_barisTerdampak() throws SQLException {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(UPDATE)).thenReturn(statement);
+        when(statement.executeUpdate()).thenReturn(3);
+        when(statement.executeBatch()).thenReturn(new int[] { 1, 2 });
+
+        PreparedStatement proxied = connection(slowQueryLogService).prepareStatement(UPDATE);
+        assertEquals(3, proxied.executeUpdate());
+        proxied.executeBatch();
+
+        List<SlowQuery> recent = slowQueryLogService.getRecent();
+        assertEquals(3, recent.get(0).getRows());
+        assertEquals(3, recent.get(1).getRows());
+    }
+
+    @Test
+    @DisplayName("Nilai parameter hanya diteruskan ke log jika EXPLAIN ANALYZE aktif")
+    @SuppressWarnings("unchecked")
+    void analyze_meneruskanNilaiParameter() throws SQLException {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(UPDATE)).thenReturn(statement);
+        when(statement.executeUpdate()).thenReturn(1);
+        SlowQueryLogService analyzing = spy(new SlowQueryLogService(true, 0, 10, true, true, 10));
+
+        PreparedStatement proxied = connection(analyzing).prepareStatement(UPDATE);
+        proxied.setString(1, "catatan");
+        proxied.setLong(2, 7L);
+        proxied.executeUpdate();
+        proxied.clearParameters();
+        proxied.executeUpdate();
+
+        ArgumentCaptor<List<ParameterBinding>> bindings = ArgumentCaptor.forClass(List.class);
+        verify(analyzing, times(2)).record(any(), eq(UPDATE), any(), bindings.capture(), eq(1L), anyLong());
+        List<ParameterBinding> first = bindings.getAllValues().get(0);
+        assertEquals(2, first.size());
+        assertArrayEquals(new Object[] { 1, "catatan" }, first.get(0).args());
+        assertTrue(bindings.getAllValues().get(1).isEmpty());
+        analyzing.shutdown();
+    }
+
+    @Test
+    @DisplayName("Statement biasa memakai SQL dari argumen execute, executeBatch() ditandai (batch)")
+    void plainStatement_sqlDariArgumen() throws SQLException {
+        Statement statement = mock(Statement.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.execute("delete from auth_tokens")).thenReturn(false);
+        when(statement.executeBatch()).thenReturn(new int[0]);
+
+        Statement proxied = connection(slowQueryLogService).createStatement();
+        proxied.execute("delete from auth_tokens");
+        proxied.executeBatch();
+
+        List<SlowQuery> recent = slowQueryLogService.getRecent();
+        assertEquals(SlowQueryDataSource.BATCH, recent.get(0).getSql());
+        assertEquals("delete from auth_tokens", recent.get(1).getSql());
+        assertEquals(-1, recent.get(1).getRows());
+    }
+
+    @Test
+    @DisplayName("Setter bernama atau satu argumen tidak dianggap parameter")
+    void callableStatement_setterBernama() throws SQLException {
+        CallableStatement statement = mock(CallableStatement.class);
+        when(connection.prepareCall("{call refresh_stats(?)}")).thenReturn(statement);
+        when(statement.execute()).thenReturn(true);
+
+        CallableStatement proxied = connection(slowQueryLogService).prepareCall("{call refresh_stats(?)}");
+        proxied.setString("user_id", "u-1");
+        proxied.setFetchSize(50);
+        proxied.execute();
+
+        assertEquals(List.of(), slowQueryLogService.getRecent().get(0).getParameterTypes());
+        verify(statement).setString("user_id", "u-1");
+    }
+
+    @Test
+    @DisplayName("Proxy koneksi: identitas sendiri, exception JDBC diteruskan apa adanya")
+    void connectionProxy_identitasDanException() throws SQLException {
+        Connection other = mock(Connection.class);
+        when(target.getConnection("app", "secret")).thenReturn(other);
+        when(connection.getAutoCommit()).thenReturn(true);
+        doThrow(new SQLException("koneksi putus")).when(connection).commit();
+        SlowQueryDataSource dataSource = new SlowQueryDataSource(target, slowQueryLogService);
+
+        Connection proxied = dataSource.getConnection();
+        Connection proxiedOther = dataSource.getConnection("app", "secret");
+
+        assertTrue(proxied.equals(proxied));
+        assertFalse(proxied.equals(proxiedOther));
+        assertEquals(System.identityHashCode(proxied), proxied.hashCode());
+        assertTrue(proxied.getAutoCommit());
+        SQLException error = assertThrows(SQLException.class, proxied::commit);
+        assertEquals("koneksi putus", error.getMessage());
+        assertSame(target, dataSource.getTargetDataSource());
+    }
+
+    @Test
+    @DisplayName("Jumlah baris dari hasil execute")
+    void rows_dariHasil() {
+        assertEquals(4, SlowQueryDataSource.rows(4));
+        assertEquals(7, SlowQueryDataSource.rows(7L));
+        assertEquals(3, SlowQueryDataSource.rows(new int[] { 1, 2 }));
+        assertEquals(5, SlowQueryDataSource.rows(new long[] { 2, 3 }));
+        assertEquals(-1, SlowQueryDataSource.rows(Boolean.TRUE));
+    }
+}
@@ -0,0 +1,84 @@
+package org.delcom.app.configs;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.delcom.app.services.SqlStatementMonitor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+class SqlStatementBudgetFilterTests {
+
+    private SqlStatementMonitor sqlStatementMonitor;
+    private SqlStatementBudgetFilter filter;
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+    private FilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        sqlStatementMonitor = mock(SqlStatementMonitor.class);
+        filter = new SqlStatementBudgetFilter(sqlStatementMonitor);
+        request = mock(HttpServletRequest.class);
+        response = mock(HttpServletResponse.class);
+        chain = mock(FilterChain.class);
+    }
+
+    @Test
+    @DisplayName("Statement selama request dihitung lalu dilaporkan dengan method dan URI")
+    void testRecordRequest() throws ServletException, IOException {
+        SqlStatementMonitor real = new SqlStatementMonitor(true, 10, 10, 3);
+        when(request.getMethod()).thenReturn("DELETE");
+        when(request.getRequestURI()).thenReturn("/api/food-products/1");
+        doAnswer(invocation -> real.inspect("select 1")).when(chain).doFilter(request, response);
+
+        filter.doFilterInternal(request, response, chain);
+
+        ArgumentCaptor<SqlStatementMonitor.Recording> captor = ArgumentCaptor.forClass(SqlStatementMonitor.Recording.class);
+        verify(sqlStatementMonitor).finishRequest(captor.capture(), eq("DELETE /api/food-products/1"));
+        assertEquals(1, captor.getValue().count());
+        // finishRequest di-mock: tutup recording thread-local secara manual
+        SqlStatementMonitor.stopRecording(captor.getValue());
+    }
+
+    @Test
+    @DisplayName("Request yang gagal dengan exception tetap dilaporkan")
+    void testReportOnException() throws ServletException, IOException {
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getRequestURI()).thenReturn("/api/error");
+        doThrow(new ServletException("gagal")).when(chain).doFilter(request, response);
+
+        assertThrows(ServletException.class, () -> filter.doFilterInternal(request, response, chain));
+
+        ArgumentCaptor<SqlStatementMonitor.Recording> captor = ArgumentCaptor.forClass(SqlStatementMonitor.Recording.class);
+        verify(sqlStatementMonitor).finishRequest(captor.capture(), eq("GET /api/error"));
+        // finishRequest di-mock: tutup recording thread-local secara manual
+        SqlStatementMonitor.stopRecording(captor.getValue());
+    }
+
+    @Test
+    @DisplayName("Aset statis dan monitor nonaktif tidak melewati filter")
+    void testShouldNotFilter() {
+        when(sqlStatementMonitor.isEnabled()).thenReturn(true);
+        when(request.getRequestURI()).thenReturn("/assets/app.js");
+        assertTrue(filter.shouldNotFilter(request));
+
+        when(request.getRequestURI()).thenReturn("/api/food-products");
+        assertFalse(filter.shouldNotFilter(request));
+
+        when(sqlStatementMonitor.isEnabled()).thenReturn(false);
+        assertTrue(filter.shouldNotFilter(request));
+    }
+}
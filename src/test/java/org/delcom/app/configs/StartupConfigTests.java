@@ -0,0 +1,40 @@
+package org.delcom.app.configs;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.delcom.app.services.AccessLogService;
+import org.delcom.app.services.FoodQualityService;
+import org.delcom.app.services.VirtualThreadMonitorService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import jakarta.persistence.EntityManagerFactory;
+
+class StartupConfigTests {
+
+    private final LazyInitializationExcludeFilter filter = StartupConfig.eagerStartupBeans();
+
+    @Test
+    @DisplayName("Hibernate dan service dengan thread background tidak dibuat lazy")
+    void eagerBeans() {
+        assertTrue(excluded(EntityManagerFactory.class));
+        assertTrue(excluded(LocalContainerEntityManagerFactoryBean.class));
+        assertTrue(excluded(AccessLogService.class));
+        assertTrue(excluded(VirtualThreadMonitorService.class));
+    }
+
+    @Test
+    @DisplayName("Bean lain (controller, service biasa) tetap lazy")
+    void lazyBeans() {
+        assertFalse(excluded(FoodQualityService.class));
+        assertFalse(excluded(SecurityConfig.class));
+    }
+
+    private boolean excluded(Class<?> type) {
+        return filter.isExcluded("bean", new RootBeanDefinition(type), type);
+    }
+}
@@ -1,14 +1,19 @@
 package org.delcom.app.configs;
 
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.metrics.StartupStep;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.time.Duration;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
@@ -66,4 +71,47 @@ class StartupInfoLoggerTests {
 
         assertTrue(output.contains("> LiveReload: DISABLED"));
     }
+
+    @Test
+    @DisplayName("Timeline startup dicetak jika langkah startup direkam BufferingApplicationStartup")
+    void testTimelinePrinted() {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(100);
+        startup.start("spring.boot.application.environment-prepared").end();
+        StartupStep refresh = startup.start(StartupInfoLogger.REFRESH_STEP);
+        startup.start("spring.context.beans.post-process").end();
+        StartupStep emf = startup.start(StartupInfoLogger.BEAN_STEP).tag("beanName", "entityManagerFactory");
+        startup.start(StartupInfoLogger.BEAN_STEP).tag("beanName", "dataSource").end();
+        emf.end();
+        startup.start(StartupInfoLogger.BEAN_STEP).end();
+        refresh.end();
+        when(context.getApplicationStartup()).thenReturn(startup);
+        when(event.getTimeTaken()).thenReturn(Duration.ofMillis(1234));
+
+        logger.onApplicationEvent(event);
+
+        String output = outContent.toString();
+        assertTrue(output.contains("> Startup timeline (siap dalam 1234 ms, JVM sebelum main "));
+        assertTrue(output.contains(" ms  spring.boot.application.environment-prepared"));
+        assertTrue(output.contains(" ms  spring.context.refresh"));
+        assertTrue(output.contains(" ms    spring.context.beans.post-process"));
+        assertFalse(output.contains(" ms  spring.beans.instantiate"));
+        assertTrue(output.contains("> Bean paling lambat:"));
+        assertTrue(output.contains(" ms  entityManagerFactory"));
+        assertTrue(output.contains(" ms  ?"));
+        // dataSource dibuat di dalam entityManagerFactory: waktunya sudah terhitung di sana
+        assertFalse(output.contains("dataSource"));
+    }
+
+    @Test
+    @DisplayName("Timeline tanpa bean dan tanpa waktu total hanya berisi fase")
+    void testTimelineWithoutBeans() {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(10);
+        startup.start("spring.boot.application.starting").end();
+
+        String report = StartupInfoLogger.timeline(startup.getBufferedTimeline(), null, 0L);
+
+        assertTrue(report.startsWith("> Startup timeline:\n"));
+        assertTrue(report.contains(" ms  spring.boot.application.starting"));
+        assertFalse(report.contains("Bean paling lambat"));
+    }
 }
@@ -0,0 +1,150 @@
+package org.delcom.app.configs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.delcom.app.entities.FoodProduct;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class WebMvcConfigTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ResourceUrlProvider resourceUrlProvider;
+
+    @Autowired
+    private RequestMappingHandlerAdapter handlerAdapter;
+
+    @Test
+    @DisplayName("URL aset ditulis ulang dengan hash konten")
+    void assetUrl_berisiHashKonten() {
+        String url = resourceUrlProvider.getForLookupPath("/assets/images/logo.png");
+
+        assertThat(url).matches("/assets/images/logo-[0-9a-f]{32}\\.png");
+    }
+
+    @Test
+    @DisplayName("Aset ber-hash dilayani dengan Cache-Control immutable selama 1 tahun")
+    void assetBerHash_immutable() throws Exception {
+        String url = resourceUrlProvider.getForLookupPath("/assets/images/logo.png");
+
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"));
+    }
+
+    @Test
+    @DisplayName("Hash yang tidak cocok dengan konten menghasilkan 404")
+    void assetHashSalah_notFound() throws Exception {
+        mockMvc.perform(get("/assets/images/logo-00000000000000000000000000000000.png"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Halaman mendapat X-Request-Id dari client dan header Server-Timing")
+    void halaman_requestIdDanServerTiming() throws Exception {
+        mockMvc.perform(get("/auth/login").header(ServerTimingFilter.REQUEST_ID_HEADER, "it-1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ServerTimingFilter.REQUEST_ID_HEADER, "it-1"))
+                .andExpect(header().string(ServerTimingFilter.SERVER_TIMING_HEADER,
+                        containsString("total;dur=")));
+    }
+
+    @Test
+    @DisplayName("Converter CBOR dan Smile terdaftar, JSON tetap default")
+    void converterBiner_terdaftar() {
+        List<HttpMessageConverter<?>> converters = handlerAdapter.getMessageConverters();
+
+        assertThat(converters).filteredOn(JacksonCborHttpMessageConverter.class::isInstance).hasSize(1);
+        assertThat(converters).filteredOn(JacksonSmileHttpMessageConverter.class::isInstance).hasSize(1);
+        assertThat(converter(MediaType.ALL)).isSameAs(converter(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    @DisplayName("Converter biner hanya ditambahkan jika belum didaftarkan Spring")
+    void converterBiner_tidakDuplikat() {
+        List<HttpMessageConverter<?>> empty = new ArrayList<>();
+        new WebMvcConfig().extendMessageConverters(empty);
+        assertThat(empty).hasSize(2);
+
+        HttpMessageConverter<?> cbor = new JacksonCborHttpMessageConverter();
+        HttpMessageConverter<?> smile = new JacksonSmileHttpMessageConverter();
+        List<HttpMessageConverter<?>> registered = new ArrayList<>(List.of(cbor, smile));
+        new WebMvcConfig().extendMessageConverters(registered);
+        assertThat(registered).containsExactly(cbor, smile);
+    }
+
+    @Test
+    @DisplayName("Timeout request async mengikuti batas export streaming, bukan default container")
+    void asyncTimeout_mengikutiBatasExport() {
+        assertThat(ReflectionTestUtils.getField(handlerAdapter, "asyncRequestTimeout")).isEqualTo(120_000L);
+    }
+
+    @Test
+    @DisplayName("Envelope ApiResponse dalam CBOR dan Smile sama dengan JSON, tapi lebih kecil")
+    void envelopeBiner_samaDenganJson() throws Exception {
+        List<FoodProduct> products = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            FoodProduct product = new FoodProduct(UUID.randomUUID(), "BATCH-" + i, "Keripik Tempe", "Makanan Ringan",
+                    "PASSED", "Renyah, kemasan utuh");
+            product.setExpiryDate(LocalDate.of(2026, 1, 1));
+            products.add(product);
+        }
+        ApiResponse<Map<String, List<FoodProduct>>> body = new ApiResponse<>(
+                "success", "Berhasil mengambil data produk", Map.of("food_products", products));
+
+        byte[] json = write(body, MediaType.APPLICATION_JSON);
+        byte[] cbor = write(body, MediaType.APPLICATION_CBOR);
+        byte[] smile = write(body, MediaType.parseMediaType(WebMvcConfig.APPLICATION_SMILE_VALUE));
+
+        Map<?, ?> expected = JsonMapper.builder().build().readValue(json, Map.class);
+        assertThat(CBORMapper.builder().build().readValue(cbor, Map.class)).isEqualTo(expected);
+        assertThat(SmileMapper.builder().build().readValue(smile, Map.class)).isEqualTo(expected);
+        assertThat(cbor.length).isLessThan(json.length);
+        assertThat(smile.length).isLessThan(json.length);
+    }
+
+    @SuppressWarnings("unchecked")
+    private HttpMessageConverter<Object> converter(MediaType mediaType) {
+        return (HttpMessageConverter<Object>) handlerAdapter.getMessageConverters().stream()
+                .filter(converter -> converter.canWrite(ApiResponse.class, mediaType))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private byte[] write(Object body, MediaType mediaType) throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter(mediaType).write(body, mediaType, output);
+        return output.getBodyAsBytes();
+    }
+}
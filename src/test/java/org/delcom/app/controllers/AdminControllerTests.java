@@ -0,0 +1,203 @@
+package org.delcom.app.controllers;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.delcom.app.configs.AuthContext;
+import org.delcom.app.entities.User;
+import org.delcom.app.services.AccessLogService;
+import org.delcom.app.services.ImageCacheService;
+import org.delcom.app.services.LoadSheddingService;
+import org.delcom.app.services.SlowQueryLogService;
+import org.delcom.app.services.UploadAdmissionService;
+import org.delcom.app.services.VirtualThreadMonitorService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+class AdminControllerTests {
+
+    private static final UUID ADMIN_ID = UUID.randomUUID();
+
+    private MockMvc mockMvc;
+    private ImageCacheService imageCacheService;
+    private UploadAdmissionService uploadAdmissionService;
+    private VirtualThreadMonitorService virtualThreadMonitorService;
+    private AccessLogService accessLogService;
+    private SlowQueryLogService slowQueryLogService;
+    private LoadSheddingService loadSheddingService;
+    private AuthContext authContext;
+
+    @BeforeEach
+    void setUp() {
+        imageCacheService = mock(ImageCacheService.class);
+        uploadAdmissionService = mock(UploadAdmissionService.class);
+        virtualThreadMonitorService = mock(VirtualThreadMonitorService.class);
+        accessLogService = mock(AccessLogService.class);
+        slowQueryLogService = new SlowQueryLogService(true, 0, 10, false, false, 10);
+        loadSheddingService = mock(LoadSheddingService.class);
+        authContext = mock(AuthContext.class);
+
+        AdminController controller = new AdminController(imageCacheService, uploadAdmissionService,
+                virtualThreadMonitorService, accessLogService, slowQueryLogService, loadSheddingService,
+                List.of(ADMIN_ID));
+        controller.authContext = authContext;
+        User admin = new User("Admin", "admin@delcom.org", "secret");
+        admin.setId(ADMIN_ID);
+        when(authContext.getAuthUser()).thenReturn(admin);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void getImageCacheStats_Success() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(imageCacheService.getStats()).thenReturn(
+                new ImageCacheService.ImageCacheStats(3, 1, 0.75, 0, 2, 2048, 4096));
+
+        mockMvc.perform(get("/api/admin/image-cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("success"))
+                .andExpect(jsonPath("$.data.image_cache.hitRatio").value(0.75))
+                .andExpect(jsonPath("$.data.image_cache.residentBytes").value(2048));
+    }
+
+    @Test
+    void getImageCacheStats_Unauthenticated() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(false);
+
+        mockMvc.perform(get("/api/admin/image-cache"))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.status").value("fail"));
+    }
+
+    @Test
+    void getUploadAdmissionStats_Success() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(uploadAdmissionService.getStats()).thenReturn(
+                new UploadAdmissionService.AdmissionStats(2, 4, 1, 16, 3));
+
+        mockMvc.perform(get("/api/admin/upload-admission"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.upload_admission.active").value(2))
+                .andExpect(jsonPath("$.data.upload_admission.rejected").value(3));
+    }
+
+    @Test
+    void getUploadAdmissionStats_Unauthenticated() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(false);
+
+        mockMvc.perform(get("/api/admin/upload-admission"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void getVirtualThreadStats_Success() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(virtualThreadMonitorService.getStats()).thenReturn(new VirtualThreadMonitorService.PinningStats(
+                true, true, 20, 3, 150, 80, Map.of("org.delcom.app.services.ImageIngestService.ingest:42", 3L)));
+
+        mockMvc.perform(get("/api/admin/virtual-threads"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.virtual_threads.virtualThreads").value(true))
+                .andExpect(jsonPath("$.data.virtual_threads.pinnedEvents").value(3))
+                .andExpect(jsonPath("$.data.virtual_threads.maxPinnedMs").value(80));
+    }
+
+    @Test
+    void getVirtualThreadStats_Unauthenticated() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(false);
+
+        mockMvc.perform(get("/api/admin/virtual-threads"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void getAccessLogStats_Success() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(accessLogService.getStats()).thenReturn(
+                new AccessLogService.AccessLogStats(1200, 4, 8192, "./logs/access.log"));
+
+        mockMvc.perform(get("/api/admin/access-log"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.access_log.written").value(1200))
+                .andExpect(jsonPath("$.data.access_log.dropped").value(4))
+                .andExpect(jsonPath("$.data.access_log.target").value("./logs/access.log"));
+    }
+
+    @Test
+    void getAccessLogStats_Unauthenticated() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(false);
+
+        mockMvc.perform(get("/api/admin/access-log"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void getSlowQueries_Success() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        slowQueryLogService.record(null, "select * from food_products where user_id = ?", List.of(), List.of(), 42, 350_000_000L);
+
+        mockMvc.perform(get("/api/admin/slow-queries"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.threshold_ms").value(0))
+                .andExpect(jsonPath("$.data.slow_queries[0].sql").value("select * from food_products where user_id = ?"))
+                .andExpect(jsonPath("$.data.slow_queries[0].rows").value(42))
+                .andExpect(jsonPath("$.data.slow_queries[0].durationMs").value(350.0));
+    }
+
+    @Test
+    void getSlowQueries_Unauthenticated() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(false);
+
+        mockMvc.perform(get("/api/admin/slow-queries"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void getLoadSheddingStats_Success() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(loadSheddingService.getStats()).thenReturn(
+                new LoadSheddingService.LoadSheddingStats(true, 12, 9, true, 7, 120.5, 0, 3, 41));
+
+        mockMvc.perform(get("/api/admin/load-shedding"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.load_shedding.limit").value(12))
+                .andExpect(jsonPath("$.data.load_shedding.congested").value(true))
+                .andExpect(jsonPath("$.data.load_shedding.poolWaitMs").value(120.5))
+                .andExpect(jsonPath("$.data.load_shedding.rejectedLow").value(41));
+    }
+
+    @Test
+    void getLoadSheddingStats_Unauthenticated() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(false);
+
+        mockMvc.perform(get("/api/admin/load-shedding"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("User biasa yang login tetap mendapat 403 di semua endpoint admin")
+    void semuaEndpoint_BukanAdmin() throws Exception {
+        User user = new User("User", "user@delcom.org", "secret");
+        user.setId(UUID.randomUUID());
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+
+        for (String path : List.of("image-cache", "upload-admission", "virtual-threads", "access-log",
+                "slow-queries", "load-shedding")) {
+            mockMvc.perform(get("/api/admin/" + path))
+                    .andExpect(status().isForbidden())
+                    .andExpect(jsonPath("$.status").value("fail"))
+                    .andExpect(jsonPath("$.message").value("Akses hanya untuk admin"));
+        }
+    }
+}
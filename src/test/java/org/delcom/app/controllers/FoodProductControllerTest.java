@@ -1,38 +1,71 @@
 package org.delcom.app.controllers;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import org.delcom.app.configs.AuthContext;
 import org.delcom.app.dto.FoodProductForm;
+import org.delcom.app.dto.ProductFilter;
 import org.delcom.app.dto.ProductImageForm;
+import org.delcom.app.dto.StatusTransitionForm;
 import org.delcom.app.entities.FoodProduct;
 import org.delcom.app.entities.User;
+import org.delcom.app.services.BatchOperationResult;
 import org.delcom.app.services.FoodQualityService;
+import org.delcom.app.services.InspectionEventService;
+import org.delcom.app.services.UploadRejectedException;
+import org.delcom.app.services.UploadSessionService;
+import org.delcom.app.services.UploadSessionService.UploadSession;
+import org.delcom.app.utils.ETagUtil;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
 
 @ExtendWith(MockitoExtension.class)
 class FoodProductControllerTest {
@@ -45,6 +78,15 @@ class FoodProductControllerTest {
     @Mock
     private AuthContext authContext;
 
+    @Mock
+    private UploadSessionService uploadSessionService;
+
+    @Mock
+    private InspectionEventService inspectionEventService;
+
+    @Spy
+    private JsonMapper jsonMapper = JsonMapper.builder().build();
+
     @InjectMocks
     private FoodProductController controller;
 
@@ -52,6 +94,7 @@ class FoodProductControllerTest {
     private FoodProduct product;
     private UUID userId;
     private UUID productId;
+    private final LocalDateTime updatedAt = LocalDateTime.of(2025, 1, 2, 3, 4, 5, 6000);
 
     @BeforeEach
     void setUp() {
@@ -70,6 +113,7 @@ class FoodProductControllerTest {
         lenient().when(product.getProductName()).thenReturn("Keripik Tempe");
         lenient().when(product.getBatchCode()).thenReturn("BATCH-001");
         lenient().when(product.getInspectionStatus()).thenReturn("PASSED");
+        lenient().when(product.getUpdatedAt()).thenReturn(updatedAt);
     }
 
     // ==================================================================================
@@ -100,6 +144,112 @@ class FoodProductControllerTest {
     }
 
 @Test
+    void testCreate_AsyncAccepted() throws Exception {
+        MockMultipartFile img = new MockMultipartFile(
+                "imageFile", "sample.jpg", MediaType.IMAGE_JPEG_VALUE, "content".getBytes()
+        );
+
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(product.getImageStatus()).thenReturn(FoodProduct.IMAGE_STATUS_PROCESSING);
+        when(foodQualityService.createProduct(eq(userId), any(FoodProductForm.class))).thenReturn(product);
+
+        mockMvc.perform(multipart("/api/food-products")
+                        .file(img)
+                        .param("productName", "Keripik Tempe")
+                        .param("batchCode", "BATCH-001")
+                        .param("inspectionStatus", "PENDING"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.data.id").value(productId.toString()));
+    }
+
+    @Test
+    void testCreate_UploadBusy() throws Exception {
+        MockMultipartFile img = new MockMultipartFile(
+                "imageFile", "sample.jpg", MediaType.IMAGE_JPEG_VALUE, "content".getBytes()
+        );
+
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(foodQualityService.createProduct(eq(userId), any(FoodProductForm.class)))
+                .thenThrow(new UploadRejectedException(5));
+
+        mockMvc.perform(multipart("/api/food-products")
+                        .file(img)
+                        .param("productName", "Keripik Tempe")
+                        .param("batchCode", "BATCH-001")
+                        .param("inspectionStatus", "PENDING"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "5"))
+                .andExpect(jsonPath("$.status").value("fail"));
+    }
+
+    @Test
+    void testCreate_WithUploadSession_Success() throws Exception {
+        UUID uploadId = UUID.randomUUID();
+        UploadSession session = mock(UploadSession.class);
+        MockMultipartFile img = new MockMultipartFile(
+                "imageFile", "sample.jpg", MediaType.IMAGE_JPEG_VALUE, "content".getBytes()
+        );
+
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(uploadSessionService.getSession(userId, uploadId)).thenReturn(session);
+        when(uploadSessionService.toMultipartFile(session)).thenReturn(img);
+        when(foodQualityService.createProduct(eq(userId), any(FoodProductForm.class))).thenReturn(product);
+
+        mockMvc.perform(multipart("/api/food-products")
+                        .param("productName", "Keripik Tempe")
+                        .param("batchCode", "BATCH-001")
+                        .param("inspectionStatus", "PENDING")
+                        .param("uploadId", uploadId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("success"))
+                .andExpect(jsonPath("$.data.id").value(productId.toString()));
+
+        verify(uploadSessionService).discard(session);
+    }
+
+    @Test
+    void testCreate_WithUploadSession_NotFound() throws Exception {
+        UUID uploadId = UUID.randomUUID();
+
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(uploadSessionService.getSession(userId, uploadId)).thenReturn(null);
+
+        mockMvc.perform(multipart("/api/food-products")
+                        .param("productName", "Keripik Tempe")
+                        .param("batchCode", "BATCH-001")
+                        .param("inspectionStatus", "PENDING")
+                        .param("uploadId", uploadId.toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Sesi upload tidak ditemukan atau belum lengkap"));
+
+        verify(foodQualityService, never()).createProduct(any(), any());
+    }
+
+    @Test
+    void testCreate_WithUploadSession_Incomplete() throws Exception {
+        UUID uploadId = UUID.randomUUID();
+        UploadSession session = mock(UploadSession.class);
+
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(uploadSessionService.getSession(userId, uploadId)).thenReturn(session);
+        when(uploadSessionService.toMultipartFile(session)).thenReturn(null);
+
+        mockMvc.perform(multipart("/api/food-products")
+                        .param("productName", "Keripik Tempe")
+                        .param("batchCode", "BATCH-001")
+                        .param("inspectionStatus", "PENDING")
+                        .param("uploadId", uploadId.toString()))
+                .andExpect(status().isBadRequest());
+
+        verify(foodQualityService, never()).createProduct(any(), any());
+    }
+
+    @Test
     void testCreate_Unauthenticated() throws Exception {
         // Mock kondisi user belum login
         when(authContext.isAuthenticated()).thenReturn(false);
@@ -193,13 +343,52 @@ class FoodProductControllerTest {
     void testGetAll_Success() throws Exception {
         when(authContext.isAuthenticated()).thenReturn(true);
         when(authContext.getAuthUser()).thenReturn(user);
-        when(foodQualityService.getAllProducts(userId, null)).thenReturn(List.of(product));
+        when(foodQualityService.findProducts(eq(userId), any(ProductFilter.class))).thenReturn(List.of(product));
 
         mockMvc.perform(get("/api/food-products"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status").value("success"));
 
-        verify(foodQualityService).getAllProducts(userId, null);
+        verify(foodQualityService).findProducts(eq(userId), any(ProductFilter.class));
+    }
+
+    @Test
+    void testGetAll_FilterBinding() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(foodQualityService.getCollectionVersion(userId)).thenReturn("abc-3");
+        when(foodQualityService.findProducts(eq(userId), any(ProductFilter.class))).thenReturn(List.of(product));
+
+        mockMvc.perform(get("/api/food-products")
+                .param("status", "PASSED", "REJECTED")
+                .param("category", "Snack")
+                .param("expiryFrom", "2025-01-01")
+                .param("expiringWithinDays", "7")
+                .param("sort", "-expiryDate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"products-abc-3-" + LocalDate.now() + "\""));
+
+        ArgumentCaptor<ProductFilter> captor = ArgumentCaptor.forClass(ProductFilter.class);
+        verify(foodQualityService).findProducts(eq(userId), captor.capture());
+        ProductFilter filter = captor.getValue();
+        assertEquals(List.of("PASSED", "REJECTED"), filter.getStatus());
+        assertEquals("Snack", filter.getCategory());
+        assertEquals(LocalDate.of(2025, 1, 1), filter.getExpiryFrom());
+        assertEquals(7, filter.getExpiringWithinDays());
+        assertEquals("-expiryDate", filter.getSort());
+    }
+
+    @Test
+    void testGetAll_InvalidSort() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(foodQualityService.findProducts(eq(userId), any(ProductFilter.class)))
+                .thenThrow(new IllegalArgumentException("Sort tidak dikenal: password"));
+
+        mockMvc.perform(get("/api/food-products").param("sort", "password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("fail"))
+                .andExpect(jsonPath("$.message").value("Sort tidak dikenal: password"));
     }
 
     @Test
@@ -237,6 +426,58 @@ class FoodProductControllerTest {
                 .andExpect(jsonPath("$.message").value("Produk tidak ditemukan"));
     }
 
+    @Test
+    void testGetById_ReturnsETag() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(foodQualityService.getProductById(userId, productId)).thenReturn(product);
+
+        mockMvc.perform(get("/api/food-products/" + productId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", ETagUtil.fromTimestamp(updatedAt)))
+                .andExpect(header().string("Cache-Control", "no-cache, private"));
+    }
+
+    @Test
+    void testGetById_NotModified() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(foodQualityService.getProductUpdatedAt(userId, productId)).thenReturn(updatedAt);
+
+        mockMvc.perform(get("/api/food-products/" + productId)
+                        .header("If-None-Match", ETagUtil.fromTimestamp(updatedAt)))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", ETagUtil.fromTimestamp(updatedAt)));
+
+        verify(foodQualityService, never()).getProductById(any(), any());
+    }
+
+    @Test
+    void testGetById_StaleETag() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(foodQualityService.getProductUpdatedAt(userId, productId)).thenReturn(updatedAt);
+        when(foodQualityService.getProductById(userId, productId)).thenReturn(product);
+
+        mockMvc.perform(get("/api/food-products/" + productId)
+                        .header("If-None-Match", "W/\"lama\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("success"));
+    }
+
+    @Test
+    void testGetById_ConditionalNotFound() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(foodQualityService.getProductUpdatedAt(userId, productId)).thenReturn(null);
+
+        mockMvc.perform(get("/api/food-products/" + productId)
+                        .header("If-None-Match", "W/\"lama\""))
+                .andExpect(status().isNotFound());
+
+        verify(foodQualityService, never()).getProductById(any(), any());
+    }
+
     @Test
     void testGetById_Unauthenticated() throws Exception {
         when(authContext.isAuthenticated()).thenReturn(false);
@@ -560,4 +801,576 @@ class FoodProductControllerTest {
 
         verify(foodQualityService, never()).updateProduct(any(), any(), any());
     }
-}
\ No newline at end of file
+
+    // ==================================================================================
+    // ASYNC IMAGE PROCESSING & IMAGE STATUS
+    // ==================================================================================
+
+    @Test
+    void testUpdate_AsyncAccepted() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(product.getImageStatus()).thenReturn(FoodProduct.IMAGE_STATUS_PROCESSING);
+        when(foodQualityService.updateProduct(eq(userId), eq(productId), any(FoodProductForm.class))).thenReturn(product);
+
+        mockMvc.perform(multipart("/api/food-products/" + productId)
+                        .file(new MockMultipartFile("imageFile", "a.jpg", MediaType.IMAGE_JPEG_VALUE, "x".getBytes()))
+                        .param("productName", "Keripik Tempe")
+                        .with(request -> { request.setMethod("PUT"); return request; }))
+                .andExpect(status().isAccepted());
+    }
+
+    @Test
+    void testUpdateImage_AsyncAccepted() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(foodQualityService.updateProductImage(eq(userId), any(ProductImageForm.class))).thenReturn(true);
+        when(foodQualityService.isAsyncImageProcessing()).thenReturn(true);
+
+        mockMvc.perform(multipart("/api/food-products/" + productId + "/image")
+                        .file(new MockMultipartFile("imageFile", "a.jpg", MediaType.IMAGE_JPEG_VALUE, "x".getBytes()))
+                        .with(request -> { request.setMethod("PUT"); return request; }))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.message").value("Foto sampel sedang diproses"));
+    }
+
+    @Test
+    void testGetImageStatus_Processing() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(product.getImageStatus()).thenReturn(FoodProduct.IMAGE_STATUS_PROCESSING);
+        when(foodQualityService.getProductById(userId, productId)).thenReturn(product);
+
+        mockMvc.perform(get("/api/food-products/" + productId + "/image-status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.image_status").value("PROCESSING"));
+    }
+
+    @Test
+    void testGetImageStatus_LegacyReady() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(product.getProductImage()).thenReturn("a.jpg");
+        when(foodQualityService.getProductById(userId, productId)).thenReturn(product);
+
+        mockMvc.perform(get("/api/food-products/" + productId + "/image-status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.image_status").value("READY"))
+                .andExpect(jsonPath("$.data.product_image").value("a.jpg"));
+    }
+
+    @Test
+    void testGetImageStatus_NotFound() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(foodQualityService.getProductById(userId, productId)).thenReturn(null);
+
+        mockMvc.perform(get("/api/food-products/" + productId + "/image-status"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGetImageStatus_Unauthenticated() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(false);
+
+        mockMvc.perform(get("/api/food-products/" + productId + "/image-status"))
+                .andExpect(status().isForbidden());
+    }
+
+    // ==================================================================================
+    // CONDITIONAL GET - ETag koleksi (list, batch, statistik)
+    // ==================================================================================
+
+    @Test
+    void testGetAll_NotModified() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(foodQualityService.getCollectionVersion(userId)).thenReturn("abc-3");
+
+        mockMvc.perform(get("/api/food-products").header("If-None-Match", "W/\"products-abc-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"products-abc-3\""));
+
+        verify(foodQualityService, never()).findProducts(any(), any());
+    }
+
+    @Test
+    void testGetAll_ChangedCollection() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(foodQualityService.getCollectionVersion(userId)).thenReturn("abc-4");
+        when(foodQualityService.findProducts(eq(userId), any(ProductFilter.class))).thenReturn(List.of(product));
+
+        mockMvc.perform(get("/api/food-products").header("If-None-Match", "W/\"products-abc-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"products-abc-4\""))
+                .andExpect(header().string("Vary", "Accept"));
+    }
+
+    @Test
+    void testGetAll_NotModified_CborVariant() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(foodQualityService.getCollectionVersion(userId)).thenReturn("abc-3");
+
+        // ETag milik representasi JSON tidak berlaku untuk klien CBOR
+        mockMvc.perform(get("/api/food-products").accept(MediaType.APPLICATION_CBOR)
+                        .header("If-None-Match", "W/\"products-abc-3-cbor\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"products-abc-3-cbor\""))
+                .andExpect(header().string("Vary", "Accept"));
+
+        verify(foodQualityService, never()).findProducts(any(), any());
+    }
+
+    @Test
+    void testGetById_NotModified_SmileVariant() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(foodQualityService.getProductUpdatedAt(userId, productId)).thenReturn(updatedAt);
+
+        mockMvc.perform(get("/api/food-products/" + productId)
+                        .header("Accept", "application/json;q=0.5, application/x-jackson-smile")
+                        .header("If-None-Match", ETagUtil.fromTimestamp(updatedAt, "-smile")))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", ETagUtil.fromTimestamp(updatedAt, "-smile")))
+                .andExpect(header().string("Vary", "Accept"));
+
+        verify(foodQualityService, never()).getProductById(any(), any());
+    }
+
+    @Test
+    void testGetBatches_NotModified() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(foodQualityService.getCollectionVersion(userId)).thenReturn("abc-3");
+
+        mockMvc.perform(get("/api/food-products/batches").header("If-None-Match", "W/\"batches-abc-3\""))
+                .andExpect(status().isNotModified());
+
+        verify(foodQualityService, never()).getAllBatchCodes(any());
+    }
+
+    @Test
+    void testGetStats_NotModified() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(foodQualityService.getCollectionVersion(userId)).thenReturn("abc-3");
+
+        mockMvc.perform(get("/api/food-products/stats").header("If-None-Match", "*"))
+                .andExpect(status().isNotModified());
+
+        verify(foodQualityService, never()).getInspectionStats(any());
+    }
+
+    // ==================================================================================
+    // STREAMING (?stream=true)
+    // ==================================================================================
+
+    @Test
+    void testStreamAll_Success() throws Exception {
+        FoodProduct first = new FoodProduct();
+        first.setProductName("Keripik Tempe");
+        FoodProduct second = new FoodProduct();
+        second.setProductName("Susu UHT");
+
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(foodQualityService.getCollectionVersion(userId)).thenReturn("abc-3");
+        doAnswer(invocation -> {
+            Consumer<FoodProduct> action = invocation.getArgument(2);
+            action.accept(first);
+            action.accept(second);
+            return null;
+        }).when(foodQualityService).streamProducts(eq(userId), any(ProductFilter.class), any());
+
+        MvcResult result = mockMvc.perform(get("/api/food-products").param("stream", "true").param("sort", "productName"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"products-abc-3\""))
+                .andExpect(jsonPath("$.status").value("success"))
+                .andExpect(jsonPath("$.message").value("Berhasil mengambil data produk"))
+                .andExpect(jsonPath("$.data.food_products.length()").value(2))
+                .andExpect(jsonPath("$.data.food_products[1].productName").value("Susu UHT"));
+
+        verify(foodQualityService, never()).findProducts(any(), any());
+    }
+
+    @Test
+    void testStreamAll_FailureMidStream_NoClosingBrackets() throws Exception {
+        FoodProduct first = new FoodProduct();
+        first.setProductName("Keripik Tempe");
+
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        doAnswer(invocation -> {
+            Consumer<FoodProduct> action = invocation.getArgument(2);
+            action.accept(first);
+            throw new IllegalStateException("Koneksi database putus");
+        }).when(foodQualityService).streamProducts(eq(userId), any(ProductFilter.class), any());
+
+        MvcResult result = mockMvc.perform(get("/api/food-products").param("stream", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertInstanceOf(IllegalStateException.class, result.getAsyncResult(2000));
+        String body = result.getResponse().getContentAsString();
+        assertTrue(body.contains("Keripik Tempe"));
+        // Tanpa "]}}" penutup: klien tidak bisa mengira list terpotong ini lengkap
+        assertFalse(body.endsWith("]}}"));
+        assertThrows(JacksonException.class, () -> jsonMapper.readTree(body));
+    }
+
+    @Test
+    void testStreamAll_ExceedsMaxDuration() throws Exception {
+        FoodProduct first = new FoodProduct();
+        first.setProductName("Keripik Tempe");
+        controller.streamMaxDurationSeconds = 0;
+
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        doAnswer(invocation -> {
+            Consumer<FoodProduct> action = invocation.getArgument(2);
+            action.accept(first);
+            return null;
+        }).when(foodQualityService).streamProducts(eq(userId), any(ProductFilter.class), any());
+
+        MvcResult result = mockMvc.perform(get("/api/food-products").param("stream", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertInstanceOf(TransactionTimedOutException.class, result.getAsyncResult(2000));
+        assertFalse(result.getResponse().getContentAsString().contains("Keripik Tempe"));
+    }
+
+    @Test
+    void testStreamAll_InterruptedByAsyncTimeout() throws Exception {
+        FoodProduct first = new FoodProduct();
+        first.setProductName("Keripik Tempe");
+
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        doAnswer(invocation -> {
+            // Timeout async membatalkan task export dengan interrupt
+            Thread.currentThread().interrupt();
+            Consumer<FoodProduct> action = invocation.getArgument(2);
+            action.accept(first);
+            return null;
+        }).when(foodQualityService).streamProducts(eq(userId), any(ProductFilter.class), any());
+
+        MvcResult result = mockMvc.perform(get("/api/food-products").param("stream", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertInstanceOf(TransactionTimedOutException.class, result.getAsyncResult(2000));
+        assertFalse(result.getResponse().getContentAsString().contains("Keripik Tempe"));
+    }
+
+    @Test
+    void testStreamAll_Empty() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+
+        MvcResult result = mockMvc.perform(get("/api/food-products").param("stream", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.food_products").isEmpty());
+    }
+
+    @Test
+    void testStreamAll_Unauthenticated() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(false);
+
+        MvcResult result = mockMvc.perform(get("/api/food-products").param("stream", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.status").value("fail"));
+    }
+
+    @Test
+    void testStreamAll_InvalidFilter() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+
+        MvcResult result = mockMvc.perform(get("/api/food-products").param("stream", "true").param("sort", "password"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Sort tidak dikenal: password"));
+
+        verify(foodQualityService, never()).streamProducts(any(), any(), any());
+    }
+
+    @Test
+    void testStreamAll_NotModified() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(foodQualityService.getCollectionVersion(userId)).thenReturn("abc-3");
+
+        mockMvc.perform(get("/api/food-products").param("stream", "true")
+                .header("If-None-Match", "W/\"products-abc-3\""))
+                .andExpect(status().isNotModified());
+
+        verify(foodQualityService, never()).streamProducts(any(), any(), any());
+    }
+
+    // ==================================================================================
+    // SPARSE FIELDSET (?fields=)
+    // ==================================================================================
+
+    @Test
+    void testGetAll_WithFields() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(foodQualityService.findProductFields(eq(userId), any(ProductFilter.class), eq(List.of("id", "productName"))))
+                .thenReturn(List.of(Map.of("id", productId, "productName", "Keripik Tempe")));
+
+        mockMvc.perform(get("/api/food-products").param("fields", "productName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.food_products[0].productName").value("Keripik Tempe"))
+                .andExpect(jsonPath("$.data.food_products[0].notes").doesNotExist());
+
+        verify(foodQualityService, never()).findProducts(any(), any());
+    }
+
+    @Test
+    void testGetAll_InvalidFields() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+
+        mockMvc.perform(get("/api/food-products").param("fields", "password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Field tidak dikenal: password"));
+    }
+
+    @Test
+    void testGetById_WithFields() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(foodQualityService.getProductFieldsById(userId, productId, List.of("id", "inspectionStatus")))
+                .thenReturn(Map.of("id", productId, "inspectionStatus", "PASSED"));
+
+        mockMvc.perform(get("/api/food-products/" + productId).param("fields", "inspectionStatus"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.food_product.inspectionStatus").value("PASSED"))
+                .andExpect(header().doesNotExist("ETag"));
+
+        verify(foodQualityService, never()).getProductById(any(), any());
+    }
+
+    @Test
+    void testGetById_WithFieldsIncludingUpdatedAt() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(foodQualityService.getProductFieldsById(userId, productId, List.of("id", "updatedAt")))
+                .thenReturn(Map.of("id", productId, "updatedAt", updatedAt));
+
+        mockMvc.perform(get("/api/food-products/" + productId).param("fields", "updatedAt"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", ETagUtil.fromTimestamp(updatedAt)));
+    }
+
+    @Test
+    void testGetById_WithFieldsNotFound() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(foodQualityService.getProductFieldsById(userId, productId, List.of("id"))).thenReturn(null);
+
+        mockMvc.perform(get("/api/food-products/" + productId).param("fields", ""))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGetById_InvalidFields() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+
+        mockMvc.perform(get("/api/food-products/" + productId).param("fields", "secret"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // ==================================================================================
+    // 12. BATCH
+    // ==================================================================================
+
+    private static final String BATCH_BODY = "{\"operations\":[{\"op\":\"delete\",\"id\":\"%s\"}]}";
+
+    @Test
+    void testBatch_Success() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(foodQualityService.applyBatch(eq(userId), any()))
+                .thenReturn(List.of(new BatchOperationResult(0, "delete", "success", productId, null)));
+
+        mockMvc.perform(post("/api/food-products/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BATCH_BODY.formatted(productId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("success"))
+                .andExpect(jsonPath("$.data.results[0].status").value("success"))
+                .andExpect(jsonPath("$.data.results[0].id").value(productId.toString()));
+    }
+
+    @Test
+    void testBatch_Unauthorized() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(false);
+
+        mockMvc.perform(post("/api/food-products/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BATCH_BODY.formatted(productId)))
+                .andExpect(status().isForbidden());
+
+        verify(foodQualityService, never()).applyBatch(any(), any());
+    }
+
+    @Test
+    void testBatch_EmptyOrMissingOperations() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+
+        mockMvc.perform(post("/api/food-products/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\":[]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Daftar operasi tidak boleh kosong"));
+
+        mockMvc.perform(post("/api/food-products/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testBatch_TooManyOperations() throws Exception {
+        ReflectionTestUtils.setField(controller, "maxBatchOperations", 1);
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+
+        mockMvc.perform(post("/api/food-products/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\":[{\"op\":\"delete\"},{\"op\":\"delete\"}]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Maksimal 1 operasi per batch"));
+    }
+
+    @Test
+    void testBatch_ConstraintViolation() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(foodQualityService.applyBatch(eq(userId), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate batch_code"));
+
+        mockMvc.perform(post("/api/food-products/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BATCH_BODY.formatted(productId)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value("fail"));
+    }
+
+    // ==================================================================================
+    // 13. EVENTS (SSE)
+    // ==================================================================================
+
+    @Test
+    void testEvents_Subscribe() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(inspectionEventService.subscribe(userId)).thenReturn(new SseEmitter(1000L));
+
+        mockMvc.perform(get("/api/food-products/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string("X-Accel-Buffering", "no"))
+                .andExpect(header().string("Cache-Control", "no-store"));
+
+        verify(inspectionEventService).subscribe(userId);
+    }
+
+    @Test
+    void testEvents_Unauthorized() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(false);
+
+        mockMvc.perform(get("/api/food-products/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isForbidden());
+
+        verify(inspectionEventService, never()).subscribe(any());
+    }
+
+    // ==================================================================================
+    // 14. PATCH STATUS (OPTIMISTIC LOCKING)
+    // ==================================================================================
+
+    private ResultActions patchStatus(String body) throws Exception {
+        return mockMvc.perform(patch("/api/food-products/" + productId + "/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+
+    @Test
+    void testTransitionStatus_Success() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(foodQualityService.transitionStatus(eq(userId), eq(productId), any(StatusTransitionForm.class)))
+                .thenReturn(3L);
+
+        patchStatus("{\"inspectionStatus\":\"PASSED\",\"notes\":\"Lolos\",\"version\":2}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.inspection_status").value("PASSED"))
+                .andExpect(jsonPath("$.data.version").value(3));
+    }
+
+    @Test
+    void testTransitionStatus_InvalidBody() throws Exception {
+        patchStatus("{\"version\":2}")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Status inspeksi tidak valid"));
+        patchStatus("{\"inspectionStatus\":\"APPROVED\",\"version\":2}")
+                .andExpect(status().isBadRequest());
+        patchStatus("{\"inspectionStatus\":\"PASSED\"}")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Versi produk wajib dikirim"));
+
+        verify(foodQualityService, never()).transitionStatus(any(), any(), any());
+    }
+
+    @Test
+    void testTransitionStatus_Unauthorized() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(false);
+
+        patchStatus("{\"inspectionStatus\":\"PASSED\",\"version\":2}")
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testTransitionStatus_NotFound() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(foodQualityService.transitionStatus(eq(userId), eq(productId), any(StatusTransitionForm.class)))
+                .thenReturn(null);
+
+        patchStatus("{\"inspectionStatus\":\"PASSED\",\"version\":2}")
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testTransitionStatus_Conflict() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(authContext.getAuthUser()).thenReturn(user);
+        when(foodQualityService.transitionStatus(eq(userId), eq(productId), any(StatusTransitionForm.class)))
+                .thenThrow(new OptimisticLockingFailureException("stale"));
+
+        patchStatus("{\"inspectionStatus\":\"PASSED\",\"version\":2}")
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Produk sudah diubah, muat ulang data terlebih dahulu"));
+    }
+}
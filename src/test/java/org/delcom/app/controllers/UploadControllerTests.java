@@ -0,0 +1,313 @@
+package org.delcom.app.controllers;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.InputStream;
+import java.util.UUID;
+
+import org.delcom.app.configs.AuthContext;
+import org.delcom.app.dto.ProductImageForm;
+import org.delcom.app.entities.User;
+import org.delcom.app.services.FoodQualityService;
+import org.delcom.app.services.UploadRejectedException;
+import org.delcom.app.services.UploadSessionService;
+import org.delcom.app.services.UploadSessionService.UploadSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+class UploadControllerTests {
+
+    private MockMvc mockMvc;
+    private UploadSessionService uploadSessionService;
+    private FoodQualityService foodQualityService;
+    private AuthContext authContext;
+    private UploadSession session;
+    private UUID userId;
+    private UUID sessionId;
+
+    @BeforeEach
+    void setUp() {
+        uploadSessionService = mock(UploadSessionService.class);
+        foodQualityService = mock(FoodQualityService.class);
+        authContext = mock(AuthContext.class);
+
+        UploadController controller = new UploadController(uploadSessionService, foodQualityService);
+        controller.authContext = authContext;
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        userId = UUID.randomUUID();
+        sessionId = UUID.randomUUID();
+        User user = mock(User.class);
+        when(user.getId()).thenReturn(userId);
+        when(authContext.getAuthUser()).thenReturn(user);
+
+        session = mock(UploadSession.class);
+        when(session.getId()).thenReturn(sessionId);
+        when(session.getTotalSize()).thenReturn(10L);
+    }
+
+    // ==================================================================================
+    // 1. CREATE SESSION
+    // ==================================================================================
+
+    @Test
+    void createSession_Success() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(uploadSessionService.createSession(userId, "a.jpg", "image/jpeg", 10)).thenReturn(session);
+
+        mockMvc.perform(post("/api/uploads")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filename\":\"a.jpg\",\"contentType\":\"image/jpeg\",\"totalSize\":10}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("success"))
+                .andExpect(jsonPath("$.data.id").value(sessionId.toString()))
+                .andExpect(jsonPath("$.data.offset").value(0));
+    }
+
+    @Test
+    void createSession_InvalidType() throws Exception {
+        mockMvc.perform(post("/api/uploads")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filename\":\"a.pdf\",\"contentType\":\"application/pdf\",\"totalSize\":10}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("fail"));
+    }
+
+    @Test
+    void createSession_InvalidSize() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(uploadSessionService.createSession(userId, "a.jpg", "image/jpeg", 0))
+                .thenThrow(new IllegalArgumentException("Ukuran file tidak valid"));
+
+        mockMvc.perform(post("/api/uploads")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filename\":\"a.jpg\",\"contentType\":\"image/jpeg\",\"totalSize\":0}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Ukuran file tidak valid"));
+    }
+
+    @Test
+    void createSession_Unauthenticated() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(false);
+
+        mockMvc.perform(post("/api/uploads")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filename\":\"a.jpg\",\"contentType\":\"image/png\",\"totalSize\":10}"))
+                .andExpect(status().isForbidden());
+    }
+
+    // ==================================================================================
+    // 2. UPLOAD CHUNK
+    // ==================================================================================
+
+    @Test
+    void uploadChunk_Success() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(uploadSessionService.getSession(userId, sessionId)).thenReturn(session);
+        when(uploadSessionService.appendChunk(eq(session), eq(0L), any(InputStream.class))).thenReturn(4L);
+
+        mockMvc.perform(put("/api/uploads/" + sessionId)
+                        .param("offset", "0")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content("abcd".getBytes()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Upload-Offset", "4"))
+                .andExpect(jsonPath("$.data.offset").value(4));
+    }
+
+    @Test
+    void uploadChunk_OffsetConflict() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(uploadSessionService.getSession(userId, sessionId)).thenReturn(session);
+        when(session.getOffset()).thenReturn(4L);
+        when(uploadSessionService.appendChunk(eq(session), eq(0L), any(InputStream.class)))
+                .thenThrow(new IllegalStateException("Offset tidak sesuai"));
+
+        mockMvc.perform(put("/api/uploads/" + sessionId)
+                        .param("offset", "0")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content("abcd".getBytes()))
+                .andExpect(status().isConflict())
+                .andExpect(header().string("Upload-Offset", "4"))
+                .andExpect(jsonPath("$.data.offset").value(4));
+    }
+
+    @Test
+    void uploadChunk_TooLarge() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(uploadSessionService.getSession(userId, sessionId)).thenReturn(session);
+        when(uploadSessionService.appendChunk(eq(session), eq(0L), any(InputStream.class)))
+                .thenThrow(new IllegalArgumentException("Chunk melebihi ukuran file yang didaftarkan"));
+
+        mockMvc.perform(put("/api/uploads/" + sessionId)
+                        .param("offset", "0")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content("abcdefghijklmnop".getBytes()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("fail"));
+    }
+
+    @Test
+    void uploadChunk_SessionNotFound() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+
+        mockMvc.perform(put("/api/uploads/" + sessionId)
+                        .param("offset", "0")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content("abcd".getBytes()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void uploadChunk_Unauthenticated() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(false);
+
+        mockMvc.perform(put("/api/uploads/" + sessionId)
+                        .param("offset", "0")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content("abcd".getBytes()))
+                .andExpect(status().isForbidden());
+
+        verify(uploadSessionService, never()).appendChunk(any(), anyLong(), any());
+    }
+
+    // ==================================================================================
+    // 3. GET OFFSET
+    // ==================================================================================
+
+    @Test
+    void getOffset_Success() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(uploadSessionService.getSession(userId, sessionId)).thenReturn(session);
+        when(session.getOffset()).thenReturn(6L);
+
+        mockMvc.perform(get("/api/uploads/" + sessionId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Upload-Offset", "6"))
+                .andExpect(jsonPath("$.data.offset").value(6))
+                .andExpect(jsonPath("$.data.totalSize").value(10));
+    }
+
+    @Test
+    void getOffset_SessionNotFound() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+
+        mockMvc.perform(get("/api/uploads/" + sessionId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getOffset_Unauthenticated() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(false);
+
+        mockMvc.perform(get("/api/uploads/" + sessionId))
+                .andExpect(status().isForbidden());
+    }
+
+    // ==================================================================================
+    // 4. FINALIZE
+    // ==================================================================================
+
+    @Test
+    void finalizeUpload_Success() throws Exception {
+        UUID productId = UUID.randomUUID();
+        MockMultipartFile file = new MockMultipartFile("imageFile", "a.jpg", "image/jpeg", "x".getBytes());
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(uploadSessionService.getSession(userId, sessionId)).thenReturn(session);
+        when(uploadSessionService.toMultipartFile(session)).thenReturn(file);
+        when(foodQualityService.updateProductImage(eq(userId), any(ProductImageForm.class))).thenReturn(true);
+
+        mockMvc.perform(post("/api/uploads/" + sessionId + "/finalize").param("productId", productId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("success"));
+
+        verify(uploadSessionService).discard(session);
+    }
+
+    @Test
+    void finalizeUpload_ProductNotFound() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("imageFile", "a.jpg", "image/jpeg", "x".getBytes());
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(uploadSessionService.getSession(userId, sessionId)).thenReturn(session);
+        when(uploadSessionService.toMultipartFile(session)).thenReturn(file);
+        when(foodQualityService.updateProductImage(eq(userId), any(ProductImageForm.class))).thenReturn(false);
+
+        mockMvc.perform(post("/api/uploads/" + sessionId + "/finalize").param("productId", UUID.randomUUID().toString()))
+                .andExpect(status().isNotFound());
+
+        verify(uploadSessionService, never()).discard(any());
+    }
+
+    @Test
+    void finalizeUpload_Incomplete() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(uploadSessionService.getSession(userId, sessionId)).thenReturn(session);
+        when(uploadSessionService.toMultipartFile(session)).thenReturn(null);
+
+        mockMvc.perform(post("/api/uploads/" + sessionId + "/finalize").param("productId", UUID.randomUUID().toString()))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void finalizeUpload_SessionNotFound() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(true);
+
+        mockMvc.perform(post("/api/uploads/" + sessionId + "/finalize").param("productId", UUID.randomUUID().toString()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void finalizeUpload_Unauthenticated() throws Exception {
+        when(authContext.isAuthenticated()).thenReturn(false);
+
+        mockMvc.perform(post("/api/uploads/" + sessionId + "/finalize").param("productId", UUID.randomUUID().toString()))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void finalizeUpload_AsyncAccepted() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("imageFile", "a.jpg", "image/jpeg", "x".getBytes());
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(uploadSessionService.getSession(userId, sessionId)).thenReturn(session);
+        when(uploadSessionService.toMultipartFile(session)).thenReturn(file);
+        when(foodQualityService.updateProductImage(eq(userId), any(ProductImageForm.class))).thenReturn(true);
+        when(foodQualityService.isAsyncImageProcessing()).thenReturn(true);
+
+        mockMvc.perform(post("/api/uploads/" + sessionId + "/finalize").param("productId", UUID.randomUUID().toString()))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.message").value("Foto sampel sedang diproses"));
+    }
+
+    @Test
+    void finalizeUpload_Busy() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("imageFile", "a.jpg", "image/jpeg", "x".getBytes());
+        when(authContext.isAuthenticated()).thenReturn(true);
+        when(uploadSessionService.getSession(userId, sessionId)).thenReturn(session);
+        when(uploadSessionService.toMultipartFile(session)).thenReturn(file);
+        when(foodQualityService.updateProductImage(eq(userId), any(ProductImageForm.class)))
+                .thenThrow(new UploadRejectedException(5));
+
+        mockMvc.perform(post("/api/uploads/" + sessionId + "/finalize").param("productId", UUID.randomUUID().toString()))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "5"))
+                .andExpect(jsonPath("$.status").value("fail"));
+
+        verify(uploadSessionService, never()).discard(any());
+    }
+}
@@ -0,0 +1,51 @@
+package org.delcom.app.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BatchOperationFormTests {
+
+    @Test
+    @DisplayName("Test Getters and Setters")
+    void testGettersAndSetters() {
+        UUID id = UUID.randomUUID();
+        BatchOperationForm form = new BatchOperationForm();
+        form.setOp(BatchOperationForm.OP_UPDATE);
+        form.setId(id);
+        form.setBatchCode("B-001");
+        form.setProductName("Keripik Tempe");
+        form.setCategory("Snack");
+        form.setInspectionStatus("PASSED");
+        form.setNotes("Renyah");
+        form.setProductionDate(LocalDate.of(2025, 1, 1));
+        form.setExpiryDate(LocalDate.of(2025, 7, 1));
+
+        assertEquals("update", form.getOp());
+        assertEquals(id, form.getId());
+        assertEquals("B-001", form.getBatchCode());
+        assertEquals("Keripik Tempe", form.getProductName());
+        assertEquals("Snack", form.getCategory());
+        assertEquals("PASSED", form.getInspectionStatus());
+        assertEquals("Renyah", form.getNotes());
+        assertEquals(LocalDate.of(2025, 1, 1), form.getProductionDate());
+        assertEquals(LocalDate.of(2025, 7, 1), form.getExpiryDate());
+    }
+
+    @Test
+    @DisplayName("Request batch menyimpan daftar operasi")
+    void testBatchRequestForm() {
+        BatchRequestForm request = new BatchRequestForm();
+        assertNull(request.getOperations());
+
+        List<BatchOperationForm> operations = List.of(new BatchOperationForm());
+        request.setOperations(operations);
+        assertEquals(operations, request.getOperations());
+    }
+}
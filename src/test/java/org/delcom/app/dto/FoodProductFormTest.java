@@ -98,4 +98,15 @@ class FoodProductFormTest {
         // 4. Panggil Getter & Validasi (Ini akan membuat baris 'getProductImage' jadi Hijau)
         assertEquals(filename, form.getProductImage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testUploadIdGetterSetter() {
+        FoodProductForm form = new FoodProductForm();
+        assertNull(form.getUploadId());
+
+        UUID uploadId = UUID.randomUUID();
+        form.setUploadId(uploadId);
+
+        assertEquals(uploadId, form.getUploadId());
+    }
+}
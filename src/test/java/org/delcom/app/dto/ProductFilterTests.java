@@ -0,0 +1,53 @@
+package org.delcom.app.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ProductFilterTests {
+
+    @Test
+    @DisplayName("Test Getters and Setters")
+    void testGettersAndSetters() {
+        ProductFilter filter = new ProductFilter();
+        filter.setSearch("tempe");
+        filter.setStatus(List.of("PASSED"));
+        filter.setCategory("Snack");
+        filter.setProductionFrom(LocalDate.of(2025, 1, 1));
+        filter.setProductionTo(LocalDate.of(2025, 1, 31));
+        filter.setExpiryFrom(LocalDate.of(2025, 6, 1));
+        filter.setExpiryTo(LocalDate.of(2025, 6, 30));
+        filter.setExpiringWithinDays(7);
+        filter.setCreatedFrom(LocalDate.of(2025, 2, 1));
+        filter.setCreatedTo(LocalDate.of(2025, 2, 28));
+        filter.setSort("-expiryDate");
+
+        assertEquals("tempe", filter.getSearch());
+        assertEquals(List.of("PASSED"), filter.getStatus());
+        assertEquals("Snack", filter.getCategory());
+        assertEquals(LocalDate.of(2025, 1, 1), filter.getProductionFrom());
+        assertEquals(LocalDate.of(2025, 1, 31), filter.getProductionTo());
+        assertEquals(LocalDate.of(2025, 6, 1), filter.getExpiryFrom());
+        assertEquals(LocalDate.of(2025, 6, 30), filter.getExpiryTo());
+        assertEquals(7, filter.getExpiringWithinDays());
+        assertEquals(LocalDate.of(2025, 2, 1), filter.getCreatedFrom());
+        assertEquals(LocalDate.of(2025, 2, 28), filter.getCreatedTo());
+        assertEquals("-expiryDate", filter.getSort());
+    }
+
+    @Test
+    @DisplayName("Filter kosong berarti tanpa filter")
+    void testDefaults() {
+        ProductFilter filter = new ProductFilter();
+
+        assertNull(filter.getSearch());
+        assertNull(filter.getStatus());
+        assertNull(filter.getExpiringWithinDays());
+        assertNull(filter.getSort());
+    }
+}
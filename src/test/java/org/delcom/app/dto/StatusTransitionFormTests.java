@@ -0,0 +1,25 @@
+package org.delcom.app.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class StatusTransitionFormTests {
+
+    @Test
+    @DisplayName("Test Getters and Setters")
+    void testGettersAndSetters() {
+        StatusTransitionForm form = new StatusTransitionForm();
+        assertNull(form.getVersion());
+
+        form.setInspectionStatus("PASSED");
+        form.setNotes("Lolos uji mikrobiologi");
+        form.setVersion(7L);
+
+        assertEquals("PASSED", form.getInspectionStatus());
+        assertEquals("Lolos uji mikrobiologi", form.getNotes());
+        assertEquals(7L, form.getVersion());
+    }
+}
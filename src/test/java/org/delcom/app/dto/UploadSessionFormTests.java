@@ -0,0 +1,39 @@
+package org.delcom.app.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class UploadSessionFormTests {
+
+    @Test
+    @DisplayName("Test Getters and Setters")
+    void testGettersAndSetters() {
+        UploadSessionForm form = new UploadSessionForm();
+        form.setFilename("a.jpg");
+        form.setContentType("image/jpeg");
+        form.setTotalSize(1024);
+
+        assertEquals("a.jpg", form.getFilename());
+        assertEquals("image/jpeg", form.getContentType());
+        assertEquals(1024, form.getTotalSize());
+    }
+
+    @Test
+    @DisplayName("Tipe gambar yang didukung diterima, selain itu ditolak")
+    void testIsValidImage() {
+        UploadSessionForm form = new UploadSessionForm();
+        assertFalse(form.isValidImage());
+
+        for (String type : new String[] { "image/jpeg", "image/png", "image/jpg", "image/gif", "image/webp" }) {
+            form.setContentType(type);
+            assertTrue(form.isValidImage());
+        }
+
+        form.setContentType("application/pdf");
+        assertFalse(form.isValidImage());
+    }
+}
@@ -0,0 +1,38 @@
+package org.delcom.app.entities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class CollectionVersionTests {
+    @Test
+    @DisplayName("Memembuat instance dari kelas CollectionVersion")
+    void testMembuatInstanceCollectionVersion() throws Exception {
+        UUID userId = UUID.randomUUID();
+
+        // CollectionVersion dengan userId dan versi
+        {
+            CollectionVersion collectionVersion = new CollectionVersion(userId, 3L);
+
+            assertEquals(userId, collectionVersion.getUserId());
+            assertEquals(3L, collectionVersion.getVersion());
+        }
+
+        // CollectionVersion dengan nilai default lalu setNilai
+        {
+            CollectionVersion collectionVersion = new CollectionVersion();
+            assertNull(collectionVersion.getUserId());
+            assertEquals(0L, collectionVersion.getVersion());
+
+            collectionVersion.setUserId(userId);
+            collectionVersion.setVersion(7L);
+
+            assertEquals(userId, collectionVersion.getUserId());
+            assertEquals(7L, collectionVersion.getVersion());
+        }
+    }
+}
@@ -60,7 +60,10 @@ class FoodProductTest {
         product.setCategory("Minuman");
         product.setInspectionStatus("PENDING");
         product.setProductImage("image.jpg");
+        product.setImageSize(2048L);
+        product.setImageStatus(FoodProduct.IMAGE_STATUS_READY);
         product.setNotes("Segar");
+        product.setVersion(3L);
 
         // Assert Values
         assertEquals(id, product.getId());
@@ -70,7 +73,10 @@ class FoodProductTest {
         assertEquals("Minuman", product.getCategory());
         assertEquals("PENDING", product.getInspectionStatus());
         assertEquals("image.jpg", product.getProductImage());
+        assertEquals(2048L, product.getImageSize());
+        assertEquals("READY", product.getImageStatus());
         assertEquals("Segar", product.getNotes());
+        assertEquals(3L, product.getVersion());
     }
 
     // ==================================================================================
@@ -13,6 +13,8 @@ import org.delcom.app.configs.AuthContext;
 import org.delcom.app.entities.AuthToken;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.services.MetricsService;
+import org.delcom.app.services.RequestTiming;
 import org.delcom.app.services.UserService;
 import org.delcom.app.utils.JwtUtil;
 import org.junit.jupiter.api.DisplayName;
@@ -20,6 +22,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
@@ -54,6 +57,8 @@ public class AuthInterceptorTests {
         authInterceptor.authTokenService = authTokenService;
         authInterceptor.userService = userService;
         authInterceptor.authContext = new AuthContext();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        authInterceptor.metricsService = new MetricsService(meterRegistry);
 
         // Menguji method preHandle yang berhasil
         {
@@ -68,8 +73,15 @@ public class AuthInterceptorTests {
             when(request.getRequestURI()).thenReturn("/api/users/me");
             when(request.getHeader("Authorization")).thenReturn("Bearer " + bearerToken);
 
-            boolean isPublic = authInterceptor.preHandle(request, response, null);
-            assertTrue(isPublic);
+            // Waktu pemeriksaan masuk ke fase auth Server-Timing
+            RequestTiming timing = RequestTiming.start();
+            try {
+                boolean isPublic = authInterceptor.preHandle(request, response, null);
+                assertTrue(isPublic);
+                assertTrue(timing.nanos(RequestTiming.Phase.AUTH) > 0);
+            } finally {
+                RequestTiming.clear();
+            }
         }
 
         // Menguji method preHandle yang berhasil dengan path public
@@ -157,5 +169,14 @@ public class AuthInterceptorTests {
             boolean isPublic = authInterceptor.preHandle(request, response, null);
             assertEquals(false, isPublic);
         }
+
+        // Setiap hasil pemeriksaan token tercatat di counter app.auth.requests
+        {
+            assertEquals(1.0, meterRegistry.get("app.auth.requests").tag("outcome", "success").counter().count());
+            assertEquals(3.0, meterRegistry.get("app.auth.requests").tag("outcome", "missing_token").counter().count());
+            assertEquals(2.0, meterRegistry.get("app.auth.requests").tag("outcome", "invalid_token").counter().count());
+            assertEquals(1.0, meterRegistry.get("app.auth.requests").tag("outcome", "expired_token").counter().count());
+            assertEquals(1.0, meterRegistry.get("app.auth.requests").tag("outcome", "user_not_found").counter().count());
+        }
     }
 }
@@ -0,0 +1,48 @@
+package org.delcom.app.interceptors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.delcom.app.services.RequestTiming;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.ModelAndView;
+
+class ServerTimingInterceptorTests {
+
+    private final ServerTimingInterceptor interceptor = new ServerTimingInterceptor();
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @AfterEach
+    void tearDown() {
+        RequestTiming.clear();
+    }
+
+    @Test
+    @DisplayName("Handler yang mengembalikan view memulai fase render")
+    void view_memulaiRender() throws Exception {
+        RequestTiming timing = RequestTiming.start();
+
+        interceptor.postHandle(request, response, null, new ModelAndView("pages/home"));
+        Thread.sleep(1);
+        timing.finish();
+
+        assertTrue(timing.nanos(RequestTiming.Phase.RENDER) > 0);
+    }
+
+    @Test
+    @DisplayName("Endpoint REST dan ModelAndView tanpa view tidak punya fase render")
+    void tanpaView_tanpaRender() {
+        RequestTiming timing = RequestTiming.start();
+
+        interceptor.postHandle(request, response, null, null);
+        interceptor.postHandle(request, response, null, new ModelAndView());
+        timing.finish();
+
+        assertEquals(0L, timing.nanos(RequestTiming.Phase.RENDER));
+    }
+}
@@ -0,0 +1,146 @@
+package org.delcom.app.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.dto.ProductFilter;
+import org.delcom.app.entities.FoodProduct;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+class FoodProductSpecificationsTests {
+
+    private final UUID userId = UUID.randomUUID();
+    private final LocalDate today = LocalDate.of(2025, 6, 1);
+
+    private Root<FoodProduct> root;
+    private CriteriaQuery<?> query;
+    private CriteriaBuilder cb;
+    private Path<Object> path;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        root = mock(Root.class);
+        query = mock(CriteriaQuery.class);
+        cb = mock(CriteriaBuilder.class);
+        path = mock(Path.class);
+        when(root.get(anyString())).thenReturn(path);
+        when(cb.lower(any())).thenReturn((Expression<String>) mock(Expression.class));
+    }
+
+    private void apply(ProductFilter filter) {
+        FoodProductSpecifications.matching(userId, filter, today).toPredicate(root, query, cb);
+    }
+
+    @Test
+    @DisplayName("Filter kosong hanya membatasi pemilik produk")
+    void matching_filter_kosong() {
+        apply(new ProductFilter());
+
+        verify(cb).equal(path, userId);
+        verify(cb).and(any(Predicate[].class));
+        verify(cb, never()).like(any(), anyString());
+        verify(path, never()).in(any(List.class));
+        verify(cb, never()).between(any(), any(LocalDate.class), any(LocalDate.class));
+    }
+
+    @Test
+    @DisplayName("Search di nama, batch, kategori; status dinormalisasi; kategori exact match")
+    void matching_search_status_kategori() {
+        ProductFilter filter = new ProductFilter();
+        filter.setSearch("  Tempe ");
+        filter.setStatus(Arrays.asList("passed", " ", null, "ALL", "Rejected"));
+        filter.setCategory(" Snack ");
+
+        apply(filter);
+
+        verify(cb, times(3)).like(any(), eq("%tempe%"));
+        verify(path).in(List.of("PASSED", "REJECTED"));
+        verify(cb).equal(path, "Snack");
+    }
+
+    @Test
+    @DisplayName("Search/kategori blank dan status ALL diabaikan")
+    void matching_nilai_kosong_diabaikan() {
+        ProductFilter filter = new ProductFilter();
+        filter.setSearch(" ");
+        filter.setCategory("");
+        filter.setStatus(List.of("all"));
+
+        apply(filter);
+
+        verify(cb, never()).like(any(), anyString());
+        verify(path, never()).in(any(List.class));
+        verify(cb).equal(path, userId);
+    }
+
+    @Test
+    @DisplayName("Rentang tanggal produksi, kedaluwarsa, dibuat, dan kedaluwarsa dalam N hari")
+    void matching_rentang_tanggal() {
+        ProductFilter filter = new ProductFilter();
+        filter.setProductionFrom(LocalDate.of(2025, 1, 1));
+        filter.setProductionTo(LocalDate.of(2025, 1, 31));
+        filter.setExpiryTo(LocalDate.of(2025, 12, 31));
+        filter.setExpiringWithinDays(7);
+        filter.setCreatedFrom(LocalDate.of(2025, 2, 1));
+        filter.setCreatedTo(LocalDate.of(2025, 2, 28));
+
+        apply(filter);
+
+        verify(cb).greaterThanOrEqualTo(any(), eq(LocalDate.of(2025, 1, 1)));
+        verify(cb).lessThanOrEqualTo(any(), eq(LocalDate.of(2025, 1, 31)));
+        verify(cb).lessThanOrEqualTo(any(), eq(LocalDate.of(2025, 12, 31)));
+        verify(cb).between(any(), eq(today),
+                eq(LocalDate.of(2025, 6, 8)));
+        verify(cb).greaterThanOrEqualTo(any(), eq(LocalDate.of(2025, 2, 1).atStartOfDay()));
+        verify(cb).lessThan(any(), eq(LocalDate.of(2025, 3, 1).atStartOfDay()));
+    }
+
+    @Test
+    @DisplayName("Sort default terbaru dulu, id sebagai tie-breaker")
+    void sort_default() {
+        Sort expected = Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by("id"));
+
+        assertEquals(expected, FoodProductSpecifications.sort(null));
+        assertEquals(expected, FoodProductSpecifications.sort(" "));
+    }
+
+    @Test
+    @DisplayName("Sort ascending dan descending dengan awalan -")
+    void sort_arah() {
+        assertEquals(Sort.by("expiryDate").and(Sort.by("id")), FoodProductSpecifications.sort("expiryDate"));
+        assertEquals(Sort.by(Sort.Direction.DESC, "productName").and(Sort.by("id")),
+                FoodProductSpecifications.sort(" -productName "));
+    }
+
+    @Test
+    @DisplayName("Sort di luar whitelist ditolak")
+    void sort_tidak_dikenal() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> FoodProductSpecifications.sort("-password"));
+        assertEquals("Sort tidak dikenal: password", e.getMessage());
+    }
+}
@@ -0,0 +1,155 @@
+package org.delcom.app.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.delcom.app.entities.FoodProduct;
+import org.hibernate.jpa.HibernateHints;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+class FoodQualityRepositoryImplTests {
+
+    private FoodQualityRepositoryImpl repository;
+    private EntityManager entityManager;
+    private CriteriaBuilder cb;
+    private CriteriaQuery<Tuple> query;
+    private Root<FoodProduct> root;
+    private Path<Object> path;
+    private TypedQuery<Tuple> typedQuery;
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID productId = UUID.randomUUID();
+    private final List<String> fields = List.of("id", "productName");
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        entityManager = mock(EntityManager.class);
+        cb = mock(CriteriaBuilder.class);
+        query = mock(CriteriaQuery.class);
+        root = mock(Root.class);
+        path = mock(Path.class);
+        typedQuery = mock(TypedQuery.class);
+
+        when(entityManager.getCriteriaBuilder()).thenReturn(cb);
+        when(cb.createTupleQuery()).thenReturn(query);
+        when(query.from(FoodProduct.class)).thenReturn(root);
+        when(root.get(anyString())).thenReturn(path);
+        when(path.alias(anyString())).thenReturn((Selection<Object>) mock(Selection.class));
+        when(entityManager.createQuery(query)).thenReturn(typedQuery);
+
+        repository = new FoodQualityRepositoryImpl();
+        ReflectionTestUtils.setField(repository, "entityManager", entityManager);
+    }
+
+    private Tuple tuple(String name) {
+        Tuple tuple = mock(Tuple.class);
+        when(tuple.get("id")).thenReturn(productId);
+        when(tuple.get("productName")).thenReturn(name);
+        return tuple;
+    }
+
+    @Test
+    @DisplayName("Hanya field yang diminta yang masuk ke SELECT, urutan dipertahankan")
+    @SuppressWarnings("unchecked")
+    void findFields_select_dan_where() {
+        Specification<FoodProduct> spec = mock(Specification.class);
+        Predicate predicate = mock(Predicate.class);
+        when(spec.toPredicate(root, query, cb)).thenReturn(predicate);
+        when(typedQuery.getResultList()).thenReturn(List.of(tuple("Keripik Tempe")));
+
+        List<Map<String, Object>> rows = repository.findFields(spec, Sort.unsorted(), fields);
+
+        assertEquals(1, rows.size());
+        assertEquals(List.of("id", "productName"), List.copyOf(rows.get(0).keySet()));
+        assertEquals("Keripik Tempe", rows.get(0).get("productName"));
+        verify(query).multiselect(any(List.class));
+        verify(query).where(predicate);
+        verify(query).orderBy(List.of());
+        verify(path).alias("id");
+        verify(path).alias("productName");
+    }
+
+    @Test
+    @DisplayName("Sort diterjemahkan ke ORDER BY asc/desc sesuai urutan")
+    @SuppressWarnings("unchecked")
+    void findFields_order_by() {
+        Order desc = mock(Order.class);
+        Order asc = mock(Order.class);
+        when(cb.desc(path)).thenReturn(desc);
+        when(cb.asc(path)).thenReturn(asc);
+        when(typedQuery.getResultList()).thenReturn(List.of());
+
+        assertTrue(repository.findFields(mock(Specification.class),
+                Sort.by(Sort.Direction.DESC, "expiryDate").and(Sort.by("id")), fields).isEmpty());
+
+        verify(query).orderBy(List.of(desc, asc));
+        verify(root).get("expiryDate");
+    }
+
+    @Test
+    @DisplayName("Cursor: fetch size & read-only diset, setiap produk dilepas setelah diproses")
+    @SuppressWarnings("unchecked")
+    void forEachMatching_cursor() {
+        CriteriaQuery<FoodProduct> productQuery = mock(CriteriaQuery.class);
+        TypedQuery<FoodProduct> typedProducts = mock(TypedQuery.class);
+        FoodProduct first = new FoodProduct();
+        FoodProduct second = new FoodProduct();
+        when(cb.createQuery(FoodProduct.class)).thenReturn(productQuery);
+        when(productQuery.from(FoodProduct.class)).thenReturn(root);
+        when(entityManager.createQuery(productQuery)).thenReturn(typedProducts);
+        when(typedProducts.setHint(anyString(), any())).thenReturn(typedProducts);
+        when(typedProducts.getResultStream()).thenReturn(Stream.of(first, second));
+
+        List<FoodProduct> seen = new ArrayList<>();
+        repository.forEachMatching(mock(Specification.class), Sort.by("productName"), seen::add);
+
+        assertEquals(List.of(first, second), seen);
+        verify(typedProducts).setHint(HibernateHints.HINT_FETCH_SIZE, FoodQualityRepositoryImpl.STREAM_FETCH_SIZE);
+        verify(typedProducts).setHint(HibernateHints.HINT_READ_ONLY, true);
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+        verify(cb).asc(path);
+    }
+
+    @Test
+    @DisplayName("Detail dengan field terpilih: ditemukan dan tidak ditemukan")
+    void findFieldsByIdAndUserId() {
+        Tuple tuple = tuple("Susu UHT");
+        when(typedQuery.getResultStream()).thenReturn(Stream.of(tuple), Stream.empty());
+
+        Optional<Map<String, Object>> found = repository.findFieldsByIdAndUserId(productId, userId, fields);
+        assertEquals("Susu UHT", found.orElseThrow().get("productName"));
+        assertEquals(productId, found.orElseThrow().get("id"));
+
+        assertTrue(repository.findFieldsByIdAndUserId(productId, userId, fields).isEmpty());
+    }
+}
@@ -0,0 +1,76 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AccessLogBufferTests {
+
+    @Test
+    @DisplayName("Kapasitas dibulatkan ke pangkat dua")
+    void capacity_pangkat_dua() {
+        assertEquals(2, new AccessLogBuffer<String>(1).capacity());
+        assertEquals(2, new AccessLogBuffer<String>(2).capacity());
+        assertEquals(8, new AccessLogBuffer<String>(5).capacity());
+        assertEquals(8, new AccessLogBuffer<String>(8).capacity());
+        assertEquals(16, new AccessLogBuffer<String>(9).capacity());
+    }
+
+    @Test
+    @DisplayName("FIFO, offer ditolak saat penuh, slot bisa dipakai ulang setelah poll")
+    void offer_poll_fifo() {
+        AccessLogBuffer<String> buffer = new AccessLogBuffer<>(2);
+
+        assertNull(buffer.poll());
+        assertTrue(buffer.offer("a"));
+        assertTrue(buffer.offer("b"));
+        assertFalse(buffer.offer("c"));
+
+        assertEquals("a", buffer.poll());
+        assertTrue(buffer.offer("d"));
+        assertEquals("b", buffer.poll());
+        assertEquals("d", buffer.poll());
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    @DisplayName("Banyak producer bersamaan: tidak ada entri yang hilang atau ganda")
+    void offer_banyak_producer() throws Exception {
+        AccessLogBuffer<Integer> buffer = new AccessLogBuffer<>(64);
+        int producers = 8;
+        int perProducer = 20_000;
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    if (!buffer.offer(base + i)) {
+                        rejected.incrementAndGet();
+                    }
+                }
+            }));
+        }
+
+        boolean[] seen = new boolean[producers * perProducer];
+        int received = 0;
+        while (threads.stream().anyMatch(Thread::isAlive) || received + rejected.get() < seen.length) {
+            Integer value = buffer.poll();
+            if (value != null) {
+                assertFalse(seen[value]);
+                seen[value] = true;
+                received++;
+            }
+        }
+        assertEquals(seen.length, received + rejected.get());
+    }
+}
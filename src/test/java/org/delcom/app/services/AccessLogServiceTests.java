@@ -0,0 +1,263 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.delcom.app.services.AccessLogService.AccessLogStats;
+import org.delcom.app.services.AccessLogService.Entry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.method.HandlerMethod;
+
+class AccessLogServiceTests {
+
+    @TempDir
+    Path tempDir;
+
+    private static Entry entry(String uri) {
+        return new Entry(0L, "GET", uri, 200, 1_500_000L, null, "127.0.0.1", null, null);
+    }
+
+    @Test
+    @DisplayName("Entri ditulis sebagai satu baris JSON per request")
+    void log_menulis_json_lines() throws Exception {
+        Path file = tempDir.resolve("logs/access.log");
+        AccessLogService service = new AccessLogService(file.toString(), 1_000_000, 3, 16);
+        service.start();
+
+        service.log(entry("/api/food-products"));
+        service.log(entry("/api/users/me"));
+        service.stop();
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        assertEquals("{\"ts\":\"1970-01-01T00:00:00Z\",\"method\":\"GET\",\"uri\":\"/api/food-products\","
+                + "\"status\":200,\"duration_us\":1500,\"handler\":null,\"remote\":\"127.0.0.1\","
+                + "\"request_id\":null,\"timing\":null}", lines.get(0));
+
+        AccessLogStats stats = service.getStats();
+        assertEquals(2, stats.written());
+        assertEquals(0, stats.dropped());
+        assertEquals(16, stats.bufferCapacity());
+        assertEquals(file.toString(), stats.target());
+    }
+
+    @Test
+    @DisplayName("File dirotasi saat melebihi batas, file tertua dihapus")
+    void log_rotasi_file() throws Exception {
+        Path file = tempDir.resolve("access.log");
+        Files.writeString(file, "baris lama\n");
+        AccessLogService service = new AccessLogService(file.toString(), 200, 2, 64);
+        service.start();
+
+        for (int i = 0; i < 8; i++) {
+            service.log(entry("/api/food-products/" + i));
+        }
+        service.stop();
+
+        assertTrue(Files.exists(file));
+        assertTrue(Files.exists(tempDir.resolve("access.log.1")));
+        assertTrue(Files.exists(tempDir.resolve("access.log.2")));
+        assertFalse(Files.exists(tempDir.resolve("access.log.3")));
+        assertTrue(Files.readString(file).contains("/api/food-products/7"));
+        assertEquals(8, service.getStats().written());
+    }
+
+    @Test
+    @DisplayName("Tanpa file, access log ditulis ke stdout")
+    void log_ke_stdout() throws Exception {
+        PrintStream original = System.out;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out, true));
+        try {
+            AccessLogService service = new AccessLogService(" ", 10, 1, 16);
+            service.start();
+            service.log(entry("/api/stdout"));
+            service.log(entry("/api/stdout-2"));
+            service.stop();
+            assertEquals("stdout", service.getStats().target());
+        } finally {
+            System.setOut(original);
+        }
+        assertTrue(out.toString().contains("\"uri\":\"/api/stdout-2\""));
+    }
+
+    @Test
+    @DisplayName("Buffer penuh: entri dibuang dan dihitung, request tidak menunggu")
+    void log_buffer_penuh() throws Exception {
+        AccessLogService service = new AccessLogService(tempDir.resolve("a.log").toString(), 10, 1, 2);
+
+        service.log(entry("/1"));
+        service.log(entry("/2"));
+        service.log(entry("/3"));
+        assertEquals(1, service.getStats().dropped());
+
+        service.start();
+        service.stop();
+        assertEquals(2, service.getStats().written());
+        assertTrue(Files.exists(tempDir.resolve("a.log.1")));
+    }
+
+    @Test
+    @DisplayName("File tidak bisa dibuat: entri ditulis ke stdout, writer tetap jalan")
+    void log_gagal_membuka_file() throws Exception {
+        Path notDirectory = Files.writeString(tempDir.resolve("bukan-folder"), "x");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AccessLogService service = withStdout(out,
+                () -> new AccessLogService(notDirectory.resolve("access.log").toString(), 10, 1, 2));
+
+        service.start();
+        service.log(entry("/api/food-products"));
+        service.stop();
+
+        assertEquals(1, service.getStats().written());
+        assertEquals("stdout", service.getStats().target());
+        assertTrue(out.toString().contains("\"uri\":\"/api/food-products\""));
+    }
+
+    @Test
+    @DisplayName("Rotasi gagal: entri berikutnya ke stdout, writer tidak mati")
+    void log_rotasi_gagal() throws Exception {
+        Path file = tempDir.resolve("access.log");
+        Files.writeString(file, "x".repeat(300));
+        // access.log.1 berupa folder berisi file, jadi tidak bisa dihapus saat rotasi
+        Files.createDirectories(tempDir.resolve("access.log.1"));
+        Files.writeString(tempDir.resolve("access.log.1/isi"), "x");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AccessLogService service = withStdout(out, () -> new AccessLogService(file.toString(), 200, 1, 16));
+
+        service.start();
+        service.log(entry("/api/rotasi-1"));
+        service.log(entry("/api/rotasi-2"));
+        service.log(entry("/api/rotasi-3"));
+        service.stop();
+
+        assertEquals(3, service.getStats().written());
+        assertEquals("stdout", service.getStats().target());
+        assertTrue(out.toString().contains("\"uri\":\"/api/rotasi-1\""));
+        assertTrue(out.toString().contains("\"uri\":\"/api/rotasi-3\""));
+    }
+
+    @Test
+    @DisplayName("File dibuka ulang setelah backoff, jeda berlipat jika masih gagal")
+    void log_pulih_setelah_backoff() throws Exception {
+        Path file = tempDir.resolve("access.log");
+        AtomicInteger attempts = new AtomicInteger();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AccessLogService service = withStdout(out, () -> new AccessLogService(file.toString(), 1_000_000, 1, 16) {
+            @Override
+            Writer openWriter() throws IOException {
+                if (attempts.incrementAndGet() <= 2) {
+                    throw new IOException("disk penuh");
+                }
+                return super.openWriter();
+            }
+        });
+        service.retryMinNanos = 0;
+
+        service.start();
+        service.log(entry("/api/gagal"));
+        service.log(entry("/api/pulih"));
+        service.stop();
+
+        assertEquals(3, attempts.get());
+        assertEquals(file.toString(), service.getStats().target());
+        assertTrue(out.toString().contains("\"uri\":\"/api/gagal\""));
+        assertTrue(Files.readString(file).contains("\"uri\":\"/api/pulih\""));
+    }
+
+    @Test
+    @DisplayName("Tulis dan tutup file gagal: entri tetap masuk stdout")
+    void log_gagal_menulis() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AccessLogService service = withStdout(out,
+                () -> new AccessLogService(tempDir.resolve("access.log").toString(), 1_000_000, 1, 16) {
+                    @Override
+                    Writer openWriter() {
+                        return new Writer() {
+                            @Override
+                            public void write(char[] buffer, int offset, int length) throws IOException {
+                                throw new IOException("disk penuh");
+                            }
+
+                            @Override
+                            public void flush() throws IOException {
+                                throw new IOException("disk penuh");
+                            }
+
+                            @Override
+                            public void close() throws IOException {
+                                throw new IOException("disk penuh");
+                            }
+                        };
+                    }
+                });
+
+        service.start();
+        service.log(entry("/api/food-products"));
+        service.stop();
+
+        assertEquals(1, service.getStats().written());
+        assertTrue(out.toString().contains("\"uri\":\"/api/food-products\""));
+    }
+
+    // Writer stdout dibuat di konstruktor, jadi System.out diganti sebelum service dibuat
+    private static AccessLogService withStdout(ByteArrayOutputStream out, Supplier<AccessLogService> factory) {
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(out, true));
+        try {
+            return factory.get();
+        } finally {
+            System.setOut(original);
+        }
+    }
+
+    @Test
+    @DisplayName("Format: karakter khusus di-escape, nama handler dari HandlerMethod")
+    void format_escape_dan_handler() throws Exception {
+        HandlerMethod handler = new HandlerMethod(new AccessLogServiceTests(),
+                AccessLogServiceTests.class.getDeclaredMethod("format_escape_dan_handler"));
+
+        String line = AccessLogService.format(
+                new Entry(0L, "GET", "/a\"b\\c\u0001", 404, 999L, handler, null, null, null));
+
+        assertTrue(line.contains("\"uri\":\"/a\\\"b\\\\c\\u0001\""));
+        assertTrue(line.contains("\"handler\":\"AccessLogServiceTests.format_escape_dan_handler\""));
+        assertTrue(line.contains("\"duration_us\":0"));
+        assertTrue(line.contains("\"remote\":null"));
+        assertTrue(line.contains("\"request_id\":null,\"timing\":null"));
+        assertTrue(line.endsWith("}\n"));
+
+        assertEquals("String", AccessLogService.handlerName("resource"));
+        assertNull(AccessLogService.handlerName(null));
+    }
+
+    @Test
+    @DisplayName("Format: correlation ID dan rincian fase RequestTiming")
+    void format_requestId_dan_timing() {
+        RequestTiming timing = RequestTiming.start();
+        RequestTiming.recordQuery(2_000_000L);
+        timing.finish();
+        RequestTiming.clear();
+
+        String line = AccessLogService.format(
+                new Entry(0L, "GET", "/", 200, 999L, null, "127.0.0.1", "req-1", timing));
+
+        assertTrue(line.contains("\"request_id\":\"req-1\""));
+        assertTrue(line.contains("\"timing\":{\"auth_ms\":0.000,\"db_ms\":2.000,\"db_queries\":1,"));
+        assertTrue(line.endsWith("}}\n"));
+    }
+}
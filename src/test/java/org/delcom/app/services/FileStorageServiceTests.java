@@ -1,5 +1,6 @@
 package org.delcom.app.services;
 
+import org.delcom.app.utils.ShardedPathUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -51,8 +52,8 @@ class FileStorageServiceTests {
         // Assert
         assertEquals(expectedFilename, result);
 
-        // Verify file actually exists and content is correct
-        Path expectedFile = tempDir.resolve(expectedFilename);
+        // Verify file actually exists (di direktori shard) and content is correct
+        Path expectedFile = ShardedPathUtil.shardedPath(tempDir, expectedFilename);
         assertTrue(Files.exists(expectedFile));
         assertArrayEquals(fileContent, Files.readAllBytes(expectedFile));
     }
@@ -73,7 +74,7 @@ class FileStorageServiceTests {
 
         // Assert
         assertEquals(expectedFilename, result);
-        assertTrue(Files.exists(tempDir.resolve(expectedFilename)));
+        assertTrue(Files.exists(ShardedPathUtil.shardedPath(tempDir, expectedFilename)));
     }
 
     @Test
@@ -92,7 +93,7 @@ class FileStorageServiceTests {
 
         // Assert
         assertEquals(expectedFilename, result);
-        assertTrue(Files.exists(tempDir.resolve(expectedFilename)));
+        assertTrue(Files.exists(ShardedPathUtil.shardedPath(tempDir, expectedFilename)));
     }
 
     @Test
@@ -112,7 +113,7 @@ class FileStorageServiceTests {
 
         // Assert
         assertEquals(expectedFilename, result);
-        assertTrue(Files.exists(tempDir.resolve(expectedFilename)));
+        assertTrue(Files.exists(ShardedPathUtil.shardedPath(tempDir, expectedFilename)));
     }
 
     @Test
@@ -132,7 +133,7 @@ class FileStorageServiceTests {
         // Assert
         assertTrue(Files.exists(customUploadDir));
         assertTrue(Files.isDirectory(customUploadDir));
-        assertTrue(Files.exists(customUploadDir.resolve(result)));
+        assertTrue(Files.exists(ShardedPathUtil.shardedPath(customUploadDir, result)));
     }
 
     @Test
@@ -185,7 +186,7 @@ class FileStorageServiceTests {
     void deleteFile_return_false_ketika_ioexception() throws Exception {
         // Arrange
         String filename = "test-file.txt";
-        Path filePath = Paths.get(fileStorageService.uploadDir).resolve(filename);
+        Path filePath = ShardedPathUtil.shardedPath(Paths.get(fileStorageService.uploadDir), filename);
 
         // Mock Files class untuk melemparkan IOException
         try (MockedStatic<Files> filesMock = mockStatic(Files.class)) {
@@ -205,7 +206,7 @@ class FileStorageServiceTests {
     void loadFile_return_path_yang_benar() {
         // Arrange
         String filename = "test-file.txt";
-        Path expectedPath = tempDir.resolve(filename);
+        Path expectedPath = ShardedPathUtil.shardedPath(tempDir, filename);
 
         // Act
         Path result = fileStorageService.loadFile(filename);
@@ -214,6 +215,19 @@ class FileStorageServiceTests {
         assertEquals(expectedPath, result);
     }
 
+    @Test
+    @DisplayName("Load file tetap menemukan file lama di layout flat")
+    void loadFile_menemukan_file_flat() throws Exception {
+        // Arrange
+        String filename = "legacy-file.txt";
+        Path flatFile = tempDir.resolve(filename);
+        Files.write(flatFile, "content".getBytes());
+
+        // Act & Assert
+        assertEquals(flatFile, fileStorageService.loadFile(filename));
+        assertTrue(fileStorageService.fileExists(filename));
+    }
+
     @Test
     @DisplayName("File exists return true ketika file ada")
     void fileExists_return_true_ketika_file_ada() throws Exception {
@@ -250,7 +264,7 @@ class FileStorageServiceTests {
         String originalFilename = "test.txt";
         String expectedFilename = "cover_" + todoId + ".txt";
 
-        // Create existing file with different content
+        // Create existing file (layout flat lama) with different content
         Path existingFile = tempDir.resolve(expectedFilename);
         Files.write(existingFile, "old content".getBytes());
 
@@ -262,8 +276,9 @@ class FileStorageServiceTests {
         // Act
         String result = fileStorageService.storeFile(mockMultipartFile, todoId);
 
-        // Assert
+        // Assert: file baru di shard, salinan flat lama dihapus
         assertEquals(expectedFilename, result);
-        assertArrayEquals(newContent, Files.readAllBytes(existingFile));
+        assertArrayEquals(newContent, Files.readAllBytes(fileStorageService.loadFile(expectedFilename)));
+        assertFalse(Files.exists(existingFile));
     }
 }
\ No newline at end of file
@@ -4,16 +4,27 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
+    import org.delcom.app.dto.BatchOperationForm;
     import org.delcom.app.dto.FoodProductForm;
+    import org.delcom.app.dto.ProductFilter;
     import org.delcom.app.dto.ProductImageForm;
+    import org.delcom.app.dto.StatusTransitionForm;
     import org.delcom.app.entities.FoodProduct;
 import org.delcom.app.repositories.FoodQualityRepository;
+import org.delcom.app.utils.ShardedPathUtil;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -24,19 +35,42 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 
 @ExtendWith(MockitoExtension.class)
 class FoodQualityServiceTest {
@@ -44,6 +78,29 @@ class FoodQualityServiceTest {
     @Mock
     private FoodQualityRepository foodQualityRepository;
 
+    private static final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ImageIngestService imageIngestService = new ImageIngestService(1920, 0.82f);
+
+    @Spy
+    private UploadAdmissionService uploadAdmissionService = new UploadAdmissionService(4, 16, 1000, 5);
+
+    @Mock
+    private ResourceVersionService resourceVersionService;
+
+    @Mock
+    private InspectionEventService inspectionEventService;
+
+    @Spy
+    private MetricsService metricsService = new MetricsService(meterRegistry);
+
+    @Spy
+    private ImageCacheService imageCacheService = new ImageCacheService(1 << 20, 1 << 20);
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private FoodQualityService foodQualityService;
 
@@ -244,6 +301,7 @@ class FoodQualityServiceTest {
 
         assertNotNull(updated);
         assertTrue(updated.getProductImage().contains("new.jpg"));
+        assertEquals(4L, updated.getImageSize());
         verify(foodQualityRepository).save(product);
     }
 
@@ -313,15 +371,20 @@ class FoodQualityServiceTest {
     }
 
     @Test
-    @DisplayName("Update Product Image Only - Not Found")
-    void testUpdateProductImage_NotFound() {
+    @DisplayName("Update Product Image Only - Not Found (foto yang sudah diproses dibuang)")
+    void testUpdateProductImage_NotFound() throws IOException {
+        ReflectionTestUtils.setField(foodQualityService, "UPLOAD_DIR", uploadRoot.toString());
         ProductImageForm imageForm = new ProductImageForm();
         imageForm.setId(productId);
+        imageForm.setImageFile(new MockMultipartFile("imageFile", "orphan.jpg", "image/jpeg", "data".getBytes()));
 
         when(foodQualityRepository.findByIdAndUserId(productId, userId)).thenReturn(Optional.empty());
 
         boolean result = foodQualityService.updateProductImage(userId, imageForm);
         assertFalse(result);
+        try (var files = Files.walk(uploadRoot)) {
+            assertEquals(0, files.filter(Files::isRegularFile).count());
+        }
     }
 
     @Test
@@ -331,10 +394,9 @@ class FoodQualityServiceTest {
         imageForm.setId(productId);
         imageForm.setImageFile(null); // Kosong
 
-        when(foodQualityRepository.findByIdAndUserId(productId, userId)).thenReturn(Optional.of(product));
-
         boolean result = foodQualityService.updateProductImage(userId, imageForm);
         assertFalse(result);
+        verify(foodQualityRepository, never()).findByIdAndUserId(any(), any());
         verify(foodQualityRepository, never()).save(any());
     }
 
@@ -435,43 +497,906 @@ class FoodQualityServiceTest {
         }
     }
         @Test
-    @DisplayName("Init - Fail to Initialize Storage (Force IOException)")
-    void testInit_Failure() throws IOException {
+    @DisplayName("Init - Constructor tidak menyentuh filesystem (direktori dibuat saat file pertama disimpan)")
+    void testInit_NoFilesystemAccess() throws IOException {
         // 1. Tentukan path default (sesuai variabel UPLOAD_DIR di service, biasanya "uploads")
         Path conflictPath = Paths.get("uploads");
 
         // Bersihkan dulu jika ada sisa folder dari test lain
         if (Files.exists(conflictPath) && Files.isDirectory(conflictPath)) {
-            // Hapus folder uploads agar kita bisa menempatkan file jebakan
-            // Note: Hati-hati, ini menghapus folder uploads asli di project saat test jalan
             Files.walk(conflictPath)
                  .sorted(Comparator.reverseOrder())
                  .map(Path::toFile)
                  .forEach(java.io.File::delete);
         }
 
-        // 2. Buat FILE (bukan folder) dengan nama "uploads"
-        // Ini adalah "Jebakan". Saat service mencoba Files.createDirectories("uploads"),
-        // dia akan gagal karena nama "uploads" sudah dipakai oleh file ini.
+        // 2. Buat FILE (bukan folder) dengan nama "uploads": createDirectories pasti gagal
         if (!Files.exists(conflictPath)) {
             Files.createFile(conflictPath);
         }
 
         try {
-            // 3. Action & Assert
-            // Saat kita new FoodQualityService(), dia memanggil init() -> createDirectories()
-            // Karena ada file "uploads", dia akan throw IOException -> ditangkap catch -> throw RuntimeException
-            RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-                new FoodQualityService(foodQualityRepository);
-            });
+            // 3. Constructor tetap berhasil (startup tidak menunggu I/O disk);
+            // kegagalan baru muncul saat foto pertama disimpan
+            FoodQualityService lazyService = assertDoesNotThrow(() -> new FoodQualityService(
+                    foodQualityRepository, imageIngestService, uploadAdmissionService,
+                    resourceVersionService, inspectionEventService, metricsService, imageCacheService,
+                    transactionManager));
+            productForm.setImageFile(new MockMultipartFile(
+                    "imageFile", "test.jpg", MediaType.IMAGE_JPEG_VALUE, "content".getBytes()));
+
+            RuntimeException exception = assertThrows(RuntimeException.class,
+                    () -> lazyService.createProduct(userId, productForm));
+            assertTrue(exception.getMessage().contains("Failed to store file"));
+        } finally {
+            // 4. CLEANUP: hapus file jebakan agar tidak mengganggu test lain
+            Files.deleteIfExists(conflictPath);
+        }
+    }
 
-            // Pastikan pesan error sesuai dengan yang ada di blok catch (Baris 40)
-            assertTrue(exception.getMessage().contains("Could not initialize storage"));
+    // =========================================================================
+    // 9. TEST ADMISSION & ASYNC IMAGE PROCESSING
+    // =========================================================================
+
+    @TempDir
+    Path uploadRoot;
+
+    private void enableAsync() {
+        ReflectionTestUtils.setField(foodQualityService, "UPLOAD_DIR", uploadRoot.toString());
+        ReflectionTestUtils.setField(foodQualityService, "asyncImageProcessing", true);
+    }
+
+    private static void awaitImageStatus(FoodProduct product, String status) throws InterruptedException {
+        for (int i = 0; i < 200 && !status.equals(product.getImageStatus()); i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void awaitSpoolCleared() throws Exception {
+        for (int i = 0; i < 200; i++) {
+            try (var files = Files.list(uploadRoot.resolve(".incoming"))) {
+                if (files.count() == 0) {
+                    return;
+                }
+            }
+            Thread.sleep(10);
+        }
+    }
 
+    @Test
+    @DisplayName("Operasi produk tercatat sebagai event JFR")
+    void testProductOperation_JfrEvent() throws Exception {
+        when(foodQualityRepository.findByIdAndUserId(productId, userId)).thenReturn(Optional.of(product));
+        Path file = uploadRoot.resolve("product-operation.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable("org.delcom.ProductOperation").withThreshold(Duration.ZERO);
+            recording.start();
+            foodQualityService.getProductById(userId, productId);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        RecordedEvent event = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals("org.delcom.ProductOperation"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("read", event.getString("operation"));
+        assertEquals(productId.toString(), event.getString("productId"));
+        assertTrue(event.getBoolean("found"));
+    }
+
+    @Test
+    @DisplayName("Upload sinkron ditolak saat slot dan antrean penuh")
+    void testStoreFile_Rejected() {
+        FoodQualityService busyService = new FoodQualityService(
+                foodQualityRepository, imageIngestService, new UploadAdmissionService(0, 0, 10, 7),
+                resourceVersionService, inspectionEventService, metricsService, imageCacheService,
+                transactionManager);
+        productForm.setImageFile(new MockMultipartFile(
+                "imageFile", "test.jpg", MediaType.IMAGE_JPEG_VALUE, "content".getBytes()));
+
+        UploadRejectedException exception = assertThrows(UploadRejectedException.class,
+                () -> busyService.createProduct(userId, productForm));
+
+        assertEquals(7, exception.getRetryAfterSeconds());
+        verify(foodQualityRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Upload sinkron menandai foto READY")
+    void testCreateProduct_SyncImageReady() {
+        productForm.setImageFile(new MockMultipartFile(
+                "imageFile", "test.jpg", MediaType.IMAGE_JPEG_VALUE, "content".getBytes()));
+        when(foodQualityRepository.save(any(FoodProduct.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        RequestTiming timing = RequestTiming.start();
+        FoodProduct created;
+        try {
+            created = foodQualityService.createProduct(userId, productForm);
         } finally {
-            // 4. CLEANUP (Sangat Penting!)
-            // Hapus file jebakan agar tidak mengganggu test lain atau aplikasi asli
-            Files.deleteIfExists(conflictPath);
+            RequestTiming.clear();
+        }
+
+        assertFalse(foodQualityService.isAsyncImageProcessing());
+        assertEquals(FoodProduct.IMAGE_STATUS_READY, created.getImageStatus());
+        assertEquals(0, uploadAdmissionService.getStats().active());
+        verify(metricsService).recordUpload(eq(7L), anyLong());
+        // Penyimpanan file masuk fase file Server-Timing
+        assertTrue(timing.nanos(RequestTiming.Phase.FILE) > 0);
+    }
+
+    @Test
+    @DisplayName("Mode async: create langsung kembali dengan status PROCESSING lalu selesai di background")
+    void testCreateProduct_AsyncProcessing() throws Exception {
+        enableAsync();
+        productForm.setImageFile(new MockMultipartFile(
+                "imageFile", "test.jpg", MediaType.IMAGE_JPEG_VALUE, "content".getBytes()));
+        when(foodQualityRepository.save(any(FoodProduct.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(foodQualityRepository.findById(any())).thenReturn(Optional.of(product));
+
+        FoodProduct created = foodQualityService.createProduct(userId, productForm);
+
+        assertTrue(foodQualityService.isAsyncImageProcessing());
+        assertEquals(FoodProduct.IMAGE_STATUS_PROCESSING, created.getImageStatus());
+        assertNull(created.getProductImage());
+
+        awaitImageStatus(product, FoodProduct.IMAGE_STATUS_READY);
+        assertEquals(FoodProduct.IMAGE_STATUS_READY, product.getImageStatus());
+        assertNotNull(product.getProductImage());
+        awaitSpoolCleared();
+        try (var files = Files.list(uploadRoot.resolve(".incoming"))) {
+            assertEquals(0, files.count(), "File spool harus dihapus setelah diproses");
+        }
+    }
+
+    @Test
+    @DisplayName("Mode async: foto yang gagal diproses ditandai FAILED")
+    void testUpdateProductImage_AsyncFailed() throws Exception {
+        enableAsync();
+        doThrow(new IOException("Disk Error")).when(imageIngestService).ingest(any(), any(), any());
+        when(foodQualityRepository.findByIdAndUserId(productId, userId)).thenReturn(Optional.of(product));
+        when(foodQualityRepository.findById(productId)).thenReturn(Optional.of(product));
+
+        ProductImageForm form = new ProductImageForm();
+        form.setId(productId);
+        form.setImageFile(new MockMultipartFile(
+                "imageFile", "test.jpg", MediaType.IMAGE_JPEG_VALUE, "content".getBytes()));
+
+        assertTrue(foodQualityService.updateProductImage(userId, form));
+
+        awaitImageStatus(product, FoodProduct.IMAGE_STATUS_FAILED);
+        assertEquals(FoodProduct.IMAGE_STATUS_FAILED, product.getImageStatus());
+        awaitSpoolCleared();
+    }
+
+    @Test
+    @DisplayName("Mode async: pemrosesan menunggu commit, rollback membuang file spool")
+    void testUpdateProduct_AsyncAfterCommit() throws Exception {
+        enableAsync();
+        when(foodQualityRepository.findByIdAndUserId(productId, userId)).thenReturn(Optional.of(product));
+        when(foodQualityRepository.save(any(FoodProduct.class))).thenReturn(product);
+        productForm.setImageFile(new MockMultipartFile(
+                "imageFile", "test.jpg", MediaType.IMAGE_JPEG_VALUE, "content".getBytes()));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            foodQualityService.updateProduct(userId, productId, productForm);
+            assertEquals(1, uploadAdmissionService.getStats().waiting());
+
+            for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+                sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(0, uploadAdmissionService.getStats().waiting());
+        try (var files = Files.list(uploadRoot.resolve(".incoming"))) {
+            assertEquals(0, files.count());
+        }
+        verify(foodQualityRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Mode async: pemrosesan dijalankan setelah commit")
+    void testUpdateProduct_AsyncCommitted() throws Exception {
+        enableAsync();
+        when(foodQualityRepository.findByIdAndUserId(productId, userId)).thenReturn(Optional.of(product));
+        when(foodQualityRepository.save(any(FoodProduct.class))).thenReturn(product);
+        when(foodQualityRepository.findById(productId)).thenReturn(Optional.of(product));
+        productForm.setImageFile(new MockMultipartFile(
+                "imageFile", "test.jpg", MediaType.IMAGE_JPEG_VALUE, "content".getBytes()));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            foodQualityService.updateProduct(userId, productId, productForm);
+            assertEquals(FoodProduct.IMAGE_STATUS_PROCESSING, product.getImageStatus());
+
+            for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+                sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        awaitImageStatus(product, FoodProduct.IMAGE_STATUS_READY);
+        assertEquals(FoodProduct.IMAGE_STATUS_READY, product.getImageStatus());
+        awaitSpoolCleared();
+    }
+
+    @Test
+    @DisplayName("Mode async: gagal spool melepas tempat antrean")
+    void testCreateProduct_AsyncSpoolFailure() throws Exception {
+        enableAsync();
+        MultipartFile badFile = mock(MultipartFile.class);
+        when(badFile.isEmpty()).thenReturn(false);
+        when(badFile.getOriginalFilename()).thenReturn("test.jpg");
+        doThrow(new IOException("Disk Error")).when(badFile).transferTo(any(Path.class));
+        productForm.setImageFile(badFile);
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> foodQualityService.createProduct(userId, productForm));
+
+        assertTrue(exception.getMessage().contains("Failed to store file"));
+        assertEquals(0, uploadAdmissionService.getStats().waiting());
+    }
+
+    // =========================================================================
+    // 10. TEST VERSI KOLEKSI (ETAG)
+    // =========================================================================
+
+    @Test
+    @DisplayName("Setiap penulisan menaikkan versi koleksi user")
+    void testWrites_BumpCollectionVersion() {
+        when(resourceVersionService.collectionTag(userId)).thenReturn("v3");
+        when(foodQualityRepository.save(any(FoodProduct.class))).thenReturn(product);
+        when(foodQualityRepository.findByIdAndUserId(productId, userId)).thenReturn(Optional.of(product));
+
+        foodQualityService.createProduct(userId, productForm);
+        foodQualityService.updateProduct(userId, productId, productForm);
+        foodQualityService.deleteProduct(userId, productId);
+
+        verify(resourceVersionService, times(3)).bump(userId);
+        assertEquals("v3", foodQualityService.getCollectionVersion(userId));
+    }
+
+    @Test
+    @DisplayName("Versi koleksi naik di dalam transaksi penulisan, event SSE baru setelah commit")
+    void testWrites_BumpInsideTransaction() {
+        when(foodQualityRepository.save(any(FoodProduct.class))).thenReturn(product);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            foodQualityService.createProduct(userId, productForm);
+            // Kenaikan versi ikut transaksi, jadi rollback di database ikut membatalkannya
+            verify(resourceVersionService).bump(userId);
+            verify(inspectionEventService, never()).publish(any(), any(), any());
+
+            for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+                sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(inspectionEventService, never()).publish(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Get Product UpdatedAt - hanya membaca kolom updatedAt")
+    void testGetProductUpdatedAt() {
+        LocalDateTime updatedAt = LocalDateTime.now();
+        when(foodQualityRepository.findUpdatedAtByIdAndUserId(productId, userId)).thenReturn(Optional.of(updatedAt));
+
+        assertEquals(updatedAt, foodQualityService.getProductUpdatedAt(userId, productId));
+        verify(foodQualityRepository, never()).findByIdAndUserId(any(), any());
+    }
+
+    // =========================================================================
+    // 11. TEST SPARSE FIELDSET
+    // =========================================================================
+
+    @Test
+    @DisplayName("Parse fields: id selalu pertama, duplikat dan spasi diabaikan")
+    void testParseFields() {
+        assertEquals(List.of("id", "productName", "batchCode"),
+                FoodQualityService.parseFields(" productName, batchCode,,productName,id "));
+        assertEquals(List.of("id"), FoodQualityService.parseFields(""));
+    }
+
+    @Test
+    @DisplayName("Parse fields: field tidak dikenal ditolak")
+    void testParseFields_Unknown() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> FoodQualityService.parseFields("productName,password"));
+        assertEquals("Field tidak dikenal: password", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Find Products - filter dan sort diteruskan ke repository dalam satu query")
+    @SuppressWarnings("unchecked")
+    void testFindProducts() {
+        ProductFilter filter = new ProductFilter();
+        filter.setSort("-expiryDate");
+        filter.setExpiringWithinDays(7);
+        when(foodQualityRepository.findAll(any(Specification.class), any(Sort.class))).thenReturn(List.of(product));
+
+        assertEquals(List.of(product), foodQualityService.findProducts(userId, filter));
+
+        ArgumentCaptor<Sort> sort = ArgumentCaptor.forClass(Sort.class);
+        verify(foodQualityRepository).findAll(any(Specification.class), sort.capture());
+        assertEquals(Sort.Direction.DESC, sort.getValue().getOrderFor("expiryDate").getDirection());
+    }
+
+    @Test
+    @DisplayName("Find Product Fields - hanya kolom terpilih dengan filter yang sama")
+    @SuppressWarnings("unchecked")
+    void testFindProductFields() {
+        List<String> fields = List.of("id", "productName");
+        List<Map<String, Object>> rows = List.of(Map.of("id", productId, "productName", "Keripik Tempe"));
+        when(foodQualityRepository.findFields(any(Specification.class), any(Sort.class), eq(fields))).thenReturn(rows);
+
+        assertEquals(rows, foodQualityService.findProductFields(userId, new ProductFilter(), fields));
+    }
+
+    @Test
+    @DisplayName("Find Products - expiringWithinDays negatif dan sort tidak dikenal ditolak")
+    void testFindProducts_InvalidFilter() {
+        ProductFilter negative = new ProductFilter();
+        negative.setExpiringWithinDays(-1);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> foodQualityService.findProducts(userId, negative));
+        assertEquals("expiringWithinDays tidak boleh negatif", e.getMessage());
+
+        ProductFilter badSort = new ProductFilter();
+        badSort.setSort("password");
+        assertThrows(IllegalArgumentException.class,
+                () -> foodQualityService.findProductFields(userId, badSort, List.of("id")));
+        verifyNoInteractions(foodQualityRepository);
+    }
+
+    @Test
+    @DisplayName("Stream Products - cursor repository dipakai dengan filter dan sort yang sama")
+    @SuppressWarnings("unchecked")
+    void testStreamProducts() {
+        ProductFilter filter = new ProductFilter();
+        filter.setSort("productName");
+        List<FoodProduct> written = new ArrayList<>();
+        doAnswer(invocation -> {
+            Consumer<FoodProduct> action = invocation.getArgument(2);
+            action.accept(product);
+            return null;
+        }).when(foodQualityRepository).forEachMatching(any(Specification.class), eq(
+                Sort.by("productName").and(Sort.by("id"))), any());
+
+        foodQualityService.streamProducts(userId, filter, written::add);
+
+        assertEquals(List.of(product), written);
+    }
+
+    @Test
+    @DisplayName("Validate Filter - filter valid lolos, sort tidak dikenal ditolak")
+    void testValidateFilter() {
+        ProductFilter filter = new ProductFilter();
+        filter.setExpiringWithinDays(0);
+        FoodQualityService.validateFilter(filter);
+
+        filter.setSort("-password");
+        assertThrows(IllegalArgumentException.class, () -> FoodQualityService.validateFilter(filter));
+    }
+
+    @Test
+    @DisplayName("Get Product Fields By Id - Found & Not Found")
+    void testGetProductFieldsById() {
+        List<String> fields = List.of("id");
+        when(foodQualityRepository.findFieldsByIdAndUserId(productId, userId, fields))
+                .thenReturn(Optional.of(Map.of("id", productId)));
+
+        assertEquals(Map.of("id", productId), foodQualityService.getProductFieldsById(userId, productId, fields));
+
+        when(foodQualityRepository.findFieldsByIdAndUserId(productId, userId, fields)).thenReturn(Optional.empty());
+        assertNull(foodQualityService.getProductFieldsById(userId, productId, fields));
+    }
+
+    // =========================================================================
+    // 12. TEST BATCH
+    // =========================================================================
+
+    private static BatchOperationForm batchOp(String op, UUID id) {
+        BatchOperationForm form = new BatchOperationForm();
+        form.setOp(op);
+        form.setId(id);
+        return form;
+    }
+
+    private static BatchOperationForm batchCreate(String name, String batchCode, String category, String status) {
+        BatchOperationForm form = batchOp(BatchOperationForm.OP_CREATE, null);
+        form.setProductName(name);
+        form.setBatchCode(batchCode);
+        form.setCategory(category);
+        form.setInspectionStatus(status);
+        return form;
+    }
+
+    // saveAll pada mock tidak men-generate id, jadi diisi manual seperti saat persist
+    private List<FoodProduct> stubSaveAllAssignsIds() {
+        List<FoodProduct> saved = new ArrayList<>();
+        when(foodQualityRepository.saveAll(any())).thenAnswer(inv -> {
+            Iterable<FoodProduct> products = inv.getArgument(0);
+            for (FoodProduct p : products) {
+                p.setId(UUID.randomUUID());
+                saved.add(p);
+            }
+            return saved;
+        });
+        return saved;
+    }
+
+    @Test
+    @DisplayName("Apply Batch - campuran create, update, delete, dan operasi gagal")
+    void testApplyBatch_Mixed() {
+        UUID otherId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        FoodProduct other = new FoodProduct();
+        other.setId(otherId);
+        other.setUserId(userId);
+        when(foodQualityRepository.findByUserIdAndIdIn(eq(userId), any())).thenReturn(List.of(product, other));
+        List<FoodProduct> saved = stubSaveAllAssignsIds();
+
+        BatchOperationForm create = batchCreate("Susu UHT", "B-002", "Minuman", "PASSED");
+        create.setNotes("Sampel pertama");
+        create.setProductionDate(LocalDate.of(2025, 1, 1));
+        create.setExpiryDate(LocalDate.of(2025, 6, 1));
+        BatchOperationForm update = batchOp(BatchOperationForm.OP_UPDATE, productId);
+        update.setNotes("Revisi");
+
+        List<BatchOperationResult> results = foodQualityService.applyBatch(userId, List.of(
+                create,
+                batchCreate(null, "B-003", "Snack", "PENDING"),
+                update,
+                batchOp(BatchOperationForm.OP_DELETE, otherId),
+                batchOp(BatchOperationForm.OP_UPDATE, otherId),
+                batchOp(BatchOperationForm.OP_DELETE, missingId),
+                batchOp("archive", productId)));
+
+        assertEquals(7, results.size());
+        assertEquals(List.of("success", "fail", "success", "success", "fail", "fail", "fail"),
+                results.stream().map(BatchOperationResult::status).toList());
+        assertNull(results.get(0).message());
+        assertEquals("Nama produk, kode batch, kategori, dan status inspeksi wajib diisi", results.get(1).message());
+        assertEquals(productId, results.get(2).id());
+        assertEquals("Produk tidak ditemukan", results.get(4).message());
+        assertEquals(missingId, results.get(5).id());
+        assertEquals("Operasi tidak dikenal", results.get(6).message());
+        assertEquals(6, results.get(6).index());
+
+        // Update parsial: hanya notes yang berubah
+        assertEquals("Revisi", product.getNotes());
+        assertEquals("Keripik Tempe", product.getProductName());
+
+        assertEquals(1, saved.size());
+        FoodProduct created = saved.get(0);
+        assertEquals(created.getId(), results.get(0).id());
+        assertEquals(userId, created.getUserId());
+        assertEquals("Susu UHT", created.getProductName());
+        assertEquals("B-002", created.getBatchCode());
+        assertEquals("Minuman", created.getCategory());
+        assertEquals("PASSED", created.getInspectionStatus());
+        assertEquals("Sampel pertama", created.getNotes());
+        assertEquals(LocalDate.of(2025, 6, 1), created.getExpiryDate());
+        assertEquals(LocalDate.of(2025, 1, 1), created.getProductionDate());
+
+        verify(foodQualityRepository).flush();
+        verify(foodQualityRepository).deleteAllByIdInBatch(List.of(otherId));
+        verify(resourceVersionService).bump(userId);
+    }
+
+    @Test
+    @DisplayName("Apply Batch - semua operasi tidak valid, tidak ada perubahan")
+    void testApplyBatch_AllInvalid() {
+        List<BatchOperationResult> results = foodQualityService.applyBatch(userId, List.of(
+                batchCreate("Susu", " ", "Minuman", "PASSED"),
+                batchCreate("Susu", "B-002", null, "PASSED"),
+                batchCreate("Susu", "B-002", "Minuman", ""),
+                batchOp(null, null)));
+
+        assertTrue(results.stream().allMatch(r -> r.status().equals("fail")));
+        verify(foodQualityRepository, never()).findByUserIdAndIdIn(any(), any());
+        verify(foodQualityRepository, never()).deleteAllByIdInBatch(any());
+        verify(resourceVersionService, never()).bump(any());
+    }
+
+    @Test
+    @DisplayName("Apply Batch - hanya create atau hanya delete tetap menaikkan versi")
+    void testApplyBatch_CreateOnly_DeleteOnly() {
+        stubSaveAllAssignsIds();
+        foodQualityService.applyBatch(userId, List.of(batchCreate("Susu", "B-002", "Minuman", "PASSED")));
+        verify(resourceVersionService).bump(userId);
+
+        when(foodQualityRepository.findByUserIdAndIdIn(eq(userId), any())).thenReturn(List.of(product));
+        List<BatchOperationResult> results = foodQualityService.applyBatch(userId,
+                List.of(batchOp(BatchOperationForm.OP_DELETE, productId)));
+
+        assertEquals("success", results.get(0).status());
+        verify(foodQualityRepository).deleteAllByIdInBatch(List.of(productId));
+        verify(resourceVersionService, times(2)).bump(userId);
+    }
+
+    // =========================================================================
+    // 13. TEST EVENT SSE
+    // =========================================================================
+
+    @Test
+    @DisplayName("Event: create, update tanpa perubahan status, dan delete")
+    void testEvents_CreateUpdateDelete() {
+        when(foodQualityRepository.save(any(FoodProduct.class))).thenReturn(product);
+        when(foodQualityRepository.findByIdAndUserId(productId, userId)).thenReturn(Optional.of(product));
+
+        foodQualityService.createProduct(userId, productForm);
+        foodQualityService.updateProduct(userId, productId, productForm);
+        foodQualityService.deleteProduct(userId, productId);
+
+        verify(inspectionEventService).publish(eq(userId),
+                eq(new InspectionEvent(InspectionEvent.CREATED, productId, "PENDING", null)), any());
+        verify(inspectionEventService).publish(eq(userId),
+                eq(new InspectionEvent(InspectionEvent.UPDATED, productId, "PENDING", "PENDING")), any());
+        verify(inspectionEventService).publish(eq(userId),
+                eq(new InspectionEvent(InspectionEvent.DELETED, productId, "PENDING", null)), any());
+    }
+
+    @Test
+    @DisplayName("Event: perubahan status inspeksi membawa status lama dan statistik terbaru")
+    @SuppressWarnings("unchecked")
+    void testEvents_StatusChanged() {
+        when(foodQualityRepository.findByIdAndUserId(productId, userId)).thenReturn(Optional.of(product));
+        when(foodQualityRepository.save(any(FoodProduct.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(foodQualityRepository.countByUserIdAndInspectionStatus(eq(userId), any())).thenReturn(1L);
+        productForm.setInspectionStatus("PASSED");
+
+        foodQualityService.updateProduct(userId, productId, productForm);
+
+        ArgumentCaptor<Supplier<Map<String, Long>>> stats = ArgumentCaptor.forClass(Supplier.class);
+        verify(inspectionEventService).publish(eq(userId),
+                eq(new InspectionEvent(InspectionEvent.STATUS_CHANGED, productId, "PASSED", "PENDING")),
+                stats.capture());
+        assertEquals(3L, stats.getValue().get().get("TOTAL"));
+    }
+
+    @Test
+    @DisplayName("Event: tidak dikirim jika transaksi rollback")
+    void testEvents_NotPublishedOnRollback() {
+        when(foodQualityRepository.save(any(FoodProduct.class))).thenReturn(product);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            foodQualityService.createProduct(userId, productForm);
+            for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+                sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(inspectionEventService, never()).publish(any(), any(), any());
+    }
+
+    // =========================================================================
+    // 14. TEST TRANSISI STATUS (OPTIMISTIC LOCKING)
+    // =========================================================================
+
+    private StatusTransitionForm transition(String status, String notes, long version) {
+        StatusTransitionForm form = new StatusTransitionForm();
+        form.setInspectionStatus(status);
+        form.setNotes(notes);
+        form.setVersion(version);
+        return form;
+    }
+
+    @Test
+    @DisplayName("Transisi status - satu UPDATE bersyarat, versi baru dikembalikan")
+    void testTransitionStatus_Success() {
+        when(foodQualityRepository.updateStatusIfVersion(eq(productId), eq(userId), eq(4L), eq("PASSED"),
+                eq("Lolos uji"), any(LocalDateTime.class))).thenReturn(1);
+
+        Long version = foodQualityService.transitionStatus(userId, productId, transition("PASSED", "Lolos uji", 4L));
+
+        assertEquals(5L, version);
+        verify(foodQualityRepository, never()).findByIdAndUserId(any(), any());
+        verify(foodQualityRepository, never()).existsByIdAndUserId(any(), any());
+        verify(inspectionEventService).publish(eq(userId),
+                eq(new InspectionEvent(InspectionEvent.STATUS_CHANGED, productId, "PASSED", null)), any());
+        verify(resourceVersionService).bump(userId);
+    }
+
+    @Test
+    @DisplayName("Transisi status - produk tidak ditemukan")
+    void testTransitionStatus_NotFound() {
+        when(foodQualityRepository.updateStatusIfVersion(eq(productId), eq(userId), eq(4L), eq("PASSED"),
+                any(), any(LocalDateTime.class))).thenReturn(0);
+        when(foodQualityRepository.existsByIdAndUserId(productId, userId)).thenReturn(false);
+
+        assertNull(foodQualityService.transitionStatus(userId, productId, transition("PASSED", null, 4L)));
+        verify(resourceVersionService, never()).bump(any());
+    }
+
+    @Test
+    @DisplayName("Transisi status - versi sudah berubah (konflik)")
+    void testTransitionStatus_Conflict() {
+        when(foodQualityRepository.updateStatusIfVersion(eq(productId), eq(userId), eq(4L), eq("REJECTED"),
+                any(), any(LocalDateTime.class))).thenReturn(0);
+        when(foodQualityRepository.existsByIdAndUserId(productId, userId)).thenReturn(true);
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> foodQualityService.transitionStatus(userId, productId, transition("REJECTED", null, 4L)));
+        verify(inspectionEventService, never()).publish(any(), any(), any());
+    }
+
+    // =========================================================================
+    // 15. TEST FOTO LAMA DIBUANG (DISK & CACHE)
+    // =========================================================================
+
+    // Foto lama di layout shard yang sudah masuk cache gambar
+    private Path cachedImage(String filename) throws IOException {
+        ReflectionTestUtils.setField(foodQualityService, "UPLOAD_DIR", uploadRoot.toString());
+        Path file = ShardedPathUtil.shardedPath(uploadRoot, filename);
+        Files.createDirectories(file.getParent());
+        Files.write(file, "lama".getBytes());
+        imageCacheService.get(filename, () -> file).close();
+        assertTrue(imageCacheService.contains(filename));
+        return file;
+    }
+
+    @Test
+    @DisplayName("Ganti foto: foto lama dihapus dari disk dan cache setelah commit")
+    void testUpdateProductImage_DiscardsOldImage() throws IOException {
+        Path old = cachedImage("old.jpg");
+        product.setProductImage("old.jpg");
+        when(foodQualityRepository.findByIdAndUserId(productId, userId)).thenReturn(Optional.of(product));
+        ProductImageForm form = new ProductImageForm();
+        form.setId(productId);
+        form.setImageFile(new MockMultipartFile("imageFile", "new.jpg", "image/jpeg", "data".getBytes()));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertTrue(foodQualityService.updateProductImage(userId, form));
+            // Belum commit: foto lama masih dilayani
+            assertTrue(Files.exists(old));
+            for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+                sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(Files.exists(old));
+        assertFalse(imageCacheService.contains("old.jpg"));
+    }
+
+    @Test
+    @DisplayName("Update produk dengan foto baru membuang foto lama, tanpa foto baru tidak")
+    void testUpdateProduct_DiscardsReplacedImage() throws IOException {
+        Path old = cachedImage("old.jpg");
+        product.setProductImage("old.jpg");
+        when(foodQualityRepository.findByIdAndUserId(productId, userId)).thenReturn(Optional.of(product));
+        when(foodQualityRepository.save(any(FoodProduct.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        foodQualityService.updateProduct(userId, productId, productForm);
+        assertTrue(Files.exists(old));
+        assertTrue(imageCacheService.contains("old.jpg"));
+
+        productForm.setImageFile(new MockMultipartFile("imageFile", "new.jpg", "image/jpeg", "data".getBytes()));
+        foodQualityService.updateProduct(userId, productId, productForm);
+        assertFalse(Files.exists(old));
+        assertFalse(imageCacheService.contains("old.jpg"));
+    }
+
+    @Test
+    @DisplayName("Hapus produk (tunggal dan batch) membuang fotonya, rollback tidak")
+    void testDelete_DiscardsImage() throws IOException {
+        Path single = cachedImage("single.jpg");
+        Path batched = cachedImage("batched.jpg");
+        product.setProductImage("single.jpg");
+        when(foodQualityRepository.findByIdAndUserId(productId, userId)).thenReturn(Optional.of(product));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            foodQualityService.deleteProduct(userId, productId);
+            for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+                sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertTrue(Files.exists(single));
+
+        foodQualityService.deleteProduct(userId, productId);
+        assertFalse(Files.exists(single));
+        assertFalse(imageCacheService.contains("single.jpg"));
+
+        product.setProductImage("batched.jpg");
+        when(foodQualityRepository.findByUserIdAndIdIn(eq(userId), any())).thenReturn(List.of(product));
+        foodQualityService.applyBatch(userId, List.of(batchOp(BatchOperationForm.OP_DELETE, productId)));
+        assertFalse(Files.exists(batched));
+        assertFalse(imageCacheService.contains("batched.jpg"));
+    }
+
+    @Test
+    @DisplayName("Mode async: foto lama dibuang setelah foto baru selesai diproses")
+    void testProcessSpooledImage_DiscardsOldImage() throws Exception {
+        Path old = cachedImage("old.jpg");
+        product.setProductImage("old.jpg");
+        when(foodQualityRepository.findById(productId)).thenReturn(Optional.of(product));
+        Path spool = uploadRoot.resolve("spool.tmp");
+        Files.write(spool, "data".getBytes());
+
+        foodQualityService.processSpooledImage(productId, spool, "new.jpg");
+
+        assertEquals(FoodProduct.IMAGE_STATUS_READY, product.getImageStatus());
+        assertTrue(product.getProductImage().endsWith("new.jpg"));
+        assertFalse(Files.exists(old));
+        assertFalse(imageCacheService.contains("old.jpg"));
+    }
+
+    private Path spool() throws IOException {
+        ReflectionTestUtils.setField(foodQualityService, "UPLOAD_DIR", uploadRoot.toString());
+        Path spool = uploadRoot.resolve("spool.tmp");
+        Files.write(spool, "data".getBytes());
+        return spool;
+    }
+
+    @Test
+    @DisplayName("Mode async: bentrok versi saat memasang foto dicoba ulang sekali")
+    void testProcessSpooledImage_RetriesOnConflict() throws Exception {
+        Path spool = spool();
+        when(foodQualityRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(foodQualityRepository.saveAndFlush(product))
+                .thenThrow(new OptimisticLockingFailureException("Produk diubah request lain"))
+                .thenReturn(product);
+
+        foodQualityService.processSpooledImage(productId, spool, "new.jpg");
+
+        assertEquals(FoodProduct.IMAGE_STATUS_READY, product.getImageStatus());
+        assertTrue(Files.exists(ShardedPathUtil.shardedPath(uploadRoot, product.getProductImage())));
+        assertFalse(Files.exists(spool));
+        verify(foodQualityRepository, times(2)).findById(productId);
+        verify(foodQualityRepository, never()).save(any());
+        verify(inspectionEventService).publish(eq(userId),
+                eq(new InspectionEvent(InspectionEvent.IMAGE_READY, productId, "PENDING", null)), any());
+    }
+
+    @Test
+    @DisplayName("Mode async: bentrok berulang menandai FAILED dan membuang foto baru")
+    void testProcessSpooledImage_ConflictTwice() throws Exception {
+        Path spool = spool();
+        when(foodQualityRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(foodQualityRepository.saveAndFlush(product))
+                .thenThrow(new OptimisticLockingFailureException("Produk diubah request lain"));
+
+        foodQualityService.processSpooledImage(productId, spool, "new.jpg");
+
+        assertEquals(FoodProduct.IMAGE_STATUS_FAILED, product.getImageStatus());
+        assertFalse(Files.exists(ShardedPathUtil.shardedPath(uploadRoot, product.getProductImage())));
+        verify(foodQualityRepository, times(2)).saveAndFlush(product);
+        verify(foodQualityRepository).save(product);
+    }
+
+    @Test
+    @DisplayName("Mode async: produk dihapus selama foto diproses, foto baru dibuang")
+    void testProcessSpooledImage_ProductDeleted() throws Exception {
+        Path spool = spool();
+        when(foodQualityRepository.findById(productId)).thenReturn(Optional.empty());
+
+        foodQualityService.processSpooledImage(productId, spool, "new.jpg");
+
+        try (var files = Files.walk(uploadRoot)) {
+            assertEquals(0, files.filter(Files::isRegularFile).count());
+        }
+        verify(foodQualityRepository, never()).saveAndFlush(any());
+        verify(resourceVersionService, never()).bump(any());
+    }
+
+    // =========================================================================
+    // 16. TEST BATAS TRANSAKSI UPLOAD
+    // =========================================================================
+
+    // Transaction manager minimal: menandai transaksi aktif seperti JpaTransactionManager, tanpa database
+    private static final class InMemoryTransactionManager extends AbstractPlatformTransactionManager {
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+
+    private FoodQualityService transactionalService() {
+        FoodQualityService service = new FoodQualityService(foodQualityRepository, imageIngestService,
+                uploadAdmissionService, resourceVersionService, inspectionEventService, metricsService,
+                imageCacheService, new InMemoryTransactionManager());
+        ReflectionTestUtils.setField(service, "UPLOAD_DIR", uploadRoot.toString());
+        return service;
+    }
+
+    @Test
+    @DisplayName("Mode async: foto dipasang dan versi koleksi dinaikkan di transaksi yang sama")
+    void testProcessSpooledImage_SingleTransaction() throws Exception {
+        FoodQualityService service = transactionalService();
+        Path spool = spool();
+        List<String> steps = new ArrayList<>();
+        when(foodQualityRepository.findById(productId)).thenAnswer(inv -> {
+            steps.add("find:" + TransactionSynchronizationManager.isActualTransactionActive());
+            return Optional.of(product);
+        });
+        when(foodQualityRepository.saveAndFlush(product)).thenAnswer(inv -> {
+            steps.add("save:" + TransactionSynchronizationManager.isActualTransactionActive());
+            return product;
+        });
+        doAnswer(inv -> {
+            steps.add("bump:" + TransactionSynchronizationManager.isActualTransactionActive());
+            return null;
+        }).when(resourceVersionService).bump(userId);
+        // Event SSE baru dikirim setelah commit
+        doAnswer(inv -> {
+            steps.add("publish");
+            return null;
+        }).when(inspectionEventService).publish(eq(userId), any(), any());
+
+        service.processSpooledImage(productId, spool, "new.jpg");
+
+        assertEquals(List.of("find:true", "save:true", "bump:true", "publish"), steps);
+    }
+
+    @Test
+    @DisplayName("Slot upload ditunggu dan foto diproses sebelum transaksi dimulai")
+    void testImageUpload_PermitOutsideTransaction() {
+        FoodQualityService service = transactionalService();
+        List<Boolean> acquiredInTransaction = new ArrayList<>();
+        List<Boolean> savedInTransaction = new ArrayList<>();
+        doAnswer(inv -> {
+            acquiredInTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+            return inv.callRealMethod();
+        }).when(uploadAdmissionService).acquire();
+        when(foodQualityRepository.save(any(FoodProduct.class))).thenAnswer(inv -> {
+            savedInTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+            return inv.getArgument(0);
+        });
+        when(foodQualityRepository.findByIdAndUserId(productId, userId)).thenReturn(Optional.of(product));
+        productForm.setImageFile(new MockMultipartFile("imageFile", "a.jpg", "image/jpeg", "data".getBytes()));
+        ProductImageForm imageForm = new ProductImageForm();
+        imageForm.setId(productId);
+        imageForm.setImageFile(new MockMultipartFile("imageFile", "b.jpg", "image/jpeg", "data".getBytes()));
+
+        service.createProduct(userId, productForm);
+        service.updateProduct(userId, productId, productForm);
+        assertTrue(service.updateProductImage(userId, imageForm));
+
+        assertEquals(List.of(false, false, false), acquiredInTransaction);
+        assertEquals(List.of(true, true, true), savedInTransaction);
+        assertEquals(0, uploadAdmissionService.getStats().active());
+    }
+
+    @Test
+    @DisplayName("Transaksi rollback: foto yang sudah diproses dihapus dari disk")
+    void testImageUpload_RollbackDeletesStoredImage() throws IOException {
+        FoodQualityService service = transactionalService();
+        when(foodQualityRepository.save(any(FoodProduct.class))).thenThrow(new IllegalStateException("constraint"));
+        productForm.setImageFile(new MockMultipartFile("imageFile", "a.jpg", "image/jpeg", "data".getBytes()));
+
+        assertThrows(IllegalStateException.class, () -> service.createProduct(userId, productForm));
+
+        try (var files = Files.walk(uploadRoot)) {
+            assertEquals(0, files.filter(Files::isRegularFile).count());
         }
+        verify(inspectionEventService, never()).publish(any(), any(), any());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,207 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ImageCacheServiceTests {
+
+    @TempDir
+    Path tempDir;
+
+    private Path write(String name, int size) throws Exception {
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) i;
+        }
+        return Files.write(tempDir.resolve(name), content);
+    }
+
+    private static byte[] read(ImageCacheService.Lease lease) {
+        ByteBuffer buffer = lease.buffer();
+        byte[] out = new byte[buffer.remaining()];
+        buffer.get(out);
+        return out;
+    }
+
+    @Test
+    @DisplayName("Request kedua dilayani dari cache")
+    void get_hit_setelah_miss() throws Exception {
+        ImageCacheService cache = new ImageCacheService(1024, 512);
+        Path file = write("a.jpg", 100);
+
+        try (ImageCacheService.Lease lease = cache.get("a.jpg", () -> file)) {
+            assertEquals(100, lease.size());
+        }
+        try (ImageCacheService.Lease lease = cache.get("a.jpg", () -> file)) {
+            assertArrayEquals(Files.readAllBytes(file), read(lease));
+        }
+
+        ImageCacheService.ImageCacheStats stats = cache.getStats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(0.5, stats.hitRatio());
+        assertEquals(100, stats.residentBytes());
+        assertEquals(1, stats.entries());
+        assertEquals(1024, stats.capacityBytes());
+    }
+
+    @Test
+    @DisplayName("Entri paling lama tidak diakses di-evict saat kapasitas penuh")
+    void get_evict_lru() throws Exception {
+        ImageCacheService cache = new ImageCacheService(250, 200);
+        Path a = write("a.jpg", 100);
+        Path b = write("b.jpg", 100);
+        Path c = write("c.jpg", 100);
+
+        cache.get("a.jpg", () -> a).close();
+        cache.get("b.jpg", () -> b).close();
+        cache.get("a.jpg", () -> a).close(); // a menjadi yang terbaru
+        cache.get("c.jpg", () -> c).close();
+
+        assertTrue(cache.contains("a.jpg"));
+        assertFalse(cache.contains("b.jpg"));
+        assertTrue(cache.contains("c.jpg"));
+        assertEquals(1, cache.getStats().evictions());
+        assertEquals(200, cache.getStats().residentBytes());
+    }
+
+    @Test
+    @DisplayName("Entri yang di-evict tetap bisa dibaca oleh lease yang masih aktif")
+    void lease_aktif_tetap_valid_setelah_evict() throws Exception {
+        ImageCacheService cache = new ImageCacheService(100, 100);
+        Path a = write("a.jpg", 100);
+        Path b = write("b.jpg", 100);
+
+        try (ImageCacheService.Lease lease = cache.get("a.jpg", () -> a)) {
+            cache.get("b.jpg", () -> b).close();
+            assertFalse(cache.contains("a.jpg"));
+            assertArrayEquals(Files.readAllBytes(a), read(lease));
+        }
+    }
+
+    @Test
+    @DisplayName("File besar di-map tanpa masuk cache")
+    void get_file_besar_tidak_di_cache() throws Exception {
+        ImageCacheService cache = new ImageCacheService(1024, 10);
+        Path file = write("besar.jpg", 50);
+
+        ImageCacheService.Lease lease = cache.get("besar.jpg", () -> file);
+        assertArrayEquals(Files.readAllBytes(file), read(lease));
+        lease.close();
+        lease.close(); // close kedua diabaikan
+
+        assertFalse(cache.contains("besar.jpg"));
+        assertEquals(0, cache.getStats().residentBytes());
+        assertThrows(IllegalStateException.class, () -> read(lease));
+    }
+
+    @Test
+    @DisplayName("File yang tidak ada menghasilkan null")
+    void get_file_tidak_ada() throws Exception {
+        ImageCacheService cache = new ImageCacheService(1024, 512);
+
+        assertNull(cache.get("x.jpg", () -> tempDir.resolve("x.jpg")));
+        assertEquals(0.0, new ImageCacheService(1, 1).getStats().hitRatio());
+    }
+
+    @Test
+    @DisplayName("File kosong tetap bisa di-cache")
+    void get_file_kosong() throws Exception {
+        ImageCacheService cache = new ImageCacheService(1024, 512);
+        Path file = write("kosong.jpg", 0);
+
+        try (ImageCacheService.Lease lease = cache.get("kosong.jpg", () -> file)) {
+            assertEquals(0, lease.size());
+        }
+        assertTrue(cache.contains("kosong.jpg"));
+    }
+
+    @Test
+    @DisplayName("Cache hit tidak me-resolve path file")
+    void get_hit_tanpa_resolve_path() throws Exception {
+        ImageCacheService cache = new ImageCacheService(1024, 512);
+        Path file = write("a.jpg", 100);
+        cache.get("a.jpg", () -> file).close();
+
+        try (ImageCacheService.Lease lease = cache.get("a.jpg", () -> {
+            throw new AssertionError("path tidak boleh di-resolve saat hit");
+        })) {
+            assertEquals(100, lease.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Entri yang di-evict dimuat ulang dari disk, lease aktif tetap valid")
+    void evict_membuang_entri() throws Exception {
+        ImageCacheService cache = new ImageCacheService(1024, 512);
+        Path file = write("a.jpg", 100);
+
+        try (ImageCacheService.Lease lease = cache.get("a.jpg", () -> file)) {
+            cache.evict("a.jpg");
+            cache.evict("tidak-ada.jpg");
+            assertFalse(cache.contains("a.jpg"));
+            assertEquals(0, cache.getStats().residentBytes());
+            assertArrayEquals(Files.readAllBytes(file), read(lease));
+        }
+
+        Files.delete(file);
+        assertNull(cache.get("a.jpg", () -> file));
+        assertEquals(0, cache.getStats().evictions());
+    }
+
+    @Test
+    @DisplayName("Load yang berjalan saat evict tidak memasukkan isi lama ke cache")
+    void evict_selama_load_tidak_di_cache() throws Exception {
+        ImageCacheService cache = new ImageCacheService(1024, 512);
+        Path file = write("a.jpg", 100);
+
+        try (ImageCacheService.Lease lease = cache.get("a.jpg", () -> {
+            // Foto diganti setelah load dimulai
+            cache.evict("a.jpg");
+            return file;
+        })) {
+            assertArrayEquals(Files.readAllBytes(file), read(lease));
+        }
+
+        assertFalse(cache.contains("a.jpg"));
+        assertEquals(0, cache.getStats().residentBytes());
+        // Load berikutnya dimulai setelah evict, jadi boleh masuk cache lagi
+        try (ImageCacheService.Lease lease = cache.get("a.jpg", () -> file)) {
+            assertTrue(cache.contains("a.jpg"));
+        }
+    }
+
+    @Test
+    @DisplayName("Dua load bersamaan tanpa evict: hasil terakhir yang disimpan")
+    void get_load_bersamaan() throws Exception {
+        ImageCacheService cache = new ImageCacheService(1024, 512);
+        Path file = write("a.jpg", 100);
+
+        try (ImageCacheService.Lease outer = cache.get("a.jpg", () -> {
+            try (ImageCacheService.Lease inner = cache.get("a.jpg", () -> file)) {
+                assertEquals(100, inner.size());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return file;
+        })) {
+            assertEquals(100, outer.size());
+        }
+
+        assertTrue(cache.contains("a.jpg"));
+        assertEquals(1, cache.getStats().entries());
+        assertEquals(100, cache.getStats().residentBytes());
+    }
+}
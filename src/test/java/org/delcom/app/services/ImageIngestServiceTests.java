@@ -0,0 +1,290 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+class ImageIngestServiceTests {
+
+    private ImageIngestService imageIngestService;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setup() {
+        imageIngestService = new ImageIngestService(800, 0.8f);
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+
+    // Sisipkan segmen APP1 (EXIF big-endian) berisi tag Orientation tepat setelah SOI
+    private static byte[] withOrientation(byte[] jpeg, int orientation) {
+        byte[] tiff = {
+                'M', 'M', 0, 42, 0, 0, 0, 8,
+                0, 1,
+                0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, (byte) orientation, 0, 0,
+                0, 0, 0, 0 };
+        int length = 2 + 6 + tiff.length;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(jpeg, 0, 2);
+        out.write(0xFF);
+        out.write(0xE1);
+        out.write(length >> 8);
+        out.write(length & 0xFF);
+        out.writeBytes(new byte[] { 'E', 'x', 'i', 'f', 0, 0 });
+        out.writeBytes(tiff);
+        out.write(jpeg, 2, jpeg.length - 2);
+        return out.toByteArray();
+    }
+
+    @Test
+    @DisplayName("JPEG besar diperkecil dan ukuran tersimpan dicatat")
+    void ingest_jpeg_besar_diperkecil() throws Exception {
+        byte[] jpeg = encode(new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_RGB), "jpg");
+        MockMultipartFile file = new MockMultipartFile("imageFile", "foto.jpg", "image/jpeg", jpeg);
+
+        StoredImage stored = imageIngestService.ingest(file, tempDir, "id_foto.jpg");
+
+        assertEquals("id_foto.jpg", stored.filename());
+        Path target = tempDir.resolve(stored.filename());
+        assertEquals(Files.size(target), stored.size());
+
+        BufferedImage result = ImageIO.read(target.toFile());
+        assertEquals(800, result.getWidth());
+        assertEquals(400, result.getHeight());
+    }
+
+    @Test
+    @DisplayName("PNG transparan tetap PNG")
+    void ingest_png_transparan_tetap_png() throws Exception {
+        byte[] png = encode(new BufferedImage(100, 50, BufferedImage.TYPE_INT_ARGB), "png");
+        MockMultipartFile file = new MockMultipartFile("imageFile", "logo.png", "image/png", png);
+
+        StoredImage stored = imageIngestService.ingest(file, tempDir, "id_logo.png");
+
+        assertEquals("id_logo.png", stored.filename());
+        BufferedImage result = ImageIO.read(tempDir.resolve(stored.filename()).toFile());
+        assertTrue(result.getColorModel().hasAlpha());
+        assertEquals(100, result.getWidth());
+    }
+
+    @Test
+    @DisplayName("PNG tanpa alpha di-encode ulang menjadi JPEG")
+    void ingest_png_opaque_menjadi_jpeg() throws Exception {
+        byte[] png = encode(new BufferedImage(100, 50, BufferedImage.TYPE_INT_RGB), "png");
+        MockMultipartFile file = new MockMultipartFile("imageFile", "scan", "image/png", png);
+
+        StoredImage stored = imageIngestService.ingest(file, tempDir, "id_scan");
+
+        assertEquals("id_scan.jpg", stored.filename());
+        assertTrue(Files.exists(tempDir.resolve("id_scan.jpg")));
+    }
+
+    @Test
+    @DisplayName("Orientasi EXIF diterapkan ke piksel")
+    void ingest_menerapkan_orientasi_exif() throws Exception {
+        byte[] jpeg = encode(new BufferedImage(300, 100, BufferedImage.TYPE_INT_RGB), "jpg");
+        MockMultipartFile file = new MockMultipartFile("imageFile", "hp.jpg", "image/jpeg",
+                withOrientation(jpeg, 6));
+
+        StoredImage stored = imageIngestService.ingest(file, tempDir, "id_hp.jpg");
+
+        BufferedImage result = ImageIO.read(tempDir.resolve(stored.filename()).toFile());
+        assertEquals(100, result.getWidth());
+        assertEquals(300, result.getHeight());
+    }
+
+    @Test
+    @DisplayName("File bukan gambar disimpan apa adanya")
+    void ingest_bukan_gambar_disimpan_apa_adanya() throws Exception {
+        byte[] content = "bukan gambar".getBytes();
+        MockMultipartFile file = new MockMultipartFile("imageFile", "data.jpg", "image/jpeg", content);
+
+        StoredImage stored = imageIngestService.ingest(file, tempDir, "id_data.jpg");
+
+        assertEquals("id_data.jpg", stored.filename());
+        assertEquals(content.length, stored.size());
+        assertArrayEquals(content, Files.readAllBytes(tempDir.resolve("id_data.jpg")));
+    }
+
+    @Test
+    @DisplayName("GIF tidak di-encode ulang agar animasi tidak hilang")
+    void ingest_gif_disimpan_apa_adanya() throws Exception {
+        byte[] gif = encode(new BufferedImage(20, 20, BufferedImage.TYPE_INT_RGB), "gif");
+        MockMultipartFile file = new MockMultipartFile("imageFile", "anim.gif", "image/gif", gif);
+
+        StoredImage stored = imageIngestService.ingest(file, tempDir, "id_anim.gif");
+
+        assertArrayEquals(gif, Files.readAllBytes(tempDir.resolve(stored.filename())));
+    }
+
+    @Test
+    @DisplayName("JPEG yang tidak bisa di-decode disalin tanpa EXIF")
+    void ingest_jpeg_rusak_tanpa_exif() throws Exception {
+        byte[] jpeg = encode(new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB), "jpg");
+        // SOI + APP1 EXIF (36 byte) + 40 byte pertama setelah SOI, lalu terpotong
+        byte[] truncated = Arrays.copyOf(withOrientation(jpeg, 6), 2 + 36 + 40);
+        MockMultipartFile file = new MockMultipartFile("imageFile", "rusak.jpg", "image/jpeg", truncated);
+
+        StoredImage stored = imageIngestService.ingest(file, tempDir, "id_rusak.jpg");
+
+        assertEquals("id_rusak.jpg", stored.filename());
+        assertArrayEquals(Arrays.copyOf(jpeg, 42), Files.readAllBytes(tempDir.resolve("id_rusak.jpg")));
+        assertEquals(42, stored.size());
+    }
+
+    @Test
+    @DisplayName("PNG yang tidak bisa di-decode disalin tanpa chunk teks")
+    void ingest_png_rusak_tanpa_teks() throws Exception {
+        byte[] png = encode(new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB), "png");
+        png[24] = 3; // bit depth IHDR tidak valid
+        ByteArrayOutputStream upload = new ByteArrayOutputStream();
+        upload.write(png, 0, 33); // signature + IHDR
+        upload.writeBytes(pngChunk("tEXt", "GPS\0-6.2,106.8".getBytes()));
+        upload.write(png, 33, png.length - 33);
+        MockMultipartFile file = new MockMultipartFile("imageFile", "scan.png", "image/png", upload.toByteArray());
+
+        StoredImage stored = imageIngestService.ingest(file, tempDir, "id_scan.png");
+
+        assertArrayEquals(png, Files.readAllBytes(tempDir.resolve(stored.filename())));
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] result = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (byte) values[i];
+        }
+        return result;
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] jpegSegment(int marker, byte[] payload) {
+        int length = payload.length + 2;
+        return concat(bytes(0xFF, marker, length >> 8, length & 0xFF), payload);
+    }
+
+    private static byte[] pngChunk(String type, byte[] data) {
+        int length = data.length;
+        return concat(bytes(length >>> 24, length >> 16, length >> 8, length), type.getBytes(), data, new byte[4]);
+    }
+
+    private static byte[] stripped(byte[] input) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIngestService.copyWithoutMetadata(new BufferedInputStream(new ByteArrayInputStream(input)), out);
+        return out.toByteArray();
+    }
+
+    @Test
+    @DisplayName("Salinan JPEG membuang EXIF, XMP, MPF, komentar, dan data setelah EOI")
+    void copyWithoutMetadata_jpeg() throws Exception {
+        byte[] icc = jpegSegment(0xE2, concat("ICC_PROFILE\0".getBytes(), bytes(1, 1)));
+        byte[] adobe = jpegSegment(0xEE, "Adobe".getBytes());
+        byte[] jfif = jpegSegment(0xE0, "JFIF\0".getBytes());
+        byte[] dqt = jpegSegment(0xDB, bytes(0, 1));
+        byte[] scan = bytes(0xFF, 0xDA, 0, 2, 0x11, 0xFF, 0x00, 0x22, 0xFF, 0xD3, 0x33);
+        byte[] dht = jpegSegment(0xC4, bytes(4));
+        byte[] lastScan = bytes(0xFF, 0xDA, 0, 2, 0x44);
+        byte[] input = concat(bytes(0xFF, 0xD8),
+                jpegSegment(0xE1, "Exif\0\0GPS".getBytes()),
+                jpegSegment(0xFE, "komentar".getBytes()),
+                jpegSegment(0xE2, "MPF\0--------".getBytes()),
+                jpegSegment(0xE2, bytes()),
+                icc, adobe, jfif, dqt,
+                bytes(0xFF), scan, dht, lastScan, bytes(0xFF, 0xFF, 0xD9),
+                bytes(0xFF, 0xD8), jpegSegment(0xE1, "Exif\0\0".getBytes()));
+
+        assertArrayEquals(concat(bytes(0xFF, 0xD8), icc, adobe, jfif, dqt, scan, dht, lastScan, bytes(0xFF, 0xD9)),
+                stripped(input));
+    }
+
+    @Test
+    @DisplayName("Salinan JPEG terpotong berhenti di akhir file")
+    void copyWithoutMetadata_jpegTerpotong() throws Exception {
+        assertArrayEquals(bytes(0xFF, 0xD8), stripped(bytes(0xFF, 0xD8, 0xFF, 0xE1)));
+        assertArrayEquals(bytes(0xFF, 0xD8), stripped(bytes(0xFF, 0xD8, 0x00)));
+        assertArrayEquals(bytes(0xFF, 0xD8, 0xFF, 0xDB, 0, 2), stripped(bytes(0xFF, 0xD8, 0xFF, 0xDB, 0, 2, 0)));
+        assertArrayEquals(bytes(0xFF, 0xD8, 0xFF, 0xDA, 0, 2, 0x55),
+                stripped(bytes(0xFF, 0xD8, 0xFF, 0xDA, 0, 2, 0x55)));
+    }
+
+    @Test
+    @DisplayName("Salinan PNG membuang chunk teks dan data setelah IEND")
+    void copyWithoutMetadata_png() throws Exception {
+        byte[] signature = Arrays.copyOf(encode(new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB), "png"), 8);
+        byte[] ihdr = pngChunk("IHDR", new byte[13]);
+        byte[] idat = pngChunk("IDAT", bytes(1, 2, 3));
+        byte[] iend = pngChunk("IEND", bytes());
+        byte[] input = concat(signature, ihdr, pngChunk("tEXt", "Comment\0rahasia".getBytes()),
+                pngChunk("iTXt", "XML:com.adobe.xmp".getBytes()), pngChunk("eXIf", bytes(1)),
+                pngChunk("zTXt", bytes(2)), pngChunk("tIME", bytes(3)), idat, iend, "sisa".getBytes());
+
+        assertArrayEquals(concat(signature, ihdr, idat, iend), stripped(input));
+
+        // Terpotong di tengah chunk, lalu di tengah header chunk
+        byte[] partial = Arrays.copyOf(idat, 10);
+        assertArrayEquals(concat(signature, partial), stripped(concat(signature, partial)));
+        assertArrayEquals(signature, stripped(concat(signature, bytes(0, 0, 0))));
+    }
+
+    @Test
+    @DisplayName("File selain JPEG/PNG disalin utuh")
+    void copyWithoutMetadata_formatLain() throws Exception {
+        assertArrayEquals(bytes(), stripped(bytes()));
+        assertArrayEquals(bytes(0xFF), stripped(bytes(0xFF)));
+        assertArrayEquals(bytes(0xFF, 0x00, 0x11), stripped(bytes(0xFF, 0x00, 0x11)));
+    }
+
+    @Test
+    @DisplayName("Semua nilai orientasi menghasilkan dimensi yang benar")
+    void orient_semua_nilai() {
+        BufferedImage src = new BufferedImage(40, 10, BufferedImage.TYPE_INT_RGB);
+
+        assertSame(src, ImageIngestService.orient(src, 1));
+        assertSame(src, ImageIngestService.orient(src, 9));
+        for (int orientation = 2; orientation <= 8; orientation++) {
+            BufferedImage result = ImageIngestService.orient(src, orientation);
+            assertEquals(orientation >= 5 ? 10 : 40, result.getWidth());
+        }
+    }
+
+    @Test
+    @DisplayName("Orientasi default 1 untuk data tanpa EXIF")
+    void readExifOrientation_tanpa_exif() throws Exception {
+        assertEquals(1, ImageIngestService.readExifOrientation(new byte[0]));
+        assertEquals(1, ImageIngestService.readExifOrientation("bukan jpeg".getBytes()));
+
+        byte[] jpeg = encode(new BufferedImage(8, 8, BufferedImage.TYPE_INT_RGB), "jpg");
+        assertEquals(1, ImageIngestService.readExifOrientation(jpeg));
+        assertEquals(3, ImageIngestService.readExifOrientation(withOrientation(jpeg, 3)));
+    }
+}
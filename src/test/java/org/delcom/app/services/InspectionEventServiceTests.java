@@ -0,0 +1,233 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+class InspectionEventServiceTests {
+
+    private InspectionEventService service;
+    private final UUID userId = UUID.randomUUID();
+    private final InspectionEvent event =
+            new InspectionEvent(InspectionEvent.STATUS_CHANGED, UUID.randomUUID(), "PASSED", "PENDING");
+
+    @BeforeEach
+    void setUp() {
+        // Heartbeat dibuat jarang supaya tidak ikut terkirim selama test
+        service = spy(new InspectionEventService(1000, 3600));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private SseEmitter subscribeMock() {
+        SseEmitter emitter = mock(SseEmitter.class);
+        doReturn(emitter).when(service).createEmitter();
+        assertEquals(emitter, service.subscribe(userId));
+        return emitter;
+    }
+
+    @Test
+    @DisplayName("Emitter memakai timeout dari konfigurasi")
+    void createEmitter_timeout() {
+        InspectionEventService real = new InspectionEventService(1234, 3600);
+        try {
+            assertEquals(1234L, real.createEmitter().getTimeout());
+        } finally {
+            real.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Subscribe mengirim komentar awal, koneksi dilepas saat selesai, timeout, atau error")
+    @SuppressWarnings("unchecked")
+    void subscribe_dan_unsubscribe() throws Exception {
+        SseEmitter first = subscribeMock();
+        SseEmitter second = subscribeMock();
+        SseEmitter third = subscribeMock();
+        assertEquals(3, service.getSubscriberCount());
+        verify(first).send(any(SseEventBuilder.class));
+
+        ArgumentCaptor<Runnable> completion = ArgumentCaptor.forClass(Runnable.class);
+        verify(first).onCompletion(completion.capture());
+        completion.getValue().run();
+        assertEquals(2, service.getSubscriberCount());
+
+        ArgumentCaptor<Runnable> timeoutCallback = ArgumentCaptor.forClass(Runnable.class);
+        verify(second).onTimeout(timeoutCallback.capture());
+        timeoutCallback.getValue().run();
+
+        ArgumentCaptor<Consumer<Throwable>> error = ArgumentCaptor.forClass(Consumer.class);
+        verify(third).onError(error.capture());
+        error.getValue().accept(new IOException("reset"));
+        assertEquals(0, service.getSubscriberCount());
+
+        // Unsubscribe kedua kali untuk user yang sudah tidak punya koneksi
+        completion.getValue().run();
+        assertEquals(0, service.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("Tanpa subscriber, statistik tidak dihitung dan tidak ada yang dikirim")
+    void publish_tanpaSubscriber() {
+        service.publish(userId, event, () -> {
+            throw new AssertionError("statistik tidak boleh dihitung");
+        });
+    }
+
+    @Test
+    @DisplayName("Event dikirim ke semua koneksi user dengan statistik yang dihitung sekali")
+    void publish_keSemuaKoneksi() throws Exception {
+        SseEmitter first = subscribeMock();
+        SseEmitter second = subscribeMock();
+        AtomicInteger statsCalls = new AtomicInteger();
+
+        service.publish(userId, event, () -> {
+            statsCalls.incrementAndGet();
+            return Map.of("TOTAL", 5L);
+        });
+
+        ArgumentCaptor<SseEventBuilder> sent = ArgumentCaptor.forClass(SseEventBuilder.class);
+        verify(first, timeout(2000).times(2)).send(sent.capture());
+        verify(second, timeout(2000).times(2)).send(any(SseEventBuilder.class));
+        assertEquals(1, statsCalls.get());
+
+        Map<?, ?> data = payload(sent.getValue());
+        assertEquals("status_changed", data.get("type"));
+        assertEquals(event.productId(), data.get("product_id"));
+        assertEquals("PASSED", data.get("inspection_status"));
+        assertEquals("PENDING", data.get("previous_status"));
+        assertEquals(Map.of("TOTAL", 5L), data.get("stats"));
+    }
+
+    @Test
+    @DisplayName("Event satu user diterima sesuai urutan publish walau event pertama lambat")
+    void publish_berurutanPerUser() throws Exception {
+        SseEmitter emitter = subscribeMock();
+        List<UUID> published = new ArrayList<>();
+
+        for (int i = 0; i < 20; i++) {
+            UUID productId = UUID.randomUUID();
+            published.add(productId);
+            long delayMs = i == 0 ? 100 : 0;
+            service.publish(userId, new InspectionEvent(InspectionEvent.UPDATED, productId, "PASSED", null), () -> {
+                sleep(delayMs);
+                return Map.of();
+            });
+        }
+
+        ArgumentCaptor<SseEventBuilder> sent = ArgumentCaptor.forClass(SseEventBuilder.class);
+        verify(emitter, timeout(5000).times(21)).send(sent.capture());
+        List<Object> delivered = sent.getAllValues().stream()
+                .skip(1)
+                .map(builder -> payload(builder).get("product_id"))
+                .toList();
+        assertEquals(published, delivered);
+    }
+
+    @Test
+    @DisplayName("Tugas kirim yang gagal tidak memutus rantai event berikutnya")
+    void publish_lanjutSetelahGagal() throws Exception {
+        SseEmitter emitter = subscribeMock();
+        doThrow(new IllegalArgumentException("bug")).doNothing().when(emitter).send(any(SseEventBuilder.class));
+
+        service.publish(userId, event, Map::of);
+        service.publish(userId, event, Map::of);
+
+        verify(emitter, timeout(2000).times(3)).send(any(SseEventBuilder.class));
+    }
+
+    @Test
+    @DisplayName("Gagal menghitung statistik: event tetap dikirim tanpa statistik")
+    void publish_statistikGagal() throws Exception {
+        SseEmitter emitter = subscribeMock();
+
+        service.publish(userId, event, () -> {
+            throw new IllegalStateException("database down");
+        });
+
+        ArgumentCaptor<SseEventBuilder> sent = ArgumentCaptor.forClass(SseEventBuilder.class);
+        verify(emitter, timeout(2000).times(2)).send(sent.capture());
+        assertNull(payload(sent.getValue()).get("stats"));
+    }
+
+    @Test
+    @DisplayName("Koneksi yang gagal dikirimi dilepas dan ditutup dengan error")
+    void send_gagal_melepasKoneksi() throws Exception {
+        SseEmitter emitter = mock(SseEmitter.class);
+        IOException broken = new IOException("broken pipe");
+        doThrow(broken).when(emitter).send(any(SseEventBuilder.class));
+        doReturn(emitter).when(service).createEmitter();
+
+        service.subscribe(userId);
+
+        assertEquals(0, service.getSubscriberCount());
+        verify(emitter).completeWithError(broken);
+    }
+
+    @Test
+    @DisplayName("Heartbeat dikirim ke setiap koneksi")
+    void heartbeat() throws Exception {
+        SseEmitter emitter = subscribeMock();
+
+        service.sendHeartbeat();
+
+        verify(emitter, timeout(2000).times(2)).send(any(SseEventBuilder.class));
+    }
+
+    @Test
+    @DisplayName("Shutdown menutup semua koneksi")
+    void shutdown_menutupKoneksi() {
+        SseEmitter emitter = subscribeMock();
+
+        service.shutdown();
+
+        verify(emitter, times(1)).complete();
+        assertEquals(0, service.getSubscriberCount());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Data JSON event (selain baris teks id/event/data)
+    private static Map<?, ?> payload(SseEventBuilder builder) {
+        List<Object> parts = builder.build().stream().map(DataWithMediaType::getData).toList();
+        for (Object part : parts) {
+            if (part instanceof Map<?, ?> map) {
+                return map;
+            }
+        }
+        throw new AssertionError("payload tidak ditemukan: " + parts);
+    }
+}
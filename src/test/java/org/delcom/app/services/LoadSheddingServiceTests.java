@@ -0,0 +1,168 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.delcom.app.services.LoadSheddingService.LoadSheddingStats;
+import org.delcom.app.services.LoadSheddingService.Permit;
+import org.delcom.app.services.LoadSheddingService.Priority;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LoadSheddingServiceTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // Meter yang pada aplikasi asli didaftarkan HikariCP
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private LoadSheddingService service(int minLimit, int maxLimit, long sampleIntervalMs) {
+        return new LoadSheddingService(true, minLimit, maxLimit, 50, 5, 0.5, 0.8, sampleIntervalMs, 2, registry);
+    }
+
+    private Timer hikariMeters() {
+        Gauge.builder("hikaricp.connections.pending", pending, AtomicInteger::get)
+                .tag("pool", "HikariPool-1")
+                .register(registry);
+        return Timer.builder("hikaricp.connections.acquire").tag("pool", "HikariPool-1").register(registry);
+    }
+
+    @Test
+    @DisplayName("Prioritas rendah dan normal hanya memakai sebagian batas, tulis/auth seluruhnya")
+    void budget_perPrioritas() {
+        LoadSheddingService shedding = service(1, 10, 3_600_000);
+        List<Permit> permits = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            permits.add(shedding.tryAcquire(Priority.LOW));
+        }
+        assertNull(shedding.tryAcquire(Priority.LOW));
+        for (int i = 0; i < 3; i++) {
+            permits.add(shedding.tryAcquire(Priority.NORMAL));
+        }
+        assertNull(shedding.tryAcquire(Priority.NORMAL));
+        for (int i = 0; i < 2; i++) {
+            permits.add(shedding.tryAcquire(Priority.CRITICAL));
+        }
+        assertNull(shedding.tryAcquire(Priority.CRITICAL));
+        permits.forEach(permit -> assertNotNull(permit));
+
+        LoadSheddingStats stats = shedding.getStats();
+        assertTrue(stats.enabled());
+        assertEquals(10, stats.limit());
+        assertEquals(10, stats.inFlight());
+        assertFalse(stats.congested());
+        assertEquals(1, stats.rejectedLow());
+        assertEquals(1, stats.rejectedNormal());
+        assertEquals(1, stats.rejectedCritical());
+        assertEquals(1.0, registry.get("app.load-shedding.rejected").tag("priority", "low").counter().count());
+        assertEquals(10.0, registry.get("app.load-shedding.in-flight").gauge().value());
+        assertEquals(10.0, registry.get("app.load-shedding.limit").gauge().value());
+
+        // Permit dilepas sekali saja walaupun close dipanggil dua kali
+        permits.get(0).close();
+        permits.get(0).close();
+        assertEquals(9, shedding.getStats().inFlight());
+        assertNotNull(shedding.tryAcquire(Priority.CRITICAL));
+        assertEquals(2, shedding.getRetryAfterSeconds());
+        assertTrue(shedding.isEnabled());
+    }
+
+    @Test
+    @DisplayName("Antrean pool penuh: batas turun x0.9 sampai min-limit, prioritas rendah langsung ditolak")
+    void poolTertekan_batasTurun() {
+        hikariMeters();
+        LoadSheddingService shedding = service(4, 100, 0);
+        pending.set(10);
+
+        try (Permit permit = shedding.tryAcquire(Priority.CRITICAL)) {
+            assertNotNull(permit);
+        }
+        assertEquals(90, shedding.getStats().limit());
+        assertNull(shedding.tryAcquire(Priority.LOW));
+        assertEquals(81, shedding.getStats().limit());
+
+        for (int i = 0; i < 50; i++) {
+            shedding.tryAcquire(Priority.NORMAL).close();
+        }
+        LoadSheddingStats stats = shedding.getStats();
+        assertEquals(4, stats.limit());
+        assertTrue(stats.congested());
+        assertEquals(10.0, stats.poolPending());
+        assertEquals(1, stats.rejectedLow());
+    }
+
+    @Test
+    @DisplayName("Rata-rata waktu tunggu koneksi sejak sampel terakhir dibandingkan dengan target")
+    void waktuTunggu_perSampel() {
+        Timer acquire = hikariMeters();
+        LoadSheddingService shedding = service(4, 100, 0);
+
+        acquire.record(200, TimeUnit.MILLISECONDS);
+        acquire.record(100, TimeUnit.MILLISECONDS);
+        shedding.tryAcquire(Priority.CRITICAL).close();
+        assertTrue(shedding.getStats().congested());
+        assertEquals(150.0, shedding.getStats().poolWaitMs());
+
+        // Tidak ada koneksi baru diambil: tidak ada tunggu yang diukur
+        shedding.tryAcquire(Priority.CRITICAL).close();
+        assertFalse(shedding.getStats().congested());
+        assertEquals(0.0, shedding.getStats().poolWaitMs());
+
+        for (int i = 0; i < 10; i++) {
+            acquire.record(2, TimeUnit.MILLISECONDS);
+        }
+        assertNotNull(shedding.tryAcquire(Priority.LOW));
+        assertEquals(2.0, shedding.getStats().poolWaitMs());
+    }
+
+    @Test
+    @DisplayName("Pool lega dan batas terpakai setidaknya separuh: batas naik 1 sampai max-limit")
+    void poolLega_batasNaik() {
+        hikariMeters();
+        LoadSheddingService shedding = service(1, 10, 0);
+        pending.set(10);
+        shedding.tryAcquire(Priority.CRITICAL).close();
+        assertEquals(9, shedding.getStats().limit());
+
+        pending.set(0);
+        List<Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            permits.add(shedding.tryAcquire(Priority.CRITICAL));
+        }
+        // Puncak 5 dari batas 9: naik ke 10
+        assertEquals(10, shedding.getStats().limit());
+
+        permits.add(shedding.tryAcquire(Priority.CRITICAL));
+        assertEquals(10, shedding.getStats().limit());
+        permits.forEach(Permit::close);
+    }
+
+    @Test
+    @DisplayName("Sampel diambil paling sering sekali per interval")
+    void sampel_perInterval() {
+        hikariMeters();
+        LoadSheddingService shedding = service(4, 100, 3_600_000);
+        pending.set(10);
+
+        assertNull(shedding.tryAcquire(Priority.LOW));
+        assertEquals(90, shedding.getStats().limit());
+
+        pending.set(0);
+        shedding.sample();
+        assertNull(shedding.tryAcquire(Priority.LOW));
+        assertEquals(90, shedding.getStats().limit());
+        assertTrue(shedding.getStats().congested());
+    }
+}
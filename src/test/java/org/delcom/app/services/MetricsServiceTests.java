@@ -0,0 +1,47 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.services.MetricsService.AuthOutcome;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MetricsServiceTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MetricsService metricsService = new MetricsService(registry);
+
+    @Test
+    @DisplayName("Counter auth terdaftar untuk setiap outcome sejak awal")
+    void recordAuth_perOutcome() {
+        metricsService.recordAuth(AuthOutcome.SUCCESS);
+        metricsService.recordAuth(AuthOutcome.SUCCESS);
+        metricsService.recordAuth(AuthOutcome.EXPIRED_TOKEN);
+
+        assertEquals(2.0, registry.get("app.auth.requests").tag("outcome", "success").counter().count());
+        assertEquals(1.0, registry.get("app.auth.requests").tag("outcome", "expired_token").counter().count());
+        assertEquals(0.0, registry.get("app.auth.requests").tag("outcome", "missing_token").counter().count());
+        assertEquals(AuthOutcome.values().length, registry.get("app.auth.requests").counters().size());
+    }
+
+    @Test
+    @DisplayName("Upload mencatat ukuran dan durasi ingest")
+    void recordUpload_ukuranDanDurasi() {
+        metricsService.recordUpload(150_000, TimeUnit.MILLISECONDS.toNanos(40));
+        metricsService.recordUpload(50_000, TimeUnit.MILLISECONDS.toNanos(20));
+
+        DistributionSummary bytes = registry.get("app.upload.bytes").summary();
+        assertEquals(2, bytes.count());
+        assertEquals(200_000.0, bytes.totalAmount());
+
+        Timer duration = registry.get("app.upload.duration").timer();
+        assertEquals(2, duration.count());
+        assertEquals(60.0, duration.totalTime(TimeUnit.MILLISECONDS));
+    }
+}
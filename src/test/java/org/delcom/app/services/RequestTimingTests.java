@@ -0,0 +1,119 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.delcom.app.services.RequestTiming.Phase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RequestTimingTests {
+
+    @AfterEach
+    void tearDown() {
+        RequestTiming.clear();
+    }
+
+    @Test
+    @DisplayName("Tanpa request yang diukur, pencatatan diabaikan")
+    void tanpaRequest_diabaikan() {
+        RequestTiming.record(Phase.AUTH, 1_000L);
+        RequestTiming.recordQuery(1_000L);
+        RequestTiming.markRenderStart();
+
+        assertNull(RequestTiming.current());
+    }
+
+    @Test
+    @DisplayName("Fase dan jumlah query dijumlahkan per request")
+    void fase_dijumlahkan() {
+        RequestTiming timing = RequestTiming.start();
+        assertSame(timing, RequestTiming.current());
+
+        RequestTiming.record(Phase.AUTH, 1_000_000L);
+        RequestTiming.record(Phase.FILE, 4_000_000L);
+        RequestTiming.recordQuery(2_000_000L);
+        RequestTiming.recordQuery(500_000L);
+
+        assertEquals(1_000_000L, timing.nanos(Phase.AUTH));
+        assertEquals(2_500_000L, timing.nanos(Phase.DB));
+        assertEquals(4_000_000L, timing.nanos(Phase.FILE));
+        assertEquals(0L, timing.nanos(Phase.RENDER));
+        assertEquals(2, timing.queries());
+    }
+
+    @Test
+    @DisplayName("Header Server-Timing hanya berisi fase yang terjadi, ditutup total")
+    void serverTiming_header() {
+        RequestTiming timing = RequestTiming.start();
+        RequestTiming.record(Phase.AUTH, 1_204_000L);
+        RequestTiming.recordQuery(5_310_000L);
+        RequestTiming.recordQuery(1_000L);
+
+        String header = timing.toServerTiming();
+
+        assertTrue(header.startsWith("auth;dur=1.204, db;dur=5.311;desc=\"2 queries\", total;dur="), header);
+        assertFalse(header.contains("render"));
+        assertFalse(header.contains("file"));
+    }
+
+    @Test
+    @DisplayName("Render yang berjalan ikut dihitung di header dan ditutup oleh finish()")
+    void render_ditutupFinish() throws InterruptedException {
+        RequestTiming timing = RequestTiming.start();
+        RequestTiming.markRenderStart();
+        Thread.sleep(2);
+
+        assertTrue(timing.toServerTiming().startsWith("render;dur="));
+
+        timing.finish();
+        long render = timing.nanos(Phase.RENDER);
+        long total = timing.totalNanos();
+        assertTrue(render > 0);
+        assertTrue(total >= render);
+
+        // Setelah finish: nilai tetap, pencatatan diabaikan
+        timing.finish();
+        RequestTiming.record(Phase.AUTH, 1_000L);
+        RequestTiming.recordQuery(1_000L);
+        RequestTiming.markRenderStart();
+        assertEquals(render, timing.nanos(Phase.RENDER));
+        assertEquals(total, timing.totalNanos());
+        assertEquals(0L, timing.nanos(Phase.AUTH));
+        assertEquals(0, timing.queries());
+        assertTrue(timing.toServerTiming().endsWith("total;dur=" + millis(total)));
+    }
+
+    @Test
+    @DisplayName("JSON access log memuat semua fase")
+    void json_semuaFase() {
+        RequestTiming timing = RequestTiming.start();
+        RequestTiming.recordQuery(2_000_000L);
+        timing.finish();
+
+        StringBuilder json = new StringBuilder();
+        timing.appendJson(json);
+
+        assertEquals("{\"auth_ms\":0.000,\"db_ms\":2.000,\"db_queries\":1,\"render_ms\":0.000,"
+                + "\"file_ms\":0.000,\"total_ms\":" + millis(timing.totalNanos()) + "}", json.toString());
+    }
+
+    @Test
+    @DisplayName("Milidetik ditulis dengan tiga desimal")
+    void appendMillis_tigaDesimal() {
+        assertEquals("0.000", millis(999L));
+        assertEquals("0.007", millis(7_000L));
+        assertEquals("0.042", millis(42_000L));
+        assertEquals("12.345", millis(12_345_678L));
+    }
+
+    private static String millis(long nanos) {
+        StringBuilder out = new StringBuilder();
+        RequestTiming.appendMillis(out, nanos);
+        return out.toString();
+    }
+}
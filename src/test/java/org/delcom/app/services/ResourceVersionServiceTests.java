@@ -0,0 +1,51 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.delcom.app.repositories.CollectionVersionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ResourceVersionServiceTests {
+
+    private final CollectionVersionRepository repository = mock(CollectionVersionRepository.class);
+    private final ResourceVersionService versions = new ResourceVersionService(repository);
+
+    @Test
+    @DisplayName("Versi 0 jika user belum pernah menulis, selain itu dibaca dari database")
+    void current_dari_database() {
+        UUID userA = UUID.randomUUID();
+        UUID userB = UUID.randomUUID();
+        when(repository.findVersionByUserId(userA)).thenReturn(Optional.of(2L));
+        when(repository.findVersionByUserId(userB)).thenReturn(Optional.empty());
+
+        assertEquals(2, versions.current(userA));
+        assertEquals(0, versions.current(userB));
+    }
+
+    @Test
+    @DisplayName("Bump menaikkan penghitung di database")
+    void bump_increment() {
+        UUID userId = UUID.randomUUID();
+
+        versions.bump(userId);
+
+        verify(repository).increment(userId);
+    }
+
+    @Test
+    @DisplayName("Tag koleksi mengikuti versi di database, sama di semua instance")
+    void collectionTag_dari_versi() {
+        UUID userId = UUID.randomUUID();
+        when(repository.findVersionByUserId(userId)).thenReturn(Optional.of(12L));
+
+        assertEquals("v12", versions.collectionTag(userId));
+        assertEquals("v12", new ResourceVersionService(repository).collectionTag(userId));
+    }
+}
@@ -0,0 +1,236 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import org.delcom.app.services.SlowQueryLogService.ParameterBinding;
+import org.delcom.app.services.SlowQueryLogService.SlowQuery;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SlowQueryLogServiceTests {
+
+    private static final String SELECT = "select * from food_products where user_id=? and batch_code='B-1'";
+
+    private static final String FINGERPRINT = "select * from food_products where user_id=? and batch_code=?";
+
+    private static Method setter(String name, Class<?> type) throws Exception {
+        return PreparedStatement.class.getMethod(name, int.class, type);
+    }
+
+    private static void awaitPlan(SlowQuery entry) throws InterruptedException {
+        for (int i = 0; i < 200 && entry.getPlan() == null; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    @DisplayName("Threshold dan status aktif mengikuti konfigurasi")
+    void threshold_danStatus() {
+        SlowQueryLogService service = new SlowQueryLogService(true, 200, 10, false, false, 10);
+
+        assertTrue(service.isEnabled());
+        assertEquals(200, service.getThresholdMs());
+        assertTrue(service.isSlow(200_000_000L));
+        assertFalse(service.isSlow(199_999_999L));
+        assertFalse(new SlowQueryLogService(false, 200, 10, false, false, 10).isEnabled());
+        // ANALYZE hanya berlaku jika EXPLAIN juga aktif
+        assertFalse(service.isExplainAnalyze());
+        assertFalse(new SlowQueryLogService(true, 200, 10, false, true, 10).isExplainAnalyze());
+        assertTrue(new SlowQueryLogService(true, 200, 10, true, true, 10).isExplainAnalyze());
+    }
+
+    @Test
+    @DisplayName("Ring menyimpan entri terbaru lebih dulu dan membuang yang tertua")
+    void record_ringTerbatas() throws Exception {
+        SlowQueryLogService service = new SlowQueryLogService(true, 0, 2, false, false, 10);
+
+        service.record(null, "select 1", List.of(), List.of(), 1, 1_000_000L);
+        service.record(null, "select 2", List.of(), List.of(), 2, 2_000_000L);
+        SlowQuery latest = service.record(null, SELECT,
+                List.of(SlowQueryLogService.parameterType(setter("setObject", Object.class), UUID.randomUUID())),
+                List.of(), 3, 3_500_000L);
+
+        List<SlowQuery> recent = service.getRecent();
+        assertEquals(2, recent.size());
+        assertEquals(latest, recent.get(0));
+        assertEquals(FINGERPRINT, latest.getSql());
+        assertEquals(List.of("UUID"), latest.getParameterTypes());
+        assertEquals(3, latest.getRows());
+        assertEquals(3.5, latest.getDurationMs());
+        assertTrue(latest.getTimestamp() != null);
+        // EXPLAIN nonaktif
+        assertNull(latest.getPlan());
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("Tipe parameter dicatat tanpa nilainya")
+    void parameterType_tanpaNilai() throws Exception {
+        Method setString = setter("setString", String.class);
+        Method setObject = setter("setObject", Object.class);
+
+        assertSame(setString, SlowQueryLogService.parameterType(setString, "rahasia"));
+        assertEquals("String", SlowQueryLogService.typeName(SlowQueryLogService.parameterType(setString, "rahasia")));
+        assertSame(UUID.class, SlowQueryLogService.parameterType(setObject, UUID.randomUUID()));
+        assertEquals("null", SlowQueryLogService.typeName(SlowQueryLogService.parameterType(setObject, null)));
+        assertEquals("null", SlowQueryLogService.typeName(
+                SlowQueryLogService.parameterType(setter("setNull", int.class), Types.BIGINT)));
+    }
+
+    @Test
+    @DisplayName("Hanya SELECT yang di-EXPLAIN")
+    void isExplainable() {
+        assertTrue(SlowQueryLogService.isExplainable("  SELECT 1"));
+        assertFalse(SlowQueryLogService.isExplainable("delete from food_products"));
+    }
+
+    @Test
+    @DisplayName("EXPLAIN generik dari SQL asli dijalankan di background tanpa nilai parameter lalu di-rollback")
+    void record_explainAsync() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(SlowQueryLogService.GENERIC_PLAN_PREFIX + SELECT)).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenReturn(true, true, false);
+        when(rs.getString(1)).thenReturn("Seq Scan on food_products  (cost=0.00..1.05 rows=1 width=64)",
+                "  Filter: ((user_id = $1) AND ((batch_code)::text = 'B-1'::text))");
+
+        SlowQueryLogService service = new SlowQueryLogService(true, 0, 10, true, false, 5);
+        SlowQuery entry = service.record(dataSource, SELECT,
+                List.of(SlowQueryLogService.parameterType(setter("setString", String.class), "u-1")), List.of(), 0,
+                1_000_000L);
+        // Non-SELECT tidak di-EXPLAIN
+        SlowQuery update = service.record(dataSource, "update food_products set notes=?", List.of(), List.of(), 1,
+                1_000_000L);
+        awaitPlan(entry);
+
+        // Entri tetap menampilkan fingerprint; literal di plan disamarkan, cost tetap
+        assertEquals(FINGERPRINT, entry.getSql());
+        assertEquals("Seq Scan on food_products  (cost=0.00..1.05 rows=1 width=64)\n"
+                + "  Filter: ((user_id = $1) AND ((batch_code)::text = '?'::text))\n", entry.getPlan());
+        assertNull(update.getPlan());
+        verify(connection).setReadOnly(true);
+        verify(connection).setAutoCommit(false);
+        verify(statement).setQueryTimeout(5);
+        // Hanya placeholder asli yang diisi NULL; literal 'B-1' tetap bagian dari SQL
+        verify(statement).setNull(1, Types.OTHER);
+        verify(statement, never()).setNull(2, Types.OTHER);
+        verify(statement, never()).setString(anyInt(), anyString());
+        verify(connection).rollback();
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("EXPLAIN dilewati selama ada request yang menunggu koneksi pool")
+    void explain_poolSibuk() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        HikariDataSource hikari = mock(HikariDataSource.class);
+        HikariPoolMXBean pool = mock(HikariPoolMXBean.class);
+        when(dataSource.isWrapperFor(HikariDataSource.class)).thenReturn(true);
+        when(dataSource.unwrap(HikariDataSource.class)).thenReturn(hikari);
+
+        // Pool belum dimulai
+        assertFalse(SlowQueryLogService.poolBusy(dataSource));
+        when(hikari.getHikariPoolMXBean()).thenReturn(pool);
+        assertFalse(SlowQueryLogService.poolBusy(dataSource));
+
+        when(pool.getThreadsAwaitingConnection()).thenReturn(2);
+        SlowQueryLogService service = new SlowQueryLogService(true, 0, 10, true, false, 5);
+        SlowQuery entry = new SlowQuery(null, FINGERPRINT, List.of(), 0, 1.0);
+        service.explain(dataSource, SELECT, List.of(), entry);
+
+        assertEquals("EXPLAIN dilewati: ada request yang sedang menunggu koneksi", entry.getPlan());
+        verify(dataSource, never()).getConnection();
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("EXPLAIN yang gagal dicatat sebagai pesan di plan")
+    void explain_gagal() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(SlowQueryLogService.GENERIC_PLAN_PREFIX + SELECT)).thenReturn(statement);
+        doThrow(new SQLException("could not determine data type of parameter $2")).when(statement).executeQuery();
+
+        SlowQueryLogService service = new SlowQueryLogService(true, 0, 10, true, false, 5);
+        SlowQuery entry = new SlowQuery(null, FINGERPRINT, List.of(), 0, 1.0);
+        service.explain(dataSource, SELECT, List.of(), entry);
+
+        assertEquals("EXPLAIN gagal: could not determine data type of parameter $2", entry.getPlan());
+        verify(connection).rollback();
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("EXPLAIN ANALYZE memutar ulang nilai parameter, pengukuran tetap dan literal disamarkan")
+    void explain_analyze() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(SlowQueryLogService.ANALYZE_PREFIX + SELECT)).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenReturn(true, true, true, false);
+        when(rs.getString(1)).thenReturn(
+                "Index Scan using idx_food_products_user_created on food_products  (cost=0.29..8.31 rows=1 width=64)"
+                        + " (actual time=0.010..0.012 rows=1 loops=1)",
+                "  Index Cond: ((user_id = 'u-1'::uuid) AND (stock > 5))",
+                "  Buffers: shared hit=3");
+
+        SlowQueryLogService service = new SlowQueryLogService(true, 0, 10, true, true, 5);
+        SlowQuery entry = new SlowQuery(null, FINGERPRINT, List.of("String"), 1, 1.0);
+        service.explain(dataSource, SELECT,
+                List.of(new ParameterBinding(setter("setString", String.class), new Object[] { 1, "u-1" })), entry);
+
+        assertEquals("Index Scan using idx_food_products_user_created on food_products  (cost=0.29..8.31 rows=1 width=64)"
+                + " (actual time=0.010..0.012 rows=1 loops=1)\n"
+                + "  Index Cond: ((user_id = '?'::uuid) AND (stock > ?))\n"
+                + "  Buffers: shared hit=3\n", entry.getPlan());
+        verify(statement).setString(1, "u-1");
+        verify(statement, never()).setNull(anyInt(), anyInt());
+        verify(connection).setReadOnly(true);
+        verify(connection).rollback();
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("Redaksi plan: angka pengukuran, modifier tipe, dan placeholder tidak diubah")
+    void redact_hanyaLiteral() {
+        assertEquals("  Rows Removed by Filter: 12", SlowQueryLogService.redact("  Rows Removed by Filter: 12"));
+        assertEquals("  Filter: ((price)::numeric(38,2) > $1)",
+                SlowQueryLogService.redact("  Filter: ((price)::numeric(38,2) > $1)"));
+        assertEquals("  Hash Cond: (f1_0.id = ?)", SlowQueryLogService.redact("  Hash Cond: (f1_0.id = 42)"));
+        assertEquals("Sort Key: ('?'::text)", SlowQueryLogService.redact("Sort Key: ('it''s'::text)"));
+    }
+}
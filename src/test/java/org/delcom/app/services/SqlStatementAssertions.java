@@ -0,0 +1,31 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Helper test: jalankan satu panggilan (mis. {@code mockMvc.perform(...)} di
+ * {@code @SpringBootTest}) dan pastikan jumlah statement SQL-nya tidak melebihi
+ * batas. Pesan gagal berisi fingerprint SQL yang dijalankan.
+ */
+public final class SqlStatementAssertions {
+
+    @FunctionalInterface
+    public interface Call {
+        void run() throws Exception;
+    }
+
+    private SqlStatementAssertions() {
+    }
+
+    public static SqlStatementMonitor.Recording assertMaxStatements(int max, Call call) throws Exception {
+        SqlStatementMonitor.Recording recording = SqlStatementMonitor.startRecording();
+        try {
+            call.run();
+        } finally {
+            SqlStatementMonitor.stopRecording(recording);
+        }
+        assertTrue(recording.count() <= max, () -> "Diharapkan maksimal " + max + " statement SQL, tercatat "
+                + recording.count() + ": " + recording.fingerprints());
+        return recording;
+    }
+}
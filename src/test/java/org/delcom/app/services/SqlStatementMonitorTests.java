@@ -0,0 +1,159 @@
+package org.delcom.app.services;
+
+import static org.delcom.app.services.SqlStatementAssertions.assertMaxStatements;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.opentest4j.AssertionFailedError;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class SqlStatementMonitorTests {
+
+    private static final String FIND_BY_ID = "select fp1_0.id,fp1_0.product_name from food_products fp1_0 where fp1_0.id=?";
+    private static final String COUNT_STATUS = "select count(*) from food_products fp1_0 where fp1_0.inspection_status=?";
+
+    private final SqlStatementMonitor monitor = new SqlStatementMonitor(true, 5, 5, 3);
+
+    private static SqlStatementMonitor.Recording recordingOf(SqlStatementMonitor monitor, String... statements) {
+        SqlStatementMonitor.Recording recording = SqlStatementMonitor.startRecording();
+        for (String sql : statements) {
+            assertSame(sql, monitor.inspect(sql));
+        }
+        SqlStatementMonitor.stopRecording(recording);
+        return recording;
+    }
+
+    @Test
+    @DisplayName("Monitor didaftarkan sebagai StatementInspector hanya jika aktif")
+    void customize_mendaftarkanInspector() {
+        Map<String, Object> properties = new HashMap<>();
+        monitor.customize(properties);
+        assertSame(monitor, properties.get(AvailableSettings.STATEMENT_INSPECTOR));
+        assertTrue(monitor.isEnabled());
+
+        SqlStatementMonitor disabled = new SqlStatementMonitor(false, 5, 5, 3);
+        Map<String, Object> empty = new HashMap<>();
+        disabled.customize(empty);
+        assertTrue(empty.isEmpty());
+        assertFalse(disabled.isEnabled());
+    }
+
+    @Test
+    @DisplayName("Statement di luar recording dan transaksi diabaikan")
+    void inspect_tanpaRecording() {
+        assertSame(FIND_BY_ID, monitor.inspect(FIND_BY_ID));
+    }
+
+    @Test
+    @DisplayName("Recording bertingkat: statement juga dihitung di recording luar")
+    void recording_bertingkat() {
+        SqlStatementMonitor.Recording outer = SqlStatementMonitor.startRecording();
+        monitor.inspect(COUNT_STATUS);
+        SqlStatementMonitor.Recording inner = recordingOf(monitor, FIND_BY_ID, FIND_BY_ID);
+        monitor.inspect(COUNT_STATUS);
+        SqlStatementMonitor.stopRecording(outer);
+        monitor.inspect(COUNT_STATUS);
+
+        assertEquals(2, inner.count());
+        assertEquals(4, outer.count());
+        assertEquals(2, inner.maxRepeats());
+        assertEquals(2, outer.maxRepeats());
+        assertEquals(List.of(2, 2), List.copyOf(outer.fingerprints().values()));
+    }
+
+    @Test
+    @DisplayName("Laporan hanya untuk request di atas budget atau dengan SQL berulang")
+    void report_budgetDanNPlusOne() {
+        assertFalse(monitor.report("Request GET /a", recordingOf(monitor, FIND_BY_ID, COUNT_STATUS), 5));
+        assertFalse(monitor.report("Request GET /b",
+                recordingOf(monitor, FIND_BY_ID, COUNT_STATUS, "select 1"), 5));
+        assertTrue(monitor.report("Request GET /c",
+                recordingOf(monitor, FIND_BY_ID, FIND_BY_ID, FIND_BY_ID), 5));
+        assertTrue(monitor.report("Request GET /d",
+                recordingOf(monitor, "select 1", "select 2", "select 3", "select 4", "select 5", "select 6"), 5));
+    }
+
+    @Test
+    @DisplayName("Pengulangan dihitung dari teks SQL mentah, bukan fingerprint")
+    void report_pengulanganTeksMentah() {
+        SqlStatementMonitor.Recording recording = recordingOf(monitor,
+                "select * from food_products where id=1",
+                "select * from food_products where id=2",
+                "select * from food_products where id=3");
+
+        assertEquals(1, recording.maxRepeats());
+        assertFalse(monitor.report("Request GET /e", recording, 5));
+    }
+
+    @Test
+    @DisplayName("finishRequest menutup recording thread saat ini")
+    void finishRequest_menutupRecording() {
+        SqlStatementMonitor.Recording recording = SqlStatementMonitor.startRecording();
+        monitor.inspect(FIND_BY_ID);
+        monitor.finishRequest(recording, "GET /api/food-products");
+        monitor.inspect(FIND_BY_ID);
+
+        assertEquals(1, recording.count());
+    }
+
+    @Test
+    @DisplayName("Statement dihitung per transaksi dan dilaporkan setelah transaksi selesai")
+    void inspect_perTransaksi() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setCurrentTransactionName("FoodQualityService.deleteProduct");
+        try {
+            for (int i = 0; i < 3; i++) {
+                monitor.inspect(FIND_BY_ID);
+            }
+            SqlStatementMonitor.Recording recording =
+                    (SqlStatementMonitor.Recording) TransactionSynchronizationManager.getResource(monitor);
+            assertEquals(3, recording.count());
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            assertEquals(1, synchronizations.size());
+            synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            assertNull(TransactionSynchronizationManager.getResource(monitor));
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionName(null);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Fingerprint membuang literal dan meringkas daftar IN")
+    void fingerprint_normalisasi() {
+        assertEquals("select * from food_products where batch_code=? and id in (?) limit ?",
+                SqlStatementMonitor.fingerprint(
+                        "select *  from food_products\n where batch_code='B-''01' and id in (?, ?,?) limit 10"));
+        assertEquals("select fp1_0.id from food_products fp1_0 where fp1_0.id=?",
+                SqlStatementMonitor.fingerprint("select fp1_0.id from food_products fp1_0 where fp1_0.id=?"));
+    }
+
+    @Test
+    @DisplayName("Helper test gagal jika panggilan melebihi jumlah statement")
+    void assertMaxStatements_helper() throws Exception {
+        SqlStatementMonitor.Recording recording = assertMaxStatements(2, () -> {
+            monitor.inspect(FIND_BY_ID);
+            monitor.inspect(COUNT_STATUS);
+        });
+        assertEquals(2, recording.count());
+
+        AssertionFailedError error = assertThrows(AssertionFailedError.class, () -> assertMaxStatements(1, () -> {
+            monitor.inspect(FIND_BY_ID);
+            monitor.inspect(FIND_BY_ID);
+        }));
+        assertTrue(error.getMessage().contains(FIND_BY_ID + "=2"));
+    }
+}
@@ -0,0 +1,171 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.delcom.app.services.UploadAdmissionService.Permit;
+import org.delcom.app.services.UploadAdmissionService.Ticket;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class UploadAdmissionServiceTests {
+
+    @Test
+    @DisplayName("Slot tidak boleh ditunggu di dalam transaksi (koneksi pool ikut tertahan)")
+    void acquire_ditolak_dalam_transaksi() {
+        UploadAdmissionService admission = new UploadAdmissionService(1, 0, 10, 5);
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThrows(IllegalStateException.class, admission::acquire);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        assertEquals(0, admission.getStats().active());
+    }
+
+    @Test
+    @DisplayName("Slot dilepas saat permit ditutup, close kedua tidak berpengaruh")
+    void acquire_dan_close() {
+        UploadAdmissionService admission = new UploadAdmissionService(1, 0, 10, 5);
+
+        Permit permit = admission.acquire();
+        assertEquals(1, admission.getStats().active());
+
+        permit.close();
+        permit.close();
+        assertEquals(0, admission.getStats().active());
+        assertEquals(1, admission.getStats().maxConcurrent());
+    }
+
+    @Test
+    @DisplayName("Upload ditolak jika slot penuh dan antrean tidak tersedia")
+    void acquire_ditolak_antrean_penuh() {
+        UploadAdmissionService admission = new UploadAdmissionService(1, 0, 10, 5);
+
+        try (Permit permit = admission.acquire()) {
+            UploadRejectedException e = assertThrows(UploadRejectedException.class, admission::acquire);
+            assertEquals(5, e.getRetryAfterSeconds());
+        }
+        assertEquals(1, admission.getStats().rejected());
+        assertEquals(0, admission.getStats().waiting());
+    }
+
+    @Test
+    @DisplayName("Upload di antrean ditolak setelah waktu tunggu habis")
+    void acquire_ditolak_timeout() {
+        UploadAdmissionService admission = new UploadAdmissionService(1, 1, 10, 5);
+
+        try (Permit permit = admission.acquire()) {
+            assertThrows(UploadRejectedException.class, admission::acquire);
+        }
+        assertEquals(0, admission.getStats().waiting());
+        assertEquals(1, admission.getStats().queueCapacity());
+    }
+
+    @Test
+    @DisplayName("Upload di antrean mendapat slot setelah slot lain dilepas")
+    void acquire_menunggu_di_antrean() throws Exception {
+        UploadAdmissionService admission = new UploadAdmissionService(1, 1, 5000, 5);
+        Permit first = admission.acquire();
+
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiter = Thread.ofVirtual().start(() -> {
+            try (Permit second = admission.acquire()) {
+                acquired.countDown();
+            }
+        });
+        for (int i = 0; i < 200 && admission.getStats().waiting() == 0; i++) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, admission.getStats().waiting());
+
+        first.close();
+        assertTrue(acquired.await(2, TimeUnit.SECONDS));
+        waiter.join();
+    }
+
+    @Test
+    @DisplayName("Thread yang di-interrupt saat antre ditolak")
+    void acquire_interrupted() throws Exception {
+        UploadAdmissionService admission = new UploadAdmissionService(0, 1, 5000, 5);
+
+        Thread.currentThread().interrupt();
+        assertThrows(UploadRejectedException.class, admission::acquire);
+        assertTrue(Thread.interrupted());
+    }
+
+    @Test
+    @DisplayName("Task async dijalankan setelah mendapat slot")
+    void ticket_start_menjalankan_task() throws Exception {
+        UploadAdmissionService admission = new UploadAdmissionService(1, 2, 10, 5);
+        CountDownLatch done = new CountDownLatch(2);
+
+        Ticket ticket = admission.reserve();
+        assertEquals(1, admission.getStats().waiting());
+        ticket.start(done::countDown);
+        ticket.start(done::countDown); // ticket hanya bisa dipakai sekali
+
+        Ticket failing = admission.reserve();
+        failing.start(() -> {
+            done.countDown();
+            throw new IllegalStateException("gagal");
+        });
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        for (int i = 0; i < 200 && admission.getStats().active() > 0; i++) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, admission.getStats().active());
+        assertEquals(0, admission.getStats().waiting());
+    }
+
+    @Test
+    @DisplayName("Reservasi ditolak saat antrean penuh dan bisa dibatalkan")
+    void reserve_penuh_dan_cancel() {
+        UploadAdmissionService admission = new UploadAdmissionService(1, 1, 10, 5);
+
+        Ticket ticket = admission.reserve();
+        assertThrows(UploadRejectedException.class, admission::reserve);
+
+        ticket.cancel();
+        ticket.cancel();
+        assertEquals(0, admission.getStats().waiting());
+    }
+
+    @Test
+    @DisplayName("MDC (correlation ID) request asal ikut ke worker upload")
+    void ticket_start_membawa_mdc() throws Exception {
+        UploadAdmissionService admission = new UploadAdmissionService(2, 2, 10, 5);
+        AtomicReference<String> withMdc = new AtomicReference<>();
+        AtomicReference<String> withoutMdc = new AtomicReference<>("awal");
+        CountDownLatch done = new CountDownLatch(2);
+
+        MDC.put("requestId", "req-123");
+        try {
+            admission.reserve().start(() -> {
+                withMdc.set(MDC.get("requestId"));
+                done.countDown();
+            });
+        } finally {
+            MDC.remove("requestId");
+        }
+        // Thread baru tanpa MDC sama sekali
+        Thread.ofPlatform().start(() -> admission.reserve().start(() -> {
+            withoutMdc.set(MDC.get("requestId"));
+            done.countDown();
+        })).join();
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertEquals("req-123", withMdc.get());
+        assertNull(withoutMdc.get());
+    }
+}
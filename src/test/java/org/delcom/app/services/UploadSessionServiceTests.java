@@ -0,0 +1,223 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import org.delcom.app.services.UploadSessionService.UploadSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.multipart.MultipartFile;
+
+class UploadSessionServiceTests {
+
+    private UploadSessionService uploadSessionService;
+    private UUID userId;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setup() {
+        uploadSessionService = new UploadSessionService();
+        uploadSessionService.uploadDir = tempDir.toString();
+        uploadSessionService.maxSize = 1024;
+        uploadSessionService.sessionTtlHours = 24;
+        userId = UUID.randomUUID();
+    }
+
+    private static InputStream bytes(String content) {
+        return new ByteArrayInputStream(content.getBytes());
+    }
+
+    @Test
+    @DisplayName("Upload dua chunk menghasilkan file yang lengkap")
+    void appendChunk_dua_chunk_lengkap() throws Exception {
+        UploadSession session = uploadSessionService.createSession(userId, "a.jpg", "image/jpeg", 10);
+        assertNull(uploadSessionService.toMultipartFile(session));
+
+        assertEquals(4, uploadSessionService.appendChunk(session, 0, bytes("abcd")));
+        assertFalse(session.isComplete());
+        assertEquals(10, uploadSessionService.appendChunk(session, 4, bytes("efghij")));
+        assertTrue(session.isComplete());
+
+        MultipartFile file = uploadSessionService.toMultipartFile(session);
+        assertNotNull(file);
+        assertEquals("imageFile", file.getName());
+        assertEquals("a.jpg", file.getOriginalFilename());
+        assertEquals("image/jpeg", file.getContentType());
+        assertEquals(10, file.getSize());
+        assertFalse(file.isEmpty());
+        assertArrayEquals("abcdefghij".getBytes(), file.getBytes());
+        try (InputStream in = file.getInputStream()) {
+            assertArrayEquals("abcdefghij".getBytes(), in.readAllBytes());
+        }
+
+        Path copy = tempDir.resolve("copy.jpg");
+        file.transferTo(copy.toFile());
+        assertArrayEquals("abcdefghij".getBytes(), Files.readAllBytes(copy));
+    }
+
+    @Test
+    @DisplayName("Offset yang tidak sesuai ditolak")
+    void appendChunk_offset_salah() throws Exception {
+        UploadSession session = uploadSessionService.createSession(userId, "a.jpg", "image/jpeg", 10);
+        uploadSessionService.appendChunk(session, 0, bytes("abcd"));
+
+        assertThrows(IllegalStateException.class,
+                () -> uploadSessionService.appendChunk(session, 0, bytes("abcd")));
+        assertEquals(4, session.getOffset());
+    }
+
+    @Test
+    @DisplayName("Chunk yang melebihi ukuran total ditolak, byte sebelumnya tetap tersimpan")
+    void appendChunk_melebihi_ukuran() throws Exception {
+        UploadSession session = uploadSessionService.createSession(userId, "a.jpg", "image/jpeg", 3);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> uploadSessionService.appendChunk(session, 0, bytes("abcd")));
+        assertEquals(0, session.getOffset());
+    }
+
+    @Test
+    @DisplayName("Koneksi putus di tengah chunk: offset mengikuti byte yang sudah tertulis")
+    void appendChunk_koneksi_putus() throws Exception {
+        UploadSession session = uploadSessionService.createSession(userId, "a.jpg", "image/jpeg", 10);
+        InputStream broken = new InputStream() {
+            private int sent;
+
+            @Override
+            public int read() throws IOException {
+                if (sent == 3) {
+                    throw new IOException("putus");
+                }
+                sent++;
+                return 'x';
+            }
+        };
+
+        assertThrows(IOException.class, () -> uploadSessionService.appendChunk(session, 0, broken));
+        assertEquals(3, session.getOffset());
+        assertEquals(3, uploadSessionService.appendChunk(session, 3, bytes("")));
+    }
+
+    @Test
+    @DisplayName("Validasi parameter saat membuat sesi")
+    void createSession_validasi() {
+        assertThrows(IllegalArgumentException.class,
+                () -> uploadSessionService.createSession(userId, null, "image/jpeg", 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> uploadSessionService.createSession(userId, " ", "image/jpeg", 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> uploadSessionService.createSession(userId, "a.jpg", null, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> uploadSessionService.createSession(userId, "a.jpg", "image/jpeg", 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> uploadSessionService.createSession(userId, "a.jpg", "image/jpeg", 2048));
+    }
+
+    @Test
+    @DisplayName("Sesi dimuat ulang dari metadata setelah restart")
+    void getSession_setelah_restart() throws Exception {
+        UploadSession session = uploadSessionService.createSession(userId, "a.jpg", "image/png", 10);
+        uploadSessionService.appendChunk(session, 0, bytes("abcde"));
+        assertSame(session, uploadSessionService.getSession(userId, session.getId()));
+
+        UploadSessionService restarted = new UploadSessionService();
+        restarted.uploadDir = tempDir.toString();
+        restarted.sessionTtlHours = 24;
+
+        UploadSession reloaded = restarted.getSession(userId, session.getId());
+        assertNotNull(reloaded);
+        assertEquals("a.jpg", reloaded.getFilename());
+        assertEquals("image/png", reloaded.getContentType());
+        assertEquals(10, reloaded.getTotalSize());
+        assertEquals(5, reloaded.getOffset());
+        assertSame(reloaded, restarted.getSession(userId, session.getId()));
+    }
+
+    @Test
+    @DisplayName("Sesi milik user lain atau yang tidak ada tidak bisa diakses")
+    void getSession_user_lain() throws Exception {
+        UploadSession session = uploadSessionService.createSession(userId, "a.jpg", "image/jpeg", 10);
+
+        assertNull(uploadSessionService.getSession(UUID.randomUUID(), session.getId()));
+        assertNull(uploadSessionService.getSession(userId, UUID.randomUUID()));
+    }
+
+    @Test
+    @DisplayName("Sesi yang dibuang menghapus file sementara")
+    void discard_menghapus_file() throws Exception {
+        UploadSession session = uploadSessionService.createSession(userId, "a.jpg", "image/jpeg", 10);
+
+        uploadSessionService.discard(session);
+
+        assertNull(uploadSessionService.getSession(userId, session.getId()));
+        try (var files = Files.list(tempDir.resolve(".incoming"))) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Sesi kedaluwarsa dibersihkan")
+    void purgeExpired_membersihkan_sesi_lama() throws Exception {
+        UploadSession session = uploadSessionService.createSession(userId, "a.jpg", "image/jpeg", 10);
+        Path part = tempDir.resolve(".incoming").resolve(session.getId() + ".part");
+        Files.setLastModifiedTime(part, FileTime.from(Instant.now().minus(2, ChronoUnit.DAYS)));
+
+        UploadSessionService restarted = new UploadSessionService();
+        restarted.uploadDir = tempDir.toString();
+        restarted.sessionTtlHours = 24;
+
+        assertNull(restarted.getSession(userId, session.getId()));
+        restarted.purgeExpired();
+        assertFalse(Files.exists(part));
+
+        // Pembersihan berikutnya dalam satu menit dilewati
+        restarted.purgeExpired();
+    }
+
+    @Test
+    @DisplayName("Pembersihan tanpa direktori incoming tidak error")
+    void purgeExpired_tanpa_direktori() throws Exception {
+        uploadSessionService.purgeExpired();
+        assertFalse(Files.exists(tempDir.resolve(".incoming")));
+    }
+
+    @Test
+    @DisplayName("File asing dan metadata rusak di direktori incoming dilewati saat pembersihan")
+    void purgeExpired_melewati_file_asing() throws Exception {
+        UploadSession session = uploadSessionService.createSession(userId, "a.jpg", "image/jpeg", 10);
+        Path incoming = tempDir.resolve(".incoming");
+        Path part = incoming.resolve(session.getId() + ".part");
+        Files.setLastModifiedTime(part, FileTime.from(Instant.now().minus(2, ChronoUnit.DAYS)));
+        Path stray = Files.writeString(incoming.resolve("catatan.properties"), "x=1");
+        Path corrupt = Files.writeString(incoming.resolve(UUID.randomUUID() + ".properties"), "totalSize=abc");
+
+        UploadSessionService restarted = new UploadSessionService();
+        restarted.uploadDir = tempDir.toString();
+        restarted.sessionTtlHours = 24;
+        restarted.purgeExpired();
+
+        assertFalse(Files.exists(part));
+        assertTrue(Files.exists(stray));
+        assertTrue(Files.exists(corrupt));
+    }
+}
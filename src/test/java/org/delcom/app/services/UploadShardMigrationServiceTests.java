@@ -0,0 +1,177 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.delcom.app.utils.ShardedPathUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class UploadShardMigrationServiceTests {
+
+    private UploadShardMigrationService migrationService;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setup() {
+        migrationService = new UploadShardMigrationService();
+        migrationService.uploadDir = tempDir.toString();
+        migrationService.batchSize = 1;
+        migrationService.pauseMs = 0;
+    }
+
+    @Test
+    @DisplayName("File flat dipindahkan ke direktori shard")
+    void migrate_memindahkan_file_flat() throws Exception {
+        Files.write(tempDir.resolve("a.jpg"), "a".getBytes());
+        Files.write(tempDir.resolve("b.png"), "b".getBytes());
+
+        int moved = migrationService.migrate(tempDir);
+
+        assertEquals(2, moved);
+        assertFalse(Files.exists(tempDir.resolve("a.jpg")));
+        assertArrayEquals("a".getBytes(), Files.readAllBytes(ShardedPathUtil.shardedPath(tempDir, "a.jpg")));
+        assertEquals(ShardedPathUtil.shardedPath(tempDir, "b.png"),
+                ShardedPathUtil.resolveExisting(tempDir, "b.png"));
+    }
+
+    @Test
+    @DisplayName("Salinan flat dibuang jika versi shard sudah ada")
+    void migrate_tidak_menimpa_file_shard() throws Exception {
+        Path sharded = ShardedPathUtil.shardedPath(tempDir, "c.jpg");
+        Files.createDirectories(sharded.getParent());
+        Files.write(sharded, "baru".getBytes());
+        Files.write(tempDir.resolve("c.jpg"), "lama".getBytes());
+
+        int moved = migrationService.migrate(tempDir);
+
+        assertEquals(0, moved);
+        assertFalse(Files.exists(tempDir.resolve("c.jpg")));
+        assertArrayEquals("baru".getBytes(), Files.readAllBytes(sharded));
+    }
+
+    @Test
+    @DisplayName("File sementara dan direktori dilewati")
+    void migrate_melewati_file_sementara() throws Exception {
+        Files.write(tempDir.resolve(".ingest-1.tmp"), "x".getBytes());
+        Files.createDirectories(tempDir.resolve("ab"));
+
+        assertEquals(0, migrationService.migrate(tempDir));
+        assertTrue(Files.exists(tempDir.resolve(".ingest-1.tmp")));
+    }
+
+    @Test
+    @DisplayName("Root yang belum ada tidak dianggap error")
+    void migrate_root_tidak_ada() throws Exception {
+        assertEquals(0, migrationService.migrate(tempDir.resolve("tidak-ada")));
+    }
+
+    @Test
+    @DisplayName("Migrasi background berjalan saat aplikasi siap")
+    void startMigration_berjalan_di_background() throws Exception {
+        Files.write(tempDir.resolve("d.jpg"), "d".getBytes());
+        migrationService.enabled = true;
+
+        migrationService.startMigration();
+
+        Path sharded = ShardedPathUtil.shardedPath(tempDir, "d.jpg");
+        for (int i = 0; i < 100 && !Files.exists(sharded); i++) {
+            Thread.sleep(20);
+        }
+        assertTrue(Files.exists(sharded));
+    }
+
+    @Test
+    @DisplayName("Migrasi tidak berjalan jika dinonaktifkan")
+    void startMigration_dinonaktifkan() throws Exception {
+        Files.write(tempDir.resolve("e.jpg"), "e".getBytes());
+        migrationService.enabled = false;
+
+        migrationService.startMigration();
+
+        assertTrue(Files.exists(tempDir.resolve("e.jpg")));
+    }
+
+    @Test
+    @DisplayName("Satu file gagal tidak menghentikan migrasi file lain")
+    void migrate_melanjutkan_setelah_file_gagal() throws Exception {
+        migrationService = linkFailing("f.jpg", new AccessDeniedException("f.jpg"), null);
+        Files.write(tempDir.resolve("f.jpg"), "f".getBytes());
+        Files.write(tempDir.resolve("g.jpg"), "g".getBytes());
+
+        int moved = migrationService.migrate(tempDir);
+
+        assertEquals(1, moved);
+        assertTrue(Files.exists(tempDir.resolve("f.jpg")));
+        assertTrue(Files.exists(ShardedPathUtil.shardedPath(tempDir, "g.jpg")));
+    }
+
+    @Test
+    @DisplayName("Filesystem tanpa hard link memakai move untuk sisa migrasi")
+    void migrate_tanpa_hard_link_memakai_move() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        migrationService = linkFailing(null, new UnsupportedOperationException(), attempts);
+        Files.write(tempDir.resolve("h.jpg"), "h".getBytes());
+        Files.write(tempDir.resolve("i.jpg"), "i".getBytes());
+
+        int moved = migrationService.migrate(tempDir);
+
+        assertEquals(2, moved);
+        assertEquals(1, attempts.get());
+        assertFalse(Files.exists(tempDir.resolve("h.jpg")));
+        assertArrayEquals("h".getBytes(), Files.readAllBytes(ShardedPathUtil.shardedPath(tempDir, "h.jpg")));
+        assertArrayEquals("i".getBytes(), Files.readAllBytes(ShardedPathUtil.shardedPath(tempDir, "i.jpg")));
+    }
+
+    @Test
+    @DisplayName("Hard link yang ditolak filesystem (EPERM) diganti move tanpa menimpa shard")
+    void migrate_hard_link_ditolak_tidak_menimpa() throws Exception {
+        migrationService = linkFailing(null, new FileSystemException("j.jpg", null, "Operation not permitted"), null);
+        Path sharded = ShardedPathUtil.shardedPath(tempDir, "j.jpg");
+        Files.createDirectories(sharded.getParent());
+        Files.write(sharded, "baru".getBytes());
+        Files.write(tempDir.resolve("j.jpg"), "lama".getBytes());
+
+        int moved = migrationService.migrate(tempDir);
+
+        assertEquals(0, moved);
+        assertFalse(Files.exists(tempDir.resolve("j.jpg")));
+        assertArrayEquals("baru".getBytes(), Files.readAllBytes(sharded));
+    }
+
+    // Service yang createLink-nya gagal untuk file tertentu (atau semua file jika filename null)
+    private UploadShardMigrationService linkFailing(String filename, Exception failure, AtomicInteger attempts) {
+        UploadShardMigrationService service = new UploadShardMigrationService() {
+            @Override
+            void createLink(Path target, Path file) throws IOException {
+                if (attempts != null) {
+                    attempts.incrementAndGet();
+                }
+                if (filename == null || filename.equals(file.getFileName().toString())) {
+                    if (failure instanceof IOException io) {
+                        throw io;
+                    }
+                    throw (RuntimeException) failure;
+                }
+                super.createLink(target, file);
+            }
+        };
+        service.uploadDir = tempDir.toString();
+        service.batchSize = 1;
+        service.pauseMs = 0;
+        return service;
+    }
+}
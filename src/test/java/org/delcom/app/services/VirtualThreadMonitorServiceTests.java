@@ -0,0 +1,100 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.delcom.app.services.VirtualThreadMonitorService.PinningStats;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import jdk.jfr.Event;
+import jdk.jfr.Name;
+
+class VirtualThreadMonitorServiceTests {
+
+    // Pengganti jdk.VirtualThreadPinned yang bisa di-commit dari test
+    @Name("org.delcom.test.Pinned")
+    static class TestPinnedEvent extends Event {
+    }
+
+    @Test
+    @DisplayName("Monitor tidak berjalan pada mode platform thread atau jika dimatikan")
+    void start_tidak_aktif() {
+        VirtualThreadMonitorService platform = new VirtualThreadMonitorService(false, true, 20, 20);
+        platform.start();
+        assertFalse(platform.isMonitoring());
+        assertFalse(platform.getStats().virtualThreads());
+
+        VirtualThreadMonitorService disabled = new VirtualThreadMonitorService(true, false, 20, 20);
+        disabled.start();
+        assertFalse(disabled.isMonitoring());
+        disabled.stop();
+    }
+
+    @Test
+    @DisplayName("Event JFR di atas threshold dicatat per lokasi kode aplikasi")
+    void start_mencatat_event_jfr() throws Exception {
+        VirtualThreadMonitorService monitor = new VirtualThreadMonitorService(
+                true, true, 5, 20, "org.delcom.test.Pinned");
+        monitor.start();
+        try {
+            assertTrue(monitor.isMonitoring());
+
+            TestPinnedEvent event = new TestPinnedEvent();
+            event.begin();
+            Thread.sleep(30);
+            event.commit();
+
+            for (int i = 0; i < 100 && monitor.getStats().pinnedEvents() == 0; i++) {
+                Thread.sleep(100);
+            }
+            PinningStats stats = monitor.getStats();
+            assertEquals(1, stats.pinnedEvents());
+            assertTrue(stats.maxPinnedMs() >= 30);
+            assertTrue(stats.sites().keySet().iterator().next()
+                    .startsWith(VirtualThreadMonitorServiceTests.class.getName()));
+        } finally {
+            monitor.stop();
+        }
+        assertFalse(monitor.isMonitoring());
+    }
+
+    @Test
+    @DisplayName("Jumlah lokasi dibatasi, lokasi baru digabung ke (lainnya)")
+    void record_batas_lokasi() {
+        VirtualThreadMonitorService monitor = new VirtualThreadMonitorService(true, true, 20, 2);
+
+        assertTrue(monitor.record(Duration.ofMillis(40), "A"));
+        assertFalse(monitor.record(Duration.ofMillis(10), "A"));
+        assertTrue(monitor.record(Duration.ofMillis(25), "B"));
+        assertTrue(monitor.record(Duration.ofMillis(30), "C"));
+        assertFalse(monitor.record(Duration.ofMillis(30), "D"));
+        assertFalse(monitor.record(Duration.ofMillis(5), "B"));
+
+        PinningStats stats = monitor.getStats();
+        assertEquals(6, stats.pinnedEvents());
+        assertEquals(140, stats.totalPinnedMs());
+        assertEquals(40, stats.maxPinnedMs());
+        assertEquals(20, stats.thresholdMs());
+        assertEquals(Map.of("A", 2L, "B", 2L, VirtualThreadMonitorService.OTHER_SITES, 2L), stats.sites());
+    }
+
+    @Test
+    @DisplayName("Lokasi: frame aplikasi pertama, atau frame teratas jika tidak ada")
+    void site_dari_frame() {
+        assertEquals("(tanpa stack trace)", VirtualThreadMonitorService.site(List.of()));
+        assertEquals("org.postgresql.core.PGStream.receive:10", VirtualThreadMonitorService.site(List.of(
+                "org.postgresql.core.PGStream.receive:10", "java.lang.Thread.run:1")));
+        assertEquals("org.delcom.app.services.FoodQualityService.getAllProducts:90",
+                VirtualThreadMonitorService.site(List.of(
+                        "org.postgresql.core.PGStream.receive:10",
+                        "org.delcom.app.services.FoodQualityService.getAllProducts:90",
+                        "org.delcom.app.controllers.FoodProductController.getAllProducts:125")));
+        assertTrue(VirtualThreadMonitorService.frames(null).isEmpty());
+    }
+}